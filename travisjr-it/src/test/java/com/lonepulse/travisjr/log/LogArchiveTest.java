@@ -0,0 +1,218 @@
+package com.lonepulse.travisjr.log;
+
+/*
+ * #%L
+ * Travis Jr. Integration Tests
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * <p>Unit test for {@link LogArchive}, which covers restoring archived logs, discarding 
+ * corrupt ones and evicting the least recently used logs across instances.
+ * 
+ * @category test
+ * <br><br>
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LogArchiveTest {
+
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	
+	/**
+	 * <p>Tests that an archived log is restored with the same content and lines.
+	 * 
+	 * @throws Exception
+	 * 			if the test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testRestore() throws Exception {
+		
+		LogArchive archive = new LogArchive(folder.newFolder("archive"), 1024 * 1024);
+		LogFile logFile = spool("log", createLog(2000, 1));
+		
+		assertTrue(archive.put(7, logFile));
+		assertTrue(archive.contains(7));
+		
+		LogFile restored = archive.restore(7, folder.newFile("restored"));
+		
+		assertNotNull(restored);
+		assertEquals(logFile.length(), restored.length());
+		assertEquals(logFile.getLineCount(), restored.getLineCount());
+		assertEquals(logFile.readLine(1234), restored.readLine(1234));
+		
+		InputStream is = archive.open(7);
+		
+		try {
+			
+			assertEquals('$', is.read());
+		}
+		finally {
+			
+			is.close();
+		}
+	}
+	
+	/**
+	 * <p>Tests that a log which is not archived is not restored.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testRestoreAbsent() throws Exception {
+		
+		LogArchive archive = new LogArchive(folder.newFolder("archive"), 1024 * 1024);
+		
+		assertFalse(archive.contains(7));
+		assertNull(archive.restore(7, folder.newFile("restored")));
+	}
+	
+	/**
+	 * <p>Tests that a corrupt or truncated log is discarded rather than restored.
+	 * 
+	 * @throws Exception
+	 * 			if the test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testDiscardCorrupt() throws Exception {
+		
+		File directory = folder.newFolder("archive");
+		LogArchive archive = new LogArchive(directory, 1024 * 1024);
+		
+		archive.put(7, spool("seven", createLog(2000, 1)));
+		archive.put(8, spool("eight", createLog(2000, 2)));
+		
+		RandomAccessFile header = new RandomAccessFile(new File(directory, "7.z"), "rw");
+		
+		try {
+			
+			header.writeInt(0);
+		}
+		finally {
+			
+			header.close();
+		}
+		
+		File truncated = new File(directory, "8.z");
+		RandomAccessFile content = new RandomAccessFile(truncated, "rw");
+		
+		try {
+			
+			content.setLength(truncated.length() / 2);
+		}
+		finally {
+			
+			content.close();
+		}
+		
+		assertNull(archive.restore(7, folder.newFile("seven-restored")));
+		assertFalse(archive.contains(7));
+		
+		assertNull(archive.restore(8, folder.newFile("eight-restored")));
+		assertFalse(archive.contains(8));
+		assertFalse(truncated.exists());
+	}
+	
+	/**
+	 * <p>Tests that the least recently used logs are evicted once the budget is exceeded, 
+	 * and that the order of use survives a new instance over the same directory.
+	 * 
+	 * @throws Exception
+	 * 			if the test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testEvictLeastRecentlyUsed() throws Exception {
+		
+		File directory = folder.newFolder("archive");
+		LogArchive archive = new LogArchive(directory, 1024 * 1024);
+		
+		for (int i = 1; i <= 3; i++) {
+			
+			archive.put(i, spool("log" + i, createLog(2000, i)));
+		}
+		
+		long archived = new File(directory, "1.z").length();
+		
+		archive.open(1).close(); //1 is used after 2 and 3
+		
+		archive = new LogArchive(directory, archived * 3 + archived / 2);
+		archive.put(4, spool("log4", createLog(2000, 4)));
+		
+		assertFalse(archive.contains(2));
+		assertTrue(archive.contains(3));
+		assertTrue(archive.contains(1));
+		assertTrue(archive.contains(4));
+		
+		archive.open(3).close();
+		archive.put(5, spool("log5", createLog(2000, 5)));
+		
+		assertFalse(archive.contains(1));
+		assertTrue(archive.contains(3));
+		assertTrue(archive.contains(4));
+		assertTrue(archive.contains(5));
+	}
+	
+	private LogFile spool(String name, byte[] content) throws IOException {
+		
+		return LogFile.spool(new ByteArrayInputStream(content), folder.newFile(name));
+	}
+	
+	private static byte[] createLog(int lines, long seed) {
+		
+		Random random = new Random(seed);
+		StringBuilder builder = new StringBuilder();
+		
+		for (int i = 0; i < lines; i++) {
+			
+			builder.append("$ bundle exec rake spec ").append(i).append(' ')
+				.append(Long.toHexString(random.nextLong())).append('\n');
+		}
+		
+		return builder.toString().getBytes();
+	}
+}
@@ -0,0 +1,222 @@
+package com.lonepulse.travisjr.log;
+
+/*
+ * #%L
+ * Travis Jr. Integration Tests
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import android.graphics.Typeface;
+import android.text.Spanned;
+import android.text.style.BackgroundColorSpan;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+import android.text.style.UnderlineSpan;
+
+/**
+ * <p>Unit test for {@link LogRenderer}, which covers the <i>SGR</i> escape sequences, carriage 
+ * returns, the <i>erase in line</i> sequence and the omission of Travis CI markers.
+ * 
+ * @category test
+ * <br><br>
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LogRendererTest {
+
+	
+	private static final String ESC = "\u001B[";
+	
+	/**
+	 * <p>A fresh {@link LogRenderer} for each test.
+	 */
+	private LogRenderer renderer;
+
+	
+	/**
+	 * <p>Sets up the test by creating a {@link LogRenderer}.
+	 * 
+	 * @throws Exception
+	 * 			if set up terminated with an error
+	 */
+	@Before
+	public final void setUp() throws Exception {
+		
+		renderer = new LogRenderer();
+	}
+	
+	/**
+	 * <p>Tests that a line without escape sequences is rendered as it is, without any spans.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testPlainText() {
+		
+		Spanned rendered = render("$ git clone --depth=50 git://github.com/sahan/IckleBot.git");
+		
+		assertEquals("$ git clone --depth=50 git://github.com/sahan/IckleBot.git", rendered.toString());
+		assertEquals(0, rendered.getSpans(0, rendered.length(), Object.class).length);
+	}
+	
+	/**
+	 * <p>Tests that the basic and bright colors of <i>SGR</i> are applied up to a reset.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testSgrColors() {
+		
+		Spanned rendered = render(ESC + "31mfailed" + ESC + "0m and " + ESC + "92;44mpassed" + ESC + "39m!");
+		
+		assertEquals("failed and passed!", rendered.toString());
+		
+		ForegroundColorSpan[] foregrounds = rendered.getSpans(0, rendered.length(), ForegroundColorSpan.class);
+		
+		assertEquals(2, foregrounds.length);
+		assertSpan(rendered, foregrounds[0], 0, 6);
+		assertEquals(0xFFCD3131, foregrounds[0].getForegroundColor());
+		assertSpan(rendered, foregrounds[1], 11, 17);
+		assertEquals(0xFF23D18B, foregrounds[1].getForegroundColor());
+		
+		assertEquals(0, rendered.getSpans(0, 11, BackgroundColorSpan.class).length);
+		
+		for (int i = 11; i < 18; i++) {
+			
+			BackgroundColorSpan[] backgrounds = rendered.getSpans(i, i + 1, BackgroundColorSpan.class);
+			
+			assertEquals(1, backgrounds.length);
+			assertEquals(0xFF2472C8, backgrounds[0].getBackgroundColor());
+		}
+	}
+	
+	/**
+	 * <p>Tests the colors of the 256 color xterm palette, from its color cube and its greys.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testSgrExtendedColors() {
+		
+		Spanned rendered = render(ESC + "38;5;196;48;5;232mX");
+		
+		assertEquals("X", rendered.toString());
+		assertEquals(0xFFFF0000, rendered.getSpans(0, 1, ForegroundColorSpan.class)[0].getForegroundColor());
+		assertEquals(0xFF080808, rendered.getSpans(0, 1, BackgroundColorSpan.class)[0].getBackgroundColor());
+	}
+	
+	/**
+	 * <p>Tests that bold, italic and underline are applied and cleared independently.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testSgrAttributes() {
+		
+		Spanned rendered = render(ESC + "1;4mA" + ESC + "22mB" + ESC + "24;3mC" + ESC + "mD");
+		
+		assertEquals("ABCD", rendered.toString());
+		
+		StyleSpan[] styles = rendered.getSpans(0, rendered.length(), StyleSpan.class);
+		
+		assertEquals(2, styles.length);
+		assertSpan(rendered, styles[0], 0, 1);
+		assertEquals(Typeface.BOLD, styles[0].getStyle());
+		assertSpan(rendered, styles[1], 2, 3);
+		assertEquals(Typeface.ITALIC, styles[1].getStyle());
+		
+		UnderlineSpan[] underlines = rendered.getSpans(0, rendered.length(), UnderlineSpan.class);
+		
+		assertEquals(2, underlines.length);
+		assertSpan(rendered, underlines[0], 0, 1);
+		assertSpan(rendered, underlines[1], 1, 2);
+	}
+	
+	/**
+	 * <p>Tests that a carriage return moves the cursor back so that the following output 
+	 * overwrites the line, as progress indicators do.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testCarriageReturn() {
+		
+		assertEquals("Receiving objects: 100%", render("Receiving objects:  42%\rReceiving objects: 100%").toString());
+		assertEquals("XYcdef", render("abcdef\rXY").toString());
+		assertEquals("abcdef", render("abcdef\r").toString());
+	}
+	
+	/**
+	 * <p>Tests that <i>erase in line</i> clears from the cursor to the end of the line, or the 
+	 * entire line, whether it precedes or follows the overwriting output.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testEraseInLine() {
+		
+		assertEquals("XY", render("abcdef\r" + ESC + "KXY").toString());
+		assertEquals("XY", render("abcdef\r" + ESC + "0KXY").toString());
+		assertEquals("XY", render("abcdef\rXY" + ESC + "K").toString());
+		assertEquals("xy", render("abc" + ESC + "2Kxy").toString());
+	}
+	
+	/**
+	 * <p>Tests that the fold and timing markers of Travis CI are omitted along with the 
+	 * sequences which follow them.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testMarkersOmitted() {
+		
+		assertEquals("$ bundle install", render("travis_fold:start:install\r" + ESC + "0K$ bundle install").toString());
+		assertEquals("", render("travis_time:end:0d2e:start=1,finish=2,duration=1\r" + ESC + "0K").toString());
+	}
+	
+	/**
+	 * <p>Tests that tabs are expanded to the next multiple of eight columns.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testTabs() {
+		
+		assertEquals("a       b", render("a\tb").toString());
+	}
+	
+	private Spanned render(String line) {
+		
+		return (Spanned)renderer.render(line);
+	}
+	
+	private static void assertSpan(Spanned spanned, Object span, int start, int end) {
+		
+		assertEquals(start, spanned.getSpanStart(span));
+		assertEquals(end, spanned.getSpanEnd(span));
+	}
+}
@@ -0,0 +1,273 @@
+package com.lonepulse.travisjr.log;
+
+/*
+ * #%L
+ * Travis Jr. Integration Tests
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <p>Unit test for the fold and failure indexing of {@link MarkerIndex}. The index is fed the 
+ * lines of a build log directly, so no Android runtime is required.
+ * 
+ * @category test
+ * <br><br>
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class MarkerIndexTest {
+
+	
+	private static final String ERASE = "\u001B[0K";
+	
+	/**
+	 * <p>A fresh {@link MarkerIndex} for each test.
+	 */
+	private MarkerIndex index;
+	
+	/**
+	 * <p>The index of the next line which is scanned.
+	 */
+	private int line;
+	
+	/**
+	 * <p>The byte offset at which the next line which is scanned begins.
+	 */
+	private long offset;
+
+	
+	/**
+	 * <p>Sets up the test by creating an empty {@link MarkerIndex}.
+	 * 
+	 * @throws Exception
+	 * 			if set up terminated with an error
+	 */
+	@Before
+	public final void setUp() throws Exception {
+		
+		index = new MarkerIndex();
+		line = 0;
+		offset = 0;
+	}
+	
+	/**
+	 * <p>Tests that nested folds are indexed in the order of their start lines with their depth, 
+	 * lines and byte offsets.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testNestedFolds() {
+		
+		scan("travis_fold:start:install\r" + ERASE + "$ bundle install", //0, at 0
+			 "Fetching gem metadata from https://rubygems.org/", //1, at 47
+			 "travis_fold:start:bundler\r" + ERASE, //2, at 96
+			 "Installing rake (10.1.0)", //3, at 127
+			 "travis_fold:end:bundler\r" + ERASE, //4, at 152
+			 "travis_fold:end:install\r" + ERASE, //5, at 181
+			 "$ bundle exec rake"); //6, at 210
+		
+		List<Fold> folds = index.getFolds();
+		
+		assertEquals(2, folds.size());
+		assertFold(folds.get(0), "install", 0, 0, 0L, 5, 210L);
+		assertFold(folds.get(1), "bundler", 1, 2, 96L, 4, 181L);
+	}
+	
+	/**
+	 * <p>Tests that a fold remains open until its end marker is seen and that ending an outer 
+	 * fold also ends the folds within it which were left open.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testUnterminatedFolds() {
+		
+		scan("travis_fold:start:before_install\r" + ERASE,
+			 "travis_fold:start:apt\r" + ERASE,
+			 "travis_fold:end:unknown\r" + ERASE);
+		
+		List<Fold> folds = index.getFolds();
+		
+		assertFalse(folds.get(0).isClosed());
+		assertFalse(folds.get(1).isClosed());
+		assertEquals(-1, folds.get(0).getEndLine());
+		assertEquals(-1L, folds.get(0).getEndOffset());
+		
+		scan("travis_fold:end:before_install\r" + ERASE);
+		
+		assertEquals(3, folds.get(0).getEndLine());
+		assertEquals(3, folds.get(1).getEndLine());
+		assertEquals(folds.get(0).getEndOffset(), folds.get(1).getEndOffset());
+	}
+	
+	/**
+	 * <p>Tests that the durations of the timed commands within a fold are added to the 
+	 * innermost open fold, while those outside of any fold are ignored.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testDurations() {
+		
+		scan("travis_time:end:0a1b:start=1381996800,finish=1381996801,duration=5000\r" + ERASE,
+			 "travis_fold:start:install\r" + ERASE,
+			 "travis_time:start:1b2c\r" + ERASE + "$ bundle install",
+			 "travis_time:end:1b2c:start=1381996800,finish=1381996802,duration=2000000\r" + ERASE,
+			 "travis_time:end:2c3d:start=1381996802,finish=1381996803,duration=1000000\r" + ERASE,
+			 "travis_fold:end:install\r" + ERASE,
+			 "travis_fold:start:cache\r" + ERASE,
+			 "travis_fold:end:cache\r" + ERASE);
+		
+		List<Fold> folds = index.getFolds();
+		
+		assertEquals(3000000L, folds.get(0).getDuration());
+		assertEquals(-1L, folds.get(1).getDuration());
+	}
+	
+	/**
+	 * <p>Tests that the lines which report a command which exited with a non-zero status are 
+	 * found in order, beyond the initial capacity of the index.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testErrors() {
+		
+		scan("The command \"bundle install\" exited with 0.");
+		
+		for (int i = 0; i < 40; i++) {
+			
+			scan("$ rake spec", "The command \"rake spec\" exited with " + (1 + i % 9) + ".");
+		}
+		
+		assertEquals(2, index.findError(0));
+		assertEquals(2, index.findError(2));
+		assertEquals(4, index.findError(3));
+		assertEquals(80, index.findError(80));
+		assertEquals(-1, index.findError(81));
+	}
+	
+	/**
+	 * <p>Tests that only the inspected head of a line is searched for markers.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testHeadOnly() {
+		
+		byte[] head = ascii("travis_fold:start:install");
+		
+		index.scanLine(0, 0, head.length + 1, head, "travis_fold:start".length());
+		index.scanLine(1, head.length + 1, head.length + 2, head, 0);
+		
+		assertTrue(index.getFolds().isEmpty());
+	}
+	
+	/**
+	 * <p>Tests that the indexed markers, including open folds, survive being written and read 
+	 * back, and that an open fold which was read back can still be closed.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testWriteAndRead() throws Exception {
+		
+		scan("travis_fold:start:install\r" + ERASE,
+			 "travis_time:end:1b2c:start=1381996800,finish=1381996802,duration=2000000\r" + ERASE,
+			 "travis_fold:end:install\r" + ERASE,
+			 "The command \"rake\" exited with 1.",
+			 "travis_fold:start:after_failure\r" + ERASE);
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		index.write(new DataOutputStream(bytes));
+		
+		MarkerIndex restored = new MarkerIndex();
+		restored.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		
+		List<Fold> folds = restored.getFolds();
+		
+		assertEquals(2, folds.size());
+		assertFold(folds.get(0), "install", 0, 0, 0L, 2, index.getFolds().get(0).getEndOffset());
+		assertEquals(2000000L, folds.get(0).getDuration());
+		assertFalse(folds.get(1).isClosed());
+		assertEquals(3, restored.findError(0));
+		
+		byte[] end = ascii("travis_fold:end:after_failure");
+		restored.scanLine(5, 1000L, 1030L, end, end.length);
+		
+		assertEquals(5, folds.get(1).getEndLine());
+		assertEquals(1030L, folds.get(1).getEndOffset());
+	}
+	
+	/**
+	 * <p>Scans the given lines as they would be written, each followed by a line feed.
+	 */
+	private void scan(String... lines) {
+		
+		for (String text : lines) {
+			
+			byte[] head = ascii(text);
+			long end = offset + head.length + 1;
+			
+			index.scanLine(line++, offset, end, head, Math.min(head.length, MarkerIndex.MAX_HEAD_BYTES));
+			offset = end;
+		}
+	}
+	
+	private static void assertFold(Fold fold, String name, int depth, 
+		int startLine, long startOffset, int endLine, long endOffset) {
+		
+		assertEquals(name, fold.getName());
+		assertEquals(depth, fold.getDepth());
+		assertEquals(startLine, fold.getStartLine());
+		assertEquals(startOffset, fold.getStartOffset());
+		assertEquals(endLine, fold.getEndLine());
+		assertEquals(endOffset, fold.getEndOffset());
+		assertTrue(fold.isClosed());
+	}
+	
+	private static byte[] ascii(String text) {
+		
+		byte[] bytes = new byte[text.length()];
+		
+		for (int i = 0; i < bytes.length; i++) {
+			
+			bytes[i] = (byte)text.charAt(i);
+		}
+		
+		return bytes;
+	}
+}
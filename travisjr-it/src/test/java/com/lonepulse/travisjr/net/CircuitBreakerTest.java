@@ -0,0 +1,241 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr. Integration Tests
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import android.os.SystemClock;
+
+import com.lonepulse.travisjr.net.CircuitBreaker.State;
+
+/**
+ * <p>Unit test for the state machine of {@link CircuitBreaker}. Time is advanced with 
+ * {@link SystemClock#sleep(long)}, which moves the clock without blocking under Robolectric.
+ * 
+ * @category test
+ * <br><br>
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CircuitBreakerTest {
+
+	
+	private static final String HOST = "api.travis-ci.org";
+	
+	private static final int FAILURE_THRESHOLD = 3;
+	
+	private static final long OPEN_DURATION = 30000;
+	
+	/**
+	 * <p>A fresh {@link CircuitBreaker} for each test.
+	 */
+	private CircuitBreaker circuitBreaker;
+
+	
+	/**
+	 * <p>Sets up the test by creating a {@link CircuitBreaker} with its own circuits.
+	 * 
+	 * @throws Exception
+	 * 			if set up terminated with an error
+	 */
+	@Before
+	public final void setUp() throws Exception {
+		
+		circuitBreaker = new CircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION);
+	}
+	
+	/**
+	 * <p>Tests that a circuit stays closed below the failure threshold and opens once it is 
+	 * reached, after which requests are refused.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testOpensAtThreshold() throws Exception {
+		
+		assertEquals(State.CLOSED, circuitBreaker.getState(HOST));
+		
+		for (int i = 1; i < FAILURE_THRESHOLD; i++) {
+			
+			circuitBreaker.admit(HOST);
+			circuitBreaker.onFailure(HOST);
+			
+			assertEquals(State.CLOSED, circuitBreaker.getState(HOST));
+		}
+		
+		circuitBreaker.admit(HOST);
+		circuitBreaker.onFailure(HOST);
+		
+		assertEquals(State.OPEN, circuitBreaker.getState(HOST));
+		assertTrue(circuitBreaker.isOpen(HOST.toUpperCase()));
+		assertFalse(circuitBreaker.isOpen("github.com"));
+		
+		assertRefused();
+	}
+	
+	/**
+	 * <p>Tests that a success resets the count of consecutive failures.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testSuccessResetsFailures() throws Exception {
+		
+		for (int i = 1; i < FAILURE_THRESHOLD; i++) {
+			
+			circuitBreaker.onFailure(HOST);
+		}
+		
+		circuitBreaker.onSuccess(HOST);
+		
+		for (int i = 1; i < FAILURE_THRESHOLD; i++) {
+			
+			circuitBreaker.onFailure(HOST);
+		}
+		
+		assertEquals(State.CLOSED, circuitBreaker.getState(HOST));
+	}
+	
+	/**
+	 * <p>Tests that an open circuit turns half-open once its duration has passed and that it 
+	 * then admits a single trial, which closes the circuit if it succeeds.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testHalfOpenAdmitsSingleTrial() throws Exception {
+		
+		open();
+		
+		SystemClock.sleep(OPEN_DURATION - 1);
+		assertEquals(State.OPEN, circuitBreaker.getState(HOST));
+		
+		SystemClock.sleep(1);
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState(HOST));
+		
+		circuitBreaker.admit(HOST);
+		assertRefused();
+		
+		circuitBreaker.onSuccess(HOST);
+		
+		assertEquals(State.CLOSED, circuitBreaker.getState(HOST));
+		
+		circuitBreaker.admit(HOST);
+		circuitBreaker.admit(HOST);
+	}
+	
+	/**
+	 * <p>Tests that a half-open circuit whose trial fails is opened again for another duration.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testHalfOpenTrialFailure() throws Exception {
+		
+		open();
+		SystemClock.sleep(OPEN_DURATION);
+		
+		circuitBreaker.admit(HOST);
+		circuitBreaker.onFailure(HOST);
+		
+		assertEquals(State.OPEN, circuitBreaker.getState(HOST));
+		assertRefused();
+		
+		SystemClock.sleep(OPEN_DURATION);
+		
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState(HOST));
+	}
+	
+	/**
+	 * <p>Tests that an abandoned trial, e.g. one which was cancelled, frees the trial of a 
+	 * half-open circuit without counting as a failure.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testAbandonedTrial() throws Exception {
+		
+		open();
+		SystemClock.sleep(OPEN_DURATION);
+		
+		circuitBreaker.admit(HOST);
+		assertRefused();
+		
+		circuitBreaker.onAbandoned(HOST);
+		
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState(HOST));
+		
+		circuitBreaker.admit(HOST);
+		assertRefused();
+	}
+	
+	/**
+	 * <p>Opens the circuit of the test host with consecutive failures.
+	 */
+	private void open() {
+		
+		for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+			
+			circuitBreaker.onFailure(HOST);
+		}
+		
+		assertEquals(State.OPEN, circuitBreaker.getState(HOST));
+	}
+	
+	/**
+	 * <p>Asserts that a request to the test host is refused.
+	 */
+	private void assertRefused() {
+		
+		try {
+			
+			circuitBreaker.admit(HOST);
+			fail("A request was admitted to " + HOST);
+		}
+		catch(CircuitOpenException coe) {}
+	}
+}
@@ -0,0 +1,435 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr. Integration Tests
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.RequestWrapper;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import com.lonepulse.travisjr.net.CircuitBreaker.State;
+
+/**
+ * <p>Unit test for the retry policy of {@link ResilientHttpClient}. Requests are executed by a 
+ * scripted {@link HttpClient}, so that no request reaches the network, and retries are not 
+ * delayed.
+ * 
+ * @category test
+ * <br><br>
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ResilientHttpClientTest {
+
+	
+	private static final String URI = "https://api.travis-ci.org/repos/sahan/IckleBot";
+	
+	private static final String HOST = "api.travis-ci.org";
+	
+	private static final int RETRY_MAX = 2;
+	
+	/**
+	 * <p>Hosts the {@link ValidatorCache} of the test of an evicted <b>304</b>.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	/**
+	 * <p>The scripted {@link HttpClient} which is guarded.
+	 */
+	private ScriptedHttpClient scriptedHttpClient;
+	
+	/**
+	 * <p>The {@link CircuitBreaker} of the client.
+	 */
+	private CircuitBreaker circuitBreaker;
+	
+	/**
+	 * <p>The {@link ResilientHttpClient} under test.
+	 */
+	private ResilientHttpClient httpClient;
+	
+	
+	/**
+	 * <p>A single scripted outcome of a request; either a response or an I/O error.
+	 */
+	private static interface Outcome {
+		
+		HttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException;
+	}
+	
+	/**
+	 * <p>An {@link HttpClient} which answers each request with the next scripted {@link Outcome} 
+	 * and records the number of requests.
+	 */
+	private static final class ScriptedHttpClient implements HttpClient {
+		
+		private final LinkedList<Outcome> outcomes = new LinkedList<Outcome>();
+		
+		private int requests;
+		
+		@Override
+		public HttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+			
+			requests++;
+			
+			if(outcomes.isEmpty()) {
+				
+				fail("No more requests were expected.");
+			}
+			
+			return outcomes.removeFirst().execute(request, context);
+		}
+		
+		@Override
+		public HttpResponse execute(HttpUriRequest request) throws IOException {
+			
+			return execute(request, (HttpContext)null);
+		}
+		
+		@Override
+		public HttpResponse execute(HttpHost target, HttpRequest request) {
+			
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public HttpResponse execute(HttpHost target, HttpRequest request, HttpContext context) {
+			
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler) {
+			
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler, HttpContext context) {
+			
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler) {
+			
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler, 
+			HttpContext context) {
+			
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public HttpParams getParams() {
+			
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public ClientConnectionManager getConnectionManager() {
+			
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+	
+	/**
+	 * <p>Sets up the test by guarding a {@link ScriptedHttpClient} with a circuit which does not 
+	 * open within a single request and a retry policy without delays.
+	 * 
+	 * @throws Exception
+	 * 			if set up terminated with an error
+	 */
+	@Before
+	public final void setUp() throws Exception {
+		
+		scriptedHttpClient = new ScriptedHttpClient();
+		circuitBreaker = new CircuitBreaker(RETRY_MAX + 2, 30000);
+		httpClient = new ResilientHttpClient(scriptedHttpClient, circuitBreaker, RETRY_MAX, 0, 0);
+	}
+	
+	/**
+	 * <p>Tests that a <b>GET</b> which fails with an I/O error or a <b>503</b> is retried until 
+	 * it succeeds.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testRetriesIdempotent() throws Exception {
+		
+		script(failure(), status(503), status(200));
+		
+		assertEquals(200, httpClient.execute(new HttpGet(URI)).getStatusLine().getStatusCode());
+		assertEquals(3, scriptedHttpClient.requests);
+		assertEquals(State.CLOSED, circuitBreaker.getState(HOST));
+	}
+	
+	/**
+	 * <p>Tests that a <b>GET</b> is given up on once it has been retried as often as allowed.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testRetriesExhausted() throws Exception {
+		
+		script(status(503), status(503), status(503));
+		
+		assertEquals(503, httpClient.execute(new HttpGet(URI)).getStatusLine().getStatusCode());
+		assertEquals(RETRY_MAX + 1, scriptedHttpClient.requests);
+	}
+	
+	/**
+	 * <p>Tests that a <b>POST</b> which fails with an I/O error is not retried.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testNoRetryForNonIdempotentFailure() throws Exception {
+		
+		script(failure(), status(200));
+		
+		try {
+			
+			httpClient.execute(new HttpPost(URI));
+			fail("The failure of a POST was not passed on.");
+		}
+		catch(IOException ioe) {}
+		
+		assertEquals(1, scriptedHttpClient.requests);
+	}
+	
+	/**
+	 * <p>Tests that a <b>POST</b> which is answered with a <b>503</b> is not retried.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testNoRetryForNonIdempotentUnavailable() throws Exception {
+		
+		script(status(503), status(200));
+		
+		assertEquals(503, httpClient.execute(new HttpPost(URI)).getStatusLine().getStatusCode());
+		assertEquals(1, scriptedHttpClient.requests);
+	}
+	
+	/**
+	 * <p>Tests that a <b>GET</b> which failed because its {@link Cancellation} was cancelled is 
+	 * neither retried nor counted against the circuit of its host.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testNoRetryAfterCancellation() throws Exception {
+		
+		circuitBreaker = new CircuitBreaker(1, 30000); //would open if the failure were counted
+		httpClient = new ResilientHttpClient(scriptedHttpClient, circuitBreaker, RETRY_MAX, 0, 0);
+		
+		final Cancellation cancellation = new Cancellation();
+		
+		script(new Outcome() {
+			
+			@Override
+			public HttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+				
+				cancellation.cancel();
+				throw new IOException("Connection aborted.");
+			}
+			
+		}, status(200));
+		
+		Cancellation previous = cancellation.bind();
+		
+		try {
+			
+			httpClient.execute(new HttpGet(URI));
+			fail("The failure of a cancelled GET was not passed on.");
+		}
+		catch(IOException ioe) {}
+		finally {
+			
+			Cancellation.restore(previous);
+		}
+		
+		assertEquals(1, scriptedHttpClient.requests);
+		assertEquals(State.CLOSED, circuitBreaker.getState(HOST));
+	}
+	
+	/**
+	 * <p>Tests that a <b>304</b> whose stored response was evicted by the {@link ValidatorCache} 
+	 * is not passed on, and that the request is re-issued once without validators.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testEvictedNotModified() throws Exception {
+		
+		final ValidatorCache validatorCache = new ValidatorCache(new File(folder.getRoot(), "http"), 1024, 4096);
+		final List<Boolean> validated = new ArrayList<Boolean>();
+		
+		Outcome origin = new Outcome() {
+			
+			@Override
+			public HttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+				
+				try {
+					
+					RequestWrapper wrapper = new RequestWrapper(request); //headers are added to a copy
+					validatorCache.process(wrapper, context);
+					
+					boolean conditional = wrapper.containsHeader("If-None-Match");
+					validated.add(Boolean.valueOf(conditional));
+					
+					HttpResponse response;
+					
+					if(conditional) {
+						
+						validatorCache.clear(); //evicted while the request was in flight
+						response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 304, "Not Modified");
+					}
+					else {
+						
+						StringEntity entity = new StringEntity("{\"id\":435658}", "UTF-8");
+						entity.setContentType("application/json");
+						
+						response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+						response.setHeader("ETag", "\"8432801\"");
+						response.setEntity(entity);
+					}
+					
+					validatorCache.process(response, context);
+					
+					return response;
+				}
+				catch(HttpException he) {
+					
+					throw new IOException(he.getMessage());
+				}
+			}
+		};
+		
+		script(origin, origin, origin);
+		
+		HttpResponse response = httpClient.execute(new HttpGet(URI));
+		EntityUtils.toString(response.getEntity()); //stores the response and its validators
+		
+		response = httpClient.execute(new HttpGet(URI), new BasicHttpContext());
+		
+		assertEquals(200, response.getStatusLine().getStatusCode());
+		assertEquals("{\"id\":435658}", EntityUtils.toString(response.getEntity()));
+		
+		assertEquals(3, scriptedHttpClient.requests);
+		assertFalse(validated.get(0).booleanValue());
+		assertTrue(validated.get(1).booleanValue());
+		assertFalse(validated.get(2).booleanValue());
+	}
+	
+	/**
+	 * <p>Queues the given outcomes to be answered in order.
+	 */
+	private void script(Outcome... outcomes) {
+		
+		for (Outcome outcome : outcomes) {
+			
+			scriptedHttpClient.outcomes.add(outcome);
+		}
+	}
+	
+	private static Outcome status(final int status) {
+		
+		return new Outcome() {
+			
+			@Override
+			public HttpResponse execute(HttpUriRequest request, HttpContext context) {
+				
+				return new BasicHttpResponse(HttpVersion.HTTP_1_1, status, null);
+			}
+		};
+	}
+	
+	private static Outcome failure() {
+		
+		return new Outcome() {
+			
+			@Override
+			public HttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+				
+				throw new IOException("Connection reset.");
+			}
+		};
+	}
+}
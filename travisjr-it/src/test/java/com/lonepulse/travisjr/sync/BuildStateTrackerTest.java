@@ -0,0 +1,205 @@
+package com.lonepulse.travisjr.sync;
+
+/*
+ * #%L
+ * Travis Jr. Integration Tests
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lonepulse.travisjr.model.Repo;
+import com.lonepulse.travisjr.sync.BuildStateTracker.Transition;
+import com.lonepulse.travisjr.util.BuildState;
+
+/**
+ * <p>Unit test for the transition table of {@link BuildStateTracker}. The tracker under test 
+ * is not persistent, so no Android runtime is required.
+ * 
+ * @category test
+ * <br><br>
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class BuildStateTrackerTest {
+
+	
+	private static final Short PASSED = Short.valueOf((short)0);
+	
+	private static final Short FAILED = Short.valueOf((short)1);
+	
+	/**
+	 * <p>A fresh, in-memory {@link BuildStateTracker} for each test.
+	 */
+	private BuildStateTracker tracker;
+
+	
+	/**
+	 * <p>Sets up the test by creating a {@link BuildStateTracker} without persistence.
+	 * 
+	 * @throws Exception
+	 * 			if set up terminated with an error
+	 */
+	@Before
+	public final void setUp() throws Exception {
+		
+		tracker = new BuildStateTracker(false);
+	}
+	
+	/**
+	 * <p>Tests that a repository which is seen for the first time only establishes a baseline.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testBaseline() {
+		
+		assertTrue(track(repo(1, "10", FAILED)).isEmpty());
+		assertTrue(track(repo(2, "20", PASSED)).isEmpty());
+		assertTrue(track(repo(3, "30", null)).isEmpty());
+	}
+	
+	/**
+	 * <p>Tests that a passing repository whose next build fails reports <i>PASSED&rarr;FAILED</i>.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testPassedToFailed() {
+		
+		track(repo(1, "10", PASSED));
+		
+		List<Transition> transitions = track(repo(1, "11", FAILED));
+		
+		assertEquals(1, transitions.size());
+		assertSame(BuildState.PASSED, transitions.get(0).getFrom());
+		assertSame(BuildState.FAILED, transitions.get(0).getTo());
+	}
+	
+	/**
+	 * <p>Tests that a failing repository whose next build passes reports <i>FAILED&rarr;PASSED</i>, 
+	 * even if that build was seen running in between.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testFailedToPassed() {
+		
+		track(repo(1, "10", FAILED));
+		
+		assertTrue(track(repo(1, "11", null)).isEmpty());
+		
+		List<Transition> transitions = track(repo(1, "11", PASSED));
+		
+		assertEquals(1, transitions.size());
+		assertSame(BuildState.FAILED, transitions.get(0).getFrom());
+		assertSame(BuildState.PASSED, transitions.get(0).getTo());
+	}
+	
+	/**
+	 * <p>Tests that a build which is first seen running and then passes is not reported, 
+	 * since there is no settled state to compare it against.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testOngoingToPassedSuppressed() {
+		
+		track(repo(1, "10", null));
+		
+		assertTrue(track(repo(1, "10", PASSED)).isEmpty());
+	}
+	
+	/**
+	 * <p>Tests that a failing repository whose next build is seen running and then fails 
+	 * again reports <i>FAILED&rarr;FAILED</i>.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testRunningToFailedAgain() {
+		
+		track(repo(1, "10", FAILED));
+		track(repo(1, "11", null));
+		
+		List<Transition> transitions = track(repo(1, "11", FAILED));
+		
+		assertEquals(1, transitions.size());
+		assertSame(BuildState.FAILED, transitions.get(0).getFrom());
+		assertSame(BuildState.FAILED, transitions.get(0).getTo());
+	}
+	
+	/**
+	 * <p>Tests that a failing repository whose next build fails without ever being seen 
+	 * running is not reported again.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testFailedToFailedUnseen() {
+		
+		track(repo(1, "10", FAILED));
+		
+		assertTrue(track(repo(1, "11", FAILED)).isEmpty());
+	}
+	
+	/**
+	 * <p>Tests that feeding the same build with the same state is not reported, however 
+	 * often it is fed.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testUnchangedBuild() {
+		
+		track(repo(1, "10", PASSED));
+		track(repo(1, "11", FAILED));
+		
+		assertTrue(track(repo(1, "11", FAILED)).isEmpty());
+		assertTrue(track(repo(1, "11", FAILED)).isEmpty());
+	}
+	
+	private List<Transition> track(Repo repo) {
+		
+		return tracker.track(Collections.singletonList(repo));
+	}
+	
+	/**
+	 * <p>Creates a {@link Repo} whose last build has the given id and status, where a 
+	 * {@code null} status is a build which is still running.
+	 */
+	private static Repo repo(long id, String lastBuildId, Short lastBuildStatus) {
+		
+		Repo repo = new Repo();
+		
+		repo.setId(id);
+		repo.setLast_build_id(lastBuildId);
+		repo.setLast_build_status(lastBuildStatus);
+		
+		return repo;
+	}
+}
@@ -21,11 +21,11 @@ package com.lonepulse.travisjr.test;
  */
 
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -38,9 +38,10 @@ import org.junit.runner.RunWith;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 
+import com.lonepulse.travisjr.log.JobLog;
+import com.lonepulse.travisjr.log.LogFile;
 import com.lonepulse.travisjr.model.Build;
 import com.lonepulse.travisjr.model.BuildInfo;
-import com.lonepulse.travisjr.model.BuildJob;
 import com.lonepulse.travisjr.service.BasicBuildService;
 import com.lonepulse.travisjr.service.BuildService;
 
@@ -158,19 +159,36 @@ public class BuildServiceTest {
 		final String repo = "IckleBot";
 		final long buildId = 8432801;
 		
-		Future<Map<BuildJob, StringBuilder>> future = executorService.submit(
-		new Callable<Map<BuildJob, StringBuilder>>() {
+		Future<List<JobLog>> future = executorService.submit(
+		new Callable<List<JobLog>>() {
 			
-				public Map<BuildJob, StringBuilder> call() throws Exception {
+				public List<JobLog> call() throws Exception {
 	
 					BuildInfo buildInfo = buildService.getBuildInfo(owner, repo, buildId);
-					return buildService.getJobLogs(buildInfo);
+					List<JobLog> jobLogs = buildService.getJobLogs(buildInfo);
+					
+					for (JobLog jobLog : jobLogs) {
+						
+						assertFalse(jobLog.isFetched());
+						buildService.fetchJobLog(jobLog);
+					}
+					
+					return jobLogs;
 				}
 		});
 		
-		Map<BuildJob, StringBuilder> jobLogs = future.get();
+		List<JobLog> jobLogs = future.get();
 		assertNotNull(jobLogs);
-		assertTrue(jobLogs.entrySet().size() > 0);
+		assertTrue(jobLogs.size() > 0);
+		
+		for (JobLog jobLog : jobLogs) {
+			
+			LogFile logFile = jobLog.getLogFile();
+			
+			assertTrue(jobLog.isFetched());
+			assertTrue(logFile.getLineCount() > 0);
+			assertNotNull(logFile.readLine(logFile.getLineCount() - 1));
+		}
 	}
 	
 	/**
@@ -0,0 +1,136 @@
+package com.lonepulse.travisjr.test;
+
+/*
+ * #%L
+ * Travis Jr. Integration Tests
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lonepulse.travisjr.util.DateUtils;
+
+/**
+ * <p>Unit test for {@link DateUtils}.
+ * 
+ * @category test
+ * <br><br>
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class DateUtilsTest {
+
+	
+	/**
+	 * <p>The default {@link Locale} of the JVM, which is restored after each test.
+	 */
+	private Locale locale;
+	
+	/**
+	 * <p>The default {@link TimeZone} of the JVM, which is restored after each test.
+	 */
+	private TimeZone timeZone;
+	
+	/**
+	 * <p>Noon on the 18th of October 2013 in UTC.
+	 */
+	private long millis;
+
+	
+	/**
+	 * <p>Sets up the test by pinning the default {@link TimeZone} to UTC and parsing {@link #millis}.
+	 * 
+	 * @throws Exception
+	 * 			if set up terminated with an error
+	 */
+	@Before
+	public final void setUp() throws Exception {
+		
+		locale = Locale.getDefault();
+		timeZone = TimeZone.getDefault();
+		
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		millis = DateUtils.parseISO8601("2013-10-18T12:00:00Z");
+	}
+	
+	/**
+	 * <p>Restores the default {@link Locale} and {@link TimeZone}.
+	 */
+	@After
+	public final void tearDown() {
+		
+		Locale.setDefault(locale);
+		TimeZone.setDefault(timeZone);
+	}
+	
+	/**
+	 * <p>Test for {@link DateUtils#formatMonthDayForDisplay(long)} and 
+	 * {@link DateUtils#formatYearForDisplay(long)} with a locale which separates 
+	 * the year with a comma.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testMonthDayAndYear() {
+		
+		Locale.setDefault(Locale.US);
+		
+		assertEquals("October 18", DateUtils.formatMonthDayForDisplay(millis));
+		assertEquals("2013", DateUtils.formatYearForDisplay(millis));
+	}
+	
+	/**
+	 * <p>Test for {@link DateUtils#formatMonthDayForDisplay(long)} with a locale whose date 
+	 * format has no comma, in which case the entire date is shown rather than nothing.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testMonthDayWithoutSeparator() {
+		
+		Locale.setDefault(Locale.GERMANY);
+		
+		String monthDay = DateUtils.formatMonthDayForDisplay(millis);
+		
+		assertFalse(monthDay.isEmpty());
+		assertEquals(DateUtils.formatDateForDisplay(millis), monthDay);
+		assertEquals("", DateUtils.formatYearForDisplay(millis));
+	}
+	
+	/**
+	 * <p>Test for {@link DateUtils#formatMonthDayForDisplay(long)} with an instant which 
+	 * could not be parsed.
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testNoTimestamp() {
+		
+		assertEquals("", DateUtils.formatMonthDayForDisplay(DateUtils.NO_TIMESTAMP));
+		assertEquals("", DateUtils.formatMonthDayForDisplay((String)null));
+	}
+}
@@ -0,0 +1,268 @@
+package com.lonepulse.travisjr.test;
+
+/*
+ * #%L
+ * Travis Jr. Integration Tests
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLog;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.lonepulse.travisjr.model.Build;
+import com.lonepulse.travisjr.model.ModelCodec;
+import com.lonepulse.travisjr.model.Repo;
+
+/**
+ * <p>Benchmarks the encoding and decoding time and the encoded size of a typical set of 
+ * {@link Repo}s with the {@link ModelCodec} against default serialization of the same fields 
+ * and against their JSON representation.
+ * 
+ * <p>The benchmark is not a part of the regular test suite, which only runs the classes named 
+ * <i>*Test</i>. Run it on demand with {@code mvn test -Dtest=ModelCodecBenchmark}; the results 
+ * are logged to the standard output.
+ * 
+ * @category test
+ * <br><br>
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ModelCodecBenchmark {
+
+	
+	/**
+	 * <p>The tag under which the results of the benchmark are logged.
+	 */
+	private static final String TAG = ModelCodecBenchmark.class.getSimpleName();
+	
+	/**
+	 * <p>The number of times each benchmarked operation is repeated.
+	 */
+	private static final int ITERATIONS = 200;
+	
+	/**
+	 * <p>Serializes the {@link Repo}s to JSON.
+	 */
+	private Gson gson;
+	
+	/**
+	 * <p>A set of 50 {@link Repo}s with 25 {@link Build}s each.
+	 */
+	private ArrayList<Repo> repos;
+	
+	
+	/**
+	 * <p>The fields of a {@link Repo} as they were written by default serialization before 
+	 * the models delegated to the {@link ModelCodec}.
+	 */
+	private static final class LegacyRepo implements Serializable {
+		
+		private static final long serialVersionUID = 6970742314687312453L;
+		
+		private long id;
+		private String slug, description, last_build_id;
+		private Long last_build_number;
+		private Short last_build_status, last_build_result;
+		private Integer last_build_duration;
+		private String last_build_language, last_build_started_at, last_build_finished_at;
+		private List<LegacyBuild> builds = new ArrayList<LegacyBuild>();
+		
+		private LegacyRepo(Repo repo) {
+			
+			id = repo.getId();
+			slug = repo.getSlug();
+			description = repo.getDescription();
+			last_build_id = repo.getLast_build_id();
+			last_build_number = repo.getLast_build_number();
+			last_build_status = repo.getLast_build_status();
+			last_build_result = repo.getLast_build_result();
+			last_build_duration = repo.getLast_build_duration();
+			last_build_language = repo.getLast_build_language();
+			last_build_started_at = repo.getLast_build_started_at();
+			last_build_finished_at = repo.getLast_build_finished_at();
+			
+			for (Build build : repo.getBuilds()) {
+				
+				builds.add(new LegacyBuild(build));
+			}
+		}
+	}
+	
+	/**
+	 * <p>The fields of a {@link Build} as they were written by default serialization before 
+	 * the models delegated to the {@link ModelCodec}.
+	 */
+	private static final class LegacyBuild implements Serializable {
+		
+		private static final long serialVersionUID = -3466293008201679790L;
+		
+		private long id;
+		private Long repository_id, number;
+		private String state;
+		private Short result;
+		private String started_at, finished_at;
+		private Integer duration;
+		private String commit, branch, message, event_type;
+		
+		private LegacyBuild(Build build) {
+			
+			id = build.getId();
+			repository_id = build.getRepository_id();
+			number = build.getNumber();
+			state = build.getState();
+			result = build.getResult();
+			started_at = build.getStarted_at();
+			finished_at = build.getFinished_at();
+			duration = build.getDuration();
+			commit = build.getCommit();
+			branch = build.getBranch();
+			message = build.getMessage();
+			event_type = build.getEvent_type();
+		}
+	}
+	
+	
+	/**
+	 * <p>Sets up the benchmark by creating the sample set of {@link Repo}s and by directing the 
+	 * log to the standard output.
+	 * 
+	 * @throws java.lang.Exception
+	 * 			if the set-up failed
+	 */
+	@Before
+	public final void setUp() throws Exception {
+		
+		ShadowLog.stream = System.out;
+		
+		gson = new Gson();
+		repos = ModelCodecTest.createRepos();
+	}
+	
+	/**
+	 * <p>Benchmarks the encoding and decoding of the sample {@link Repo}s with object serialization 
+	 * over the {@link ModelCodec}, against default serialization of the same fields, which is how 
+	 * the models were written before, and against their JSON representation.
+	 * 
+	 * @throws Exception
+	 * 			if the benchmark terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void benchmark() throws Exception {
+		
+		ArrayList<LegacyRepo> legacyRepos = new ArrayList<LegacyRepo>();
+		
+		for (Repo repo : repos) {
+			
+			legacyRepos.add(new LegacyRepo(repo));
+		}
+		
+		long[] codec = measure(repos);
+		long[] legacy = measure(legacyRepos);
+		
+		String json = null;
+		
+		for (int i = 0; i < ITERATIONS; i++) { //warm up
+			
+			gson.fromJson(json = gson.toJson(repos), new TypeToken<List<Repo>>(){}.getType());
+		}
+		
+		long start = System.nanoTime();
+		
+		for (int i = 0; i < ITERATIONS; i++) {
+			
+			json = gson.toJson(repos);
+		}
+		
+		long jsonEncode = (System.nanoTime() - start) / ITERATIONS;
+		start = System.nanoTime();
+		
+		for (int i = 0; i < ITERATIONS; i++) {
+			
+			gson.fromJson(json, new TypeToken<List<Repo>>(){}.getType());
+		}
+		
+		long jsonDecode = (System.nanoTime() - start) / ITERATIONS;
+		long jsonSize = json.getBytes("UTF-8").length;
+		
+		Log.i(TAG, String.format("codec:        %d bytes, encode %d us, decode %d us", 
+			codec[0], codec[1] / 1000, codec[2] / 1000));
+		
+		Log.i(TAG, String.format("serializable: %d bytes, encode %d us, decode %d us", 
+			legacy[0], legacy[1] / 1000, legacy[2] / 1000));
+		
+		Log.i(TAG, String.format("json:         %d bytes, encode %d us, decode %d us", 
+			jsonSize, jsonEncode / 1000, jsonDecode / 1000));
+		
+		assertTrue(codec[0] < legacy[0]);
+		assertTrue(codec[0] < jsonSize);
+	}
+	
+	/**
+	 * <p>Serializes and deserializes the given object {@link #ITERATIONS} times after warming up.
+	 * 
+	 * @return the encoded size in bytes, the mean encoding time and the mean decoding time in 
+	 * 		   nanoseconds
+	 */
+	private static long[] measure(Object object) throws Exception {
+		
+		byte[] encoded = null;
+		
+		for (int i = 0; i < ITERATIONS; i++) {
+			
+			ModelCodecTest.deserialize(encoded = ModelCodecTest.serialize(object));
+		}
+		
+		long start = System.nanoTime();
+		
+		for (int i = 0; i < ITERATIONS; i++) {
+			
+			encoded = ModelCodecTest.serialize(object);
+		}
+		
+		long encode = (System.nanoTime() - start) / ITERATIONS;
+		start = System.nanoTime();
+		
+		for (int i = 0; i < ITERATIONS; i++) {
+			
+			ModelCodecTest.deserialize(encoded);
+		}
+		
+		long decode = (System.nanoTime() - start) / ITERATIONS;
+		
+		return new long[] { encoded.length, encode, decode };
+	}
+}
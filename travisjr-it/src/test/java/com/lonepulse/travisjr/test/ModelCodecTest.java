@@ -0,0 +1,316 @@
+package com.lonepulse.travisjr.test;
+
+/*
+ * #%L
+ * Travis Jr. Integration Tests
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import com.google.gson.Gson;
+import com.lonepulse.travisjr.model.Build;
+import com.lonepulse.travisjr.model.BuildInfo;
+import com.lonepulse.travisjr.model.BuildJob;
+import com.lonepulse.travisjr.model.GitHubUser;
+import com.lonepulse.travisjr.model.ModelCodec;
+import com.lonepulse.travisjr.model.Repo;
+
+/**
+ * <p>Unit test for {@link ModelCodec}. The encoding is benchmarked separately by 
+ * {@link ModelCodecBenchmark}.
+ * 
+ * @category test
+ * <br><br>
+ * @version 1.1.2
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ModelCodecTest {
+
+	
+	/**
+	 * <p>Compares the models field by field via their JSON representation.
+	 */
+	private Gson gson;
+	
+	/**
+	 * <p>A set of 50 {@link Repo}s with 25 {@link Build}s each.
+	 */
+	private ArrayList<Repo> repos;
+	
+	
+	/**
+	 * <p>Sets up the test case by creating the sample set of {@link Repo}s.
+	 * 
+	 * @throws java.lang.Exception
+	 * 			if the set-up failed
+	 */
+	@Before
+	public final void setUp() throws Exception {
+		
+		gson = new Gson();
+		repos = createRepos();
+	}
+	
+	/**
+	 * <p>Creates a set of 50 {@link Repo}s with 25 {@link Build}s each, which is typical of 
+	 * what is kept for a user.
+	 * 
+	 * @return the sample set of {@link Repo}s
+	 */
+	static ArrayList<Repo> createRepos() {
+		
+		ArrayList<Repo> repos = new ArrayList<Repo>();
+		
+		for (int r = 0; r < 50; r++) {
+			
+			Repo repo = new Repo();
+			repo.setId(435658 + r);
+			repo.setSlug("sahan/IckleBot-" + r);
+			repo.setDescription("Android application development framework with event handling and dependency injection.");
+			repo.setLast_build_id(String.valueOf(8432801 + r));
+			repo.setLast_build_number(Long.valueOf(120 + r));
+			repo.setLast_build_status(Short.valueOf((short)0));
+			repo.setLast_build_result(Short.valueOf((short)(r % 2)));
+			repo.setLast_build_duration(Integer.valueOf(312));
+			repo.setLast_build_language((r % 5 == 0)? null :"java");
+			repo.setLast_build_started_at("2013-06-21T10:15:30Z");
+			repo.setLast_build_finished_at("2013-06-21T10:20:42Z");
+			
+			List<Build> builds = new ArrayList<Build>();
+			
+			for (int b = 0; b < 25; b++) {
+				
+				Build build = new Build();
+				build.setId(8432801L + b);
+				build.setRepository_id(Long.valueOf(repo.getId()));
+				build.setNumber(Long.valueOf(100 + b));
+				build.setState((b == 0)? "started" :"finished");
+				build.setResult((b % 7 == 0)? null :Short.valueOf((short)(b % 3 == 0? 1 :0)));
+				build.setStarted_at(String.format("2013-06-%02dT%02d:%02d:30Z", 1 + b, r % 24, b * 2));
+				build.setFinished_at((b == 0)? null :String.format("2013-06-%02dT%02d:%02d:42Z", 1 + b, r % 24, b * 2 + 5));
+				build.setDuration(Integer.valueOf(300 + r + b));
+				build.setCommit(String.format("%08x3f5a1c0d9e2b4a6f8c7d1e0b2a%06x", r * 31 + b, b * 7919));
+				build.setBranch((b % 4 == 0)? "develop" :"master");
+				build.setMessage("Fix the handling of configuration changes in the injector (#" + (r * 25 + b) + ") \u2713");
+				build.setEvent_type((b % 5 == 0)? "pull_request" :"push");
+				
+				builds.add(build);
+			}
+			
+			repo.setBuilds(builds);
+			repos.add(repo);
+		}
+		
+		return repos;
+	}
+	
+	/**
+	 * <p>Test for {@link ModelCodec#writeRepo(java.io.DataOutput, Repo)} and 
+	 * {@link ModelCodec#readRepo(java.io.DataInput, Repo)} via object serialization.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testRepos() throws Exception {
+		
+		Object decoded = deserialize(serialize(repos));
+		
+		assertEquals(gson.toJson(repos), gson.toJson(decoded));
+	}
+	
+	/**
+	 * <p>Test for {@link ModelCodec#writeBuildInfo(java.io.DataOutput, BuildInfo)} and 
+	 * {@link ModelCodec#readBuildInfo(java.io.DataInput, BuildInfo)} via object serialization.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testBuildInfo() throws Exception {
+		
+		BuildInfo buildInfo = new BuildInfo();
+		buildInfo.setId(8432801);
+		buildInfo.setRepository_id(Long.valueOf(435658));
+		buildInfo.setNumber(Long.valueOf(120));
+		buildInfo.setState("finished");
+		buildInfo.setResult(Short.valueOf((short)0));
+		buildInfo.setStarted_at("2013-06-21T10:15:30Z");
+		buildInfo.setFinished_at("2013-06-21T10:20:42Z");
+		buildInfo.setDuration(Integer.valueOf(312));
+		buildInfo.setMinutes(5);
+		buildInfo.setSeconds(12);
+		buildInfo.setCommit("3f5a1c0d9e2b4a6f8c7d1e0b2a3c4d5e6f7a8b9c");
+		buildInfo.setBranch("master");
+		buildInfo.setMessage("Fix the handling of configuration changes in the injector");
+		buildInfo.setAuthor_name("Lahiru Sahan Jayasinghe");
+		buildInfo.setAuthor_email("lahiru@lonepulse.com");
+		buildInfo.setCompare_url("https://github.com/sahan/IckleBot/compare/1a2b3c...3f5a1c");
+		buildInfo.setEvent_type("push");
+		
+		BuildJob[] matrix = new BuildJob[3];
+		
+		for (int i = 0; i < matrix.length; i++) {
+			
+			matrix[i] = new BuildJob();
+			matrix[i].setId(8432802 + i);
+			matrix[i].setRepository_id(435658);
+			matrix[i].setNumber(120.1 + i / 10.0);
+			matrix[i].setResult(i % 2);
+			matrix[i].setStarted_at("2013-06-21T10:15:30Z");
+			matrix[i].setAllow_failure(i == 2);
+		}
+		
+		buildInfo.setMatrix(matrix);
+		
+		BuildInfo decoded = (BuildInfo)deserialize(serialize(buildInfo));
+		
+		assertEquals(gson.toJson(buildInfo), gson.toJson(decoded));
+		
+		buildInfo.setMatrix(null);
+		decoded = (BuildInfo)deserialize(serialize(buildInfo));
+		
+		assertNull(decoded.getMatrix());
+	}
+	
+	/**
+	 * <p>Test for {@link ModelCodec#writeGitHubUser(java.io.DataOutput, GitHubUser)} and 
+	 * {@link ModelCodec#readGitHubUser(java.io.DataInput, GitHubUser)} via object serialization.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test
+	public final void testGitHubUser() throws Exception {
+		
+		GitHubUser gitHubUser = new GitHubUser();
+		gitHubUser.setId("1226485");
+		gitHubUser.setLogin("sahan");
+		gitHubUser.setType("User");
+		
+		GitHubUser decoded = (GitHubUser)deserialize(serialize(gitHubUser));
+		
+		assertEquals(gson.toJson(gitHubUser), gson.toJson(decoded));
+		assertNull(decoded.getMessage());
+	}
+	
+	/**
+	 * <p>Test for the rejection of records which were written with a later {@link ModelCodec#VERSION}.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.0
+	 */
+	@Test(expected = InvalidObjectException.class)
+	public final void testUnknownVersion() throws Exception {
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		
+		ModelCodec.writeGitHubUser(out, new GitHubUser());
+		out.close();
+		
+		byte[] encoded = bytes.toByteArray();
+		encoded[0] = (byte)(ModelCodec.VERSION + 1);
+		
+		ModelCodec.readGitHubUser(new DataInputStream(new ByteArrayInputStream(encoded)), new GitHubUser());
+	}
+	
+	/**
+	 * <p>Test for reading a record which was written with the first version of the encoding, 
+	 * which wrote each string as its byte count plus one followed by its bytes.
+	 * 
+	 * @throws Exception
+	 * 			if test terminated with an error
+	 * 
+	 * @since 1.1.1
+	 */
+	@Test
+	public final void testVersionOne() throws Exception {
+		
+		byte[] encoded = { 1, 4, '1', 12, 's', 'a', 'h', 'a', 'n', 0, 0 };
+		
+		GitHubUser gitHubUser = new GitHubUser();
+		ModelCodec.readGitHubUser(new DataInputStream(new ByteArrayInputStream(encoded)), gitHubUser);
+		
+		assertEquals("1", gitHubUser.getId());
+		assertEquals("sahan", gitHubUser.getLogin());
+		assertNull(gitHubUser.getType());
+		assertNull(gitHubUser.getMessage());
+	}
+	
+	static byte[] serialize(Object object) throws IOException {
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		
+		try {
+			
+			out.writeObject(object);
+		}
+		finally {
+			
+			out.close();
+		}
+		
+		return bytes.toByteArray();
+	}
+	
+	static Object deserialize(byte[] bytes) throws Exception {
+		
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+		
+		try {
+			
+			return in.readObject();
+		}
+		finally {
+			
+			in.close();
+		}
+	}
+}
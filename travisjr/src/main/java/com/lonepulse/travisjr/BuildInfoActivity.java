@@ -23,13 +23,12 @@ package com.lonepulse.travisjr;
 
 import static android.text.TextUtils.isEmpty;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Scanner;
-import java.util.Set;
 import java.util.TreeMap;
 
 import android.app.ActionBar;
@@ -38,19 +37,21 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.res.Configuration;
 import android.os.Bundle;
+import android.os.Handler;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
-import android.webkit.WebSettings;
-import android.webkit.WebSettings.LayoutAlgorithm;
-import android.webkit.WebSettings.RenderPriority;
-import android.webkit.WebView;
 import android.widget.AdapterView;
+import android.widget.AdapterView.OnItemClickListener;
 import android.widget.AdapterView.OnItemSelectedListener;
 import android.widget.ArrayAdapter;
+import android.widget.ListView;
+import android.widget.SearchView;
+import android.widget.SearchView.OnQueryTextListener;
 import android.widget.Spinner;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import com.lonepulse.icklebot.annotation.inject.InjectArray;
 import com.lonepulse.icklebot.annotation.inject.InjectIckleService;
@@ -62,12 +63,17 @@ import com.lonepulse.icklebot.annotation.inject.Stateful;
 import com.lonepulse.icklebot.annotation.thread.Async;
 import com.lonepulse.icklebot.annotation.thread.UI;
 import com.lonepulse.icklebot.bind.BindManager;
+import com.lonepulse.icklebot.network.NetworkManager;
+import com.lonepulse.travisjr.adapter.LogAdapter;
 import com.lonepulse.travisjr.app.TravisJr;
 import com.lonepulse.travisjr.app.TravisJrActivity;
+import com.lonepulse.travisjr.log.JobLog;
 import com.lonepulse.travisjr.model.BuildInfo;
 import com.lonepulse.travisjr.model.BuildJob;
+import com.lonepulse.travisjr.net.Cancellation;
 import com.lonepulse.travisjr.service.BuildInfoUnavailableException;
 import com.lonepulse.travisjr.service.BuildService;
+import com.lonepulse.travisjr.service.JobLogUnavailableException;
 import com.lonepulse.travisjr.util.BuildState;
 import com.lonepulse.travisjr.util.BuildUtils;
 import com.lonepulse.travisjr.util.DateUtils;
@@ -75,9 +81,10 @@ import com.lonepulse.travisjr.util.IntentUtils;
 import com.lonepulse.travisjr.util.Res;
 
 /**
- * <p>Displays detailed information about a single build.</p>
+ * <p>Displays detailed information about a single build. If the network cannot be reached, 
+ * the information which was mirrored on the device when the build was last viewed is shown.</p>
  * 
- * @version 1.1.0
+ * @version 1.2.0
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -90,39 +97,47 @@ public class BuildInfoActivity extends TravisJrActivity {
 	private static final String EXTRA_REPO_NAME = "EXTRA_REPO_NAME";
 	
 	private static final int ASYNC_FETCH_BUILD_INFO = 0;
+	private static final int ASYNC_FETCH_LOG = 1;
+	private static final int ASYNC_TAIL_LOG = 2;
+	private static final int ASYNC_SEARCH_LOG = 3;
+	private static final int ASYNC_FIND_ERROR = 4;
+	private static final int ASYNC_LOAD_MIRROR = 5;
 	private static final int UI_UPDATE_BUILD_INFO = 0;
 	private static final int UI_SYNC = 1;
 	private static final int UI_ERROR = 2;
 	private static final int UI_CONTENT = 3;
+	private static final int UI_LOAD_LOG = 4;
+	private static final int UI_TAILED_LOG = 5;
+	private static final int UI_SHOW_LINE = 6;
+	private static final int UI_SET_BUILD_INFO = 7;
 	
-	private static final StringBuilder ASCII_ART;
+	private static final List<String> ASCII_ART;
 	
 	static {
 		
-		ASCII_ART = new StringBuilder();
+		ASCII_ART = new ArrayList<String>();
 		Scanner scanner = null;
 		
 		try {
 			
 			scanner = new Scanner(TravisJr.Application.getContext().getAssets().open("ascii_art"));
-			ASCII_ART.append("<p style='text-align:center; font-size:1.2em'><code>");
 			
 			while(scanner.hasNextLine()) {
 				
-				ASCII_ART.append(scanner.nextLine()).append("<br>");
+				ASCII_ART.add(scanner.nextLine());
 			}
 			
-			ASCII_ART.append("</code></p>");
-			ASCII_ART.append(ASCII_ART.toString());
-			ASCII_ART.append(ASCII_ART.toString());
+			ASCII_ART.addAll(new ArrayList<String>(ASCII_ART));
+			ASCII_ART.addAll(new ArrayList<String>(ASCII_ART));
 		} 
 		catch (Exception e) {
 			
-			ASCII_ART.replace(0, ASCII_ART.length(), "Build Log.");
+			ASCII_ART.clear();
+			ASCII_ART.add("Build Log.");
 		}
 		finally {
 			
-			scanner.close();
+			if(scanner != null) scanner.close();
 		}
 	}
 	
@@ -138,6 +153,9 @@ public class BuildInfoActivity extends TravisJrActivity {
 	@InjectIckleService
 	private BindManager bindManager;
 	
+	@InjectIckleService
+	private NetworkManager network;
+	
 	private String ownerName;
 	private String repoName;
 	private long buildId;
@@ -151,11 +169,18 @@ public class BuildInfoActivity extends TravisJrActivity {
 	@InjectView(R.id.content)
 	private View content;
 	
+	/**
+	 * <p>The {@link BuildInfo} on display, which is only assigned on the UI thread.
+	 */
 	@Stateful
-	private BuildInfo buildInfo;
+	private volatile BuildInfo buildInfo;
 	
+	/**
+	 * <p>The {@link JobLog}s of the jobs on display keyed by their numbers, which are only 
+	 * accessed on the UI thread.
+	 */
 	@Stateful
-	private NavigableMap<String, StringBuilder> logs;
+	private NavigableMap<String, JobLog> logs;
 	
 	@InjectView(R.id.root)
 	private View root;
@@ -164,13 +189,64 @@ public class BuildInfoActivity extends TravisJrActivity {
 	private TextView slug;
 	
 	@InjectView(R.id.log)
-	private WebView log;
+	private ListView log;
 	
 	@InjectArray(R.array.logs)
 	private String[] logArray;
 	
 	private Spinner logChooser;
 	
+	/**
+	 * <p>The sorted IDs of the logs which are offered by the {@link #logChooser}.
+	 */
+	private List<String> logIds = Collections.emptyList();
+	
+	/**
+	 * <p>The {@link JobLog} which is currently selected for display.
+	 */
+	private JobLog selectedLog;
+	
+	/**
+	 * <p>The text which was last searched for in the selected log.
+	 */
+	private String query;
+	
+	/**
+	 * <p>The line of the selected log which last matched the {@link #query}, else {@code -1}.
+	 */
+	private int matchedLine = -1;
+	
+	/**
+	 * <p>The line which is to be shown once the selected log is loaded, else {@code -1}.
+	 */
+	private int pendingLine = -1;
+	
+	/**
+	 * <p>Schedules the periodic tailing of the selected log while the build is ongoing.
+	 */
+	private Handler tailHandler = new Handler();
+	
+	/**
+	 * <p>The current delay in seconds between tailing the selected log. This backs off 
+	 * while the log remains unchanged.
+	 */
+	private int tailInterval;
+	
+	/**
+	 * <p>Tails the selected log in the background.
+	 */
+	private final Runnable tailTask = new Runnable() {
+		
+		@Override
+		public void run() {
+			
+			if(selectedLog != null) {
+				
+				runAsyncTask(ASYNC_TAIL_LOG, selectedLog);
+			}
+		}
+	};
+	
 	
 	@Override
 	protected String onInitTitle() {
@@ -201,7 +277,7 @@ public class BuildInfoActivity extends TravisJrActivity {
 		
 		runUITask(UI_SYNC);
 		
-		logs = new TreeMap<String, StringBuilder>();
+		logs = new TreeMap<String, JobLog>();
 		
 		ownerName = getIntent().getStringExtra(EXTRA_OWNER_NAME);
 		repoName = getIntent().getStringExtra(EXTRA_REPO_NAME);
@@ -209,17 +285,42 @@ public class BuildInfoActivity extends TravisJrActivity {
 		
 		slug.setText(ownerName + "/" + repoName);
 		
-		WebSettings settings = log.getSettings();
+		log.setAdapter(new ArrayAdapter<String>(this, R.layout.list_item_log, ASCII_ART));
+		log.setOnItemClickListener(new OnItemClickListener() {
+			
+			@Override
+			public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+				
+				if(log.getAdapter() instanceof LogAdapter) {
+					
+					((LogAdapter)log.getAdapter()).toggleFold(position);
+				}
+			}
+		});
+	}
+	
+	@Override
+	protected void onDestroy() {
+		
+		super.onDestroy();
 		
-		settings.setDefaultZoom(WebSettings.ZoomDensity.FAR);
-		settings.setLayoutAlgorithm(LayoutAlgorithm.NORMAL);
-		settings.setUseWideViewPort(true);
-		settings.setBuiltInZoomControls(true);
-		settings.setDisplayZoomControls(false);
-		settings.setRenderPriority(RenderPriority.HIGH);
-		settings.setCacheMode(WebSettings.LOAD_CACHE_ELSE_NETWORK);
+		if(isFinishing() && logs != null) {
+			
+			for (JobLog jobLog : logs.values()) {
+				
+				if(jobLog.isFetched()) {
+					
+					jobLog.getLogFile().delete();
+				}
+			}
+		}
+	}
+	
+	@Override
+	protected void onPause() {
 		
-		loadLogData(ASCII_ART.toString());
+		super.onPause();
+		tailHandler.removeCallbacks(tailTask);
 	}
 	
 	@Override
@@ -227,14 +328,25 @@ public class BuildInfoActivity extends TravisJrActivity {
 	
 		super.onResume();
 		
+		boolean connected = network.isConnected();
+		
 		if(buildInfo != null) {
 			
 			runUITask(UI_UPDATE_BUILD_INFO);
+			
+			if(isShowingMirror() && connected) {
+				
+				onSync();
+			}
 		}
-		else {
+		else if(connected) {
 			
 			onSync();
 		}
+		else {
+			
+			runAsyncTask(ASYNC_LOAD_MIRROR);
+		}
 	}
 	
 	@Override
@@ -244,26 +356,133 @@ public class BuildInfoActivity extends TravisJrActivity {
 		runAsyncTask(ASYNC_FETCH_BUILD_INFO);
 	}
 	
+	/**
+	 * <p>Fetches the information of the build along with the {@link JobLog}s of its jobs. The 
+	 * fetch is cancelled when the activity is paused or another sync is started. If the fetch 
+	 * fails, the information which was mirrored on the device is shown instead, if any.
+	 */
 	@Async(ASYNC_FETCH_BUILD_INFO)
 	private void fetchBuildInfo() {
 		
+		Cancellation cancellation = beginTask(ASYNC_FETCH_BUILD_INFO);
+		boolean forceRefresh = consumeSyncRequest();
+		
 		try {
 			
-			buildInfo = buildService.getBuildInfo(ownerName, repoName, buildId);
-			Set<Entry<BuildJob, StringBuilder>> logEntries = buildService.getJobLogs(buildInfo).entrySet();
-
-			for (Entry<BuildJob, StringBuilder> entry : logEntries) {
+			BuildInfo fetchedBuildInfo = buildService.getBuildInfo(ownerName, repoName, buildId, forceRefresh);
+			List<JobLog> jobLogs = buildService.getJobLogs(fetchedBuildInfo);
+			
+			if(!cancellation.isCancelled()) {
 				
-				logs.put(String.valueOf(entry.getKey().getNumber()), entry.getValue());
+				hideMirror();
+				runUITask(UI_SET_BUILD_INFO, fetchedBuildInfo, jobLogs);
 			}
-			
-			runUITask(UI_UPDATE_BUILD_INFO);
 		}
 		catch(BuildInfoUnavailableException biue) {
 			
-			runUITask(UI_ERROR);
+			if(cancellation.isCancelled()) {
+				
+				return;
+			}
+			
+			if(buildInfo != null) {
+				
+				showMirror(buildService.getCachedBuildInfoTime(buildId));
+				runUITask(UI_CONTENT);
+			}
+			else if(!presentMirror()) {
+				
+				runUITask(UI_ERROR);
+			}
+			
 			Log.e(getClass().getSimpleName(), "Failed to fetch build info.", biue);
 		}
+		finally {
+			
+			endTask(ASYNC_FETCH_BUILD_INFO, cancellation);
+		}
+	}
+	
+	/**
+	 * <p>Presents the information of the build which was mirrored on the device when there is 
+	 * no network. An error is shown if nothing was mirrored.
+	 */
+	@Async(ASYNC_LOAD_MIRROR)
+	private void loadMirror() {
+		
+		if(!presentMirror()) {
+			
+			runUITask(UI_ERROR);
+		}
+	}
+	
+	/**
+	 * <p>Presents the information of the build which was mirrored on the device when it was last 
+	 * fetched, along with the time at which it was fetched. Any logs which are not on the device 
+	 * can only be fetched once the network is reachable.
+	 * 
+	 * @return {@code true} if the mirrored information was presented, else {@code false} if 
+	 * 		   nothing was mirrored
+	 */
+	private boolean presentMirror() {
+		
+		BuildInfo mirroredBuildInfo = buildService.getCachedBuildInfo(buildId);
+		
+		if(mirroredBuildInfo == null) {
+			
+			return false;
+		}
+		
+		List<JobLog> jobLogs = buildService.getJobLogs(mirroredBuildInfo);
+		
+		showMirror(buildService.getCachedBuildInfoTime(buildId));
+		runUITask(UI_SET_BUILD_INFO, mirroredBuildInfo, jobLogs);
+		
+		return true;
+	}
+	
+	/**
+	 * <p>Sets the given {@link BuildInfo} as that which is displayed along with the {@link JobLog}s 
+	 * of its jobs, retaining any logs which were already fetched, and updates the display. Both 
+	 * are created by the worker which fetched them and are only published here on the UI thread, 
+	 * where {@link #logs} is iterated. Retained logs take on the current state of their jobs, and 
+	 * the selected log is tailed a final time if its job has since finished.
+	 * 
+	 * @param buildInfo
+	 * 			the {@link BuildInfo} to be displayed
+	 * 
+	 * @param jobLogs
+	 * 			the {@link JobLog}s which were created for the jobs of the {@link BuildInfo}
+	 */
+	@UI(UI_SET_BUILD_INFO)
+	private void setBuildInfo(BuildInfo buildInfo, List<JobLog> jobLogs) {
+		
+		for (JobLog jobLog : jobLogs) {
+			
+			String logId = String.valueOf(jobLog.getBuildJob().getNumber());
+			
+			JobLog retainedLog = logs.get(logId);
+			
+			if(retainedLog == null) {
+				
+				logs.put(logId, jobLog);
+			}
+			else { //retain logs which were already fetched
+				
+				boolean finished = (retainedLog.getBuildJob().getFinished_at() == null
+					&& jobLog.getBuildJob().getFinished_at() != null);
+				
+				retainedLog.setBuildJob(jobLog.getBuildJob());
+				
+				if(finished && retainedLog == selectedLog && retainedLog.isFetched()) {
+					
+					runAsyncTask(ASYNC_TAIL_LOG, retainedLog);
+				}
+			}
+		}
+		
+		this.buildInfo = buildInfo;
+		updateBuildInfo();
 	}
 	
 	@UI(UI_UPDATE_BUILD_INFO)
@@ -283,11 +502,196 @@ public class BuildInfoActivity extends TravisJrActivity {
 		
 		bindManager.bind(content, buildInfo);
 
-		List<String> logIds = new ArrayList<String>(logs.keySet());
+		logIds = new ArrayList<String>(logs.keySet());
 		Collections.sort(logIds);
 		updateLogChooser(logIds);
 				
 		runUITask(UI_CONTENT);
+		
+		tailInterval = Res.integer(R.integer.log_tail_interval_min);
+		scheduleTail();
+	}
+	
+	/**
+	 * <p>Schedules the next tailing of the selected log if the build and its job are ongoing.
+	 */
+	private void scheduleTail() {
+		
+		tailHandler.removeCallbacks(tailTask);
+		
+		if(buildInfo != null && BuildUtils.isOngoing(buildInfo)
+			&& (selectedLog == null || selectedLog.getBuildJob().getFinished_at() == null)) {
+			
+			tailHandler.postDelayed(tailTask, tailInterval * 1000L);
+		}
+	}
+	
+	/**
+	 * <p>Fetches any new output of the given {@link JobLog} for an ongoing build. Tailing is 
+	 * not rescheduled if it was cancelled by pausing the activity.
+	 * 
+	 * <p>When there is no new output the job may have finished, so its current state is looked 
+	 * up, and once it has finished the log is tailed to its end so that it is archived.
+	 *
+	 * @param jobLog
+	 * 			the {@link JobLog} to be tailed
+	 */
+	@Async(ASYNC_TAIL_LOG)
+	private void tailLog(JobLog jobLog) {
+		
+		Cancellation cancellation = beginTask(ASYNC_TAIL_LOG);
+		long appended = 0;
+		
+		try {
+			
+			appended = buildService.tailJobLog(jobLog);
+			
+			if(appended == 0 && jobLog.getBuildJob().getFinished_at() == null 
+				&& !cancellation.isCancelled() && refreshBuildJob(jobLog)) {
+				
+				appended = buildService.tailJobLog(jobLog);
+			}
+		}
+		catch(JobLogUnavailableException jlue) {
+			
+			if(!cancellation.isCancelled()) {
+				
+				Log.w(getClass().getSimpleName(), "Failed to tail job log.", jlue);
+			}
+		}
+		finally {
+			
+			endTask(ASYNC_TAIL_LOG, cancellation);
+		}
+		
+		if(!cancellation.isCancelled()) {
+			
+			runUITask(UI_TAILED_LOG, jobLog, Long.valueOf(appended));
+		}
+	}
+	
+	/**
+	 * <p>Looks up the current state of the job of the given {@link JobLog} and updates the 
+	 * handle with it if the job has finished. The {@link BuildInfo} is served from the cache 
+	 * unless it is stale.
+	 *
+	 * @param jobLog
+	 * 			the {@link JobLog} whose job is to be looked up
+	 * 
+	 * @return {@code true} if the job has finished
+	 */
+	private boolean refreshBuildJob(JobLog jobLog) {
+		
+		try {
+			
+			BuildInfo currentBuildInfo = buildService.getBuildInfo(ownerName, repoName, buildId);
+			long jobId = jobLog.getBuildJob().getId();
+			
+			for (BuildJob buildJob : currentBuildInfo.getMatrix()) {
+				
+				if(buildJob.getId() == jobId && buildJob.getFinished_at() != null) {
+					
+					jobLog.setBuildJob(buildJob);
+					return true;
+				}
+			}
+		}
+		catch(BuildInfoUnavailableException biue) {
+			
+			Log.w(getClass().getSimpleName(), "Failed to look up the state of job " + jobLog.getBuildJob().getId(), biue);
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * <p>Displays the new output of a tailed {@link JobLog} if it is still selected, and 
+	 * schedules the next tailing. The interval is reset when there was new output, else it 
+	 * is doubled up to a maximum.
+	 *
+	 * @param jobLog
+	 * 			the {@link JobLog} which was tailed
+	 * 
+	 * @param appended
+	 * 			the number of bytes which were added to the log
+	 */
+	@UI(UI_TAILED_LOG)
+	private void onLogTailed(JobLog jobLog, Long appended) {
+		
+		if(appended.longValue() > 0) {
+			
+			tailInterval = Res.integer(R.integer.log_tail_interval_min);
+			
+			if(jobLog == selectedLog) {
+				
+				if(log.getAdapter() instanceof LogAdapter) {
+					
+					((LogAdapter)log.getAdapter()).refresh();
+				}
+				else {
+					
+					loadLog(jobLog);
+				}
+			}
+		}
+		else {
+			
+			tailInterval = Math.min(tailInterval * 2, Res.integer(R.integer.log_tail_interval_max));
+		}
+		
+		scheduleTail();
+	}
+	
+	/**
+	 * <p>Fetches the log of the given {@link JobLog} and displays it if it is still selected. 
+	 * The download is abandoned once another log is selected or the activity is paused.
+	 *
+	 * @param jobLog
+	 * 			the {@link JobLog} whose log is to be fetched
+	 */
+	@Async(ASYNC_FETCH_LOG)
+	private void fetchLog(JobLog jobLog) {
+		
+		Cancellation cancellation = beginTask(ASYNC_FETCH_LOG);
+		
+		try {
+			
+			buildService.fetchJobLog(jobLog);
+			runUITask(UI_LOAD_LOG, jobLog);
+		}
+		catch(JobLogUnavailableException jlue) {
+			
+			if(!cancellation.isCancelled()) {
+				
+				Log.e(getClass().getSimpleName(), "Failed to fetch job log.", jlue);
+			}
+		}
+		finally {
+			
+			endTask(ASYNC_FETCH_LOG, cancellation);
+		}
+	}
+	
+	/**
+	 * <p>Determines which log is selected when the build information is displayed. This is the 
+	 * log of the first {@link BuildJob} which failed the build, else the log of the first job.
+	 *
+	 * @param logIds
+	 * 			the sorted IDs of the logs in {@link #logs}
+	 * 
+	 * @return the position of the log to be selected
+	 */
+	private int findDefaultLog(List<String> logIds) {
+		
+		for (int i = 0; i < logIds.size(); i++) {
+			
+			if(logs.get(logIds.get(i)).isFailure()) {
+				
+				return i;
+			}
+		}
+		
+		return 0;
 	}
 	
 	private void updateLogChooser(final List<String> logIds) {
@@ -304,29 +708,276 @@ public class BuildInfoActivity extends TravisJrActivity {
 				@Override
 				public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
 					
-					loadLogData(logs.get(logIds.get(position)).toString());
+					selectLog(logs.get(logIds.get(position)));
 				}
 
 				@Override
 				public void onNothingSelected(AdapterView<?> parent) {
 					
-					loadLogData(logs.get(logs.firstKey()).toString());
+					selectLog(logs.firstEntry().getValue());
 				}
 			});
 			
+			if(!logIds.isEmpty()) {
+				
+				logChooser.setSelection(findDefaultLog(logIds));
+			}
+			
 			logChooser.setVisibility(View.VISIBLE);
 		}
 	}
 	
-	private void loadLogData(String logData) {
+	/**
+	 * <p>Selects the given {@link JobLog} for display. If its log has not been fetched yet, 
+	 * a placeholder is shown while it is fetched in the background.
+	 *
+	 * @param jobLog
+	 * 			the {@link JobLog} to be displayed
+	 */
+	private void selectLog(JobLog jobLog) {
+		
+		selectedLog = jobLog;
+		matchedLine = -1;
+		
+		if(jobLog.isFetched()) {
+			
+			loadLog(jobLog);
+		}
+		else {
+			
+			log.setAdapter(new ArrayAdapter<String>(this, R.layout.list_item_log, ASCII_ART));
+			runAsyncTask(ASYNC_FETCH_LOG, jobLog);
+		}
+		
+		scheduleTail();
+	}
+	
+	/**
+	 * <p>Displays the fetched log of the given {@link JobLog} if it is still the one selected. 
+	 * Only the lines which are visible are read from the device.
+	 *
+	 * @param jobLog
+	 * 			the {@link JobLog} to be displayed
+	 */
+	@UI(UI_LOAD_LOG)
+	private void loadLog(JobLog jobLog) {
+		
+		if(jobLog == selectedLog) {
+		
+			log.setAdapter(LogAdapter.newInstance(this, jobLog.getLogFile()));
+			
+			if(pendingLine >= 0) {
+				
+				showLine(jobLog, Integer.valueOf(pendingLine));
+				pendingLine = -1;
+			}
+		}
+	}
+	
+	/**
+	 * <p>Searches for the next or previous line which contains the {@link #query}, starting 
+	 * in the selected log from the last match or else from the visible lines, and continuing 
+	 * into the logs of the following or preceding jobs in the order in which they are offered.
+	 *
+	 * @param forward
+	 * 			{@code true} to find the next match, {@code false} for the previous one
+	 */
+	private void findInLog(boolean forward) {
 		
-		final StringBuilder html = new StringBuilder()
-		.append("<html><body style=\"background-color:black; color:white;") 
-		.append(" white-space:nowrap;\"><code>")
-		.append(logData.replaceAll("(\r\n|\n)", "<br/>"))
-		.append("</code></body></html>");
+		if(isEmpty(query) || selectedLog == null || !(log.getAdapter() instanceof LogAdapter)) {
+			
+			return;
+		}
+		
+		int fromLine = matchedLine;
+		
+		if(fromLine < 0) {
+			
+			int firstVisibleLine = ((LogAdapter)log.getAdapter()).getLine(log.getFirstVisiblePosition());
+			fromLine = forward? firstVisibleLine - 1 :firstVisibleLine;
+		}
 		
-		log.loadData(html.toString(), "text/html", "utf-8");
+		List<JobLog> jobLogs = getOfferedLogs();
+		int index = jobLogs.indexOf(selectedLog);
+		
+		if(index >= 0) {
+			
+			runAsyncTask(ASYNC_SEARCH_LOG, jobLogs, Integer.valueOf(index), 
+				query, Integer.valueOf(fromLine), Boolean.valueOf(forward));
+		}
+	}
+	
+	/**
+	 * <p>Searches the given {@link JobLog}s for a line which contains the given text, starting 
+	 * from a line of one of them and moving on to the next or previous logs until a match is 
+	 * found. Logs which have not been fetched are fetched for this. The search is abandoned 
+	 * once the activity is paused or another search is started.
+	 *
+	 * @param jobLogs
+	 * 			the {@link JobLog}s to be searched in order
+	 * 
+	 * @param index
+	 * 			the index of the {@link JobLog} in which the search starts
+	 * 
+	 * @param text
+	 * 			the text to search for
+	 * 
+	 * @param fromLine
+	 * 			the line of the first {@link JobLog} from which to search, which is itself excluded
+	 * 
+	 * @param forward
+	 * 			{@code true} to search towards the end of the logs
+	 */
+	@Async(ASYNC_SEARCH_LOG)
+	private void searchLog(List<JobLog> jobLogs, Integer index, String text, Integer fromLine, Boolean forward) {
+		
+		Cancellation cancellation = beginTask(ASYNC_SEARCH_LOG);
+		
+		try {
+			
+			int step = forward.booleanValue()? 1 :-1;
+			int line = fromLine.intValue();
+			
+			for (int i = index.intValue(); i >= 0 && i < jobLogs.size(); i += step) {
+				
+				JobLog jobLog = jobLogs.get(i);
+				
+				try {
+					
+					int match = buildService.fetchJobLog(jobLog).find(text, line, forward.booleanValue());
+					
+					if(match >= 0) {
+						
+						if(!cancellation.isCancelled()) {
+							
+							runUITask(UI_SHOW_LINE, jobLog, Integer.valueOf(match));
+						}
+						
+						return;
+					}
+				}
+				catch(JobLogUnavailableException jlue) {
+					
+					if(cancellation.isCancelled()) {
+						
+						return;
+					}
+					
+					Log.w(getClass().getSimpleName(), "Failed to fetch job log.", jlue);
+				}
+				catch(IOException ioe) {
+					
+					Log.e(getClass().getSimpleName(), "Failed to search job log.", ioe);
+				}
+				
+				if(cancellation.isCancelled()) {
+					
+					return;
+				}
+				
+				line = forward.booleanValue()? -1 :Integer.MAX_VALUE; //the whole of the next log
+			}
+			
+			runUITask(UI_SHOW_LINE, jobLogs.get(index.intValue()), Integer.valueOf(-1));
+		}
+		finally {
+			
+			endTask(ASYNC_SEARCH_LOG, cancellation);
+		}
+	}
+	
+	/**
+	 * <p>Finds the first failed command across the logs of all jobs, in the order in which 
+	 * they are offered. Only the logs of jobs which did not pass are fetched for this, and no 
+	 * further logs are fetched once the activity is paused.
+	 *
+	 * @param jobLogs
+	 * 			the {@link JobLog}s to be searched in order
+	 */
+	@Async(ASYNC_FIND_ERROR)
+	private void findFirstError(List<JobLog> jobLogs) {
+		
+		Cancellation cancellation = beginTask(ASYNC_FIND_ERROR);
+		
+		try {
+			
+			for (JobLog jobLog : jobLogs) {
+				
+				BuildJob buildJob = jobLog.getBuildJob();
+				
+				if(!jobLog.isFetched() && buildJob.getResult() == 0 && buildJob.getFinished_at() != null) {
+					
+					continue; //a job which passed reports no failures
+				}
+				
+				try {
+					
+					int line = buildService.fetchJobLog(jobLog).findError(0);
+					
+					if(line >= 0) {
+						
+						runUITask(UI_SHOW_LINE, jobLog, Integer.valueOf(line));
+						return;
+					}
+				}
+				catch(JobLogUnavailableException jlue) {
+					
+					if(cancellation.isCancelled()) {
+						
+						return;
+					}
+					
+					Log.w(getClass().getSimpleName(), "Failed to fetch job log.", jlue);
+				}
+			}
+			
+			runUITask(UI_SHOW_LINE, null, Integer.valueOf(-1));
+		}
+		finally {
+			
+			endTask(ASYNC_FIND_ERROR, cancellation);
+		}
+	}
+	
+	/**
+	 * <p>Scrolls to the given line of a {@link JobLog}, selecting its log first if needed 
+	 * and expanding any folds which hide the line.
+	 *
+	 * @param jobLog
+	 * 			the {@link JobLog} which contains the line, else {@code null} if none was found
+	 * 
+	 * @param line
+	 * 			the index of the line, else {@code -1} if none was found
+	 */
+	@UI(UI_SHOW_LINE)
+	private void showLine(JobLog jobLog, Integer line) {
+		
+		if(line.intValue() < 0) {
+			
+			Toast.makeText(this, Res.string(jobLog == null? 
+				R.string.lbl_no_errors :R.string.lbl_no_matches), Toast.LENGTH_SHORT).show();
+			
+			return;
+		}
+		
+		if(jobLog == selectedLog && log.getAdapter() instanceof LogAdapter) {
+			
+			matchedLine = line.intValue();
+			log.setSelection(((LogAdapter)log.getAdapter()).getPosition(matchedLine));
+		}
+		else {
+			
+			pendingLine = line.intValue();
+			
+			for (int i = 0; i < logIds.size(); i++) {
+				
+				if(logs.get(logIds.get(i)) == jobLog) {
+					
+					logChooser.setSelection(i);
+					break;
+				}
+			}
+		}
 	}
 	
 	@UI(UI_SYNC)
@@ -355,6 +1006,29 @@ public class BuildInfoActivity extends TravisJrActivity {
 		stopSyncAnimation();
 	}
 	
+	private void jumpToFirstError() {
+		
+		runAsyncTask(ASYNC_FIND_ERROR, getOfferedLogs());
+	}
+	
+	/**
+	 * <p>Retrieves the {@link JobLog}s in the order in which they are offered by the 
+	 * {@link #logChooser}.
+	 * 
+	 * @return a new list of the offered {@link JobLog}s
+	 */
+	private List<JobLog> getOfferedLogs() {
+		
+		List<JobLog> jobLogs = new ArrayList<JobLog>();
+		
+		for (String logId : logIds) {
+			
+			jobLogs.add(logs.get(logId));
+		}
+		
+		return jobLogs;
+	}
+	
 	private void viewCommit() {
 		
 		if(buildInfo == null) return; //syncing is incomplete
@@ -396,6 +1070,30 @@ public class BuildInfoActivity extends TravisJrActivity {
 		getMenuInflater().inflate(R.menu.build_info, menu);
 		setMenuItemSync(menu.findItem(R.id.menu_sync));
 		
+		SearchView searchView = (SearchView)menu.findItem(R.id.menu_search).getActionView();
+		searchView.setOnQueryTextListener(new OnQueryTextListener() {
+			
+			@Override
+			public boolean onQueryTextSubmit(String text) {
+				
+				if(!text.equals(query)) {
+					
+					query = text;
+					matchedLine = -1;
+				}
+				
+				findInLog(true);
+				
+				return true;
+			}
+			
+			@Override
+			public boolean onQueryTextChange(String text) {
+				
+				return false;
+			}
+		});
+		
 		return true;
 	}
 	
@@ -406,6 +1104,9 @@ public class BuildInfoActivity extends TravisJrActivity {
 		
 			case R.id.menu_commit: viewCommit(); break;
 			case R.id.menu_share: shareBuildInfo(); break;
+			case R.id.menu_find_next: findInLog(true); break;
+			case R.id.menu_find_previous: findInLog(false); break;
+			case R.id.menu_first_error: jumpToFirstError(); break;
 			default: return super.onOptionsItemSelected(item); 
 		}
 		
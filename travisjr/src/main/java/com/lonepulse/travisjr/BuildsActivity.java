@@ -27,16 +27,16 @@ import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
-import android.view.animation.Animation;
 import android.widget.ListView;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import com.lonepulse.icklebot.annotation.event.Click;
 import com.lonepulse.icklebot.annotation.event.ItemClick;
-import com.lonepulse.icklebot.annotation.inject.InjectAnimation;
 import com.lonepulse.icklebot.annotation.inject.InjectIckleService;
 import com.lonepulse.icklebot.annotation.inject.InjectPojo;
 import com.lonepulse.icklebot.annotation.inject.InjectView;
@@ -50,9 +50,12 @@ import com.lonepulse.travisjr.adapter.BuildAdapter;
 import com.lonepulse.travisjr.app.TravisJrActivity;
 import com.lonepulse.travisjr.model.Build;
 import com.lonepulse.travisjr.model.Repo;
+import com.lonepulse.travisjr.net.Cancellation;
+import com.lonepulse.travisjr.net.CircuitBreaker;
+import com.lonepulse.travisjr.net.TravisCIStreamClient;
 import com.lonepulse.travisjr.service.AccountService;
 import com.lonepulse.travisjr.service.BuildService;
-import com.lonepulse.travisjr.util.BuildUtils;
+import com.lonepulse.travisjr.service.BuildsUnavailableException;
 import com.lonepulse.travisjr.util.IntentUtils;
 import com.lonepulse.travisjr.util.Res;
 
@@ -60,7 +63,7 @@ import com.lonepulse.travisjr.util.Res;
  * <p>Displays all recent {@link Build}s for the selected {@link Repo} 
  * in {@link ReposActivity}.
  * 
- * @version 1.1.0
+ * @version 1.1.5
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -70,7 +73,11 @@ public class BuildsActivity extends TravisJrActivity {
 
 	
 	private static final int ASYNC_FETCH_BUILDS = 0;
+	private static final int ASYNC_LOAD_MIRROR = 1;
 	private static final int UI_UPDATE_BUILDS = 0;
+	private static final int UI_PRESENT_BUILDS = 1;
+	private static final int UI_ALERT_ERROR = 2;
+	private static final int UI_ALERT_DATA = 3;
 
 
 	@Layout(R.layout.header_repo)
@@ -85,9 +92,6 @@ public class BuildsActivity extends TravisJrActivity {
 	@InjectView(R.id.alert_data)
 	private View alertData;
 	
-	@InjectAnimation(R.anim.shake_sideways_once)
-	private Animation shakeSidewaysOnce;
-	
 	@InjectPojo
 	private BuildService buildService;
 	
@@ -149,7 +153,8 @@ public class BuildsActivity extends TravisJrActivity {
 	
 	/**
 	 * <p>Updates the activity depending on the availability of data 
-	 * and the existence of a connected data network.
+	 * and the existence of a connected data network. If there is no 
+	 * network, the {@link Build}s mirrored by the last sync are shown.
 	 *
 	 * @since 1.1.0
 	 */
@@ -172,7 +177,12 @@ public class BuildsActivity extends TravisJrActivity {
 		}
 		else if(builds == null && !connected) {
 			
-			listView.setEmptyView(alertData);
+			runAsyncTask(ASYNC_LOAD_MIRROR);
+		}
+		else if((isSyncInterrupted() || isShowingMirror()) && connected) {
+			
+			runUITask(UI_PRESENT_BUILDS, builds);
+			onSync();
 		}
 		else {
 			
@@ -180,20 +190,125 @@ public class BuildsActivity extends TravisJrActivity {
 		}
 	}
 	
+	/**
+	 * <p>Retrieves the recent {@link Build}s of the {@link Repo} and updates the display. If 
+	 * nothing is being displayed, the {@link Build}s which were cached on the last sync are 
+	 * presented while they are revalidated over the network. The fetch is cancelled when the 
+	 * activity is paused or another sync is started.
+	 */
 	@Async(ASYNC_FETCH_BUILDS)
 	private void fetchBuilds() {
 		
-		builds = buildService.getRecentBuilds(repo.getId());
-		runUITask(UI_UPDATE_BUILDS, builds);
+		Cancellation cancellation = beginTask(ASYNC_FETCH_BUILDS);
+		boolean forceRefresh = consumeSyncRequest();
+		
+		try {
+			
+			if(builds == null) {
+				
+				List<Build> cachedBuilds = buildService.getCachedBuilds(repo.getId());
+				
+				if(cachedBuilds != null && !cachedBuilds.isEmpty()) {
+					
+					builds = cachedBuilds;
+					runUITask(UI_PRESENT_BUILDS, builds);
+				}
+			}
+			
+			List<Build> recentBuilds = buildService.getRecentBuilds(repo.getId(), forceRefresh);
+			
+			if(!cancellation.isCancelled()) {
+				
+				builds = recentBuilds;
+				hideMirror();
+				runUITask(UI_UPDATE_BUILDS, builds);
+			}
+		}
+		catch(BuildsUnavailableException bue) {
+			
+			if(!cancellation.isCancelled()) {
+				
+				if(builds != null) {
+					
+					showMirror(buildService.getCachedBuildsTime(repo.getId()));
+				}
+				
+				runUITask(UI_ALERT_ERROR);
+				Log.e(getClass().getSimpleName(), bue.getMessage(), bue);
+			}
+		}
+		finally {
+			
+			endTask(ASYNC_FETCH_BUILDS, cancellation);
+		}
+	}
+	
+	/**
+	 * <p>Presents the {@link Build}s which were mirrored on the device by the last sync when 
+	 * there is no network, along with the time at which they were synced. The user is asked 
+	 * to enable a data connection if nothing was mirrored.
+	 */
+	@Async(ASYNC_LOAD_MIRROR)
+	private void loadMirror() {
+		
+		List<Build> mirroredBuilds = buildService.getCachedBuilds(repo.getId());
+		
+		if(mirroredBuilds == null) {
+			
+			runUITask(UI_ALERT_DATA);
+			return;
+		}
+		
+		builds = mirroredBuilds;
+		showMirror(buildService.getCachedBuildsTime(repo.getId()));
+		runUITask(UI_PRESENT_BUILDS, builds);
+	}
+	
+	/**
+	 * <p>Asks the user to enable a data connection since nothing can be displayed without one.
+	 */
+	@UI(UI_ALERT_DATA)
+	private void alertNoData() {
+		
+		listView.setEmptyView(alertData);
 	}
 	
+	/**
+	 * <p>Updates the given list of {@link Build}s on the displayed list and concludes the sync.
+	 */
 	@UI(UI_UPDATE_BUILDS)
 	private void updateBuilds(List<Build> builds) {
 
-		listView.setAdapter(BuildAdapter.newInstance(BuildsActivity.this, builds));
+		presentBuilds(builds);
 		stopSyncAnimation();
 	}
 	
+	/**
+	 * <p>Concludes a sync which failed to retrieve the {@link Build}s. Any cached {@link Build}s 
+	 * which are on display are left untouched, and the user is told that they are stale if 
+	 * Travis CI is known to be unavailable.
+	 */
+	@UI(UI_ALERT_ERROR)
+	private void alertError() {
+		
+		if(builds != null && CircuitBreaker.getInstance().isOpen(TravisCIStreamClient.HOST)) {
+			
+			Toast.makeText(this, R.string.lbl_travis_unavailable, Toast.LENGTH_LONG).show();
+		}
+		
+		stopSyncAnimation();
+	}
+	
+	/**
+	 * <p>Displays the given list of {@link Build}s without concluding the sync. This is used to 
+	 * present <i>stale</i> {@link Build}s while they are being revalidated.
+	 */
+	@UI(UI_PRESENT_BUILDS)
+	private void presentBuilds(List<Build> builds) {
+		
+		listView.setAdapter(BuildAdapter.newInstance(BuildsActivity.this, builds));
+	}
+	
 	@Click(R.id.alert_data)
 	private void enableData() {
 		
@@ -254,39 +369,32 @@ public class BuildsActivity extends TravisJrActivity {
 		
 		Build build = ((Build)listView.getItemAtPosition(position));
 		
-		if(BuildUtils.isOngoing(build)) {
-			
-			parent.startAnimation(shakeSidewaysOnce);
-		}
-		else {
+		parent.setAlpha(0.60f);
+		parent.postDelayed(new Runnable() {
 			
-			parent.setAlpha(0.60f);
-			parent.postDelayed(new Runnable() {
+			@Override
+			public void run() {
 				
-				@Override
-				public void run() {
-					
-					parent.setAlpha(1.00f);
-				}
-			}, 100);
-			
-			String[] slugTokens = repo.getSlug().split("/");
-			String ownerName; 
-			String repoName; 
-			
-			if(slugTokens.length > 1) {
-				
-				ownerName = slugTokens[0];
-				repoName = slugTokens[1];
-			}
-			else {
-				
-				repoName = slugTokens[0];
-				ownerName = accountService.getGitHubUsername(this);
+				parent.setAlpha(1.00f);
 			}
+		}, 100);
+		
+		String[] slugTokens = repo.getSlug().split("/");
+		String ownerName; 
+		String repoName; 
+		
+		if(slugTokens.length > 1) {
 			
-			BuildInfoActivity.start(this, ownerName, repoName, build.getId());
+			ownerName = slugTokens[0];
+			repoName = slugTokens[1];
 		}
+		else {
+			
+			repoName = slugTokens[0];
+			ownerName = accountService.getGitHubUsername(this);
+		}
+		
+		BuildInfoActivity.start(this, ownerName, repoName, build.getId());
 	}
 	
 	/**
@@ -24,14 +24,18 @@ package com.lonepulse.travisjr;
 import java.util.List;
 
 import android.app.ActionBar;
+import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
 import android.net.Uri;
 import android.util.Log;
 import android.view.Menu;
 import android.view.View;
 import android.widget.ArrayAdapter;
+import android.widget.ListAdapter;
 import android.widget.ListView;
+import android.widget.Toast;
 
 import com.lonepulse.icklebot.annotation.event.Click;
 import com.lonepulse.icklebot.annotation.event.ItemClick;
@@ -50,11 +54,18 @@ import com.lonepulse.travisjr.app.TravisJr;
 import com.lonepulse.travisjr.app.TravisJrActivity;
 import com.lonepulse.travisjr.model.GitHubUser;
 import com.lonepulse.travisjr.model.Repo;
+import com.lonepulse.travisjr.net.Cancellation;
+import com.lonepulse.travisjr.net.CircuitBreaker;
+import com.lonepulse.travisjr.net.GitHubRateLimiter.Priority;
+import com.lonepulse.travisjr.net.TravisCIStreamClient;
 import com.lonepulse.travisjr.service.AccountService;
 import com.lonepulse.travisjr.service.BasicIntentFilterService;
 import com.lonepulse.travisjr.service.RepoAccessException;
 import com.lonepulse.travisjr.service.RepoService;
+import com.lonepulse.travisjr.service.RepoService.RepoListener;
 import com.lonepulse.travisjr.service.UserMode;
+import com.lonepulse.travisjr.sync.BuildStateTracker;
+import com.lonepulse.travisjr.sync.SyncScheduler;
 
 /**
  * <p>Provides a statistical overview of the repositories under continuous 
@@ -63,7 +74,7 @@ import com.lonepulse.travisjr.service.UserMode;
  * <p>This activity may be started with its defaults by using any of the static 
  * methods prefixed with <i>start</i>.</p>
  * 
- * @version 1.1.0
+ * @version 1.1.9
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -73,8 +84,13 @@ public class ReposActivity extends TravisJrActivity {
 
 	
 	private static final int ASYNC_FETCH_REPOS = 0;
+	private static final int ASYNC_LOAD_SYNCED_REPOS = 1;
+	private static final int ASYNC_LOAD_MIRROR = 2;
 	private static final int UI_UPDATE_REPOS = 0;
 	private static final int UI_ALERT_ERROR = 1;
+	private static final int UI_PRESENT_REPOS = 2;
+	private static final int UI_RESOLVE_REPO = 3;
+	private static final int UI_ALERT_DATA = 4;
 
 	
 	@InjectApplication
@@ -116,6 +132,21 @@ public class ReposActivity extends TravisJrActivity {
 	@InjectIckleService
 	private NetworkManager network;
 	
+	/**
+	 * <p>Presents the snapshot of a background sync which saw a change in any repository.
+	 */
+	private final BroadcastReceiver reposChangedReceiver = new BroadcastReceiver() {
+		
+		@Override
+		public void onReceive(Context context, Intent intent) {
+			
+			if(!isSyncing()) {
+				
+				runAsyncTask(ASYNC_LOAD_SYNCED_REPOS);
+			}
+		}
+	};
+	
 	
 	@Override
 	protected void onHandleUri(Uri uri) {
@@ -169,6 +200,9 @@ public class ReposActivity extends TravisJrActivity {
 		super.onResume();
 		refresh();
 		listView.setSelectionFromTop(scrollPosition, 0);
+		
+		registerReceiver(reposChangedReceiver, new IntentFilter(SyncScheduler.ACTION_REPOS_CHANGED));
+		SyncScheduler.start(this);
 	}
 	
 	@Override
@@ -176,6 +210,8 @@ public class ReposActivity extends TravisJrActivity {
 		
 		super.onPause();
 		scrollPosition = listView.getFirstVisiblePosition();
+		
+		unregisterReceiver(reposChangedReceiver);
 	}
 	
 	@Override
@@ -187,7 +223,7 @@ public class ReposActivity extends TravisJrActivity {
 	
 	/**
 	 * <p>Updates the activity depending on the availability of data and the existence of a connected 
-	 * data network.
+	 * data network. If there is no network, the repositories mirrored by the last sync are shown.
 	 */
 	@Click(R.id.alert_error)
 	private void refresh() {
@@ -210,7 +246,12 @@ public class ReposActivity extends TravisJrActivity {
 		}
 		else if(repos == null && !connected) {
 			
-			listView.setEmptyView(alertData);
+			runAsyncTask(ASYNC_LOAD_MIRROR);
+		}
+		else if((isSyncInterrupted() || isShowingMirror()) && connected) {
+			
+			filterRepos(UI_PRESENT_REPOS, repos); //may be a partial list
+			onSync();
 		}
 		else {
 			
@@ -219,60 +260,303 @@ public class ReposActivity extends TravisJrActivity {
 	}
 	
 	/**
-	 * <p>Retrieves a list of repositories which the user is a member of and updates the display.
+	 * <p>Retrieves a list of repositories which the user is a member of and updates the display. 
+	 * If nothing is being displayed, the repositories which were cached on the last sync are 
+	 * presented while they are revalidated over the network.
+	 * 
+	 * <p>Repositories are presented progressively; if nothing is on display they are shown in 
+	 * chunks as they are parsed, and each row is refreshed in place as soon as the status of 
+	 * its last build is resolved, so that the first rows do not wait on the slowest lookup. 
+	 * Cached repositories are only replaced once the complete list has been parsed.
+	 * 
+	 * <p>The fetch is cancelled when the activity is paused or another sync is started, in which 
+	 * case nothing more is presented.
 	 */
 	@Async(ASYNC_FETCH_REPOS)
 	private void fetchRepos() {
 		
+		final Cancellation cancellation = beginTask(ASYNC_FETCH_REPOS);
+		boolean forceRefresh = consumeSyncRequest();
+		
 		try {
 			
-			String username = accountService.getGitHubUsername(this);
+			final String username = accountService.getGitHubUsername(this);
 			
-			UserMode userMode = accountService.hasTransientUser(this)? 
-				accountService.fetchUserMode(this) :accountService.getUserMode();
+			final UserMode userMode = accountService.hasTransientUser(this)? 
+				accountService.fetchUserMode(this, Priority.INTERACTIVE) :accountService.getUserMode();
 			
-			if(userMode.equals(UserMode.ORGANIZATION)) {
+			if(repos == null) {
 				
-				repos = repoService.getReposByOwner(username);
+				List<Repo> cachedRepos = userMode.equals(UserMode.ORGANIZATION)? 
+					repoService.getCachedReposByOwner(username) :repoService.getCachedReposByMember(username);
+				
+				if(cachedRepos != null && !cachedRepos.isEmpty()) {
+				
+					setRepos(username, userMode, cachedRepos);
+					filterRepos(UI_PRESENT_REPOS, repos);
+				}
 			}
-			else {
+			
+			final boolean presentChunks = (repos == null);
+			
+			RepoListener repoListener = new RepoListener() {
 				
-				repos = repoService.getReposByMember(username);
-				createdRepos = repoService.filterCreatedRepos(username, repos);
-				contributedRepos = repoService.filterContributedRepos(username, repos);
+				@Override
+				public void onReposParsed(List<Repo> parsedRepos, boolean complete) {
+					
+					if(cancellation.isCancelled() || (!complete && !presentChunks)) {
+						
+						return;
+					}
+					
+					if(complete && !presentChunks) {
+						
+						retainBuilds(parsedRepos);
+					}
+					
+					setRepos(username, userMode, parsedRepos);
+					filterRepos(UI_PRESENT_REPOS, repos);
+				}
+				
+				@Override
+				public void onRepoResolved(Repo repo) {
+					
+					if(!cancellation.isCancelled()) {
+						
+						runUITask(UI_RESOLVE_REPO, repo);
+					}
+				}
+			};
+			
+			List<Repo> fetchedRepos = userMode.equals(UserMode.ORGANIZATION)? 
+				repoService.getReposByOwner(username, repoListener, forceRefresh) 
+				:repoService.getReposByMember(username, repoListener, forceRefresh);
+			
+			if(cancellation.isCancelled()) {
+				
+				return; //cancelled after the repositories were fetched
+			}
+			
+			setRepos(username, userMode, fetchedRepos);
+			
+			if(!accountService.hasTransientUser(this)) {
+				
+				BuildStateTracker.getInstance().track(repos); //states seen here need not be notified
 			}
-			 
+			
+			hideMirror();
 			filterRepos(repos);
 		}
 		catch(RepoAccessException rae) {
-		
+			
+			if(cancellation.isCancelled()) {
+				
+				return;
+			}
+			
+			if(repos != null) {
+				
+				showMirror(getMirrorTime(accountService.getGitHubUsername(this), accountService.getUserMode(this)));
+			}
+			
 			runUITask(UI_ALERT_ERROR);
 			Log.e(getClass().getSimpleName(), rae.getMessage(), rae);
 		}
+		finally {
+			
+			endTask(ASYNC_FETCH_REPOS, cancellation);
+		}
+	}
+	
+	/**
+	 * <p>Presents the {@link Repo}s which a background sync has just cached for the signed-in 
+	 * user. Nothing is done while the repositories of a transient user are on display.
+	 */
+	@Async(ASYNC_LOAD_SYNCED_REPOS)
+	private void loadSyncedRepos() {
+		
+		try {
+			
+			if(accountService.hasTransientUser(this)) {
+				
+				return;
+			}
+			
+			String username = accountService.getGitHubUsername();
+			UserMode userMode = accountService.getUserMode();
+			
+			List<Repo> syncedRepos = userMode.equals(UserMode.ORGANIZATION)? 
+				repoService.getCachedReposByOwner(username) :repoService.getCachedReposByMember(username);
+			
+			if(syncedRepos != null) {
+				
+				setRepos(username, userMode, syncedRepos);
+				hideMirror();
+				filterRepos(UI_PRESENT_REPOS, repos);
+			}
+		}
+		catch(Exception e) {
+			
+			Log.e(getClass().getSimpleName(), "Failed to present the repositories of a background sync.", e);
+		}
+	}
+	
+	/**
+	 * <p>Presents the {@link Repo}s which were mirrored on the device by the last sync when there 
+	 * is no network, along with the time at which they were synced. The user is asked to enable 
+	 * a data connection if nothing was mirrored.
+	 */
+	@Async(ASYNC_LOAD_MIRROR)
+	private void loadMirror() {
+		
+		try {
+			
+			String username = accountService.getGitHubUsername(this);
+			UserMode userMode = accountService.getUserMode(this);
+			
+			List<Repo> mirroredRepos = userMode.equals(UserMode.ORGANIZATION)? 
+				repoService.getCachedReposByOwner(username) :repoService.getCachedReposByMember(username);
+			
+			if(mirroredRepos == null) {
+				
+				runUITask(UI_ALERT_DATA);
+				return;
+			}
+			
+			setRepos(username, userMode, mirroredRepos);
+			showMirror(getMirrorTime(username, userMode));
+			filterRepos(UI_PRESENT_REPOS, repos);
+		}
+		catch(Exception e) {
+			
+			runUITask(UI_ALERT_DATA);
+			Log.e(getClass().getSimpleName(), "Failed to present the mirrored repositories.", e);
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the time at which the mirrored {@link Repo}s of the given user were synced.
+	 * 
+	 * @param username
+	 * 			the user whose {@link Repo}s are mirrored
+	 * 
+	 * @param userMode
+	 * 			the {@link UserMode} of the user
+	 * 
+	 * @return the time in milliseconds since the epoch, else {@code 0} if nothing was mirrored
+	 */
+	private long getMirrorTime(String username, UserMode userMode) {
+		
+		return userMode.equals(UserMode.ORGANIZATION)? 
+			repoService.getCachedReposTimeByOwner(username) :repoService.getCachedReposTimeByMember(username);
+	}
+	
+	/**
+	 * <p>Sets the given {@link Repo}s as those which are displayed and, unless the user is an 
+	 * organization, filters them into created and contributed repositories. 
+	 * 
+	 * @param username
+	 * 			the user whose {@link Repo}s are being displayed
+	 * 
+	 * @param userMode
+	 * 			the {@link UserMode} of the user
+	 * 
+	 * @param repos
+	 * 			the {@link Repo}s to be displayed
+	 */
+	private void setRepos(String username, UserMode userMode, List<Repo> repos) {
+		
+		if(!userMode.equals(UserMode.ORGANIZATION)) {
+			
+			createdRepos = repoService.filterCreatedRepos(username, repos);
+			contributedRepos = repoService.filterContributedRepos(username, repos);
+		}
+		
+		this.repos = repos;
+	}
+	
+	/**
+	 * <p>Carries the recent {@link Build}s of the displayed {@link Repo}s over to their freshly 
+	 * parsed counterparts, so that rows which are on display do not revert to an unknown status 
+	 * while their builds are looked up again.
+	 * 
+	 * @param parsedRepos
+	 * 			the {@link Repo}s which are about to replace those on display
+	 */
+	private void retainBuilds(List<Repo> parsedRepos) {
+		
+		List<Repo> displayedRepos = repos;
+		
+		if(displayedRepos == null) {
+			
+			return;
+		}
+		
+		for (Repo repo : parsedRepos) {
+			
+			int index = displayedRepos.indexOf(repo);
+			
+			if(index >= 0 && repo.getBuilds().isEmpty()) {
+				
+				repo.setBuilds(displayedRepos.get(index).getBuilds());
+			}
+		}
 	}
 	
 	/**
 	 * <p>Alerts the user of an <b>unrecoverable</b> error which has occurred while retrieving the 
-	 * list of repositories.
+	 * list of repositories. Any cached repositories which are on display are left untouched, and 
+	 * the user is told that they are stale if Travis CI is known to be unavailable.
 	 */
 	@UI(UI_ALERT_ERROR)
 	private void alertError() {
 		
-		listView.setEmptyView(alertReposError);
-		alertReposError.setVisibility(View.VISIBLE);
+		if(repos == null) {
+			
+			listView.setEmptyView(alertReposError);
+			alertReposError.setVisibility(View.VISIBLE);
+			
+			listView.setAdapter(new ArrayAdapter<Void>(this, 0));
+		}
+		else if(CircuitBreaker.getInstance().isOpen(TravisCIStreamClient.HOST)) {
+			
+			Toast.makeText(this, R.string.lbl_travis_unavailable, Toast.LENGTH_LONG).show();
+		}
 		
-		listView.setAdapter(new ArrayAdapter<Void>(this, 0));
 		stopSyncAnimation();
 	}
 	
 	/**
-	 * <p>Updates the given list of {@link Repo}s on the displayed list.
+	 * <p>Asks the user to enable a data connection since nothing can be displayed without one.
+	 */
+	@UI(UI_ALERT_DATA)
+	private void alertNoData() {
+		
+		listView.setEmptyView(alertData);
+	}
+	
+	/**
+	 * <p>Updates the given list of {@link Repo}s on the displayed list and concludes the sync.
 	 *
 	 * @param repos
 	 * 			the {@link Repo}s which are to be updated
 	 */
 	@UI(UI_UPDATE_REPOS)
 	private void updateRepos(List<Repo> repos) {
+		
+		presentRepos(repos);
+		stopSyncAnimation();
+	}
+	
+	/**
+	 * <p>Displays the given list of {@link Repo}s without concluding the sync. This is used to 
+	 * present <i>stale</i> repositories while they are being revalidated.
+	 *
+	 * @param repos
+	 * 			the {@link Repo}s which are to be displayed
+	 */
+	@UI(UI_PRESENT_REPOS)
+	private void presentRepos(List<Repo> repos) {
 
 		if(repos.isEmpty()) {
 			
@@ -285,8 +569,34 @@ public class ReposActivity extends TravisJrActivity {
 			alertReposEmpty.setVisibility(View.GONE);
 		}
 		
-		listView.setAdapter(RepoAdapter.newInstance(ReposActivity.this, repos));
-		stopSyncAnimation();
+		ListAdapter adapter = listView.getAdapter();
+		
+		if(adapter instanceof RepoAdapter) {
+			
+			((RepoAdapter)adapter).setRepos(repos);
+		}
+		else {
+			
+			listView.setAdapter(RepoAdapter.newInstance(ReposActivity.this, repos));
+		}
+	}
+	
+	/**
+	 * <p>Refreshes the displayed row of the given {@link Repo} in place once the status of its 
+	 * last build has been resolved.
+	 *
+	 * @param repo
+	 * 			the {@link Repo} whose builds were resolved
+	 */
+	@UI(UI_RESOLVE_REPO)
+	private void resolveRepo(Repo repo) {
+		
+		ListAdapter adapter = listView.getAdapter();
+		
+		if(adapter instanceof RepoAdapter) {
+			
+			((RepoAdapter)adapter).updateRepo(repo);
+		}
 	}
 	
 	/**
@@ -296,20 +606,35 @@ public class ReposActivity extends TravisJrActivity {
 	 * @param repos
 	 * 			the displayed {@link Repo}s to be filtered
 	 */
-	private synchronized void filterRepos(List<Repo> repos) {
+	private void filterRepos(List<Repo> repos) {
+		
+		filterRepos(UI_UPDATE_REPOS, repos);
+	}
+	
+	/**
+	 * <p>Filters the displayed {@link Repo}s based on selected navigation tab and runs the 
+	 * given UI task for display.
+	 * 
+	 * @param uiTask
+	 * 			the id of the UI task which displays the filtered {@link Repo}s
+	 * 
+	 * @param repos
+	 * 			the displayed {@link Repo}s to be filtered
+	 */
+	private synchronized void filterRepos(int uiTask, List<Repo> repos) {
 		
 		switch (getSelectedTab()) {
 		
 			case 0: case R.string.key_repositories:
-				runUITask(UI_UPDATE_REPOS, repos);
+				runUITask(uiTask, repos);
 				break;
 				
 			case R.string.key_contributed:
-				runUITask(UI_UPDATE_REPOS, contributedRepos);
+				runUITask(uiTask, contributedRepos);
 				break;
 					
 			case R.string.key_created:
-				runUITask(UI_UPDATE_REPOS, createdRepos);
+				runUITask(uiTask, createdRepos);
 				break;
 		}
 	}
@@ -364,20 +689,7 @@ public class ReposActivity extends TravisJrActivity {
 			}
 		}, 100);
 		
-		switch (getSelectedTab()) {
-		
-			case 0: case R.string.key_repositories:
-				BuildsActivity.start(this, repos.get(position));
-				break;
-				
-			case R.string.key_created:
-				BuildsActivity.start(this, createdRepos.get(position));
-				break;
-				
-			case R.string.key_contributed:
-				BuildsActivity.start(this, contributedRepos.get(position));
-				break;
-		}
+		BuildsActivity.start(this, (Repo)listView.getItemAtPosition(position));
 	}
 	
 	/**
@@ -38,6 +38,7 @@ import android.widget.TextView;
 
 import com.lonepulse.travisjr.R;
 import com.lonepulse.travisjr.model.Build;
+import com.lonepulse.travisjr.util.BuildUtils;
 import com.lonepulse.travisjr.util.Res;
 import com.lonepulse.travisjr.util.TextUtils;
 
@@ -45,7 +46,7 @@ import com.lonepulse.travisjr.util.TextUtils;
  * <p>An extension of {@link ArrayAdapter} which populates a {@link ListView} 
  * with {@link Build} entities.
  * 
- * @version 1.1.0
+ * @version 1.1.1
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -315,8 +316,7 @@ public class BuildAdapter extends ArrayAdapter<Build> {
 	 */
 	private boolean isFinished(Build build) {
 	
-		String stateFinished = Res.string(R.string.key_state_finished);
-		return (build.getResult() != null)? true :build.getState().equals(stateFinished)? true :false;
+		return (build.getResult() != null)? true :BuildUtils.isFinished(build.getState());
 	}
 	
 	/**
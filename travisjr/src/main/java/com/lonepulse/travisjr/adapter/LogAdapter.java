@@ -0,0 +1,466 @@
+package com.lonepulse.travisjr.adapter;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import android.content.Context;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.log.Fold;
+import com.lonepulse.travisjr.log.LogFile;
+import com.lonepulse.travisjr.log.LogRenderer;
+
+/**
+ * <p>An extension of {@link BaseAdapter} which populates a {@link ListView} with the lines
+ * of a {@link LogFile}. Lines are read from the device only as their rows become visible,
+ * so the memory used is independent of the size of the log. Each line is styled by a
+ * {@link LogRenderer} as it is bound to its row.</p>
+ * 
+ * <p>Each closed {@link Fold} is collapsed into the row of its first line until it is 
+ * expanded via {@link #toggleFold(int)}. Rows are mapped to lines through the runs of 
+ * visible lines between collapsed folds, so the cost of a toggle depends on the number 
+ * of folds rather than the number of lines.</p>
+ * 
+ * @version 1.1.2
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class LogAdapter extends BaseAdapter {
+	
+
+	/**
+	 * <p>The {@link Context} in which the adapter was instantiated.</p>
+	 */
+	private Context context;
+
+	/**
+	 * <p>The {@link LogFile} whose lines are consumed by this adapter.</p>
+	 */
+	private LogFile logFile;
+
+	/**
+	 * <p>The number of lines which are exposed; this is refreshed via {@link #refresh()}.</p>
+	 */
+	private int lineCount;
+	
+	/**
+	 * <p>The size of the log when it was last refreshed.</p>
+	 */
+	private long length;
+	
+	/**
+	 * <p>The {@link LogRenderer} which styles the lines as they are bound.</p>
+	 */
+	private final LogRenderer renderer = new LogRenderer();
+	
+	/**
+	 * <p>The {@link Fold}s of the log as of the last refresh.</p>
+	 */
+	private List<Fold> folds = Collections.emptyList();
+	
+	/**
+	 * <p>The start lines of the closed folds which the user has expanded.</p>
+	 */
+	private final Set<Integer> expandedFolds = new HashSet<Integer>();
+	
+	/**
+	 * <p>The first line of each run of visible lines.</p>
+	 */
+	private int[] runLines = new int[16];
+	
+	/**
+	 * <p>The position of the first row of each run of visible lines.</p>
+	 */
+	private int[] runPositions = new int[16];
+	
+	/**
+	 * <p>The number of valid entries in {@link #runLines} and {@link #runPositions}.</p>
+	 */
+	private int runCount;
+	
+	/**
+	 * <p>The number of rows which are visible.</p>
+	 */
+	private int rowCount;
+
+
+	/**
+	 * <p>Use {@link LogAdapter#newInstance(Context, LogFile)} instead.</p>
+	 */
+	private LogAdapter(Context context, LogFile logFile) {
+		
+		this.context = context;
+		this.logFile = logFile;
+		this.folds = logFile.getFolds(); //before the line count, which may only grow past the folds
+		this.lineCount = logFile.getLineCount();
+		this.length = logFile.length();
+		
+		layoutRows();
+	}
+
+	/**
+	 * <p>See {@link BaseAdapter#getCount()}.</p>
+	 */
+	@Override
+	public int getCount() {
+		
+		return rowCount;
+	}
+
+	/**
+	 * <p>Reads the line which is displayed at the given position from the {@link LogFile}.</p>
+	 */
+	@Override
+	public String getItem(int position) {
+		
+		int line = getLine(position);
+		
+		try {
+			
+			return logFile.readLine(line);
+		}
+		catch(IOException ioe) {
+			
+			Log.e(getClass().getSimpleName(), "Failed to read line " + line + " of the log.", ioe);
+			return "";
+		}
+	}
+	
+	/**
+	 * <p>Resolves the index of the line which is displayed at the given position.</p>
+	 * 
+	 * @param position
+	 * 			the position of the row
+	 * 
+	 * @return the index of the line in the {@link LogFile}
+	 * 
+	 * @since 1.1.2
+	 */
+	public int getLine(int position) {
+		
+		int low = 0, high = runCount - 1;
+		
+		while(low < high) {
+			
+			int mid = (low + high + 1) >>> 1;
+			
+			if(runPositions[mid] <= position) low = mid;
+			else high = mid - 1;
+		}
+		
+		return runLines[low] + (position - runPositions[low]);
+	}
+	
+	/**
+	 * <p>Resolves the position of the row which displays the given line, expanding 
+	 * any folds which hide it.</p>
+	 * 
+	 * @param line
+	 * 			the index of the line in the {@link LogFile}
+	 * 
+	 * @return the position of the row
+	 * 
+	 * @since 1.1.2
+	 */
+	public int getPosition(int line) {
+		
+		boolean expanded = false;
+		
+		for (Fold fold : folds) {
+			
+			if(fold.getStartLine() >= line) break;
+			
+			if(fold.isClosed() && line <= fold.getEndLine()) {
+				
+				expanded |= expandedFolds.add(Integer.valueOf(fold.getStartLine()));
+			}
+		}
+		
+		if(expanded) {
+			
+			layoutRows();
+			notifyDataSetChanged();
+		}
+		
+		for (int run = runCount - 1; run >= 0; run--) {
+			
+			if(runLines[run] <= line) {
+				
+				return runPositions[run] + (line - runLines[run]);
+			}
+		}
+		
+		return 0;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Fold} which starts at the row of the given position.</p>
+	 * 
+	 * @param position
+	 * 			the position of the row
+	 * 
+	 * @return the {@link Fold} at the row, else {@code null} if the row does not start a fold
+	 * 
+	 * @since 1.1.2
+	 */
+	public Fold getFold(int position) {
+		
+		int line = getLine(position);
+		
+		int low = 0, high = folds.size() - 1;
+		
+		while(low <= high) {
+			
+			int mid = (low + high) >>> 1;
+			int startLine = folds.get(mid).getStartLine();
+			
+			if(startLine < line) low = mid + 1;
+			else if(startLine > line) high = mid - 1;
+			else return folds.get(mid);
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * <p>Collapses or expands the closed {@link Fold} which starts at the given position.</p>
+	 * 
+	 * @param position
+	 * 			the position of the row which was selected
+	 * 
+	 * @return {@code true} if a fold was toggled
+	 * 
+	 * @since 1.1.2
+	 */
+	public boolean toggleFold(int position) {
+		
+		Fold fold = getFold(position);
+		
+		if(fold == null || !fold.isClosed()) {
+			
+			return false;
+		}
+		
+		Integer startLine = Integer.valueOf(fold.getStartLine());
+		
+		if(!expandedFolds.remove(startLine)) {
+			
+			expandedFolds.add(startLine);
+		}
+		
+		layoutRows();
+		notifyDataSetChanged();
+		
+		return true;
+	}
+	
+	/**
+	 * <p>Determines whether the given {@link Fold} is collapsed. Open folds are never 
+	 * collapsed, so that the output of an ongoing job remains visible.</p>
+	 */
+	private boolean isCollapsed(Fold fold) {
+		
+		return fold.isClosed() && !expandedFolds.contains(Integer.valueOf(fold.getStartLine()));
+	}
+	
+	/**
+	 * <p>Computes the runs of visible lines between the collapsed folds.</p>
+	 */
+	private void layoutRows() {
+		
+		runCount = 0;
+		rowCount = 0;
+		
+		int line = 0;
+		
+		for (Fold fold : folds) {
+			
+			int startLine = fold.getStartLine();
+			
+			if(startLine < line || startLine >= lineCount || !isCollapsed(fold)) {
+				
+				continue; //hidden by an enclosing fold, or expanded
+			}
+			
+			addRun(line, startLine + 1 - line);
+			line = Math.min(fold.getEndLine() + 1, lineCount);
+		}
+		
+		if(line < lineCount || runCount == 0) {
+			
+			addRun(line, Math.max(lineCount - line, 0));
+		}
+	}
+	
+	private void addRun(int line, int rows) {
+		
+		if(runCount == runLines.length) {
+			
+			int[] grownLines = new int[runCount * 2];
+			System.arraycopy(runLines, 0, grownLines, 0, runCount);
+			runLines = grownLines;
+			
+			int[] grownPositions = new int[runCount * 2];
+			System.arraycopy(runPositions, 0, grownPositions, 0, runCount);
+			runPositions = grownPositions;
+		}
+		
+		runLines[runCount] = line;
+		runPositions[runCount] = rowCount;
+		runCount++;
+		
+		rowCount += rows;
+	}
+
+	/**
+	 * <p>See {@link BaseAdapter#getItemId(int)}.</p>
+	 */
+	@Override
+	public long getItemId(int position) {
+		
+		return position;
+	}
+
+	/**
+	 * <p>See {@link BaseAdapter#getView(int, View, ViewGroup)}.</p>
+	 */
+	@Override
+	public View getView(int position, View convertView, ViewGroup parent) {
+		
+		Fold fold = getFold(position);
+		
+		if(fold == null) {
+			
+			if(convertView == null) {
+				
+				convertView = LayoutInflater.from(context).inflate(R.layout.list_item_log, parent, false);
+			}
+			
+			((TextView)convertView).setText(renderer.render(getItem(position)));
+		}
+		else {
+			
+			if(convertView == null) {
+				
+				convertView = LayoutInflater.from(context).inflate(R.layout.list_item_log_fold, parent, false);
+			}
+			
+			CharSequence text = renderer.render(getItem(position));
+			
+			((TextView)convertView.findViewById(R.id.log_line)).setText(
+				text.length() == 0? fold.getName() :text);
+			
+			((TextView)convertView.findViewById(R.id.status)).setText(
+				isCollapsed(fold)? R.string.lbl_fold_collapsed :R.string.lbl_fold_expanded);
+			
+			((TextView)convertView.findViewById(R.id.duration)).setText(fold.getDuration() < 0? 
+				"" :context.getString(R.string.lbl_fold_duration, fold.getDuration() / 1e9));
+		}
+		
+		return convertView;
+	}
+	
+	/**
+	 * <p>See {@link BaseAdapter#getViewTypeCount()}.</p>
+	 */
+	@Override
+	public int getViewTypeCount() {
+		
+		return 2;
+	}
+	
+	/**
+	 * <p>Rows which start a {@link Fold} are of type {@code 1}, all others of type {@code 0}.</p>
+	 */
+	@Override
+	public int getItemViewType(int position) {
+		
+		return getFold(position) == null? 0 :1;
+	}
+
+	/**
+	 * <p>Exposes any content which was appended to the {@link LogFile} since this adapter was
+	 * created or last refreshed, including the continuation of a partial last line and any 
+	 * folds which were opened or closed. This must be invoked on the UI thread.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public void refresh() {
+		
+		long currentLength = logFile.length();
+		
+		if(currentLength != length) {
+			
+			length = currentLength;
+			folds = logFile.getFolds();
+			lineCount = logFile.getLineCount();
+			
+			layoutRows();
+			notifyDataSetChanged();
+		}
+	}
+
+	/**
+	 * <p>Retrieves the {@link LogFile} which is consumed by this adapter.</p>
+	 * 
+	 * @return the {@link LogFile} of this adapter
+	 * 
+	 * @since 1.1.0
+	 */
+	public LogFile getLogFile() {
+		
+		return logFile;
+	}
+
+	/**
+	 * <p>Creates a new instance of {@link LogAdapter} with the base {@link Context} and the
+	 * {@link LogFile} whose lines it is to display.</p>
+	 * 
+	 * @param context
+	 * 			the {@link Context} in which the adapter was instantiated
+	 * 
+	 * @param logFile
+	 * 			the {@link LogFile} to be displayed
+	 * 
+	 * @return a new instance of {@link LogAdapter}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static LogAdapter newInstance(Context context, LogFile logFile) {
+		
+		return new LogAdapter(context, logFile);
+	}
+}
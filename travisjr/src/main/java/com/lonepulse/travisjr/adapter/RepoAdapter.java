@@ -21,6 +21,8 @@ package com.lonepulse.travisjr.adapter;
  */
 
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -40,15 +42,20 @@ import android.widget.TextView;
 import com.lonepulse.travisjr.R;
 import com.lonepulse.travisjr.model.Build;
 import com.lonepulse.travisjr.model.Repo;
-import com.lonepulse.travisjr.util.DateUtils;
+import com.lonepulse.travisjr.util.BuildUtils;
 import com.lonepulse.travisjr.util.Res;
 import com.lonepulse.travisjr.util.TextUtils;
+import com.lonepulse.travisjr.util.Timestamp;
 
 /**
  * <p>An extension of {@link ArrayAdapter} which populates a {@link ListView} 
  * with {@link Repo} entities.
  * 
- * @version 1.2.0
+ * <p>The adapter keeps its own sorted copy of the {@link Repo}s, which can be replaced via 
+ * {@link #setRepos(Collection)} or refreshed via {@link #updateRepo(Repo)} without swapping 
+ * out the adapter, so that the list keeps its scroll position and recycled views.</p>
+ * 
+ * @version 1.2.3
  * <br><br>
  * @since 1.1.0
  * <br><br>
@@ -305,15 +312,17 @@ public class RepoAdapter extends ArrayAdapter<Repo> {
 		
 		viewHolder.buildNumber.setText(String.valueOf(repo.getLast_build_number()));
 		
-		viewHolder.startTime.setText(TextUtils.isAvailable(DateUtils.formatTimeForDisplay(repo.getLast_build_started_at())));
+		Timestamp started = repo.getLastBuildStartedTimestamp();
+		
+		viewHolder.startTime.setText(TextUtils.isAvailable(started.getTime()));
 		
 		if(context.getResources().getConfiguration().orientation == Configuration.ORIENTATION_PORTRAIT) {
 		
-			viewHolder.startDate.setText(TextUtils.isAvailable(DateUtils.formatDateForDisplay(repo.getLast_build_started_at())));
+			viewHolder.startDate.setText(TextUtils.isAvailable(started.getDate()));
 		}
 		else {
 			
-			viewHolder.startDate.setText(TextUtils.isAvailable(DateUtils.formatMonthDayForDisplay(repo.getLast_build_started_at())));
+			viewHolder.startDate.setText(TextUtils.isAvailable(started.getMonthDay()));
 		}
 		
 		Integer duration = repo.getLast_build_duration();
@@ -326,19 +335,70 @@ public class RepoAdapter extends ArrayAdapter<Repo> {
 		
 		if(endTime != null) {
 			
-			endTime.setText(TextUtils.isAvailable(DateUtils.formatTimeForDisplay(repo.getLast_build_finished_at())));
+			endTime.setText(TextUtils.isAvailable(repo.getLastBuildFinishedTimestamp().getTime()));
 		}
 		
 		TextView endDate = viewHolder.endDate;
 		
 		if(endDate != null) {
 			
-			endDate.setText(TextUtils.isAvailable(DateUtils.formatYearForDisplay(repo.getLast_build_started_at())));
+			endDate.setText(TextUtils.isAvailable(started.getYear()));
 		}
 		
 		return viewHolder.root;
 	}
 	
+	/**
+	 * <p>Replaces the {@link Repo}s on display with the given {@link Repo}s, sorted by the 
+	 * last-build start date.
+	 *
+	 * @param repos
+	 * 			the {@link Repo}s which are to be displayed
+	 * 
+	 * @since 1.2.1
+	 */
+	public void setRepos(Collection<Repo> repos) {
+		
+		List<Repo> sorted = new ArrayList<Repo>(repos);
+		Collections.sort(sorted);
+		
+		setNotifyOnChange(false);
+		
+		clear();
+		addAll(sorted);
+		
+		notifyDataSetChanged();
+	}
+	
+	/**
+	 * <p>Refreshes the row of the given {@link Repo} once the status of its last build has been 
+	 * resolved. If the adapter holds a copy of the {@link Repo} rather than the instance itself, 
+	 * the copy takes on its recent {@link Build}s. 
+	 *
+	 * @param repo
+	 * 			the resolved {@link Repo}, which is ignored if it is not on display
+	 * 
+	 * @since 1.2.1
+	 */
+	public void updateRepo(Repo repo) {
+		
+		int index = data.indexOf(repo);
+		
+		if(index < 0) {
+			
+			return;
+		}
+		
+		Repo displayed = data.get(index);
+		
+		if(displayed != repo) {
+			
+			displayed.setBuilds(repo.getBuilds());
+		}
+		
+		notifyDataSetChanged();
+	}
+	
 	/**
 	 * <p>Determines if the last {@link Build} for the given {@link Repo} has run to completion. 
 	 *
@@ -350,15 +410,19 @@ public class RepoAdapter extends ArrayAdapter<Repo> {
 	private boolean isFinished(Repo repo) {
 		
 		Short buildStatus = repo.getLast_build_status();
-		String stateFinished = Res.string(R.string.key_state_finished);
+		
+		if(buildStatus == null && repo.getBuilds().isEmpty()) {
+			
+			return false; //recent builds could not be fetched
+		}
 		
 		return (buildStatus != null)? 
-			true :repo.getBuilds().get(0).getState().equals(stateFinished)? true :false;
+			true :BuildUtils.isFinished(repo.getBuilds().get(0).getState());
 	}
 	
 	/**
 	 * <p>Creates a new instance of {@link RepoAdapter} with the base {@link Context} 
-	 * and the set of {@link Data} which it is to consume. It sorts the {@link Repo}s 
+	 * and the set of {@link Data} which it is to consume. It sorts a copy of the {@link Repo}s 
 	 * by the last-build start date. 
 	 *
 	 * @param context
@@ -367,13 +431,15 @@ public class RepoAdapter extends ArrayAdapter<Repo> {
 	 * @param data
 	 * 			the set of {@link Repo} entities to be consumed by this adapter
 	 * 
-	 * @return a new instance of {@link ArrayAdapter} of type {@link Repo}
+	 * @return a new instance of {@link RepoAdapter}
 	 * 
 	 * @since 1.1.0
 	 */
-	public static ArrayAdapter<Repo> newInstance(Context context, List<Repo> data) {
+	public static RepoAdapter newInstance(Context context, List<Repo> data) {
+		
+		List<Repo> sorted = new ArrayList<Repo>(data);
+		Collections.sort(sorted);
 		
-		Collections.sort(data);
-		return new RepoAdapter(context, data);
+		return new RepoAdapter(context, sorted);
 	}
 }
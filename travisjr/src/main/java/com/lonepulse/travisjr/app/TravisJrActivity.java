@@ -21,11 +21,17 @@ package com.lonepulse.travisjr.app;
  */
 
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import android.app.ActionBar;
 import android.app.Activity;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.util.SparseArray;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
@@ -40,16 +46,30 @@ import com.lonepulse.icklebot.network.NetworkManager;
 import com.lonepulse.icklebot.network.NetworkService;
 import com.lonepulse.travisjr.R;
 import com.lonepulse.travisjr.adapter.NavigationAdapter;
+import com.lonepulse.travisjr.net.Cancellation;
 import com.lonepulse.travisjr.pref.SettingsActivity;
 import com.lonepulse.travisjr.service.AccountService;
 import com.lonepulse.travisjr.service.BasicAccountService;
+import com.lonepulse.travisjr.util.DateUtils;
 import com.lonepulse.travisjr.view.NavigationSwipeDetector;
 
 /**
  * <p>A custom {@link IckleActivity} which is tailored to setup the {@link ActionBar} and provide support 
  * for syncing with Travis-CI.</p>
  * 
- * @version 1.3.0
+ * <p>Background tasks which work on behalf of this activity may run under a {@link Cancellation} 
+ * obtained from {@link #beginTask(int)}. All such tasks are cancelled once the activity is paused, 
+ * which aborts their requests and stops their parsing, and a task is cancelled as soon as another 
+ * task with the same ID supersedes it.</p>
+ * 
+ * <p>When the network cannot be reached, activities may present the data which was mirrored on 
+ * the device by the last sync and flag it as such with {@link #showMirror(long)}.</p>
+ * 
+ * <p>A sync which the user asks for from the action bar must not be served from data which is 
+ * cached within its time-to-live; the task which performs it learns of this via 
+ * {@link #consumeSyncRequest()}.</p>
+ * 
+ * @version 1.3.4
  * <br><br>
  * @since 1.1.0
  * <br><br>
@@ -110,6 +130,39 @@ public class TravisJrActivity extends IckleActivity {
 	 */
 	private AccountService accountService;
 	
+	/**
+	 * <p>The {@link Cancellation}s of the tasks which are running on behalf of this activity, 
+	 * keyed by the IDs of their tasks.
+	 */
+	private final SparseArray<Cancellation> tasks = new SparseArray<Cancellation>();
+	
+	/**
+	 * <p>The {@link Cancellation} which was bound to the worker thread of each running task before 
+	 * the task began, which is restored once the task ends. Guarded by {@link #tasks}.
+	 */
+	private final Map<Cancellation, Cancellation> bindings = new IdentityHashMap<Cancellation, Cancellation>();
+	
+	/**
+	 * <p>Whether the activity is paused, in which case new tasks are cancelled from the outset.
+	 */
+	private boolean paused = true;
+	
+	/**
+	 * <p>Whether a sync was cut short when the activity was last paused.
+	 */
+	private boolean syncInterrupted;
+	
+	/**
+	 * <p>Whether the user asked for the sync which is being started from the action bar.
+	 */
+	private volatile boolean syncRequested;
+	
+	/**
+	 * <p>The time at which the mirrored data on display was synced, else {@code 0} if live data 
+	 * is on display.
+	 */
+	private volatile long mirrorSyncedAt;
+	
 	
 	protected MenuItem getMenuItemSync() {
 		return menuItemSync;
@@ -358,6 +411,7 @@ public class TravisJrActivity extends IckleActivity {
 				
 				if(network.isConnected()) {
 					
+					syncRequested = true;
 					onSync();
 				}
 				else {
@@ -393,9 +447,254 @@ public class TravisJrActivity extends IckleActivity {
 	 */
 	protected synchronized void onSync() {
 		
+		syncInterrupted = false;
 		startSyncAnimation();
 	}
 	
+	/**
+	 * <p>Specifies whether a sync was cancelled when this activity was last paused and has not 
+	 * been restarted since. Override {@link #onResume()} to resume such a sync if the data on 
+	 * display may be incomplete.</p>
+	 *
+	 * @return {@code true} if a sync was interrupted
+	 * 
+	 * @since 1.3.1
+	 */
+	protected final boolean isSyncInterrupted() {
+		
+		return syncInterrupted;
+	}
+	
+	/**
+	 * <p>Determines whether the sync which is being performed was explicitly requested by the 
+	 * user, and clears the request so that it applies to a single sync. Invoke this at the start 
+	 * of the task which performs the sync and force a refresh of any cached data if it returns 
+	 * {@code true}.</p>
+	 *
+	 * @return {@code true} if the user asked for this sync
+	 * 
+	 * @since 1.3.3
+	 */
+	protected final boolean consumeSyncRequest() {
+		
+		boolean requested = syncRequested;
+		syncRequested = false;
+		
+		return requested;
+	}
+	
+	/**
+	 * <p>Invoke this service to tell the user that the data on display was read from the mirror 
+	 * on the device, since the network cannot be reached, and when that data was last synced. 
+	 * The banner with the ID {@code R.id.alert_offline} is shown if the layout declares it.</p>
+	 * 
+	 * <p>This service may be invoked from any thread.</p>
+	 *
+	 * @param syncedAt
+	 * 			the time in milliseconds since the epoch at which the mirrored data was stored, 
+	 * 			where {@code 0} (i.e. nothing was stored) is ignored
+	 * 
+	 * @since 1.3.2
+	 */
+	protected void showMirror(final long syncedAt) {
+		
+		if(syncedAt == 0) {
+			
+			return;
+		}
+		
+		mirrorSyncedAt = syncedAt;
+		
+		runOnUiThread(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				View banner = findViewById(R.id.alert_offline);
+				
+				if(banner instanceof TextView) {
+					
+					((TextView)banner).setText(getString(R.string.lbl_offline_mirror, 
+						DateUtils.formatDateTimeForDisplay(syncedAt)));
+					
+					banner.setVisibility(View.VISIBLE);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * <p>Invoke this service once live data is on display to hide the banner which was shown by 
+	 * {@link #showMirror(long)}. This service may be invoked from any thread.</p>
+	 * 
+	 * @since 1.3.2
+	 */
+	protected void hideMirror() {
+		
+		if(mirrorSyncedAt == 0) {
+			
+			return;
+		}
+		
+		mirrorSyncedAt = 0;
+		
+		runOnUiThread(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				View banner = findViewById(R.id.alert_offline);
+				
+				if(banner != null) {
+					
+					banner.setVisibility(View.GONE);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * <p>Specifies whether the data on display is the mirror which was presented with 
+	 * {@link #showMirror(long)}. Override {@link #onResume()} to revalidate such data once 
+	 * the network can be reached.</p>
+	 *
+	 * @return {@code true} if the mirror of the last sync is on display
+	 * 
+	 * @since 1.3.2
+	 */
+	protected final boolean isShowingMirror() {
+		
+		return mirrorSyncedAt != 0;
+	}
+	
+	/**
+	 * <p>Invoke this service on the worker thread of a background task, before it does any work, 
+	 * to run the task under a new {@link Cancellation}. Any task which is still running with the 
+	 * same ID is superseded and cancelled. Every call to this service must be followed by a call 
+	 * to {@link #endTask(int, Cancellation)} in a <i>finally</i> block.</p>
+	 *
+	 * @param taskId
+	 * 			the ID of the task which is beginning
+	 * 
+	 * @return the {@link Cancellation} which is bound to the calling thread, which is already 
+	 * 		   cancelled if the activity is paused
+	 * 
+	 * @since 1.3.1
+	 */
+	protected Cancellation beginTask(int taskId) {
+		
+		Cancellation cancellation = new Cancellation();
+		Cancellation superseded;
+		
+		synchronized (tasks) {
+			
+			superseded = tasks.get(taskId);
+			tasks.put(taskId, cancellation);
+			
+			if(paused) {
+				
+				cancellation.cancel();
+			}
+		}
+		
+		if(superseded != null) {
+			
+			superseded.cancel();
+		}
+		
+		Cancellation previous = cancellation.bind();
+		
+		synchronized (tasks) {
+			
+			bindings.put(cancellation, previous);
+		}
+		
+		return cancellation;
+	}
+	
+	/**
+	 * <p>Invoke this service once a task which was started with {@link #beginTask(int)} ends, 
+	 * to release its {@link Cancellation} and restore the token which was bound to the calling 
+	 * thread before the task began.</p>
+	 *
+	 * @param taskId
+	 * 			the ID of the task which has ended
+	 * 
+	 * @param cancellation
+	 * 			the {@link Cancellation} which was returned by {@link #beginTask(int)}
+	 * 
+	 * @since 1.3.1
+	 */
+	protected void endTask(int taskId, Cancellation cancellation) {
+		
+		Cancellation previous;
+		
+		synchronized (tasks) {
+			
+			if(tasks.get(taskId) == cancellation) {
+				
+				tasks.remove(taskId);
+			}
+			
+			previous = bindings.remove(cancellation);
+		}
+		
+		Cancellation.restore(previous);
+	}
+	
+	/**
+	 * <p>Cancels all tasks which are running on behalf of this activity.</p>
+	 */
+	private void cancelTasks() {
+		
+		List<Cancellation> cancellations = new ArrayList<Cancellation>();
+		
+		synchronized (tasks) {
+			
+			for (int i = 0; i < tasks.size(); i++) {
+				
+				cancellations.add(tasks.valueAt(i));
+			}
+			
+			tasks.clear();
+		}
+		
+		for (Cancellation cancellation : cancellations) {
+			
+			cancellation.cancel();
+		}
+	}
+	
+	@Override
+	protected void onResume() {
+		
+		synchronized (tasks) {
+			
+			paused = false;
+		}
+		
+		super.onResume();
+	}
+	
+	@Override
+	protected void onPause() {
+		
+		super.onPause();
+		
+		synchronized (tasks) {
+			
+			paused = true;
+		}
+		
+		cancelTasks();
+		
+		if(isSyncing()) {
+			
+			syncInterrupted = true;
+			stopSyncAnimation();
+		}
+	}
+	
 	/**
 	 * <p>Invoke this service to set the sync lock and start the default sync animation on the action bar.</p>
 	 * 
@@ -470,6 +769,9 @@ public class TravisJrActivity extends IckleActivity {
 		
 		if(actionBar != null && actionBar.getTabCount() > 1)
 			outState.putInt(getString(R.string.key_tab), actionBar.getSelectedTab().getPosition());
+		
+		outState.putBoolean(getString(R.string.key_sync_interrupted), syncInterrupted);
+		outState.putLong(getString(R.string.key_mirror_synced_at), mirrorSyncedAt);
 	}
 	
 	@Override
@@ -481,6 +783,15 @@ public class TravisJrActivity extends IckleActivity {
 		
 		if(actionBar != null && actionBar.getTabCount() > 1)
 			actionBar.setSelectedNavigationItem(savedInstanceState.getInt(getString(R.string.key_tab)));
+		
+		syncInterrupted |= savedInstanceState.getBoolean(getString(R.string.key_sync_interrupted));
+		
+		long syncedAt = savedInstanceState.getLong(getString(R.string.key_mirror_synced_at));
+		
+		if(syncedAt != 0) {
+			
+			showMirror(syncedAt);
+		}
 	}
 	
 	/**
@@ -0,0 +1,396 @@
+package com.lonepulse.travisjr.cache;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.net.URLEncoder;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.lonepulse.travisjr.app.TravisJr;
+import com.lonepulse.travisjr.model.ModelCodec;
+
+/**
+ * <p>A persistent key-value store which keeps each value as a JSON document in a file of its own
+ * under the application's private storage. It is used to retain the last known state of remote
+ * resources across process restarts.</p>
+ * 
+ * <p>Models may instead be kept in the compact binary encoding of the {@link ModelCodec} via 
+ * {@link #getModel(String)} and {@link #putModel(String, Object)}. Only the Travis CI models 
+ * are known to the codec, so JSON remains the format for everything else; the responses of 
+ * the GitHub API which are cached by {@code BasicIntentFilterService} and the build states 
+ * which {@code BuildStateTracker} retains are plain Gson types which have no binary encoding, 
+ * and they are small and rarely written, so the reflection of JSON costs them little.</p>
+ * 
+ * <p>Writes are atomic; a value is written to a temporary file which then replaces the previous
+ * value. Corrupt values are discarded and treated as absent.</p>
+ * 
+ * @version 1.1.3
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class DiskStore {
+	
+
+	/**
+	 * <p>The name of the directory within the application's files directory which
+	 * hosts the default {@link DiskStore}.</p>
+	 */
+	private static final String DIRECTORY = "store";
+
+	/**
+	 * <p>The {@link Gson} instance which is used to serialize and deserialize values.</p>
+	 */
+	private static final Gson GSON = new Gson();
+
+	/**
+	 * <p>The default {@link DiskStore} which is shared application wide.</p>
+	 */
+	private static volatile DiskStore instance;
+
+
+	/**
+	 * <p>The directory which hosts the files of this store.</p>
+	 */
+	private final File directory;
+
+
+	/**
+	 * <p>Retrieves the default {@link DiskStore} which is shared application wide.</p>
+	 * 
+	 * @return the default {@link DiskStore}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static DiskStore getInstance() {
+		
+		if(instance == null) {
+			
+			synchronized (DiskStore.class) {
+				
+				if(instance == null) {
+					
+					File filesDir = TravisJr.Application.getContext().getFilesDir();
+					instance = new DiskStore(new File(filesDir, DIRECTORY));
+				}
+			}
+		}
+		
+		return instance;
+	}
+
+	/**
+	 * <p>Creates a new {@link DiskStore} which keeps its values in the given directory.</p>
+	 * 
+	 * @param directory
+	 * 			the directory which hosts the files of this store; it is created if it
+	 * 			does not exist
+	 * 
+	 * @since 1.1.0
+	 */
+	public DiskStore(File directory) {
+		
+		this.directory = directory;
+		
+		if(!directory.exists() && !directory.mkdirs()) {
+			
+			Log.e(getClass().getSimpleName(), "Failed to create store directory " + directory);
+		}
+	}
+
+	/**
+	 * <p>Retrieves the value which was stored as JSON under the given key. Use 
+	 * {@link #getModel(String)} for the models which are known to the {@link ModelCodec}.</p>
+	 * 
+	 * @param key
+	 * 			the key of the value to be retrieved
+	 * 
+	 * @param type
+	 * 			the {@link Type} of the stored value
+	 * 
+	 * @return the stored value, else {@code null} if no value exists or if it could not be read
+	 * 
+	 * @since 1.1.0
+	 */
+	public <T> T get(String key, Type type) {
+		
+		File file = file(key);
+		
+		if(!file.exists()) {
+			
+			return null;
+		}
+		
+		Reader reader = null;
+		
+		try {
+			
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"), 8192);
+			return GSON.fromJson(reader, type);
+		}
+		catch(Exception e) {
+			
+			Log.w(getClass().getSimpleName(), "Discarding unreadable value for " + key, e);
+			file.delete();
+			
+			return null;
+		}
+		finally {
+			
+			close(reader);
+		}
+	}
+
+	/**
+	 * <p>Stores the given value as JSON under the given key, replacing any previous value. Use 
+	 * {@link #putModel(String, Object)} for the models which are known to the {@link ModelCodec}.</p>
+	 * 
+	 * @param key
+	 * 			the key under which the value is to be stored
+	 * 
+	 * @param value
+	 * 			the value to be stored
+	 * 
+	 * @return {@code true} if the value was successfully stored
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized boolean put(String key, Object value) {
+		
+		File file = file(key);
+		File temp = new File(directory, file.getName() + ".tmp");
+		
+		Writer writer = null;
+		
+		try {
+			
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), "UTF-8"), 8192);
+			GSON.toJson(value, writer);
+			
+			writer.close();
+			writer = null;
+			
+			if(!temp.renameTo(file)) {
+				
+				throw new IOException("Failed to replace " + file);
+			}
+			
+			return true;
+		}
+		catch(Exception e) {
+			
+			Log.e(getClass().getSimpleName(), "Failed to store value for " + key, e);
+			temp.delete();
+			
+			return false;
+		}
+		finally {
+			
+			close(writer);
+		}
+	}
+
+	/**
+	 * <p>Retrieves the model which was stored under the given key via {@link #putModel(String, Object)}.</p>
+	 * 
+	 * @param key
+	 * 			the key of the model to be retrieved
+	 * 
+	 * @return the stored model or list of models, else {@code null} if no model exists or if 
+	 * 		   it could not be read
+	 * 
+	 * @since 1.1.2
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getModel(String key) {
+		
+		File file = file(key);
+		
+		if(!file.exists()) {
+			
+			return null;
+		}
+		
+		DataInputStream in = null;
+		
+		try {
+			
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 8192));
+			return (T)ModelCodec.read(in);
+		}
+		catch(Exception e) {
+			
+			Log.w(getClass().getSimpleName(), "Discarding unreadable model for " + key, e);
+			file.delete();
+			
+			return null;
+		}
+		finally {
+			
+			close(in);
+		}
+	}
+
+	/**
+	 * <p>Stores the given model, or list of models, under the given key in the encoding of the 
+	 * {@link ModelCodec}, replacing any previous value.</p>
+	 * 
+	 * @param key
+	 * 			the key under which the model is to be stored
+	 * 
+	 * @param model
+	 * 			the model or list of models to be stored
+	 * 
+	 * @return {@code true} if the model was successfully stored
+	 * 
+	 * @since 1.1.2
+	 */
+	public synchronized boolean putModel(String key, Object model) {
+		
+		File file = file(key);
+		File temp = new File(directory, file.getName() + ".tmp");
+		
+		DataOutputStream out = null;
+		
+		try {
+			
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 8192));
+			ModelCodec.write(out, model);
+			
+			out.close();
+			out = null;
+			
+			if(!temp.renameTo(file)) {
+				
+				throw new IOException("Failed to replace " + file);
+			}
+			
+			return true;
+		}
+		catch(Exception e) {
+			
+			Log.e(getClass().getSimpleName(), "Failed to store model for " + key, e);
+			temp.delete();
+			
+			return false;
+		}
+		finally {
+			
+			close(out);
+		}
+	}
+
+	/**
+	 * <p>Retrieves the time at which the value under the given key was last stored.</p>
+	 * 
+	 * @param key
+	 * 			the key of the value whose timestamp is to be retrieved
+	 * 
+	 * @return the time in milliseconds since the epoch, else {@code 0} if no value exists
+	 * 
+	 * @since 1.1.0
+	 */
+	public long getTimestamp(String key) {
+		
+		return file(key).lastModified();
+	}
+
+	/**
+	 * <p>Removes the value stored under the given key, if any.</p>
+	 * 
+	 * @param key
+	 * 			the key of the value to be removed
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized void remove(String key) {
+		
+		file(key).delete();
+	}
+
+	/**
+	 * <p>Removes all values in this store.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized void clear() {
+		
+		File[] files = directory.listFiles();
+		
+		if(files != null) {
+			
+			for (File file : files) {
+				
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * <p>Resolves the file which holds the value for the given key.</p>
+	 */
+	private File file(String key) {
+		
+		try {
+			
+			return new File(directory, URLEncoder.encode(key, "UTF-8"));
+		}
+		catch(UnsupportedEncodingException uee) {
+			
+			throw new IllegalStateException(uee);
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		
+		if(closeable != null) {
+			
+			try {
+				
+				closeable.close();
+			}
+			catch(IOException ioe) {
+				
+				Log.w(DiskStore.class.getSimpleName(), "Failed to close stream.", ioe);
+			}
+		}
+	}
+}
@@ -0,0 +1,295 @@
+package com.lonepulse.travisjr.cache;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.Collection;
+import java.util.List;
+
+import android.util.LruCache;
+
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.model.Build;
+import com.lonepulse.travisjr.model.ModelCodec;
+import com.lonepulse.travisjr.model.Repo;
+import com.lonepulse.travisjr.util.Res;
+
+/**
+ * <p>An application wide cache of deserialized models which is kept in two tiers. Models are 
+ * held in memory, so that moving between screens reuses the instances which were already 
+ * read, and are persisted to a {@link DiskStore} in the compact binary encoding of the 
+ * {@link ModelCodec} so that they outlive the process. A model which is missing in memory is 
+ * read from the disk and promoted.</p>
+ * 
+ * <p>The memory tier is bounded by {@link R.integer#model_cache_weight}, where each model 
+ * weighs one unit, a {@link Repo} also weighs as much as the {@link Build}s it carries and a 
+ * collection also weighs as much as its elements. The least recently used models are evicted 
+ * from memory first; they remain on the disk.</p>
+ * 
+ * <p>Models are not expired by the cache. Instead, {@link #isFresh(String, long)} tells 
+ * whether a model is within the time-to-live which applies to its resource.</p>
+ * 
+ * @version 1.1.2
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class ModelCache {
+	
+
+	/**
+	 * <p>The default {@link ModelCache} which is shared application wide.</p>
+	 */
+	private static volatile ModelCache instance;
+
+
+	/**
+	 * <p>The {@link DiskStore} which forms the disk tier.</p>
+	 */
+	private final DiskStore diskStore;
+
+	/**
+	 * <p>The memory tier, which is keyed identically to the disk tier.</p>
+	 */
+	private final LruCache<String, Entry> memory;
+
+
+	/**
+	 * <p>A model which is held in memory along with the time at which it was stored.</p>
+	 */
+	private static final class Entry {
+		
+		
+		private final Object value;
+		private final long storedAt;
+		
+		
+		private Entry(Object value, long storedAt) {
+			
+			this.value = value;
+			this.storedAt = storedAt;
+		}
+	}
+
+
+	/**
+	 * <p>Retrieves the default {@link ModelCache} which is shared application wide and 
+	 * persists to the default {@link DiskStore}.</p>
+	 * 
+	 * @return the default {@link ModelCache}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static ModelCache getInstance() {
+		
+		if(instance == null) {
+			
+			synchronized (ModelCache.class) {
+				
+				if(instance == null) {
+					
+					instance = new ModelCache(DiskStore.getInstance(), Res.integer(R.integer.model_cache_weight));
+				}
+			}
+		}
+		
+		return instance;
+	}
+
+	/**
+	 * <p>Creates a new {@link ModelCache} which persists to the given {@link DiskStore}.</p>
+	 * 
+	 * @param diskStore
+	 * 			the {@link DiskStore} which forms the disk tier
+	 * 
+	 * @param maxWeight
+	 * 			the maximum total weight of the models which are held in memory
+	 * 
+	 * @since 1.1.0
+	 */
+	public ModelCache(DiskStore diskStore, int maxWeight) {
+		
+		this.diskStore = diskStore;
+		
+		this.memory = new LruCache<String, Entry>(maxWeight) {
+			
+			@Override
+			protected int sizeOf(String key, Entry entry) {
+				
+				return weigh(entry.value);
+			}
+		};
+	}
+
+	/**
+	 * <p>Retrieves the model which was stored under the given key, regardless of its age.</p>
+	 * 
+	 * @param key
+	 * 			the key of the model to be retrieved
+	 * 
+	 * @return the stored model, else {@code null} if no model exists or if it could not be read
+	 * 
+	 * @since 1.1.0
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key) {
+		
+		Entry entry = memory.get(key);
+		
+		if(entry != null) {
+			
+			return (T)entry.value;
+		}
+		
+		T value = diskStore.getModel(key);
+		
+		if(value != null) {
+			
+			memory.put(key, new Entry(value, diskStore.getTimestamp(key)));
+		}
+		
+		return value;
+	}
+
+	/**
+	 * <p>Stores the given model under the given key in both tiers, replacing any model which 
+	 * was stored before.</p>
+	 * 
+	 * @param key
+	 * 			the key under which the model is to be stored
+	 * 
+	 * @param value
+	 * 			the model, or list of models, to be stored
+	 * 
+	 * @since 1.1.0
+	 */
+	public void put(String key, Object value) {
+		
+		memory.put(key, new Entry(value, System.currentTimeMillis()));
+		
+		if(!diskStore.putModel(key, value)) {
+			
+			memory.remove(key); //the tiers must not disagree after a restart
+		}
+	}
+
+	/**
+	 * <p>Retrieves the time at which the model under the given key was stored.</p>
+	 * 
+	 * @param key
+	 * 			the key of the model whose timestamp is to be retrieved
+	 * 
+	 * @return the time in milliseconds since the epoch, else {@code 0} if no model exists
+	 * 
+	 * @since 1.1.0
+	 */
+	public long getTimestamp(String key) {
+		
+		Entry entry = memory.get(key);
+		
+		return (entry != null)? entry.storedAt :diskStore.getTimestamp(key);
+	}
+
+	/**
+	 * <p>Determines whether the model under the given key was stored within the given 
+	 * time-to-live, in which case it may be used without being revalidated.</p>
+	 * 
+	 * @param key
+	 * 			the key of the model whose freshness is to be determined
+	 * 
+	 * @param ttl
+	 * 			the time-to-live of the model in milliseconds
+	 * 
+	 * @return {@code true} if the model exists and is no older than the time-to-live
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isFresh(String key, long ttl) {
+		
+		long storedAt = getTimestamp(key);
+		
+		return storedAt != 0 && System.currentTimeMillis() - storedAt <= ttl;
+	}
+
+	/**
+	 * <p>Removes the model under the given key from both tiers, if any.</p>
+	 * 
+	 * @param key
+	 * 			the key of the model to be removed
+	 * 
+	 * @since 1.1.0
+	 */
+	public void remove(String key) {
+		
+		memory.remove(key);
+		diskStore.remove(key);
+	}
+
+	/**
+	 * <p>Removes all models from both tiers. This clears the entire {@link DiskStore}.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public void clear() {
+		
+		memory.evictAll();
+		diskStore.clear();
+	}
+
+	/**
+	 * <p>Weighs a model for the memory tier.</p>
+	 * 
+	 * @return {@code 1} for a single model, {@code 1} more than the number of {@link Build}s 
+	 * 		   for a {@link Repo}, else {@code 1} more than the total weight of the elements in 
+	 * 		   a collection or an array
+	 */
+	private static int weigh(Object value) {
+		
+		int weight = 1;
+		
+		if(value instanceof Collection<?>) {
+			
+			for (Object element : (Collection<?>)value) {
+				
+				weight += weigh(element);
+			}
+		}
+		else if(value instanceof Object[]) {
+			
+			for (Object element : (Object[])value) {
+				
+				weight += weigh(element);
+			}
+		}
+		else if(value instanceof Repo) {
+			
+			List<Build> builds = ((Repo)value).getBuilds();
+			
+			if(builds != null) {
+				
+				weight += builds.size();
+			}
+		}
+		
+		return weight;
+	}
+}
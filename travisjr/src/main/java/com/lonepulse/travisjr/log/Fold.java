@@ -0,0 +1,189 @@
+package com.lonepulse.travisjr.log;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+/**
+ * <p>A section of a build log which is delimited by the <i>travis_fold:start</i> and
+ * <i>travis_fold:end</i> markers. A fold spans from the line of its start marker up to and
+ * including the line of its end marker; it remains <i>open</i> until the end marker is seen.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class Fold {
+	
+
+	/**
+	 * <p>The name of this fold, e.g. <i>install</i> or <i>git.checkout</i>.</p>
+	 */
+	private final String name;
+
+	/**
+	 * <p>The number of folds which enclose this fold.</p>
+	 */
+	private final int depth;
+
+	/**
+	 * <p>The index of the line which holds the start marker.</p>
+	 */
+	private final int startLine;
+
+	/**
+	 * <p>The byte offset at which the line of the start marker begins.</p>
+	 */
+	private final long startOffset;
+
+	/**
+	 * <p>The index of the line which holds the end marker, else {@code -1} while open.</p>
+	 */
+	private volatile int endLine = -1;
+
+	/**
+	 * <p>The byte offset at which the line following the end marker begins.</p>
+	 */
+	private volatile long endOffset = -1;
+
+	/**
+	 * <p>The total duration in nanoseconds of the timed commands in this fold, else
+	 * {@code -1} if none were timed.</p>
+	 */
+	private volatile long duration = -1;
+
+
+	Fold(String name, int depth, int startLine, long startOffset) {
+		
+		this.name = name;
+		this.depth = depth;
+		this.startLine = startLine;
+		this.startOffset = startOffset;
+	}
+
+	/**
+	 * <p>Retrieves the name of this fold.</p>
+	 * 
+	 * @return the name of the fold
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getName() {
+		
+		return name;
+	}
+
+	/**
+	 * <p>Retrieves the nesting depth of this fold.</p>
+	 * 
+	 * @return the number of enclosing folds
+	 * 
+	 * @since 1.1.0
+	 */
+	public int getDepth() {
+		
+		return depth;
+	}
+
+	/**
+	 * <p>Retrieves the index of the first line of this fold.</p>
+	 * 
+	 * @return the line of the start marker
+	 * 
+	 * @since 1.1.0
+	 */
+	public int getStartLine() {
+		
+		return startLine;
+	}
+
+	/**
+	 * <p>Retrieves the index of the last line of this fold.</p>
+	 * 
+	 * @return the line of the end marker, else {@code -1} if the fold is open
+	 * 
+	 * @since 1.1.0
+	 */
+	public int getEndLine() {
+		
+		return endLine;
+	}
+
+	/**
+	 * <p>Retrieves the byte offset at which this fold begins.</p>
+	 * 
+	 * @return the offset of the first line
+	 * 
+	 * @since 1.1.0
+	 */
+	public long getStartOffset() {
+		
+		return startOffset;
+	}
+
+	/**
+	 * <p>Retrieves the byte offset at which this fold ends.</p>
+	 * 
+	 * @return the offset following the last line, else {@code -1} if the fold is open
+	 * 
+	 * @since 1.1.0
+	 */
+	public long getEndOffset() {
+		
+		return endOffset;
+	}
+
+	/**
+	 * <p>Retrieves the total time taken by the timed commands in this fold.</p>
+	 * 
+	 * @return the duration in nanoseconds, else {@code -1} if no command was timed
+	 * 
+	 * @since 1.1.0
+	 */
+	public long getDuration() {
+		
+		return duration;
+	}
+
+	/**
+	 * <p>Determines whether the end marker of this fold has been seen.</p>
+	 * 
+	 * @return {@code true} if the fold is closed
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isClosed() {
+		
+		return endLine >= 0;
+	}
+
+	void close(int endLine, long endOffset) {
+		
+		this.endOffset = endOffset;
+		this.endLine = endLine;
+	}
+
+	void addDuration(long nanos) {
+		
+		duration = (duration < 0)? nanos :duration + nanos;
+	}
+}
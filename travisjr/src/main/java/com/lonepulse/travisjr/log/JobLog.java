@@ -0,0 +1,144 @@
+package com.lonepulse.travisjr.log;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.Serializable;
+
+import com.lonepulse.travisjr.model.BuildJob;
+
+/**
+ * <p>A handle to the log of a single {@link BuildJob} in the build matrix. A handle is created
+ * up front for every job, while the log itself is only fetched into a {@link LogFile} when it
+ * is first needed.</p>
+ * 
+ * @version 1.1.1
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class JobLog implements Serializable {
+	
+
+	private static final long serialVersionUID = -3155917253093706251L;
+
+
+	/**
+	 * <p>The {@link BuildJob} whose log is referenced by this handle.</p>
+	 */
+	private volatile BuildJob buildJob;
+
+	/**
+	 * <p>The fetched {@link LogFile}, which is {@code null} until the log is fetched.</p>
+	 */
+	private volatile LogFile logFile;
+
+
+	/**
+	 * <p>Creates a new handle to the log of the given {@link BuildJob}.</p>
+	 * 
+	 * @param buildJob
+	 * 			the {@link BuildJob} whose log is referenced
+	 * 
+	 * @since 1.1.0
+	 */
+	public JobLog(BuildJob buildJob) {
+		
+		this.buildJob = buildJob;
+	}
+
+	/**
+	 * <p>Retrieves the {@link BuildJob} whose log is referenced by this handle.</p>
+	 * 
+	 * @return the {@link BuildJob} of this handle
+	 * 
+	 * @since 1.1.0
+	 */
+	public BuildJob getBuildJob() {
+		
+		return buildJob;
+	}
+
+	/**
+	 * <p>Updates the {@link BuildJob} of this handle with a more recent state of the same job, 
+	 * such as when an ongoing job which is being tailed has finished.</p>
+	 * 
+	 * @param buildJob
+	 * 			the current state of the {@link BuildJob} whose log is referenced
+	 * 
+	 * @since 1.1.1
+	 */
+	public void setBuildJob(BuildJob buildJob) {
+		
+		this.buildJob = buildJob;
+	}
+
+	/**
+	 * <p>Determines whether the log has been fetched.</p>
+	 * 
+	 * @return {@code true} if the {@link LogFile} is available
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isFetched() {
+		
+		return logFile != null;
+	}
+
+	/**
+	 * <p>Retrieves the fetched log.</p>
+	 * 
+	 * @return the {@link LogFile}, else {@code null} if the log has not been fetched
+	 * 
+	 * @since 1.1.0
+	 */
+	public LogFile getLogFile() {
+		
+		return logFile;
+	}
+
+	/**
+	 * <p>Sets the fetched log.</p>
+	 * 
+	 * @param logFile
+	 * 			the {@link LogFile} which holds the fetched log
+	 * 
+	 * @since 1.1.0
+	 */
+	public void setLogFile(LogFile logFile) {
+		
+		this.logFile = logFile;
+	}
+
+	/**
+	 * <p>Determines whether the {@link BuildJob} of this log failed in a way which failed the
+	 * build, i.e. it did not succeed and was not allowed to fail.</p>
+	 * 
+	 * @return {@code true} if the job failed the build
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isFailure() {
+		
+		return buildJob.getResult() != 0 && !buildJob.isAllow_failure();
+	}
+}
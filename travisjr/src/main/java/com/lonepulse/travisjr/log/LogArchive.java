@@ -0,0 +1,573 @@
+package com.lonepulse.travisjr.log;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import android.util.Log;
+
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.app.TravisJr;
+import com.lonepulse.travisjr.util.Res;
+
+/**
+ * <p>A store on the device which keeps the logs of finished jobs compressed, keyed by their 
+ * job IDs. Since the log of a finished job never changes, it can be served from here instead 
+ * of being downloaded again whenever the build is viewed.</p>
+ * 
+ * <p>Each log is deflated as a whole and is only ever read from its start; a log which is 
+ * viewed again is restored into a {@link LogFile}, which serves the random access, for as long 
+ * as it is viewed.</p>
+ * 
+ * <p>Writes are atomic, and the total size of the archive is held within 
+ * {@link R.integer#log_archive_budget} by evicting the least recently used logs. The order in 
+ * which the logs were used is kept in an index of its own rather than in the modification 
+ * times of the files, which cannot be set on every device. Corrupt logs are discarded and 
+ * treated as absent.</p>
+ * 
+ * @version 1.1.1
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class LogArchive {
+	
+
+	/**
+	 * <p>The name of the directory within the application's cache directory which
+	 * hosts the default {@link LogArchive}.</p>
+	 */
+	private static final String DIRECTORY = "log-archive";
+
+	/**
+	 * <p>The name of the file which holds the access order of the archived logs.</p>
+	 */
+	private static final String INDEX = "index";
+
+	/**
+	 * <p>Starts every archived log.</p>
+	 */
+	private static final int MAGIC = 0x544A4C5A;
+
+	/**
+	 * <p>Starts the index of the archive.</p>
+	 */
+	private static final int MAGIC_INDEX = 0x544A4C49;
+
+	/**
+	 * <p>The default {@link LogArchive} which is shared application wide.</p>
+	 */
+	private static volatile LogArchive instance;
+
+
+	/**
+	 * <p>The directory which hosts the archived logs.</p>
+	 */
+	private final File directory;
+
+	/**
+	 * <p>The maximum size of all archived logs in bytes.</p>
+	 */
+	private final long budget;
+
+	/**
+	 * <p>The compressed sizes of the archived logs keyed by their job IDs, in the order in 
+	 * which they were used, least recently used first.</p>
+	 */
+	private final LinkedHashMap<Long, Long> entries = new LinkedHashMap<Long, Long>(16, 0.75f, true);
+
+	/**
+	 * <p>The total size of the archived logs in bytes.</p>
+	 */
+	private long size;
+
+
+	/**
+	 * <p>Retrieves the default {@link LogArchive} which is shared application wide.</p>
+	 * 
+	 * @return the default {@link LogArchive}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static LogArchive getInstance() {
+		
+		if(instance == null) {
+			
+			synchronized (LogArchive.class) {
+				
+				if(instance == null) {
+					
+					File cacheDir = TravisJr.Application.getContext().getCacheDir();
+					
+					instance = new LogArchive(new File(cacheDir, DIRECTORY),
+						Res.integer(R.integer.log_archive_budget) * 1024L);
+				}
+			}
+		}
+		
+		return instance;
+	}
+
+	/**
+	 * <p>Creates a new {@link LogArchive} which keeps its logs in the given directory. The 
+	 * index of the logs which were archived before is read back, and any logs which are 
+	 * missing from it count as the least recently used.</p>
+	 * 
+	 * @param directory
+	 * 			the directory which hosts the archived logs; it is created if it does not exist
+	 * 
+	 * @param budget
+	 * 			the maximum size of all archived logs in bytes
+	 * 
+	 * @since 1.1.0
+	 */
+	public LogArchive(File directory, long budget) {
+		
+		this.directory = directory;
+		this.budget = budget;
+		
+		if(!directory.exists() && !directory.mkdirs()) {
+			
+			Log.e(getClass().getSimpleName(), "Failed to create archive directory " + directory);
+		}
+		
+		loadIndex();
+	}
+
+	/**
+	 * <p>Determines whether the log of the given job is archived. This does not count as 
+	 * a use of the log.</p>
+	 * 
+	 * @param jobId
+	 * 			the ID of the job whose log is sought
+	 * 
+	 * @return {@code true} if the log is archived
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized boolean contains(long jobId) {
+		
+		return entries.containsKey(Long.valueOf(jobId));
+	}
+
+	/**
+	 * <p>Compresses the content of the given {@link LogFile} into the archive under the given 
+	 * job ID, replacing any log which was archived before, and evicts the least recently used 
+	 * logs if the budget is exceeded. Only the logs of finished jobs should be archived.</p>
+	 * 
+	 * @param jobId
+	 * 			the ID of the job whose log is to be archived
+	 * 
+	 * @param logFile
+	 * 			the complete {@link LogFile} of the job
+	 * 
+	 * @return {@code true} if the log was archived
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized boolean put(long jobId, LogFile logFile) {
+		
+		File file = file(jobId);
+		File temp = new File(directory, file.getName() + ".tmp");
+		
+		InputStream is = null;
+		DataOutputStream dos = null;
+		
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		
+		try {
+			
+			is = new FileInputStream(logFile.getFile());
+			
+			BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(temp), 8192);
+			dos = new DataOutputStream(bos);
+			
+			dos.writeInt(MAGIC);
+			dos.writeLong(logFile.length());
+			
+			dos = new DataOutputStream(new DeflaterOutputStream(bos, deflater, 8192));
+			
+			byte[] buffer = new byte[8192];
+			int read;
+			
+			while((read = is.read(buffer)) != -1) {
+				
+				dos.write(buffer, 0, read);
+			}
+			
+			dos.close();
+			dos = null;
+			
+			if(!temp.renameTo(file)) {
+				
+				throw new IOException("Failed to replace " + file);
+			}
+			
+			Long previous = entries.put(Long.valueOf(jobId), Long.valueOf(file.length()));
+			size += file.length() - (previous == null? 0 :previous.longValue());
+			
+			trim();
+			saveIndex();
+			
+			return true;
+		}
+		catch(IOException ioe) {
+			
+			Log.e(getClass().getSimpleName(), "Failed to archive the log of job " + jobId, ioe);
+			temp.delete();
+			
+			return false;
+		}
+		finally {
+			
+			deflater.end();
+			
+			close(is);
+			close(dos);
+		}
+	}
+
+	/**
+	 * <p>Opens the archived log of the given job for reading from its start. The log counts 
+	 * as used when it is opened.</p>
+	 * 
+	 * @param jobId
+	 * 			the ID of the job whose log is to be read
+	 * 
+	 * @return an {@link InputStream} of the uncompressed log, which <b>must</b> be closed
+	 * 
+	 * @throws FileNotFoundException
+	 * 			if the log of the job is not archived
+	 * 
+	 * @throws IOException
+	 * 			if the archived log is corrupt or could not be read
+	 * 
+	 * @since 1.1.1
+	 */
+	public InputStream open(long jobId) throws IOException {
+		
+		return open(jobId, null);
+	}
+
+	/**
+	 * <p>Opens the archived log of the given job and reads its uncompressed length.</p>
+	 * 
+	 * @param length
+	 * 			receives the uncompressed length of the log as its only element, if given
+	 */
+	private InputStream open(long jobId, long[] length) throws IOException {
+		
+		synchronized (this) {
+			
+			if(entries.get(Long.valueOf(jobId)) == null) { //counts as a use
+				
+				throw new FileNotFoundException("The log of job " + jobId + " is not archived.");
+			}
+			
+			saveIndex();
+		}
+		
+		InputStream is = new BufferedInputStream(new FileInputStream(file(jobId)), 8192);
+		
+		try {
+			
+			DataInputStream dis = new DataInputStream(is);
+			
+			if(dis.readInt() != MAGIC) {
+				
+				throw new IOException("Not a log archive.");
+			}
+			
+			long uncompressed = dis.readLong();
+			
+			if(length != null) {
+				
+				length[0] = uncompressed;
+			}
+			
+			return new InflaterInputStream(is);
+		}
+		catch(IOException ioe) {
+			
+			close(is);
+			throw ioe;
+		}
+	}
+
+	/**
+	 * <p>Restores the archived log of the given job into a new {@link LogFile} at the given 
+	 * location, which is indexed as it is spooled.</p>
+	 * 
+	 * @param jobId
+	 * 			the ID of the job whose log is to be restored
+	 * 
+	 * @param file
+	 * 			the file to which the log is spooled
+	 * 
+	 * @return the restored {@link LogFile}, else {@code null} if the log is not archived or 
+	 * 		   could not be read
+	 * 
+	 * @since 1.1.0
+	 */
+	public LogFile restore(long jobId, File file) {
+		
+		if(!contains(jobId)) {
+			
+			return null;
+		}
+		
+		InputStream is = null;
+		
+		try {
+			
+			long[] length = new long[1];
+			
+			is = open(jobId, length);
+			LogFile logFile = LogFile.spool(is, file);
+			
+			if(logFile.length() != length[0]) {
+				
+				logFile.delete();
+				throw new IOException("Truncated log archive.");
+			}
+			
+			return logFile;
+		}
+		catch(FileNotFoundException fnfe) {
+			
+			return null; //evicted since it was sought
+		}
+		catch(IOException ioe) {
+			
+			Log.w(getClass().getSimpleName(), "Discarding unreadable log of job " + jobId, ioe);
+			remove(jobId);
+			
+			return null;
+		}
+		finally {
+			
+			close(is);
+		}
+	}
+
+	/**
+	 * <p>Removes the archived log of the given job, if any.</p>
+	 * 
+	 * @param jobId
+	 * 			the ID of the job whose log is to be removed
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized void remove(long jobId) {
+		
+		Long removed = entries.remove(Long.valueOf(jobId));
+		
+		if(removed != null) {
+			
+			size -= removed.longValue();
+			saveIndex();
+		}
+		
+		file(jobId).delete();
+	}
+
+	/**
+	 * <p>Evicts the least recently used logs until the archive is within its budget.</p>
+	 */
+	private void trim() {
+		
+		Iterator<Map.Entry<Long, Long>> iterator = entries.entrySet().iterator();
+		
+		while(size > budget && iterator.hasNext()) {
+			
+			Map.Entry<Long, Long> eldest = iterator.next();
+			
+			file(eldest.getKey().longValue()).delete();
+			size -= eldest.getValue().longValue();
+			
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * <p>Reads the access order of the archived logs from the index and reconciles it with 
+	 * the logs in the directory. Logs which are missing from the index are placed ahead of 
+	 * those which are indexed, and entries whose logs are gone are dropped.</p>
+	 */
+	private synchronized void loadIndex() {
+		
+		List<Long> indexed = new ArrayList<Long>();
+		File index = new File(directory, INDEX);
+		
+		if(index.exists()) {
+			
+			DataInputStream dis = null;
+			
+			try {
+				
+				dis = new DataInputStream(new BufferedInputStream(new FileInputStream(index), 8192));
+				
+				if(dis.readInt() != MAGIC_INDEX) {
+					
+					throw new IOException("Not an archive index.");
+				}
+				
+				for (int count = dis.readInt(); count > 0; count--) {
+					
+					indexed.add(Long.valueOf(dis.readLong()));
+				}
+			}
+			catch(IOException ioe) {
+				
+				Log.w(getClass().getSimpleName(), "Discarding unreadable archive index.", ioe);
+				indexed.clear();
+			}
+			finally {
+				
+				close(dis);
+			}
+		}
+		
+		File[] files = directory.listFiles();
+		
+		if(files != null) {
+			
+			for (File file : files) {
+				
+				String name = file.getName();
+				
+				if(name.endsWith(".tmp")) {
+					
+					file.delete(); //left behind by an interrupted write
+				}
+				else if(name.endsWith(".z")) {
+					
+					try {
+						
+						Long jobId = Long.valueOf(name.substring(0, name.length() - 2));
+						
+						if(!indexed.contains(jobId)) {
+							
+							entries.put(jobId, Long.valueOf(file.length()));
+							size += file.length();
+						}
+					}
+					catch(NumberFormatException nfe) {
+						
+						file.delete();
+					}
+				}
+			}
+		}
+		
+		for (Long jobId : indexed) {
+			
+			File file = file(jobId.longValue());
+			
+			if(file.exists()) {
+				
+				entries.put(jobId, Long.valueOf(file.length()));
+				size += file.length();
+			}
+		}
+	}
+
+	/**
+	 * <p>Writes the access order of the archived logs to the index, replacing it atomically.</p>
+	 */
+	private void saveIndex() {
+		
+		File index = new File(directory, INDEX);
+		File temp = new File(directory, INDEX + ".tmp");
+		
+		DataOutputStream dos = null;
+		
+		try {
+			
+			dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 8192));
+			
+			dos.writeInt(MAGIC_INDEX);
+			dos.writeInt(entries.size());
+			
+			for (Long jobId : entries.keySet()) {
+				
+				dos.writeLong(jobId.longValue());
+			}
+			
+			dos.close();
+			dos = null;
+			
+			if(!temp.renameTo(index)) {
+				
+				throw new IOException("Failed to replace " + index);
+			}
+		}
+		catch(IOException ioe) {
+			
+			Log.w(getClass().getSimpleName(), "Failed to save the archive index.", ioe);
+			temp.delete();
+		}
+		finally {
+			
+			close(dos);
+		}
+	}
+
+	private File file(long jobId) {
+		
+		return new File(directory, jobId + ".z");
+	}
+
+	private static void close(Closeable closeable) {
+		
+		if(closeable != null) {
+			
+			try {
+				
+				closeable.close();
+			}
+			catch(IOException ioe) {
+				
+				Log.w(LogArchive.class.getSimpleName(), "Failed to close stream.", ioe);
+			}
+		}
+	}
+}
@@ -0,0 +1,848 @@
+package com.lonepulse.travisjr.log;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.util.List;
+
+import android.util.Log;
+
+/**
+ * <p>A build log which is spooled from a stream into a file on the device and indexed by the
+ * byte offsets of its lines, so that any line can be read on demand without holding the log
+ * in memory. The memory used by a {@link LogFile} is proportional to its <i>line count</i>
+ * rather than its size.</p>
+ * 
+ * <p>The line index is mirrored to a sidecar file as it grows. When a {@link LogFile} is
+ * deserialized, e.g. when restoring an activity's state, only the path is carried over and
+ * the index is reloaded from its sidecar.</p>
+ * 
+ * <p>The {@link Fold}s of the log and the lines which report failed commands are indexed in 
+ * the same pass and mirrored to a sidecar of their own, so that the sections and errors of a 
+ * log can be navigated without scanning it again. Text is searched with a single scan of the 
+ * file which the line index maps back to lines.</p>
+ * 
+ * @version 1.1.2
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class LogFile implements Serializable {
+	
+
+	private static final long serialVersionUID = 2671496305717360544L;
+
+	/**
+	 * <p>The maximum number of bytes which are read for a single line. Anything beyond
+	 * this is truncated when the line is read.</p>
+	 */
+	public static final int MAX_LINE_BYTES = 16 * 1024;
+
+	/**
+	 * <p>The extension of the sidecar file which holds the line index.</p>
+	 */
+	private static final String EXT_INDEX = ".idx";
+	
+	/**
+	 * <p>The number of bytes which are read at a time when the log is searched.</p>
+	 */
+	private static final int SCAN_CHUNK_BYTES = 64 * 1024;
+	
+	/**
+	 * <p>The extension of the sidecar file which holds the marker index.</p>
+	 */
+	private static final String EXT_MARKERS = ".markers";
+
+
+	/**
+	 * <p>The file which holds the log content.</p>
+	 */
+	private final File file;
+
+	/**
+	 * <p>The byte offsets at which each line starts. The first line always starts at
+	 * {@code 0}; only {@link #lines} entries are valid.</p>
+	 */
+	private transient long[] offsets;
+
+	/**
+	 * <p>The number of valid entries in {@link #offsets}.</p>
+	 */
+	private transient int lines;
+
+	/**
+	 * <p>The number of bytes in the log.</p>
+	 */
+	private transient long length;
+
+	/**
+	 * <p>The lazily opened {@link RandomAccessFile} which is used to read lines.</p>
+	 */
+	private transient RandomAccessFile reader;
+
+	/**
+	 * <p>The buffer which is reused to read lines.</p>
+	 */
+	private transient byte[] lineBuffer;
+	
+	/**
+	 * <p>Serializes appends to this log.</p>
+	 */
+	private transient Object appendLock = new Object();
+	
+	/**
+	 * <p>The {@link Fold}s and failures which have been indexed so far.</p>
+	 */
+	private transient MarkerIndex markerIndex;
+	
+	/**
+	 * <p>The head of the line which is currently being written, which is inspected 
+	 * for markers once the line is complete.</p>
+	 */
+	private transient byte[] lineHead;
+	
+	/**
+	 * <p>The number of valid bytes in {@link #lineHead}.</p>
+	 */
+	private transient int lineHeadLength;
+
+
+	/**
+	 * <p>Spools the given stream into a new {@link LogFile} at the given location, replacing
+	 * any existing log, and indexes its lines while doing so. The stream is <b>not</b> closed.</p>
+	 * 
+	 * @param inputStream
+	 * 			the {@link InputStream} of the log content
+	 * 
+	 * @param file
+	 * 			the file to which the log is spooled
+	 * 
+	 * @return the spooled and indexed {@link LogFile}
+	 * 
+	 * @throws IOException
+	 * 			if reading the stream or writing the log failed
+	 * 
+	 * @since 1.1.0
+	 */
+	public static LogFile spool(InputStream inputStream, File file) throws IOException {
+		
+		File parent = file.getParentFile();
+		
+		if(parent != null && !parent.exists() && !parent.mkdirs()) {
+			
+			throw new IOException("Failed to create log directory " + parent);
+		}
+		
+		file.delete();
+		indexFile(file).delete();
+		markersFile(file).delete();
+		
+		LogFile logFile = new LogFile(file);
+		logFile.append(inputStream);
+		
+		return logFile;
+	}
+
+	/**
+	 * <p>Creates a new {@link LogFile} over the given file and loads its line index.</p>
+	 * 
+	 * @param file
+	 * 			the file which holds the log content
+	 * 
+	 * @since 1.1.0
+	 */
+	public LogFile(File file) {
+		
+		this.file = file;
+		loadIndex();
+	}
+
+	/**
+	 * <p>Appends the content of the given stream to the end of this log and extends the
+	 * line index accordingly. The stream is <b>not</b> closed.</p>
+	 * 
+	 * <p>Lines may be read concurrently while an append is in progress; each chunk which
+	 * is appended becomes visible as soon as it is written.</p>
+	 * 
+	 * @param inputStream
+	 * 			the {@link InputStream} whose content is to be appended
+	 * 
+	 * @return the number of bytes which were appended
+	 * 
+	 * @throws IOException
+	 * 			if reading the stream or writing the log failed
+	 * 
+	 * @since 1.1.0
+	 */
+	public long append(InputStream inputStream) throws IOException {
+		
+		synchronized (appendLock) {
+			
+			return appendChunks(inputStream);
+		}
+	}
+	
+	private long appendChunks(InputStream inputStream) throws IOException {
+		
+		OutputStream logOut = null;
+		DataOutputStream indexOut = null;
+		
+		long appended = 0;
+		
+		try {
+			
+			logOut = new FileOutputStream(file, true);
+			indexOut = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(indexFile(file), true), 8192));
+			
+			byte[] chunk = new byte[8192];
+			int read;
+			
+			while((read = inputStream.read(chunk)) != -1) {
+				
+				logOut.write(chunk, 0, read);
+				
+				synchronized (this) {
+					
+					indexChunk(chunk, read, length, indexOut);
+					length += read;
+				}
+				
+				appended += read;
+			}
+		}
+		finally {
+			
+			close(indexOut);
+			close(logOut);
+			
+			saveMarkers();
+		}
+		
+		return appended;
+	}
+	
+	/**
+	 * <p>Indexes the line breaks and markers in a chunk of the log which starts at the 
+	 * given offset, and writes the offsets of new lines to the sidecar.</p>
+	 */
+	private void indexChunk(byte[] chunk, int read, long position, DataOutputStream indexOut) 
+	throws IOException {
+		
+		for (int i = 0; i < read; i++) {
+			
+			if(lineHeadLength < lineHead.length) {
+				
+				lineHead[lineHeadLength++] = chunk[i];
+			}
+			
+			if(chunk[i] == '\n') {
+				
+				long offset = position + i + 1;
+				
+				markerIndex.scanLine(lines - 1, offsets[lines - 1], offset, lineHead, lineHeadLength);
+				lineHeadLength = 0;
+				
+				addOffset(offset);
+				indexOut.writeLong(offset);
+			}
+		}
+	}
+
+	/**
+	 * <p>Retrieves the number of lines in this log. A trailing line break does not
+	 * start a new line.</p>
+	 * 
+	 * @return the number of lines
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized int getLineCount() {
+		
+		return (length == 0)? 0 :(offsets[lines - 1] == length? lines - 1 :lines);
+	}
+
+	/**
+	 * <p>Retrieves the size of this log.</p>
+	 * 
+	 * @return the number of bytes in the log
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized long length() {
+		
+		return length;
+	}
+
+	/**
+	 * <p>Retrieves the byte offset at which the given line starts.</p>
+	 * 
+	 * @param line
+	 * 			the index of the line
+	 * 
+	 * @return the byte offset of the line
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized long getLineOffset(int line) {
+		
+		return offsets[line];
+	}
+
+	/**
+	 * <p>Retrieves the {@link Fold}s of this log which have been indexed so far. The last 
+	 * folds may still be open if the log is being appended to.</p>
+	 * 
+	 * @return a snapshot of the folds in the order of their start lines
+	 * 
+	 * @since 1.1.1
+	 */
+	public synchronized List<Fold> getFolds() {
+		
+		return markerIndex.getFolds();
+	}
+
+	/**
+	 * <p>Finds the first line at or after the given line which reports a failed command, 
+	 * e.g. <i>The command "rake" exited with 1.</i></p>
+	 * 
+	 * @param fromLine
+	 * 			the index of the line from which to search
+	 * 
+	 * @return the index of the line, else {@code -1} if no failure has been indexed
+	 * 
+	 * @since 1.1.2
+	 */
+	public synchronized int findError(int fromLine) {
+		
+		return markerIndex.findError(fromLine);
+	}
+
+	/**
+	 * <p>Finds the next or previous line which contains the given text, ignoring the case 
+	 * of ASCII letters. The file is scanned directly in large chunks and matches are mapped 
+	 * to their lines through the line index, so no line is decoded during the search.</p>
+	 * 
+	 * <p>The log is <b>not</b> locked while it is scanned, so this may be invoked on a 
+	 * background thread while lines are read or appended.</p>
+	 * 
+	 * @param text
+	 * 			the text to search for
+	 * 
+	 * @param fromLine
+	 * 			the index of the line from which to search, which is itself excluded; 
+	 * 			use {@code -1} to search forward from the start of the log
+	 * 
+	 * @param forward
+	 * 			{@code true} to find the next matching line, {@code false} for the previous one
+	 * 
+	 * @return the index of the matching line, else {@code -1} if there is no match
+	 * 
+	 * @throws IOException
+	 * 			if the log could not be read
+	 * 
+	 * @since 1.1.2
+	 */
+	public int find(String text, int fromLine, boolean forward) throws IOException {
+		
+		byte[] pattern = text.getBytes("UTF-8");
+		
+		if(pattern.length == 0 || pattern.length > MAX_LINE_BYTES) {
+			
+			return -1;
+		}
+		
+		for (int i = 0; i < pattern.length; i++) {
+			
+			pattern[i] = toLowerCase(pattern[i]);
+		}
+		
+		long start, end;
+		
+		synchronized (this) {
+			
+			int lineCount = getLineCount();
+			
+			if(forward) {
+				
+				if(fromLine + 1 >= lineCount) return -1;
+				
+				start = offsets[Math.max(fromLine + 1, 0)];
+				end = length;
+			}
+			else {
+				
+				if(fromLine <= 0) return -1;
+				
+				start = 0;
+				end = (fromLine < lineCount)? offsets[fromLine] :length;
+			}
+		}
+		
+		long match = scan(pattern, start, end, forward);
+		
+		return (match < 0)? -1 :getLine(match);
+	}
+	
+	/**
+	 * <p>Scans the given byte range for the first or last occurrence of a lower-cased pattern.</p>
+	 * 
+	 * @return the offset at which the occurrence starts, else {@code -1}
+	 */
+	private long scan(byte[] pattern, long start, long end, boolean forward) throws IOException {
+		
+		byte[] chunk = new byte[SCAN_CHUNK_BYTES + pattern.length - 1];
+		RandomAccessFile scanner = null;
+		
+		try {
+			
+			scanner = new RandomAccessFile(file, "r");
+			
+			long position = forward? start :Math.max(end - SCAN_CHUNK_BYTES, start);
+			
+			while(!forward || position < end) {
+				
+				int size = (int)Math.min(chunk.length, end - position);
+				
+				scanner.seek(position);
+				scanner.readFully(chunk, 0, size);
+				
+				int match = forward? indexOf(chunk, size, pattern) :lastIndexOf(chunk, size, pattern);
+				
+				if(match >= 0) {
+					
+					return position + match;
+				}
+				
+				if(forward) {
+					
+					position += SCAN_CHUNK_BYTES;
+				}
+				else {
+					
+					if(position == start) break;
+					
+					end = position + pattern.length - 1; //overlap matches which straddle chunks
+					position = Math.max(position - SCAN_CHUNK_BYTES, start);
+				}
+			}
+		}
+		finally {
+			
+			close(scanner);
+		}
+		
+		return -1;
+	}
+	
+	private static int indexOf(byte[] chunk, int size, byte[] pattern) {
+		
+		for (int i = 0; i <= size - pattern.length; i++) {
+			
+			if(matches(chunk, i, pattern)) return i;
+		}
+		
+		return -1;
+	}
+	
+	private static int lastIndexOf(byte[] chunk, int size, byte[] pattern) {
+		
+		for (int i = size - pattern.length; i >= 0; i--) {
+			
+			if(matches(chunk, i, pattern)) return i;
+		}
+		
+		return -1;
+	}
+	
+	private static boolean matches(byte[] chunk, int start, byte[] pattern) {
+		
+		for (int j = 0; j < pattern.length; j++) {
+			
+			if(toLowerCase(chunk[start + j]) != pattern[j]) return false;
+		}
+		
+		return true;
+	}
+	
+	private static byte toLowerCase(byte b) {
+		
+		return (b >= 'A' && b <= 'Z')? (byte)(b + ('a' - 'A')) :b;
+	}
+	
+	/**
+	 * <p>Resolves the line which contains the given byte offset.</p>
+	 */
+	private synchronized int getLine(long offset) {
+		
+		int low = 0, high = lines - 1;
+		
+		while(low < high) {
+			
+			int mid = (low + high + 1) >>> 1;
+			
+			if(offsets[mid] <= offset) low = mid;
+			else high = mid - 1;
+		}
+		
+		return low;
+	}
+
+	/**
+	 * <p>Reads the given line without its terminating line break. Lines longer than
+	 * {@link #MAX_LINE_BYTES} are truncated.</p>
+	 * 
+	 * @param line
+	 * 			the index of the line to be read
+	 * 
+	 * @return the content of the line
+	 * 
+	 * @throws IOException
+	 * 			if the log could not be read
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized String readLine(int line) throws IOException {
+		
+		if(line < 0 || line >= getLineCount()) {
+			
+			throw new IndexOutOfBoundsException("Line " + line + " of " + getLineCount());
+		}
+		
+		long start = offsets[line];
+		long end = (line + 1 < lines)? offsets[line + 1] :length;
+		
+		int size = (int)Math.min(end - start, MAX_LINE_BYTES);
+		
+		if(lineBuffer == null || lineBuffer.length < size) {
+			
+			lineBuffer = new byte[Math.max(size, 256)];
+		}
+		
+		if(reader == null) {
+			
+			reader = new RandomAccessFile(file, "r");
+		}
+		
+		reader.seek(start);
+		reader.readFully(lineBuffer, 0, size);
+		
+		while(size > 0 && (lineBuffer[size - 1] == '\n' || lineBuffer[size - 1] == '\r')) {
+			
+			size--;
+		}
+		
+		return new String(lineBuffer, 0, size, "UTF-8");
+	}
+
+	/**
+	 * <p>Retrieves the file which holds the content of this log.</p>
+	 * 
+	 * @return the log file
+	 * 
+	 * @since 1.1.0
+	 */
+	public File getFile() {
+		
+		return file;
+	}
+
+	/**
+	 * <p>Releases the file handle which is held for reading lines. Lines may still be
+	 * read after this, which will reopen the handle.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized void close() {
+		
+		close(reader);
+		reader = null;
+	}
+
+	/**
+	 * <p>Closes this log and deletes its content and index from the device.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized void delete() {
+		
+		close();
+		
+		file.delete();
+		indexFile(file).delete();
+		markersFile(file).delete();
+		
+		offsets = new long[] {0};
+		lines = 1;
+		length = 0;
+		
+		markerIndex.clear();
+		lineHeadLength = 0;
+	}
+
+	/**
+	 * <p>Loads the line and marker indexes from their sidecar files, or rebuilds them by 
+	 * scanning the log if either sidecar is missing or unreadable.</p>
+	 */
+	private void loadIndex() {
+		
+		offsets = new long[256];
+		offsets[0] = 0;
+		lines = 1;
+		length = file.length();
+		
+		markerIndex = new MarkerIndex();
+		lineHead = new byte[MarkerIndex.MAX_HEAD_BYTES];
+		lineHeadLength = 0;
+		
+		if(length == 0) {
+			
+			return;
+		}
+		
+		File indexFile = indexFile(file);
+		File markersFile = markersFile(file);
+		
+		if(indexFile.exists() && markersFile.exists()) {
+			
+			try {
+				
+				readIndex(indexFile);
+				readMarkers(markersFile);
+				readLineHead();
+				
+				return;
+			}
+			catch(IOException ioe) {
+				
+				Log.w(getClass().getSimpleName(), "Rebuilding the unreadable indexes of " + file, ioe);
+				
+				offsets = new long[256];
+				lines = 1;
+				
+				markerIndex.clear();
+				lineHeadLength = 0;
+			}
+		}
+		
+		try {
+			
+			rebuildIndex(indexFile);
+			saveMarkers();
+		}
+		catch(IOException ioe) {
+			
+			Log.e(getClass().getSimpleName(), "Failed to load the indexes of " + file, ioe);
+		}
+	}
+	
+	private void readIndex(File indexFile) throws IOException {
+		
+		DataInputStream dis = null;
+		
+		try {
+			
+			dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile), 8192));
+			
+			try {
+				
+				while(true) {
+					
+					long offset = dis.readLong();
+					
+					if(offset > length) break; //index is ahead of a partially written log
+					
+					addOffset(offset);
+				}
+			}
+			catch(EOFException eofe) {} //end of index
+		}
+		finally {
+			
+			close(dis);
+		}
+	}
+	
+	private void readMarkers(File markersFile) throws IOException {
+		
+		DataInputStream dis = null;
+		
+		try {
+			
+			dis = new DataInputStream(new BufferedInputStream(new FileInputStream(markersFile), 8192));
+			markerIndex.read(dis);
+		}
+		finally {
+			
+			close(dis);
+		}
+	}
+	
+	/**
+	 * <p>Restores the head of the partial last line, so that its markers are indexed 
+	 * once the rest of it is appended.</p>
+	 */
+	private void readLineHead() throws IOException {
+		
+		long start = offsets[lines - 1];
+		lineHeadLength = (int)Math.min(length - start, lineHead.length);
+		
+		if(lineHeadLength > 0) {
+			
+			RandomAccessFile headReader = null;
+			
+			try {
+				
+				headReader = new RandomAccessFile(file, "r");
+				headReader.seek(start);
+				headReader.readFully(lineHead, 0, lineHeadLength);
+			}
+			finally {
+				
+				close(headReader);
+			}
+		}
+	}
+
+	/**
+	 * <p>Rebuilds the line and marker indexes by scanning the log and writes the line index 
+	 * to the given sidecar file.</p>
+	 */
+	private void rebuildIndex(File indexFile) throws IOException {
+		
+		InputStream logIn = null;
+		DataOutputStream indexOut = null;
+		
+		try {
+			
+			logIn = new FileInputStream(file);
+			indexOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile), 8192));
+			
+			byte[] chunk = new byte[8192];
+			long position = 0;
+			int read;
+			
+			while((read = logIn.read(chunk)) != -1) {
+				
+				indexChunk(chunk, read, position, indexOut);
+				position += read;
+			}
+		}
+		finally {
+			
+			close(indexOut);
+			close(logIn);
+		}
+	}
+	
+	/**
+	 * <p>Writes the marker index to its sidecar file. A failure is logged rather than thrown, 
+	 * since a missing sidecar only causes the indexes to be rebuilt.</p>
+	 */
+	private void saveMarkers() {
+		
+		File markersFile = markersFile(file);
+		DataOutputStream markersOut = null;
+		
+		try {
+			
+			markersOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(markersFile), 8192));
+			
+			synchronized (this) {
+				
+				markerIndex.write(markersOut);
+			}
+		}
+		catch(IOException ioe) {
+			
+			close(markersOut);
+			markersOut = null;
+			
+			markersFile.delete();
+			Log.w(getClass().getSimpleName(), "Failed to save the marker index of " + file, ioe);
+		}
+		finally {
+			
+			close(markersOut);
+		}
+	}
+
+	private void addOffset(long offset) {
+		
+		if(lines == offsets.length) {
+			
+			long[] grown = new long[offsets.length * 2];
+			System.arraycopy(offsets, 0, grown, 0, lines);
+			offsets = grown;
+		}
+		
+		offsets[lines++] = offset;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		
+		in.defaultReadObject();
+		
+		appendLock = new Object();
+		loadIndex();
+	}
+
+	private static File indexFile(File file) {
+		
+		return new File(file.getPath() + EXT_INDEX);
+	}
+	
+	private static File markersFile(File file) {
+		
+		return new File(file.getPath() + EXT_MARKERS);
+	}
+
+	private static void close(Closeable closeable) {
+		
+		if(closeable != null) {
+			
+			try {
+				
+				closeable.close();
+			}
+			catch(IOException ioe) {
+				
+				Log.w(LogFile.class.getSimpleName(), "Failed to close stream.", ioe);
+			}
+		}
+	}
+}
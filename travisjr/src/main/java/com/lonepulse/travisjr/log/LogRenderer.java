@@ -0,0 +1,394 @@
+package com.lonepulse.travisjr.log;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.BackgroundColorSpan;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+import android.text.style.UnderlineSpan;
+
+/**
+ * <p>Renders the raw lines of a build log into styled text in a single pass over each line. It
+ * interprets the terminal output which Travis CI records:</p>
+ * 
+ * <ul>
+ * 	<li>ANSI <i>SGR</i> escape sequences for colors, bold, italic and underline</li>
+ * 	<li>carriage returns, which move the cursor back so that progress output overwrites itself</li>
+ * 	<li>the <i>erase in line</i> escape sequence which often follows a carriage return</li>
+ * 	<li>the <i>travis_fold</i> and <i>travis_time</i> markers, which are omitted</li>
+ * </ul>
+ * 
+ * <p>All working buffers are reused across lines and grow only to the length of the longest line
+ * seen. A renderer is <b>not</b> thread-safe and the text returned by {@link #render(CharSequence)}
+ * is only valid until the next invocation, which is sufficient for
+ * {@link android.widget.TextView#setText(CharSequence)} since it copies styled text.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class LogRenderer {
+	
+
+	/**
+	 * <p>The 16 basic ANSI colors as they are rendered on a dark background; the first
+	 * eight are the normal colors and the last eight their bright counterparts.</p>
+	 */
+	private static final int[] PALETTE = {
+		
+		0xFF000000, 0xFFCD3131, 0xFF0DBC79, 0xFFE5E510, 0xFF2472C8, 0xFFBC3FBC, 0xFF11A8CD, 0xFFE5E5E5,
+		0xFF666666, 0xFFF14C4C, 0xFF23D18B, 0xFFF5F543, 0xFF3B8EEA, 0xFFD670D6, 0xFF29B8DB, 0xFFFFFFFF
+	};
+
+	/**
+	 * <p>The markers which Travis CI writes at the start of a line to delimit folds and timers.</p>
+	 */
+	private static final String[] MARKERS = {"travis_fold:", "travis_time:"};
+
+	private static final char ESC = '\u001B';
+
+	/*
+	 * A style is packed into an int; the foreground and background colors each take 9 bits
+	 * holding 0 for the default color or 1 + an index into the 256 color xterm palette.
+	 */
+	private static final int FG_MASK = 0x1FF;
+	private static final int BG_SHIFT = 9;
+	private static final int BG_MASK = 0x1FF << BG_SHIFT;
+	private static final int BOLD = 1 << 18;
+	private static final int ITALIC = 1 << 19;
+	private static final int UNDERLINE = 1 << 20;
+
+
+	/**
+	 * <p>The visible characters of the line being rendered.</p>
+	 */
+	private char[] text = new char[256];
+
+	/**
+	 * <p>The packed style of each character in {@link #text}.</p>
+	 */
+	private int[] styles = new int[256];
+
+	/**
+	 * <p>The parameters of the escape sequence being parsed.</p>
+	 */
+	private int[] params = new int[16];
+
+	/**
+	 * <p>The styled text which is reused for each rendered line.</p>
+	 */
+	private final SpannableStringBuilder output = new SpannableStringBuilder();
+
+
+	/**
+	 * <p>Renders a single raw log line, without its line terminator, into styled text.</p>
+	 * 
+	 * @param line
+	 * 			the raw content of the line
+	 * 
+	 * @return the styled text, which is only valid until the next invocation
+	 * 
+	 * @since 1.1.0
+	 */
+	public CharSequence render(CharSequence line) {
+		
+		int length = line.length();
+		ensureCapacity(length + 8);
+		
+		int style = 0;
+		int cursor = 0;
+		int end = 0;
+		
+		int i = 0;
+		
+		while(i < length) {
+			
+			char c = line.charAt(i);
+			
+			if(c == ESC && i + 1 < length && line.charAt(i + 1) == '[') {
+				
+				int paramCount = 0;
+				int value = -1;
+				
+				i += 2;
+				
+				for (; i < length; i++) {
+					
+					char p = line.charAt(i);
+					
+					if(p >= '0' && p <= '9') {
+						
+						value = (value < 0? 0 :value * 10) + (p - '0');
+					}
+					else if(p == ';') {
+						
+						if(paramCount < params.length) params[paramCount++] = value;
+						value = -1;
+					}
+					else {
+						
+						if(paramCount < params.length) params[paramCount++] = value;
+						
+						if(p == 'm') {
+							
+							style = applySgr(style, paramCount);
+						}
+						else if(p == 'K') {
+							
+							if(params[0] <= 0) end = cursor; //erase to end of line
+							else if(params[0] == 2) end = cursor = 0;
+						}
+						else if(p == 'G') {
+							
+							cursor = Math.max(0, Math.min(params[0] - 1, end));
+						}
+						
+						break;
+					}
+				}
+				
+				i++;
+				continue;
+			}
+			
+			if(c == '\r') {
+				
+				cursor = 0;
+				i++;
+				continue;
+			}
+			
+			if(cursor == 0) {
+				
+				int skipped = skipMarker(line, i, length);
+				
+				if(skipped > i) {
+					
+					i = skipped;
+					continue;
+				}
+			}
+			
+			if(c == '\t') {
+				
+				int stop = ((cursor / 8) + 1) * 8;
+				ensureCapacity(stop);
+				
+				while(cursor < stop) {
+					
+					text[cursor] = ' ';
+					styles[cursor++] = style;
+				}
+			}
+			else if(c >= ' ') {
+				
+				if(cursor == text.length) ensureCapacity(cursor + 1); //tabs expanded past the line length
+				
+				text[cursor] = c;
+				styles[cursor++] = style;
+			}
+			
+			if(cursor > end) end = cursor;
+			i++;
+		}
+		
+		return toSpanned(end);
+	}
+
+	/**
+	 * <p>Skips a Travis CI marker which starts at the given index, up to and including the
+	 * carriage return which terminates it.</p>
+	 * 
+	 * @return the index following the marker, else the given index if there is no marker
+	 */
+	private static int skipMarker(CharSequence line, int start, int length) {
+		
+		for (String marker : MARKERS) {
+			
+			if(regionMatches(line, start, length, marker)) {
+				
+				int i = start + marker.length();
+				
+				while(i < length && line.charAt(i) != '\r') i++;
+				
+				return i;
+			}
+		}
+		
+		return start;
+	}
+
+	private static boolean regionMatches(CharSequence line, int start, int length, String token) {
+		
+		if(length - start < token.length()) {
+			
+			return false;
+		}
+		
+		for (int i = 0; i < token.length(); i++) {
+			
+			if(line.charAt(start + i) != token.charAt(i)) return false;
+		}
+		
+		return true;
+	}
+
+	/**
+	 * <p>Applies the parsed <i>Select Graphic Rendition</i> parameters to the given style.</p>
+	 */
+	private int applySgr(int style, int paramCount) {
+		
+		for (int p = 0; p < paramCount; p++) {
+			
+			int code = params[p] < 0? 0 :params[p];
+			
+			if(code == 0) style = 0;
+			else if(code == 1) style |= BOLD;
+			else if(code == 3) style |= ITALIC;
+			else if(code == 4) style |= UNDERLINE;
+			else if(code == 22) style &= ~BOLD;
+			else if(code == 23) style &= ~ITALIC;
+			else if(code == 24) style &= ~UNDERLINE;
+			else if(code >= 30 && code <= 37) style = (style & ~FG_MASK) | (1 + code - 30);
+			else if(code >= 90 && code <= 97) style = (style & ~FG_MASK) | (1 + code - 90 + 8);
+			else if(code == 39) style &= ~FG_MASK;
+			else if(code >= 40 && code <= 47) style = (style & ~BG_MASK) | ((1 + code - 40) << BG_SHIFT);
+			else if(code >= 100 && code <= 107) style = (style & ~BG_MASK) | ((1 + code - 100 + 8) << BG_SHIFT);
+			else if(code == 49) style &= ~BG_MASK;
+			else if((code == 38 || code == 48) && p + 2 < paramCount && params[p + 1] == 5) {
+				
+				int color = 1 + (params[p + 2] & 0xFF);
+				
+				style = (code == 38)? (style & ~FG_MASK) | color :(style & ~BG_MASK) | (color << BG_SHIFT);
+				p += 2;
+			}
+		}
+		
+		return style;
+	}
+
+	/**
+	 * <p>Builds the styled text from the first {@code length} characters of {@link #text},
+	 * attaching one set of spans per run of equally styled characters.</p>
+	 */
+	private CharSequence toSpanned(int length) {
+		
+		output.clear();
+		output.clearSpans();
+		output.append(new String(text, 0, length));
+		
+		int runStart = 0;
+		
+		for (int i = 1; i <= length; i++) {
+			
+			if(i == length || styles[i] != styles[runStart]) {
+				
+				int style = styles[runStart];
+				
+				if(style != 0) {
+					
+					int fg = style & FG_MASK;
+					int bg = (style & BG_MASK) >>> BG_SHIFT;
+					
+					if(fg != 0) {
+						
+						output.setSpan(new ForegroundColorSpan(color(fg - 1)), runStart, i, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+					}
+					
+					if(bg != 0) {
+						
+						output.setSpan(new BackgroundColorSpan(color(bg - 1)), runStart, i, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+					}
+					
+					if((style & (BOLD | ITALIC)) != 0) {
+						
+						int typeface = ((style & BOLD) != 0? Typeface.BOLD :0) | ((style & ITALIC) != 0? Typeface.ITALIC :0);
+						output.setSpan(new StyleSpan(typeface), runStart, i, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+					}
+					
+					if((style & UNDERLINE) != 0) {
+						
+						output.setSpan(new UnderlineSpan(), runStart, i, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+					}
+				}
+				
+				runStart = i;
+			}
+		}
+		
+		return output;
+	}
+
+	/**
+	 * <p>Resolves an index of the 256 color xterm palette to an ARGB color.</p>
+	 */
+	private static int color(int index) {
+		
+		if(index < 16) {
+			
+			return PALETTE[index];
+		}
+		
+		if(index < 232) {
+			
+			int cube = index - 16;
+			
+			int r = cube / 36, g = (cube / 6) % 6, b = cube % 6;
+			
+			return 0xFF000000 | (level(r) << 16) | (level(g) << 8) | level(b);
+		}
+		
+		int grey = 8 + (index - 232) * 10;
+		
+		return 0xFF000000 | (grey << 16) | (grey << 8) | grey;
+	}
+
+	private static int level(int step) {
+		
+		return step == 0? 0 :55 + step * 40;
+	}
+
+	/**
+	 * <p>Grows the buffers to hold at least the given number of characters, retaining
+	 * their content.</p>
+	 */
+	private void ensureCapacity(int capacity) {
+		
+		if(text.length < capacity) {
+			
+			int grown = Math.max(text.length * 2, capacity);
+			
+			char[] grownText = new char[grown];
+			System.arraycopy(text, 0, grownText, 0, text.length);
+			text = grownText;
+			
+			int[] grownStyles = new int[grown];
+			System.arraycopy(styles, 0, grownStyles, 0, styles.length);
+			styles = grownStyles;
+		}
+	}
+}
@@ -0,0 +1,358 @@
+package com.lonepulse.travisjr.log;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Indexes the markers of a build log as its lines are written; these are the {@link Fold}s 
+ * and the lines which report a failed command, e.g. <i>The command "rake" exited with 1.</i> 
+ * Only the head of each line is inspected, since Travis CI writes its markers before any 
+ * command output.</p>
+ * 
+ * @version 1.1.1
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+class MarkerIndex {
+	
+
+	/**
+	 * <p>The number of bytes at the head of each line which are inspected for markers.</p>
+	 */
+	static final int MAX_HEAD_BYTES = 512;
+
+	private static final byte[] FOLD_START = ascii("travis_fold:start:");
+	private static final byte[] FOLD_END = ascii("travis_fold:end:");
+	private static final byte[] TIME_END = ascii("travis_time:end:");
+	private static final byte[] DURATION = ascii("duration=");
+	private static final byte[] EXITED = ascii("exited with ");
+
+
+	/**
+	 * <p>All folds in the order of their start lines.</p>
+	 */
+	private final List<Fold> folds = new ArrayList<Fold>();
+
+	/**
+	 * <p>The folds which are open, innermost last.</p>
+	 */
+	private final List<Fold> open = new ArrayList<Fold>();
+	
+	/**
+	 * <p>The lines which report a failed command, in ascending order.</p>
+	 */
+	private int[] errorLines = new int[16];
+	
+	/**
+	 * <p>The number of valid entries in {@link #errorLines}.</p>
+	 */
+	private int errorCount;
+
+
+	/**
+	 * <p>Inspects the head of a completed line for fold, timing and failure markers.</p>
+	 * 
+	 * @param line
+	 * 			the index of the line
+	 * 
+	 * @param startOffset
+	 * 			the byte offset at which the line begins
+	 * 
+	 * @param endOffset
+	 * 			the byte offset following the line break
+	 * 
+	 * @param head
+	 * 			the first bytes of the line
+	 * 
+	 * @param length
+	 * 			the number of valid bytes in the head
+	 */
+	void scanLine(int line, long startOffset, long endOffset, byte[] head, int length) {
+		
+		int i = indexOf(head, length, 0, (byte)'t');
+		
+		while(i >= 0) {
+			
+			if(regionMatches(head, length, i, FOLD_START)) {
+				
+				i += FOLD_START.length;
+				String name = readName(head, length, i);
+				
+				Fold fold = new Fold(name, open.size(), line, startOffset);
+				
+				folds.add(fold);
+				open.add(fold);
+			}
+			else if(regionMatches(head, length, i, FOLD_END)) {
+				
+				i += FOLD_END.length;
+				closeFold(readName(head, length, i), line, endOffset);
+			}
+			else if(regionMatches(head, length, i, TIME_END)) {
+				
+				i += TIME_END.length;
+				long duration = readDuration(head, length, i);
+				
+				if(duration >= 0 && !open.isEmpty()) {
+					
+					open.get(open.size() - 1).addDuration(duration);
+				}
+			}
+			else {
+				
+				i++;
+			}
+			
+			i = indexOf(head, length, i, (byte)'t');
+		}
+		
+		if(isFailure(head, length)) {
+			
+			addErrorLine(line);
+		}
+	}
+	
+	/**
+	 * <p>Determines whether a line reports a command which exited with a non-zero status.</p>
+	 */
+	private static boolean isFailure(byte[] head, int length) {
+		
+		for (int i = indexOf(head, length, 0, (byte)'e'); i >= 0; i = indexOf(head, length, i + 1, (byte)'e')) {
+			
+			if(regionMatches(head, length, i, EXITED)) {
+				
+				int status = i + EXITED.length;
+				
+				return status < length && head[status] >= '1' && head[status] <= '9';
+			}
+		}
+		
+		return false;
+	}
+	
+	private void addErrorLine(int line) {
+		
+		if(errorCount == errorLines.length) {
+			
+			int[] grown = new int[errorLines.length * 2];
+			System.arraycopy(errorLines, 0, grown, 0, errorCount);
+			errorLines = grown;
+		}
+		
+		errorLines[errorCount++] = line;
+	}
+	
+	/**
+	 * <p>Finds the first line at or after the given line which reports a failed command.</p>
+	 * 
+	 * @return the index of the line, else {@code -1} if there is none
+	 */
+	int findError(int fromLine) {
+		
+		int low = 0, high = errorCount;
+		
+		while(low < high) {
+			
+			int mid = (low + high) >>> 1;
+			
+			if(errorLines[mid] < fromLine) low = mid + 1;
+			else high = mid;
+		}
+		
+		return (low < errorCount)? errorLines[low] :-1;
+	}
+
+	/**
+	 * <p>Closes the innermost open fold with the given name, along with any folds nested
+	 * within it which were left open.</p>
+	 */
+	private void closeFold(String name, int line, long endOffset) {
+		
+		for (int i = open.size() - 1; i >= 0; i--) {
+			
+			if(open.get(i).getName().equals(name)) {
+				
+				while(open.size() > i) {
+					
+					open.remove(open.size() - 1).close(line, endOffset);
+				}
+				
+				return;
+			}
+		}
+	}
+
+	/**
+	 * <p>Retrieves a snapshot of the indexed folds.</p>
+	 * 
+	 * @return the folds in the order of their start lines
+	 */
+	List<Fold> getFolds() {
+		
+		return new ArrayList<Fold>(folds);
+	}
+
+	/**
+	 * <p>Writes the indexed markers, including the folds which are open.</p>
+	 */
+	void write(DataOutputStream out) throws IOException {
+		
+		out.writeInt(errorCount);
+		
+		for (int i = 0; i < errorCount; i++) {
+			
+			out.writeInt(errorLines[i]);
+		}
+		
+		out.writeInt(folds.size());
+		
+		for (Fold fold : folds) {
+			
+			out.writeUTF(fold.getName());
+			out.writeInt(fold.getDepth());
+			out.writeInt(fold.getStartLine());
+			out.writeLong(fold.getStartOffset());
+			out.writeInt(fold.getEndLine());
+			out.writeLong(fold.getEndOffset());
+			out.writeLong(fold.getDuration());
+		}
+	}
+
+	/**
+	 * <p>Replaces the indexed markers with those read from the given stream.</p>
+	 */
+	void read(DataInputStream in) throws IOException {
+		
+		clear();
+		
+		int errors = in.readInt();
+		
+		for (int i = 0; i < errors; i++) {
+			
+			addErrorLine(in.readInt());
+		}
+		
+		int count = in.readInt();
+		
+		for (int i = 0; i < count; i++) {
+			
+			Fold fold = new Fold(in.readUTF(), in.readInt(), in.readInt(), in.readLong());
+			
+			int endLine = in.readInt();
+			long endOffset = in.readLong();
+			long duration = in.readLong();
+			
+			if(endLine >= 0) fold.close(endLine, endOffset);
+			else open.add(fold);
+			
+			if(duration >= 0) fold.addDuration(duration);
+			
+			folds.add(fold);
+		}
+	}
+
+	/**
+	 * <p>Discards all indexed markers.</p>
+	 */
+	void clear() {
+		
+		folds.clear();
+		open.clear();
+		
+		errorCount = 0;
+	}
+
+	private static String readName(byte[] head, int length, int start) {
+		
+		int end = start;
+		
+		while(end < length && head[end] > ' ' && head[end] != 0x1B) end++;
+		
+		return new String(head, start, end - start);
+	}
+
+	private static long readDuration(byte[] head, int length, int start) {
+		
+		for (int i = start; i < length && head[i] > ' '; i++) {
+			
+			if(regionMatches(head, length, i, DURATION)) {
+				
+				long duration = 0;
+				boolean found = false;
+				
+				for (i += DURATION.length; i < length && head[i] >= '0' && head[i] <= '9'; i++) {
+					
+					duration = duration * 10 + (head[i] - '0');
+					found = true;
+				}
+				
+				return found? duration :-1;
+			}
+		}
+		
+		return -1;
+	}
+
+	private static int indexOf(byte[] head, int length, int start, byte b) {
+		
+		for (int i = start; i < length; i++) {
+			
+			if(head[i] == b) return i;
+		}
+		
+		return -1;
+	}
+
+	private static boolean regionMatches(byte[] head, int length, int start, byte[] token) {
+		
+		if(length - start < token.length) {
+			
+			return false;
+		}
+		
+		for (int i = 0; i < token.length; i++) {
+			
+			if(head[start + i] != token[i]) return false;
+		}
+		
+		return true;
+	}
+
+	private static byte[] ascii(String token) {
+		
+		byte[] bytes = new byte[token.length()];
+		
+		for (int i = 0; i < bytes.length; i++) {
+			
+			bytes[i] = (byte)token.charAt(i);
+		}
+		
+		return bytes;
+	}
+}
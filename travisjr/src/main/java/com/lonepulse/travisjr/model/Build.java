@@ -21,17 +21,23 @@ package com.lonepulse.travisjr.model;
  */
 
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import com.lonepulse.travisjr.util.StringPool;
+import com.lonepulse.travisjr.util.Timestamp;
 
 /**
  * <p>This entity represents a single build which was executed under 
  * continuous integration for a specific repository.
  * 
- * @version 1.1.0
+ * @version 1.1.3
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
-public class Build implements Serializable, Comparable<Build>, Cloneable {
+public class Build implements Externalizable, Comparable<Build>, Cloneable {
 
 
 	private static final long serialVersionUID = -3466293008201679790L;
@@ -99,6 +105,16 @@ public class Build implements Serializable, Comparable<Build>, Cloneable {
 	 * a {@code git push}.
 	 */
 	private String event_type;
+	
+	/**
+	 * <p>The parsed {@link #started_at}, which is created on first use.
+	 */
+	private transient Timestamp startedTimestamp;
+	
+	/**
+	 * <p>The parsed {@link #finished_at}, which is created on first use.
+	 */
+	private transient Timestamp finishedTimestamp;
 
 	/**
 	 * <p>Accessor for id.
@@ -173,7 +189,7 @@ public class Build implements Serializable, Comparable<Build>, Cloneable {
 	 *			the state to set
 	 */
 	public void setState(String state) {
-		this.state = state;
+		this.state = StringPool.intern(state);
 	}
 
 	/**
@@ -212,6 +228,7 @@ public class Build implements Serializable, Comparable<Build>, Cloneable {
 	 */
 	public void setStarted_at(String started_at) {
 		this.started_at = started_at;
+		this.startedTimestamp = null;
 	}
 
 	/**
@@ -231,6 +248,47 @@ public class Build implements Serializable, Comparable<Build>, Cloneable {
 	 */
 	public void setFinished_at(String finished_at) {
 		this.finished_at = finished_at;
+		this.finishedTimestamp = null;
+	}
+
+	/**
+	 * <p>Retrieves {@link #getStarted_at()} parsed into a {@link Timestamp}, which is 
+	 * parsed only once and carries its display strings.
+	 *
+	 * @return the {@link Timestamp} at which this build was started
+	 * 
+	 * @since 1.1.1
+	 */
+	public Timestamp getStartedTimestamp() {
+		
+		Timestamp timestamp = startedTimestamp;
+		
+		if(timestamp == null) {
+			
+			startedTimestamp = timestamp = new Timestamp(started_at);
+		}
+		
+		return timestamp;
+	}
+
+	/**
+	 * <p>Retrieves {@link #getFinished_at()} parsed into a {@link Timestamp}, which is 
+	 * parsed only once and carries its display strings.
+	 *
+	 * @return the {@link Timestamp} at which this build terminated
+	 * 
+	 * @since 1.1.1
+	 */
+	public Timestamp getFinishedTimestamp() {
+		
+		Timestamp timestamp = finishedTimestamp;
+		
+		if(timestamp == null) {
+			
+			finishedTimestamp = timestamp = new Timestamp(finished_at);
+		}
+		
+		return timestamp;
 	}
 
 	/**
@@ -287,7 +345,7 @@ public class Build implements Serializable, Comparable<Build>, Cloneable {
 	 *			the branch to set
 	 */
 	public void setBranch(String branch) {
-		this.branch = branch;
+		this.branch = StringPool.intern(branch);
 	}
 
 	/**
@@ -325,7 +383,25 @@ public class Build implements Serializable, Comparable<Build>, Cloneable {
 	 *			the event_type to set
 	 */
 	public void setEvent_type(String event_type) {
-		this.event_type = event_type;
+		this.event_type = StringPool.intern(event_type);
+	}
+
+	/**
+	 * <p>Writes this {@link Build} using the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		
+		ModelCodec.writeBuild(out, this);
+	}
+
+	/**
+	 * <p>Reads this {@link Build} from the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		
+		ModelCodec.readBuild(in, this);
 	}
 
 	/**
@@ -422,6 +498,9 @@ public class Build implements Serializable, Comparable<Build>, Cloneable {
 		build.setStarted_at(started_at);
 		build.setState(state);
 		
+		build.startedTimestamp = startedTimestamp;
+		build.finishedTimestamp = finishedTimestamp;
+		
 		return build;
 	}
 }
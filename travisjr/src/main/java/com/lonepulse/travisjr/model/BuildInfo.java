@@ -21,22 +21,26 @@ package com.lonepulse.travisjr.model;
  */
 
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Arrays;
 
 import com.lonepulse.icklebot.annotation.bind.BindText;
 import com.lonepulse.icklebot.annotation.bind.Model;
 import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.util.StringPool;
 
 /**
  * <p>This entity provides detailed information about a {@link Build}.
  * 
- * @version 1.1.0
+ * @version 1.1.2
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
 @Model
-public class BuildInfo implements Serializable {
+public class BuildInfo implements Externalizable {
 
 
 	private static final long serialVersionUID = -8755854557147767907L;
@@ -204,7 +208,7 @@ public class BuildInfo implements Serializable {
 	}
 
 	public void setState(String state) {
-		this.state = state;
+		this.state = StringPool.intern(state);
 	}
 
 	public Short getResult() {
@@ -277,7 +281,7 @@ public class BuildInfo implements Serializable {
 	}
 
 	public void setBranch(String branch) {
-		this.branch = branch;
+		this.branch = StringPool.intern(branch);
 	}
 
 	public String getMessage() {
@@ -341,7 +345,7 @@ public class BuildInfo implements Serializable {
 	}
 
 	public void setEvent_type(String event_type) {
-		this.event_type = event_type;
+		this.event_type = StringPool.intern(event_type);
 	}
 	
 	public BuildJob[] getMatrix() {
@@ -368,6 +372,24 @@ public class BuildInfo implements Serializable {
 		this.start_date = startDate;
 	}
 
+	/**
+	 * <p>Writes this {@link BuildInfo} using the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		
+		ModelCodec.writeBuildInfo(out, this);
+	}
+
+	/**
+	 * <p>Reads this {@link BuildInfo} from the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		
+		ModelCodec.readBuildInfo(in, this);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
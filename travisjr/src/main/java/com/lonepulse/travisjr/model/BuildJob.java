@@ -21,16 +21,19 @@ package com.lonepulse.travisjr.model;
  */
 
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
 /**
  * <p>Represents a single build job in the build matrix.
  * 
- * @version 1.1.0
+ * @version 1.1.1
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
-public class BuildJob implements Serializable {
+public class BuildJob implements Externalizable {
 
 
 	private static final long serialVersionUID = -654655019370021900L;
@@ -229,6 +232,24 @@ public class BuildJob implements Serializable {
 //		this.config = config;
 //	}
 
+	/**
+	 * <p>Writes this {@link BuildJob} using the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		
+		ModelCodec.writeBuildJob(out, this);
+	}
+
+	/**
+	 * <p>Reads this {@link BuildJob} from the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		
+		ModelCodec.readBuildJob(in, this);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -21,7 +21,10 @@ package com.lonepulse.travisjr.model;
  */
 
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
 /**
  * <p>This model represents a GitHub user. This could be an individual or an organization.</p>
@@ -32,11 +35,11 @@ import java.io.Serializable;
  * 
  * @since 1.1.0
  * <br><br>
- * @version 1.1.0
+ * @version 1.1.1
  * <br><br>
  * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
-public class GitHubUser implements Serializable {
+public class GitHubUser implements Externalizable {
 
 
 	private static final long serialVersionUID = 5687172223807519601L;
@@ -137,6 +140,24 @@ public class GitHubUser implements Serializable {
 	public void setMessage(String message) {
 		this.message = message;
 	}
+
+	/**
+	 * <p>Writes this {@link GitHubUser} using the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		
+		ModelCodec.writeGitHubUser(out, this);
+	}
+
+	/**
+	 * <p>Reads this {@link GitHubUser} from the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		
+		ModelCodec.readGitHubUser(in, this);
+	}
 	
 	@Override
 	public int hashCode() {
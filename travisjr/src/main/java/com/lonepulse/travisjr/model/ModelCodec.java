@@ -0,0 +1,879 @@
+package com.lonepulse.travisjr.model;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>A compact binary codec for the models which are passed between activities and kept in 
+ * their saved state. The models are {@link Externalizable} and delegate to this codec, so 
+ * they are written without the field descriptors and reflection of default serialization.</p>
+ * 
+ * <p>Every record starts with the {@link #VERSION} of the encoding it was written with, so 
+ * that a later encoding can still read what an earlier one wrote. Integral values are written 
+ * as zig-zag variable length integers and {@code null}s take no more than a single byte.</p>
+ * 
+ * <p>Strings are written as UTF-8 the first time they occur in a record and are referred to by 
+ * index when they recur, so that values such as the state, branch and event type which repeat 
+ * across the {@link Build}s of a {@link Repo} are written only once. Records of the first 
+ * version, which wrote every string in full, can still be read.</p>
+ * 
+ * <p>{@link #write(DataOutput, Object)} and {@link #read(DataInput)} tag each model with its 
+ * type, so that a model or a list of models can be persisted and read back without knowing 
+ * its type in advance. The models of a list share a single string table.</p>
+ * 
+ * @version 1.1.2
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class ModelCodec {
+	
+
+	/**
+	 * <p>The current version of the encoding.</p>
+	 */
+	public static final int VERSION = 2;
+
+	/**
+	 * <p>The {@link Charset} in which strings are encoded.</p>
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int TYPE_LIST = 1;
+	private static final int TYPE_REPO = 2;
+	private static final int TYPE_BUILD = 3;
+	private static final int TYPE_BUILD_INFO = 4;
+	private static final int TYPE_BUILD_JOB = 5;
+	private static final int TYPE_GITHUB_USER = 6;
+
+
+	private ModelCodec() {}
+
+	/**
+	 * <p>Writes the given {@link Repo} along with its recent {@link Build}s.</p>
+	 * 
+	 * @param out
+	 * 			the {@link DataOutput} to write to
+	 * 
+	 * @param repo
+	 * 			the {@link Repo} to be written
+	 * 
+	 * @throws IOException
+	 * 			if writing failed
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void writeRepo(DataOutput out, Repo repo) throws IOException {
+		
+		writeRepo(out, repo, new StringTable());
+	}
+
+	private static void writeRepo(DataOutput out, Repo repo, StringTable strings) throws IOException {
+		
+		out.writeByte(VERSION);
+		
+		writeLong(out, repo.getId());
+		writeString(out, repo.getSlug(), strings);
+		writeString(out, repo.getDescription(), strings);
+		writeString(out, repo.getLast_build_id(), strings);
+		writeNullableLong(out, repo.getLast_build_number());
+		writeNullableShort(out, repo.getLast_build_status());
+		writeNullableShort(out, repo.getLast_build_result());
+		writeNullableInteger(out, repo.getLast_build_duration());
+		writeString(out, repo.getLast_build_language(), strings);
+		writeString(out, repo.getLast_build_started_at(), strings);
+		writeString(out, repo.getLast_build_finished_at(), strings);
+		
+		List<Build> builds = repo.getBuilds();
+		
+		writeCount(out, (builds == null)? -1 :builds.size());
+		
+		if(builds != null) {
+			
+			for (Build build : builds) {
+				
+				writeBuild(out, build, strings);
+			}
+		}
+	}
+
+	/**
+	 * <p>Reads a {@link Repo} which was written by {@link #writeRepo(DataOutput, Repo)} into 
+	 * the given instance.</p>
+	 * 
+	 * @param in
+	 * 			the {@link DataInput} to read from
+	 * 
+	 * @param repo
+	 * 			the {@link Repo} which receives the values
+	 * 
+	 * @throws IOException
+	 * 			if reading failed or the record is of an unknown version
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void readRepo(DataInput in, Repo repo) throws IOException {
+		
+		readRepo(in, repo, new StringTable());
+	}
+
+	private static void readRepo(DataInput in, Repo repo, StringTable strings) throws IOException {
+		
+		int version = readVersion(in);
+		
+		repo.setId(readLong(in));
+		repo.setSlug(readString(in, version, strings));
+		repo.setDescription(readString(in, version, strings));
+		repo.setLast_build_id(readString(in, version, strings));
+		repo.setLast_build_number(readNullableLong(in));
+		repo.setLast_build_status(readNullableShort(in));
+		repo.setLast_build_result(readNullableShort(in));
+		repo.setLast_build_duration(readNullableInteger(in));
+		repo.setLast_build_language(readString(in, version, strings));
+		repo.setLast_build_started_at(readString(in, version, strings));
+		repo.setLast_build_finished_at(readString(in, version, strings));
+		
+		int count = readCount(in);
+		List<Build> builds = null;
+		
+		if(count >= 0) {
+			
+			builds = new ArrayList<Build>(count);
+			
+			for (int i = 0; i < count; i++) {
+				
+				Build build = new Build();
+				readBuild(in, build, strings);
+				builds.add(build);
+			}
+		}
+		
+		repo.setBuilds(builds);
+	}
+
+	/**
+	 * <p>Writes the given {@link Build}.</p>
+	 * 
+	 * @param out
+	 * 			the {@link DataOutput} to write to
+	 * 
+	 * @param build
+	 * 			the {@link Build} to be written
+	 * 
+	 * @throws IOException
+	 * 			if writing failed
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void writeBuild(DataOutput out, Build build) throws IOException {
+		
+		writeBuild(out, build, new StringTable());
+	}
+
+	private static void writeBuild(DataOutput out, Build build, StringTable strings) throws IOException {
+		
+		out.writeByte(VERSION);
+		
+		writeLong(out, build.getId());
+		writeNullableLong(out, build.getRepository_id());
+		writeNullableLong(out, build.getNumber());
+		writeString(out, build.getState(), strings);
+		writeNullableShort(out, build.getResult());
+		writeString(out, build.getStarted_at(), strings);
+		writeString(out, build.getFinished_at(), strings);
+		writeNullableInteger(out, build.getDuration());
+		writeString(out, build.getCommit(), strings);
+		writeString(out, build.getBranch(), strings);
+		writeString(out, build.getMessage(), strings);
+		writeString(out, build.getEvent_type(), strings);
+	}
+
+	/**
+	 * <p>Reads a {@link Build} which was written by {@link #writeBuild(DataOutput, Build)} into 
+	 * the given instance.</p>
+	 * 
+	 * @param in
+	 * 			the {@link DataInput} to read from
+	 * 
+	 * @param build
+	 * 			the {@link Build} which receives the values
+	 * 
+	 * @throws IOException
+	 * 			if reading failed or the record is of an unknown version
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void readBuild(DataInput in, Build build) throws IOException {
+		
+		readBuild(in, build, new StringTable());
+	}
+
+	private static void readBuild(DataInput in, Build build, StringTable strings) throws IOException {
+		
+		int version = readVersion(in);
+		
+		build.setId(readLong(in));
+		build.setRepository_id(readNullableLong(in));
+		build.setNumber(readNullableLong(in));
+		build.setState(readString(in, version, strings));
+		build.setResult(readNullableShort(in));
+		build.setStarted_at(readString(in, version, strings));
+		build.setFinished_at(readString(in, version, strings));
+		build.setDuration(readNullableInteger(in));
+		build.setCommit(readString(in, version, strings));
+		build.setBranch(readString(in, version, strings));
+		build.setMessage(readString(in, version, strings));
+		build.setEvent_type(readString(in, version, strings));
+	}
+
+	/**
+	 * <p>Writes the given {@link BuildInfo} along with the {@link BuildJob}s of its matrix.</p>
+	 * 
+	 * @param out
+	 * 			the {@link DataOutput} to write to
+	 * 
+	 * @param buildInfo
+	 * 			the {@link BuildInfo} to be written
+	 * 
+	 * @throws IOException
+	 * 			if writing failed
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void writeBuildInfo(DataOutput out, BuildInfo buildInfo) throws IOException {
+		
+		writeBuildInfo(out, buildInfo, new StringTable());
+	}
+
+	private static void writeBuildInfo(DataOutput out, BuildInfo buildInfo, StringTable strings) throws IOException {
+		
+		out.writeByte(VERSION);
+		
+		writeLong(out, buildInfo.getId());
+		writeNullableLong(out, buildInfo.getRepository_id());
+		writeNullableLong(out, buildInfo.getNumber());
+		writeString(out, buildInfo.getState(), strings);
+		writeNullableShort(out, buildInfo.getResult());
+		writeNullableShort(out, buildInfo.getStatus());
+		writeString(out, buildInfo.getStarted_at(), strings);
+		writeString(out, buildInfo.getFinished_at(), strings);
+		writeNullableInteger(out, buildInfo.getDuration());
+		writeLong(out, buildInfo.getMinutes());
+		writeLong(out, buildInfo.getSeconds());
+		writeString(out, buildInfo.getCommit(), strings);
+		writeString(out, buildInfo.getBranch(), strings);
+		writeString(out, buildInfo.getMessage(), strings);
+		writeString(out, buildInfo.getCommitted_at(), strings);
+		writeString(out, buildInfo.getAuthor_name(), strings);
+		writeString(out, buildInfo.getAuthor_email(), strings);
+		writeString(out, buildInfo.getCommitter_name(), strings);
+		writeString(out, buildInfo.getCommitter_email(), strings);
+		writeString(out, buildInfo.getCompare_url(), strings);
+		writeString(out, buildInfo.getEvent_type(), strings);
+		writeString(out, buildInfo.getStart_time(), strings);
+		writeString(out, buildInfo.getStart_date(), strings);
+		
+		BuildJob[] matrix = buildInfo.getMatrix();
+		
+		writeCount(out, (matrix == null)? -1 :matrix.length);
+		
+		if(matrix != null) {
+			
+			for (BuildJob buildJob : matrix) {
+				
+				writeBuildJob(out, buildJob, strings);
+			}
+		}
+	}
+
+	/**
+	 * <p>Reads a {@link BuildInfo} which was written by {@link #writeBuildInfo(DataOutput, BuildInfo)} 
+	 * into the given instance.</p>
+	 * 
+	 * @param in
+	 * 			the {@link DataInput} to read from
+	 * 
+	 * @param buildInfo
+	 * 			the {@link BuildInfo} which receives the values
+	 * 
+	 * @throws IOException
+	 * 			if reading failed or the record is of an unknown version
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void readBuildInfo(DataInput in, BuildInfo buildInfo) throws IOException {
+		
+		readBuildInfo(in, buildInfo, new StringTable());
+	}
+
+	private static void readBuildInfo(DataInput in, BuildInfo buildInfo, StringTable strings) throws IOException {
+		
+		int version = readVersion(in);
+		
+		buildInfo.setId(readLong(in));
+		buildInfo.setRepository_id(readNullableLong(in));
+		buildInfo.setNumber(readNullableLong(in));
+		buildInfo.setState(readString(in, version, strings));
+		buildInfo.setResult(readNullableShort(in));
+		buildInfo.setStatus(readNullableShort(in));
+		buildInfo.setStarted_at(readString(in, version, strings));
+		buildInfo.setFinished_at(readString(in, version, strings));
+		buildInfo.setDuration(readNullableInteger(in));
+		buildInfo.setMinutes((int)readLong(in));
+		buildInfo.setSeconds((int)readLong(in));
+		buildInfo.setCommit(readString(in, version, strings));
+		buildInfo.setBranch(readString(in, version, strings));
+		buildInfo.setMessage(readString(in, version, strings));
+		buildInfo.setCommitted_at(readString(in, version, strings));
+		buildInfo.setAuthor_name(readString(in, version, strings));
+		buildInfo.setAuthor_email(readString(in, version, strings));
+		buildInfo.setCommitter_name(readString(in, version, strings));
+		buildInfo.setCommitter_email(readString(in, version, strings));
+		buildInfo.setCompare_url(readString(in, version, strings));
+		buildInfo.setEvent_type(readString(in, version, strings));
+		buildInfo.setStart_time(readString(in, version, strings));
+		buildInfo.setStart_date(readString(in, version, strings));
+		
+		int count = readCount(in);
+		BuildJob[] matrix = null;
+		
+		if(count >= 0) {
+			
+			matrix = new BuildJob[count];
+			
+			for (int i = 0; i < count; i++) {
+				
+				matrix[i] = new BuildJob();
+				readBuildJob(in, matrix[i], strings);
+			}
+		}
+		
+		buildInfo.setMatrix(matrix);
+	}
+
+	/**
+	 * <p>Writes the given {@link BuildJob}.</p>
+	 * 
+	 * @param out
+	 * 			the {@link DataOutput} to write to
+	 * 
+	 * @param buildJob
+	 * 			the {@link BuildJob} to be written
+	 * 
+	 * @throws IOException
+	 * 			if writing failed
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void writeBuildJob(DataOutput out, BuildJob buildJob) throws IOException {
+		
+		writeBuildJob(out, buildJob, new StringTable());
+	}
+
+	private static void writeBuildJob(DataOutput out, BuildJob buildJob, StringTable strings) throws IOException {
+		
+		out.writeByte(VERSION);
+		
+		writeLong(out, buildJob.getId());
+		writeLong(out, buildJob.getRepository_id());
+		out.writeDouble(buildJob.getNumber());
+		writeLong(out, buildJob.getResult());
+		writeString(out, buildJob.getStarted_at(), strings);
+		writeString(out, buildJob.getFinished_at(), strings);
+		out.writeBoolean(buildJob.isAllow_failure());
+	}
+
+	/**
+	 * <p>Reads a {@link BuildJob} which was written by {@link #writeBuildJob(DataOutput, BuildJob)} 
+	 * into the given instance.</p>
+	 * 
+	 * @param in
+	 * 			the {@link DataInput} to read from
+	 * 
+	 * @param buildJob
+	 * 			the {@link BuildJob} which receives the values
+	 * 
+	 * @throws IOException
+	 * 			if reading failed or the record is of an unknown version
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void readBuildJob(DataInput in, BuildJob buildJob) throws IOException {
+		
+		readBuildJob(in, buildJob, new StringTable());
+	}
+
+	private static void readBuildJob(DataInput in, BuildJob buildJob, StringTable strings) throws IOException {
+		
+		int version = readVersion(in);
+		
+		buildJob.setId(readLong(in));
+		buildJob.setRepository_id(readLong(in));
+		buildJob.setNumber(in.readDouble());
+		buildJob.setResult((int)readLong(in));
+		buildJob.setStarted_at(readString(in, version, strings));
+		buildJob.setFinished_at(readString(in, version, strings));
+		buildJob.setAllow_failure(in.readBoolean());
+	}
+
+	/**
+	 * <p>Writes the given {@link GitHubUser}.</p>
+	 * 
+	 * @param out
+	 * 			the {@link DataOutput} to write to
+	 * 
+	 * @param gitHubUser
+	 * 			the {@link GitHubUser} to be written
+	 * 
+	 * @throws IOException
+	 * 			if writing failed
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void writeGitHubUser(DataOutput out, GitHubUser gitHubUser) throws IOException {
+		
+		writeGitHubUser(out, gitHubUser, new StringTable());
+	}
+
+	private static void writeGitHubUser(DataOutput out, GitHubUser gitHubUser, StringTable strings) throws IOException {
+		
+		out.writeByte(VERSION);
+		
+		writeString(out, gitHubUser.getId(), strings);
+		writeString(out, gitHubUser.getLogin(), strings);
+		writeString(out, gitHubUser.getType(), strings);
+		writeString(out, gitHubUser.getMessage(), strings);
+	}
+
+	/**
+	 * <p>Reads a {@link GitHubUser} which was written by {@link #writeGitHubUser(DataOutput, GitHubUser)} 
+	 * into the given instance.</p>
+	 * 
+	 * @param in
+	 * 			the {@link DataInput} to read from
+	 * 
+	 * @param gitHubUser
+	 * 			the {@link GitHubUser} which receives the values
+	 * 
+	 * @throws IOException
+	 * 			if reading failed or the record is of an unknown version
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void readGitHubUser(DataInput in, GitHubUser gitHubUser) throws IOException {
+		
+		readGitHubUser(in, gitHubUser, new StringTable());
+	}
+
+	private static void readGitHubUser(DataInput in, GitHubUser gitHubUser, StringTable strings) throws IOException {
+		
+		int version = readVersion(in);
+		
+		gitHubUser.setId(readString(in, version, strings));
+		gitHubUser.setLogin(readString(in, version, strings));
+		gitHubUser.setType(readString(in, version, strings));
+		gitHubUser.setMessage(readString(in, version, strings));
+	}
+
+	/**
+	 * <p>Writes the given model, or {@link List} of models, preceded by its type.</p>
+	 * 
+	 * @param out
+	 * 			the {@link DataOutput} to write to
+	 * 
+	 * @param model
+	 * 			a {@link Repo}, {@link Build}, {@link BuildInfo}, {@link BuildJob} or {@link GitHubUser}, 
+	 * 			or a {@link List} of these
+	 * 
+	 * @throws NotSerializableException
+	 * 			if the given object is neither a model nor a list of models
+	 * 
+	 * @throws IOException
+	 * 			if writing failed
+	 * 
+	 * @since 1.1.2
+	 */
+	public static void write(DataOutput out, Object model) throws IOException {
+		
+		write(out, model, new StringTable());
+	}
+
+	private static void write(DataOutput out, Object model, StringTable strings) throws IOException {
+		
+		if(model instanceof List<?>) {
+			
+			List<?> models = (List<?>)model;
+			
+			writeVarInt(out, TYPE_LIST);
+			writeVarInt(out, models.size());
+			
+			for (Object element : models) {
+				
+				write(out, element, strings);
+			}
+		}
+		else if(model instanceof Repo) {
+			
+			writeVarInt(out, TYPE_REPO);
+			writeRepo(out, (Repo)model, strings);
+		}
+		else if(model instanceof Build) {
+			
+			writeVarInt(out, TYPE_BUILD);
+			writeBuild(out, (Build)model, strings);
+		}
+		else if(model instanceof BuildInfo) {
+			
+			writeVarInt(out, TYPE_BUILD_INFO);
+			writeBuildInfo(out, (BuildInfo)model, strings);
+		}
+		else if(model instanceof BuildJob) {
+			
+			writeVarInt(out, TYPE_BUILD_JOB);
+			writeBuildJob(out, (BuildJob)model, strings);
+		}
+		else if(model instanceof GitHubUser) {
+			
+			writeVarInt(out, TYPE_GITHUB_USER);
+			writeGitHubUser(out, (GitHubUser)model, strings);
+		}
+		else {
+			
+			throw new NotSerializableException((model == null)? "null" :model.getClass().getName());
+		}
+	}
+
+	/**
+	 * <p>Reads a model, or {@link List} of models, which was written by {@link #write(DataOutput, Object)}.</p>
+	 * 
+	 * @param in
+	 * 			the {@link DataInput} to read from
+	 * 
+	 * @return the model, or an {@link ArrayList} of models
+	 * 
+	 * @throws IOException
+	 * 			if reading failed or the input is not an encoded model
+	 * 
+	 * @since 1.1.2
+	 */
+	public static Object read(DataInput in) throws IOException {
+		
+		return read(in, new StringTable());
+	}
+
+	private static Object read(DataInput in, StringTable strings) throws IOException {
+		
+		int type = readVarInt(in);
+		
+		switch (type) {
+		
+			case TYPE_LIST: {
+				
+				int count = readVarInt(in);
+				List<Object> models = new ArrayList<Object>(Math.min(count, 1024));
+				
+				for (int i = 0; i < count; i++) {
+					
+					models.add(read(in, strings));
+				}
+				
+				return models;
+			}
+			case TYPE_REPO: {
+				
+				Repo repo = new Repo();
+				readRepo(in, repo, strings);
+				
+				return repo;
+			}
+			case TYPE_BUILD: {
+				
+				Build build = new Build();
+				readBuild(in, build, strings);
+				
+				return build;
+			}
+			case TYPE_BUILD_INFO: {
+				
+				BuildInfo buildInfo = new BuildInfo();
+				readBuildInfo(in, buildInfo, strings);
+				
+				return buildInfo;
+			}
+			case TYPE_BUILD_JOB: {
+				
+				BuildJob buildJob = new BuildJob();
+				readBuildJob(in, buildJob, strings);
+				
+				return buildJob;
+			}
+			case TYPE_GITHUB_USER: {
+				
+				GitHubUser gitHubUser = new GitHubUser();
+				readGitHubUser(in, gitHubUser, strings);
+				
+				return gitHubUser;
+			}
+			default: {
+				
+				throw new InvalidObjectException("Unknown model type " + type);
+			}
+		}
+	}
+
+	/**
+	 * <p>Reads the version of a record and ensures that it can be decoded.</p>
+	 */
+	private static int readVersion(DataInput in) throws IOException {
+		
+		int version = in.readUnsignedByte();
+		
+		if(version < 1 || version > VERSION) {
+			
+			throw new InvalidObjectException("Unsupported model encoding version " + version);
+		}
+		
+		return version;
+	}
+
+	private static void writeLong(DataOutput out, long value) throws IOException {
+		
+		long zigZag = (value << 1) ^ (value >> 63);
+		
+		while((zigZag & ~0x7FL) != 0) {
+			
+			out.writeByte((int)((zigZag & 0x7F) | 0x80));
+			zigZag >>>= 7;
+		}
+		
+		out.writeByte((int)zigZag);
+	}
+
+	private static long readLong(DataInput in) throws IOException {
+		
+		long zigZag = 0;
+		
+		for (int shift = 0; shift < 64; shift += 7) {
+			
+			int b = in.readUnsignedByte();
+			zigZag |= (long)(b & 0x7F) << shift;
+			
+			if((b & 0x80) == 0) {
+				
+				return (zigZag >>> 1) ^ -(zigZag & 1);
+			}
+		}
+		
+		throw new InvalidObjectException("Malformed variable length integer.");
+	}
+
+	/**
+	 * <p>Writes the size of a collection, where {@code -1} stands for {@code null}.</p>
+	 */
+	private static void writeCount(DataOutput out, int count) throws IOException {
+		
+		writeLong(out, count);
+	}
+
+	private static int readCount(DataInput in) throws IOException {
+		
+		long count = readLong(in);
+		
+		if(count < -1 || count > Integer.MAX_VALUE) {
+			
+			throw new InvalidObjectException("Malformed count " + count);
+		}
+		
+		return (int)count;
+	}
+
+	private static void writeNullableLong(DataOutput out, Long value) throws IOException {
+		
+		out.writeBoolean(value != null);
+		
+		if(value != null) {
+			
+			writeLong(out, value.longValue());
+		}
+	}
+
+	private static Long readNullableLong(DataInput in) throws IOException {
+		
+		return in.readBoolean()? Long.valueOf(readLong(in)) :null;
+	}
+
+	private static void writeNullableInteger(DataOutput out, Integer value) throws IOException {
+		
+		writeNullableLong(out, (value == null)? null :Long.valueOf(value.longValue()));
+	}
+
+	private static Integer readNullableInteger(DataInput in) throws IOException {
+		
+		Long value = readNullableLong(in);
+		return (value == null)? null :Integer.valueOf(value.intValue());
+	}
+
+	private static void writeNullableShort(DataOutput out, Short value) throws IOException {
+		
+		writeNullableLong(out, (value == null)? null :Long.valueOf(value.longValue()));
+	}
+
+	private static Short readNullableShort(DataInput in) throws IOException {
+		
+		Long value = readNullableLong(in);
+		return (value == null)? null :Short.valueOf(value.shortValue());
+	}
+
+	/**
+	 * <p>Writes a string as a single tag, followed by its UTF-8 bytes if it was not written 
+	 * before in the same record. A tag of {@code 0} stands for {@code null}, an odd tag refers 
+	 * to the string at index {@code tag >>> 1} of the {@link StringTable}, and an even tag 
+	 * announces a new string of {@code (tag >>> 1) - 1} bytes which is then added to the table.</p>
+	 */
+	private static void writeString(DataOutput out, String value, StringTable strings) throws IOException {
+		
+		if(value == null) {
+			
+			writeVarInt(out, 0);
+			return;
+		}
+		
+		Integer index = strings.indices.get(value);
+		
+		if(index != null) {
+			
+			writeVarInt(out, (index.intValue() << 1) | 1);
+			return;
+		}
+		
+		strings.indices.put(value, Integer.valueOf(strings.indices.size()));
+		
+		byte[] bytes = value.getBytes(UTF_8);
+		
+		writeVarInt(out, (bytes.length + 1) << 1);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInput in, int version, StringTable strings) throws IOException {
+		
+		if(version == 1) {
+			
+			long length = readLong(in) - 1; //the byte count plus one, without back-references
+			
+			if(length < -1 || length > Integer.MAX_VALUE) {
+				
+				throw new InvalidObjectException("Malformed string length " + length);
+			}
+			
+			return (length == -1)? null :readUTF8(in, (int)length);
+		}
+		
+		int tag = readVarInt(in);
+		
+		if(tag == 0) {
+			
+			return null;
+		}
+		
+		if((tag & 1) == 1) {
+			
+			int index = tag >>> 1;
+			
+			if(index >= strings.values.size()) {
+				
+				throw new InvalidObjectException("Malformed string reference " + index);
+			}
+			
+			return strings.values.get(index);
+		}
+		
+		String value = readUTF8(in, (tag >>> 1) - 1);
+		strings.values.add(value);
+		
+		return value;
+	}
+
+	private static String readUTF8(DataInput in, int length) throws IOException {
+		
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		
+		return new String(bytes, UTF_8);
+	}
+
+	/**
+	 * <p>Writes a non-negative {@code int} as an unsigned variable length integer.</p>
+	 */
+	private static void writeVarInt(DataOutput out, int value) throws IOException {
+		
+		while((value & ~0x7F) != 0) {
+			
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInput in) throws IOException {
+		
+		int value = 0;
+		
+		for (int shift = 0; shift < 32; shift += 7) {
+			
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			
+			if((b & 0x80) == 0) {
+				
+				return value;
+			}
+		}
+		
+		throw new InvalidObjectException("Malformed variable length integer.");
+	}
+
+
+	/**
+	 * <p>The strings which were written or read so far in a single record, including those of 
+	 * the records which are nested in it. A string which recurs, such as the branch or the state 
+	 * of each {@link Build} of a {@link Repo}, is written once and referred to by its index.</p>
+	 */
+	private static final class StringTable {
+		
+		
+		private final Map<String, Integer> indices = new HashMap<String, Integer>();
+		private final List<String> values = new ArrayList<String>();
+	}
+}
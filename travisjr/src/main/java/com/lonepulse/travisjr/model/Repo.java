@@ -21,23 +21,25 @@ package com.lonepulse.travisjr.model;
  */
 
 
-import java.io.Serializable;
-import java.text.ParseException;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
-import com.lonepulse.travisjr.util.DateUtils;
+import com.lonepulse.travisjr.util.StringPool;
+import com.lonepulse.travisjr.util.Timestamp;
 
 /**
  * <p>This entity represents a single repository which is under 
  * continuous integration.
  * 
- * @version 1.1.1
+ * @version 1.1.4
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
-public class Repo implements Serializable, Comparable<Repo>, Cloneable {
+public class Repo implements Externalizable, Comparable<Repo>, Cloneable {
 
 
 	private static final long serialVersionUID = 6970742314687312453L;
@@ -106,6 +108,16 @@ public class Repo implements Serializable, Comparable<Repo>, Cloneable {
 	 */
 	private List<Build> builds = new ArrayList<Build>();
 	
+	/**
+	 * <p>The parsed {@link #last_build_started_at}, which is created on first use.
+	 */
+	private transient Timestamp lastBuildStartedTimestamp;
+	
+	/**
+	 * <p>The parsed {@link #last_build_finished_at}, which is created on first use.
+	 */
+	private transient Timestamp lastBuildFinishedTimestamp;
+	
 	
 	/**
 	 * <p>Accessor for id.
@@ -275,7 +287,7 @@ public class Repo implements Serializable, Comparable<Repo>, Cloneable {
 	 *			the last_build_language to set
 	 */
 	public void setLast_build_language(String last_build_language) {
-		this.last_build_language = last_build_language;
+		this.last_build_language = StringPool.intern(last_build_language);
 	}
 
 	/**
@@ -295,6 +307,7 @@ public class Repo implements Serializable, Comparable<Repo>, Cloneable {
 	 */
 	public void setLast_build_started_at(String last_build_started_at) {
 		this.last_build_started_at = last_build_started_at;
+		this.lastBuildStartedTimestamp = null;
 	}
 
 	/**
@@ -314,6 +327,47 @@ public class Repo implements Serializable, Comparable<Repo>, Cloneable {
 	 */
 	public void setLast_build_finished_at(String last_build_finished_at) {
 		this.last_build_finished_at = last_build_finished_at;
+		this.lastBuildFinishedTimestamp = null;
+	}
+
+	/**
+	 * <p>Retrieves {@link #getLast_build_started_at()} parsed into a {@link Timestamp}, 
+	 * which is parsed only once and carries its display strings.
+	 *
+	 * @return the {@link Timestamp} of the last build initiation
+	 * 
+	 * @since 1.1.2
+	 */
+	public Timestamp getLastBuildStartedTimestamp() {
+		
+		Timestamp timestamp = lastBuildStartedTimestamp;
+		
+		if(timestamp == null) {
+			
+			lastBuildStartedTimestamp = timestamp = new Timestamp(last_build_started_at);
+		}
+		
+		return timestamp;
+	}
+
+	/**
+	 * <p>Retrieves {@link #getLast_build_finished_at()} parsed into a {@link Timestamp}, 
+	 * which is parsed only once and carries its display strings.
+	 *
+	 * @return the {@link Timestamp} of the last build termination
+	 * 
+	 * @since 1.1.2
+	 */
+	public Timestamp getLastBuildFinishedTimestamp() {
+		
+		Timestamp timestamp = lastBuildFinishedTimestamp;
+		
+		if(timestamp == null) {
+			
+			lastBuildFinishedTimestamp = timestamp = new Timestamp(last_build_finished_at);
+		}
+		
+		return timestamp;
 	}
 	
 	/**
@@ -335,6 +389,24 @@ public class Repo implements Serializable, Comparable<Repo>, Cloneable {
 		this.builds = builds;
 	}
 
+	/**
+	 * <p>Writes this {@link Repo} using the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		
+		ModelCodec.writeRepo(out, this);
+	}
+
+	/**
+	 * <p>Reads this {@link Repo} from the compact encoding of the {@link ModelCodec}.</p>
+	 */
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		
+		ModelCodec.readRepo(in, this);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -409,17 +481,7 @@ public class Repo implements Serializable, Comparable<Repo>, Cloneable {
 
 		if(another == null) return -1;
 		
-		try {
-			
-			Date thisTimestamp = DateUtils.parseFromISO8601(last_build_started_at);
-			Date otherTimestamp = DateUtils.parseFromISO8601(another.last_build_started_at);
-			
-			return otherTimestamp.compareTo(thisTimestamp);
-		} 
-		catch (ParseException e) {
-			
-			return -1;
-		}
+		return getLastBuildStartedTimestamp().compareTo(another.getLastBuildStartedTimestamp());
 	}
 
 	/**
@@ -451,6 +513,9 @@ public class Repo implements Serializable, Comparable<Repo>, Cloneable {
 		
 		repo.setBuilds(buildClones);
 		
+		repo.lastBuildStartedTimestamp = lastBuildStartedTimestamp;
+		repo.lastBuildFinishedTimestamp = lastBuildFinishedTimestamp;
+		
 		return repo;
 	}
 }
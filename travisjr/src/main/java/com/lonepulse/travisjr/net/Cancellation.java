@@ -0,0 +1,284 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.methods.AbortableHttpRequest;
+import org.apache.http.impl.client.RequestWrapper;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * <p>A token which allows a unit of background work to be abandoned. While a token is 
+ * {@link #bind() bound} to a thread, every request which that thread executes over the 
+ * {@link HttpTransport} is registered with it, and {@link #cancel() cancelling} the token 
+ * aborts those requests, so that a blocked read fails at once rather than draining a 
+ * response which nobody will see. Code which parses or loops over results may poll 
+ * {@link #check()} to stop at its next step.</p>
+ * 
+ * <p>A token is not inherited by other threads; work which is handed off to a pool should 
+ * capture the {@link #current()} token and bind it on the worker, or bind a {@link #newChild() 
+ * child} of it which can be abandoned on its own.</p>
+ * 
+ * @version 1.1.1
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class Cancellation {
+	
+
+	/**
+	 * <p>The token which is bound to each thread, if any.</p>
+	 */
+	private static final ThreadLocal<Cancellation> CURRENT = new ThreadLocal<Cancellation>();
+
+
+	/**
+	 * <p>The requests which were executed under this token and may still be in flight.</p>
+	 */
+	private final List<AbortableHttpRequest> requests = new ArrayList<AbortableHttpRequest>();
+
+	/**
+	 * <p>The tokens which are cancelled along with this token.</p>
+	 */
+	private final List<Cancellation> children = new ArrayList<Cancellation>();
+
+	private volatile boolean cancelled;
+
+
+	/**
+	 * <p>Retrieves the token which is bound to the calling thread.</p>
+	 * 
+	 * @return the current {@link Cancellation}, else {@code null} if none is bound
+	 * 
+	 * @since 1.1.0
+	 */
+	public static Cancellation current() {
+		
+		return CURRENT.get();
+	}
+
+	/**
+	 * <p>Throws an {@link InterruptedIOException} if the token which is bound to the calling 
+	 * thread has been cancelled; this is a no-op for threads without a token.</p>
+	 * 
+	 * @throws InterruptedIOException
+	 * 			if the current token was cancelled
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void check() throws InterruptedIOException {
+		
+		Cancellation cancellation = CURRENT.get();
+		
+		if(cancellation != null && cancellation.cancelled) {
+			
+			throw new InterruptedIOException("The task was cancelled.");
+		}
+	}
+
+	/**
+	 * <p>Restores the token which was bound to the calling thread before {@link #bind()}.</p>
+	 * 
+	 * @param previous
+	 * 			the token which was returned by {@link #bind()}, which may be {@code null}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void restore(Cancellation previous) {
+		
+		if(previous == null) {
+			
+			CURRENT.remove();
+		}
+		else {
+			
+			CURRENT.set(previous);
+		}
+	}
+
+	/**
+	 * <p>Binds this token to the calling thread. Every call to this method must be followed 
+	 * by a call to {@link #restore(Cancellation)} in a <i>finally</i> block.</p>
+	 * 
+	 * @return the token which was previously bound to the thread, else {@code null}
+	 * 
+	 * @since 1.1.0
+	 */
+	public Cancellation bind() {
+		
+		Cancellation previous = CURRENT.get();
+		CURRENT.set(this);
+		
+		return previous;
+	}
+
+	/**
+	 * <p>Creates a token which is cancelled along with this token, but which can also be cancelled 
+	 * on its own without affecting this token. Every call to this method must be followed by a 
+	 * call to {@link #release(Cancellation)} once the work of the child is done.</p>
+	 * 
+	 * @return a new child of this token, which is already cancelled if this token is
+	 * 
+	 * @since 1.1.1
+	 */
+	public Cancellation newChild() {
+		
+		Cancellation child = new Cancellation();
+		
+		synchronized (this) {
+			
+			if(!cancelled) {
+				
+				children.add(child);
+				return child;
+			}
+		}
+		
+		child.cancel();
+		return child;
+	}
+
+	/**
+	 * <p>Releases a token which was created by {@link #newChild()}, so that it is no longer 
+	 * cancelled along with this token.</p>
+	 * 
+	 * @param child
+	 * 			the child token whose work is done
+	 * 
+	 * @since 1.1.1
+	 */
+	public synchronized void release(Cancellation child) {
+		
+		children.remove(child);
+	}
+
+	/**
+	 * <p>Cancels this token and its children and aborts the requests which are executing under 
+	 * them. Subsequent requests under this token are aborted before they are sent.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public void cancel() {
+		
+		List<AbortableHttpRequest> inFlight;
+		List<Cancellation> dependents;
+		
+		synchronized (this) {
+			
+			if(cancelled) {
+				
+				return;
+			}
+			
+			cancelled = true;
+			
+			inFlight = new ArrayList<AbortableHttpRequest>(requests);
+			requests.clear();
+			
+			dependents = new ArrayList<Cancellation>(children);
+			children.clear();
+		}
+		
+		for (AbortableHttpRequest request : inFlight) {
+			
+			request.abort(); //closes the connection, failing any blocked read
+		}
+		
+		for (Cancellation child : dependents) {
+			
+			child.cancel();
+		}
+	}
+
+	/**
+	 * <p>Determines whether this token has been cancelled.</p>
+	 * 
+	 * @return {@code true} if {@link #cancel()} was invoked
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isCancelled() {
+		
+		return cancelled;
+	}
+
+	private void register(AbortableHttpRequest request) throws InterruptedIOException {
+		
+		synchronized (this) {
+			
+			if(!cancelled) {
+				
+				requests.add(request);
+				return;
+			}
+		}
+		
+		request.abort();
+		throw new InterruptedIOException("The task was cancelled.");
+	}
+
+
+	/**
+	 * <p>Registers each outgoing request with the token of the thread which executes it, 
+	 * failing requests whose token has already been cancelled.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.0
+	 * <br><br>
+	 * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static final class Interceptor implements HttpRequestInterceptor {
+		
+		@Override
+		public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+			
+			Cancellation cancellation = CURRENT.get();
+			
+			if(cancellation == null) {
+				
+				return;
+			}
+			
+			HttpRequest original = (request instanceof RequestWrapper)? 
+				((RequestWrapper)request).getOriginal() :request; //the client executes a copy
+			
+			if(original instanceof AbortableHttpRequest) {
+				
+				cancellation.register((AbortableHttpRequest)original);
+			}
+			else {
+				
+				check();
+			}
+		}
+	}
+}
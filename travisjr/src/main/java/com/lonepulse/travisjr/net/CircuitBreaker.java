@@ -0,0 +1,312 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.util.Res;
+
+/**
+ * <p>Tracks the health of each host and fails requests fast while a host is down, rather than 
+ * letting them pile up until they time out. A host's circuit <i>opens</i> after 
+ * {@link R.integer#circuit_failure_threshold} consecutive failures, during which requests are 
+ * refused with a {@link CircuitOpenException}. Once {@link R.integer#circuit_open_duration} 
+ * seconds have passed, the circuit is <i>half-open</i> and a single trial request is let 
+ * through; it closes the circuit if it succeeds and reopens it otherwise.</p>
+ * 
+ * <p>Screens may consult {@link #isOpen(String)} to present cached data in place of an error 
+ * while a host is unavailable.</p>
+ * 
+ * @version 1.1.1
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class CircuitBreaker {
+	
+
+	/**
+	 * <p>The states of the circuit of a host.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.0
+	 * <br><br>
+	 * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static enum State {
+		
+		/**
+		 * <p>The host is healthy and requests are sent.</p>
+		 */
+		CLOSED,
+		
+		/**
+		 * <p>The host is failing and requests are refused.</p>
+		 */
+		OPEN,
+		
+		/**
+		 * <p>The host was failing and a trial request may be sent.</p>
+		 */
+		HALF_OPEN;
+	}
+
+
+	/**
+	 * <p>The {@link CircuitBreaker} which is shared by all requests.</p>
+	 */
+	private static volatile CircuitBreaker instance;
+
+
+	/**
+	 * <p>The number of consecutive failures after which a circuit opens.</p>
+	 */
+	private final int failureThreshold;
+
+	/**
+	 * <p>The number of milliseconds for which a circuit stays open.</p>
+	 */
+	private final long openDuration;
+
+	/**
+	 * <p>The circuits of the hosts which have been contacted, keyed by the host name.</p>
+	 */
+	private final Map<String, Circuit> circuits = new HashMap<String, Circuit>();
+
+
+	/**
+	 * <p>The health of a single host.</p>
+	 */
+	private static final class Circuit {
+		
+		private State state = State.CLOSED;
+		private int failures;
+		private long openedAt;
+		private boolean trialInFlight;
+	}
+
+
+	/**
+	 * <p>Retrieves the {@link CircuitBreaker} which is shared by all requests.</p>
+	 * 
+	 * @return the shared {@link CircuitBreaker}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static CircuitBreaker getInstance() {
+		
+		if(instance == null) {
+			
+			synchronized (CircuitBreaker.class) {
+				
+				if(instance == null) {
+					
+					instance = new CircuitBreaker(Res.integer(R.integer.circuit_failure_threshold), 
+						Res.integer(R.integer.circuit_open_duration) * 1000L);
+				}
+			}
+		}
+		
+		return instance;
+	}
+
+	/**
+	 * <p>Creates a new {@link CircuitBreaker} with its own circuits; the application shares the 
+	 * one which is retrieved via {@link #getInstance()}.</p>
+	 * 
+	 * @param failureThreshold
+	 * 			the number of consecutive failures after which a circuit opens
+	 * 
+	 * @param openDuration
+	 * 			the number of milliseconds for which a circuit stays open
+	 * 
+	 * @since 1.1.1
+	 */
+	CircuitBreaker(int failureThreshold, long openDuration) {
+		
+		this.failureThreshold = failureThreshold;
+		this.openDuration = openDuration;
+	}
+
+	/**
+	 * <p>Retrieves the state of the circuit of the given host.</p>
+	 * 
+	 * @param host
+	 * 			the name of the host
+	 * 
+	 * @return the {@link State} of the host's circuit
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized State getState(String host) {
+		
+		Circuit circuit = circuits.get(host.toLowerCase(Locale.ENGLISH));
+		
+		if(circuit == null) {
+			
+			return State.CLOSED;
+		}
+		
+		if(circuit.state == State.OPEN && elapsed(circuit)) {
+			
+			circuit.state = State.HALF_OPEN;
+		}
+		
+		return circuit.state;
+	}
+
+	/**
+	 * <p>Determines whether requests to the given host are currently being refused.</p>
+	 * 
+	 * @param host
+	 * 			the name of the host
+	 * 
+	 * @return {@code true} if the host's circuit is open
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isOpen(String host) {
+		
+		return getState(host) == State.OPEN;
+	}
+
+	/**
+	 * <p>Admits a request to the given host unless its circuit is open, or is half-open with a 
+	 * trial already underway.</p>
+	 * 
+	 * @param host
+	 * 			the name of the host
+	 * 
+	 * @throws CircuitOpenException
+	 * 			if the request is refused
+	 * 
+	 * @since 1.1.0
+	 */
+	synchronized void admit(String host) throws CircuitOpenException {
+		
+		State state = getState(host);
+		
+		if(state == State.CLOSED) {
+			
+			return;
+		}
+		
+		Circuit circuit = circuits.get(host.toLowerCase(Locale.ENGLISH));
+		
+		if(state == State.HALF_OPEN && !circuit.trialInFlight) {
+			
+			circuit.trialInFlight = true;
+			return;
+		}
+		
+		throw new CircuitOpenException(host);
+	}
+
+	/**
+	 * <p>Records a request to the given host which was answered; this closes its circuit.</p>
+	 * 
+	 * @param host
+	 * 			the name of the host
+	 * 
+	 * @since 1.1.0
+	 */
+	synchronized void onSuccess(String host) {
+		
+		Circuit circuit = circuits.get(host.toLowerCase(Locale.ENGLISH));
+		
+		if(circuit != null) {
+			
+			circuit.state = State.CLOSED;
+			circuit.failures = 0;
+			circuit.trialInFlight = false;
+		}
+	}
+
+	/**
+	 * <p>Records a request to the given host which failed; this opens its circuit if the trial 
+	 * of a half-open circuit failed or if the threshold of consecutive failures is reached.</p>
+	 * 
+	 * @param host
+	 * 			the name of the host
+	 * 
+	 * @since 1.1.0
+	 */
+	synchronized void onFailure(String host) {
+		
+		String key = host.toLowerCase(Locale.ENGLISH);
+		Circuit circuit = circuits.get(key);
+		
+		if(circuit == null) {
+			
+			circuit = new Circuit();
+			circuits.put(key, circuit);
+		}
+		
+		circuit.failures++;
+		
+		if(circuit.state == State.HALF_OPEN 
+			|| circuit.failures >= failureThreshold) {
+			
+			if(circuit.state != State.OPEN) {
+				
+				Log.w(getClass().getSimpleName(), "Suspending requests to " + host + " after " 
+					+ circuit.failures + " failures.");
+			}
+			
+			circuit.state = State.OPEN;
+			circuit.openedAt = SystemClock.elapsedRealtime();
+			circuit.trialInFlight = false;
+		}
+	}
+
+	/**
+	 * <p>Records a request to the given host which was abandoned before it was answered, which 
+	 * says nothing of the host's health but frees the trial of a half-open circuit.</p>
+	 * 
+	 * @param host
+	 * 			the name of the host
+	 * 
+	 * @since 1.1.0
+	 */
+	synchronized void onAbandoned(String host) {
+		
+		Circuit circuit = circuits.get(host.toLowerCase(Locale.ENGLISH));
+		
+		if(circuit != null) {
+			
+			circuit.trialInFlight = false;
+		}
+	}
+
+	private boolean elapsed(Circuit circuit) {
+		
+		return SystemClock.elapsedRealtime() - circuit.openedAt >= openDuration;
+	}
+}
@@ -20,32 +20,35 @@ package com.lonepulse.travisjr.net;
  * #L%
  */
 
-import com.lonepulse.robozombie.annotation.Endpoint;
-import com.lonepulse.robozombie.annotation.GET;
-import com.lonepulse.robozombie.annotation.PathParam;
-import com.lonepulse.travisjr.model.BuildJob;
+
+import java.io.IOException;
 
 /**
- * <p>This endpoint contract defines the remote services which are used 
- * for accessing the Amazon S3 cloud storage.
+ * <p>This exception is thrown when a request is refused without being sent because the 
+ * {@link CircuitBreaker} of its host is open.</p>
  * 
  * @version 1.1.0
  * <br><br>
+ * @since 1.1.0
+ * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
-@Endpoint("http://s3.amazonaws.com/archive.travis-ci.org")
-public interface AmazonS3Endpoint {
-	
+public class CircuitOpenException extends IOException {
+
+
+	private static final long serialVersionUID = -2364018860745912977L;
+
+
 	/**
-	 * <p>Takes the job ID of a {@link BuildJob} in the build matrix and retrieves its log. 
-	 *
-	 * @param jobId
-	 * 			the job ID whose log is to be retrieved 
+	 * <p>Prints a detailed message with the host whose circuit is open.</p>
 	 * 
-	 * @return the log of the build job
+	 * @param host
+	 * 			the name of the host which is failing
 	 * 
 	 * @since 1.1.0
 	 */
-	@GET("/jobs/{job_id}/log.txt")
-	String getJobLog(@PathParam("job_id") String jobId);
+	public CircuitOpenException(String host) {
+		
+		super("Requests to " + host + " are suspended while it is failing.");
+	}
 }
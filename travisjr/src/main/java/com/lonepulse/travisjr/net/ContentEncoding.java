@@ -0,0 +1,184 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * <p>Negotiates compressed responses by sending <i>Accept-Encoding: gzip, deflate</i>, and
+ * decompresses any response which is encoded accordingly. Decompression is streamed as the
+ * entity is consumed, so a body is never held in both its compressed and decompressed forms.
+ * Downstream consumers see an ordinary identity-encoded entity of unknown length.</p>
+ * 
+ * <p>Requests which ask for a byte range are left untouched, since a range of a compressed
+ * representation cannot be appended to a log which is held decompressed.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class ContentEncoding implements HttpRequestInterceptor, HttpResponseInterceptor {
+	
+
+	private static final String ACCEPT_ENCODING = "Accept-Encoding";
+	private static final String CONTENT_ENCODING = "Content-Encoding";
+
+	private static final String GZIP = "gzip";
+	private static final String DEFLATE = "deflate";
+
+
+	/**
+	 * <p>Asks for a compressed response unless the request is for a byte range or
+	 * already states the encodings which it accepts.</p>
+	 */
+	@Override
+	public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+		
+		if(!request.containsHeader(ACCEPT_ENCODING) && !request.containsHeader("Range")) {
+			
+			request.addHeader(ACCEPT_ENCODING, GZIP + ", " + DEFLATE);
+		}
+	}
+
+	/**
+	 * <p>Replaces a compressed entity with one which decompresses it as it is read.</p>
+	 */
+	@Override
+	public void process(HttpResponse response, HttpContext context) throws HttpException, IOException {
+		
+		HttpEntity entity = response.getEntity();
+		
+		if(entity == null) {
+			
+			return;
+		}
+		
+		Header contentEncoding = entity.getContentEncoding();
+		
+		if(contentEncoding == null) {
+			
+			return;
+		}
+		
+		for (HeaderElement codec : contentEncoding.getElements()) {
+			
+			String name = codec.getName();
+			
+			if(GZIP.equalsIgnoreCase(name) || DEFLATE.equalsIgnoreCase(name)) {
+				
+				response.setEntity(new DecompressingEntity(entity, GZIP.equalsIgnoreCase(name)));
+				response.removeHeaders(CONTENT_ENCODING);
+				response.removeHeaders("Content-Length");
+				response.removeHeaders("Content-MD5");
+				
+				return;
+			}
+		}
+	}
+
+
+	/**
+	 * <p>An {@link HttpEntity} which decompresses the content of a wrapped entity as it is read.</p>
+	 */
+	private static final class DecompressingEntity extends HttpEntityWrapper {
+		
+		
+		private final boolean gzip;
+		
+		
+		private DecompressingEntity(HttpEntity wrapped, boolean gzip) {
+			
+			super(wrapped);
+			this.gzip = gzip;
+		}
+		
+		@Override
+		public InputStream getContent() throws IOException {
+			
+			InputStream content = wrappedEntity.getContent();
+			
+			return gzip? new GZIPInputStream(content, 8192) :new InflaterInputStream(content);
+		}
+		
+		@Override
+		public Header getContentEncoding() {
+			
+			return null;
+		}
+		
+		@Override
+		public long getContentLength() {
+			
+			return -1;
+		}
+		
+		@Override
+		public boolean isStreaming() {
+			
+			return true;
+		}
+		
+		@Override
+		public boolean isRepeatable() {
+			
+			return false;
+		}
+		
+		@Override
+		public void writeTo(OutputStream outstream) throws IOException {
+			
+			InputStream content = getContent();
+			
+			try {
+				
+				byte[] buffer = new byte[8192];
+				int read;
+				
+				while((read = content.read(buffer)) != -1) {
+					
+					outstream.write(buffer, 0, read);
+				}
+			}
+			finally {
+				
+				content.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,283 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.IOException;
+
+import org.apache.http.Header;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.HttpStatus;
+import org.apache.http.protocol.ExecutionContext;
+import org.apache.http.protocol.HttpContext;
+
+import android.util.Log;
+
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.util.Res;
+
+/**
+ * <p>Schedules calls to the GitHub API within its rate limit. The budget is learnt from the 
+ * <i>X-RateLimit-Remaining</i> and <i>X-RateLimit-Reset</i> headers of every GitHub response, 
+ * and a token is reserved from it for each call which is in flight.</p>
+ * 
+ * <p>{@link Priority#INTERACTIVE} calls may spend the entire budget, whereas 
+ * {@link Priority#BACKGROUND} calls leave {@link R.integer#github_rate_reserve} tokens for them. 
+ * A call which cannot be admitted should be answered from a cache; if none is available, an 
+ * interactive call waits for the budget to reset provided that happens within 
+ * {@link R.integer#github_rate_max_wait} seconds, and is otherwise refused.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class GitHubRateLimiter implements HttpResponseInterceptor {
+	
+
+	/**
+	 * <p>The urgency of a call, which decides how much of the budget it may spend.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.0
+	 * <br><br>
+	 * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static enum Priority {
+		
+		/**
+		 * <p>A call which the user is waiting on.</p>
+		 */
+		INTERACTIVE,
+		
+		/**
+		 * <p>A call which refreshes information the user is not waiting on.</p>
+		 */
+		BACKGROUND;
+	}
+
+
+	private static final String HOST = "api.github.com";
+
+	private static final GitHubRateLimiter INSTANCE = new GitHubRateLimiter();
+
+
+	/**
+	 * <p>The number of calls left in the current window, else {@code -1} if unknown.</p>
+	 */
+	private int remaining = -1;
+
+	/**
+	 * <p>The wall-clock time in milliseconds at which the current window resets.</p>
+	 */
+	private long resetAt;
+
+	/**
+	 * <p>The number of admitted calls which have yet to see their response.</p>
+	 */
+	private int inFlight;
+
+
+	private GitHubRateLimiter() {}
+
+	/**
+	 * <p>Retrieves the {@link GitHubRateLimiter} which is shared by all GitHub calls.</p>
+	 * 
+	 * @return the shared {@link GitHubRateLimiter}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static GitHubRateLimiter getInstance() {
+		
+		return INSTANCE;
+	}
+
+	/**
+	 * <p>Admits a call of the given {@link Priority} if the budget allows it. Every admitted 
+	 * call must be followed by {@link #release()} in a <i>finally</i> block.</p>
+	 * 
+	 * @param priority
+	 * 			the {@link Priority} of the call
+	 * 
+	 * @return {@code true} if the call was admitted
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized boolean tryAcquire(Priority priority) {
+		
+		if(remaining >= 0 && System.currentTimeMillis() >= resetAt) {
+			
+			remaining = -1; //a new window has opened
+		}
+		
+		int floor = (priority == Priority.INTERACTIVE)? 0 :Res.integer(R.integer.github_rate_reserve);
+		
+		if(remaining < 0 || remaining - inFlight > floor) {
+			
+			inFlight++;
+			return true;
+		}
+		
+		return false;
+	}
+
+	/**
+	 * <p>Admits a call of the given {@link Priority}, waiting for the budget to reset if the 
+	 * call is interactive and the reset is imminent. Every admitted call must be followed by 
+	 * {@link #release()} in a <i>finally</i> block.</p>
+	 * 
+	 * @param priority
+	 * 			the {@link Priority} of the call
+	 * 
+	 * @throws RateLimitExceededException
+	 * 			if the call could not be admitted
+	 * 
+	 * @throws InterruptedException
+	 * 			if the calling thread was interrupted while waiting
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized void acquire(Priority priority) throws InterruptedException {
+		
+		long maxWait = Res.integer(R.integer.github_rate_max_wait) * 1000L;
+		
+		while(!tryAcquire(priority)) {
+			
+			long wait = resetAt - System.currentTimeMillis();
+			
+			if(priority != Priority.INTERACTIVE || wait > maxWait) {
+				
+				throw new RateLimitExceededException(resetAt);
+			}
+			
+			wait(Math.max(wait, 1));
+		}
+	}
+
+	/**
+	 * <p>Releases the token of a call which was admitted by {@link #tryAcquire(Priority)} or 
+	 * {@link #acquire(Priority)}.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized void release() {
+		
+		if(inFlight > 0) {
+			
+			inFlight--;
+		}
+		
+		notifyAll();
+	}
+
+	/**
+	 * <p>Determines whether the budget has been spent until the current window resets.</p>
+	 * 
+	 * @return {@code true} if no call can be admitted before the reset
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized boolean isExhausted() {
+		
+		return remaining == 0 && System.currentTimeMillis() < resetAt;
+	}
+
+	/**
+	 * <p>Retrieves the time at which the current window of the budget resets.</p>
+	 * 
+	 * @return the wall-clock time in milliseconds of the reset, else {@code 0} if unknown
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized long getResetAt() {
+		
+		return resetAt;
+	}
+
+	/**
+	 * <p>Updates the budget with the rate limit headers of a GitHub response. A <b>403</b> or 
+	 * <b>429</b> with a <i>Retry-After</i> is a secondary limit, which spends the budget until 
+	 * the given time.</p>
+	 */
+	@Override
+	public void process(HttpResponse response, HttpContext context) throws HttpException, IOException {
+		
+		HttpHost host = (HttpHost)context.getAttribute(ExecutionContext.HTTP_TARGET_HOST);
+		
+		if(host == null || !HOST.equalsIgnoreCase(host.getHostName())) {
+			
+			return;
+		}
+		
+		int status = response.getStatusLine().getStatusCode();
+		
+		long retryAfter = parse(response.getFirstHeader("Retry-After"));
+		long reset = parse(response.getFirstHeader("X-RateLimit-Reset"));
+		long remainingCalls = parse(response.getFirstHeader("X-RateLimit-Remaining"));
+		
+		synchronized (this) {
+			
+			if((status == HttpStatus.SC_FORBIDDEN || status == 429) && retryAfter >= 0) {
+				
+				remaining = 0;
+				resetAt = System.currentTimeMillis() + retryAfter * 1000L;
+			}
+			else if(remainingCalls >= 0 && reset >= 0) {
+				
+				remaining = (int)Math.min(remainingCalls, Integer.MAX_VALUE);
+				resetAt = reset * 1000L;
+			}
+			else {
+				
+				return;
+			}
+			
+			if(remaining == 0) {
+				
+				Log.w(getClass().getSimpleName(), "GitHub rate limit exhausted until " + resetAt + ".");
+			}
+			
+			notifyAll();
+		}
+	}
+
+	private static long parse(Header header) {
+		
+		if(header == null) {
+			
+			return -1;
+		}
+		
+		try {
+			
+			return Long.parseLong(header.getValue().trim());
+		}
+		catch(NumberFormatException nfe) {
+			
+			return -1;
+		}
+	}
+}
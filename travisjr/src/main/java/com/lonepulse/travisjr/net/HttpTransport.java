@@ -0,0 +1,191 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.InputStream;
+import java.security.KeyStore;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.params.HttpProtocolParams;
+import org.apache.http.protocol.HttpContext;
+
+import android.util.Log;
+
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.app.TravisJr;
+import com.lonepulse.travisjr.util.Res;
+
+/**
+ * <p>The single {@link HttpClient} which is shared by all endpoints of the application. Its
+ * pooled connections are kept alive between requests, and since the {@link SSLSocketFactory}
+ * is created only once, the keystore is loaded once and TLS sessions are resumed rather than
+ * negotiated afresh for each connection.</p>
+ * 
+ * <p>The client negotiates compressed responses via {@link ContentEncoding} and sends 
+ * conditional requests using the validators kept in the {@link ValidatorCache}. Requests are 
+ * registered with the {@link Cancellation} of the executing thread, if any, so that they can 
+ * be aborted when the work which issued them is abandoned. The rate limits reported by GitHub 
+ * are tracked by the {@link GitHubRateLimiter}.</p>
+ * 
+ * <p>The client is guarded by a {@link ResilientHttpClient}, which retries transient failures 
+ * and fails fast on hosts whose {@link CircuitBreaker} is open.</p>
+ * 
+ * @version 1.1.4
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class HttpTransport {
+	
+
+	/**
+	 * <p>The lazily created {@link HttpClient} which is shared by all endpoints.</p>
+	 */
+	private static volatile HttpClient httpClient;
+
+
+	private HttpTransport() {}
+
+	/**
+	 * <p>Retrieves the shared {@link HttpClient}, creating it on first use.</p>
+	 * 
+	 * @return the application's {@link HttpClient}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static HttpClient getHttpClient() {
+		
+		if(httpClient == null) {
+			
+			synchronized (HttpTransport.class) {
+				
+				if(httpClient == null) {
+					
+					httpClient = new ResilientHttpClient(newHttpClient(), CircuitBreaker.getInstance());
+				}
+			}
+		}
+		
+		return httpClient;
+	}
+
+	private static HttpClient newHttpClient() {
+		
+		HttpParams params = new BasicHttpParams();
+		
+		HttpProtocolParams.setVersion(params, HttpVersion.HTTP_1_1);
+		HttpProtocolParams.setContentCharset(params, "UTF-8");
+		
+		HttpConnectionParams.setConnectionTimeout(params, Res.integer(R.integer.http_connect_timeout) * 1000);
+		HttpConnectionParams.setSoTimeout(params, Res.integer(R.integer.http_socket_timeout) * 1000);
+		HttpConnectionParams.setTcpNoDelay(params, true);
+		HttpConnectionParams.setSocketBufferSize(params, 8192);
+		
+		ConnManagerParams.setMaxTotalConnections(params, Res.integer(R.integer.http_pool_max_total));
+		ConnManagerParams.setMaxConnectionsPerRoute(params,
+			new ConnPerRouteBean(Res.integer(R.integer.http_pool_max_per_route)));
+		ConnManagerParams.setTimeout(params, Res.integer(R.integer.http_connect_timeout) * 1000L);
+		
+		SchemeRegistry schemeRegistry = new SchemeRegistry();
+		schemeRegistry.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
+		schemeRegistry.register(new Scheme("https", newSSLSocketFactory(), 443));
+		
+		DefaultHttpClient client
+			= new DefaultHttpClient(new ThreadSafeClientConnManager(params, schemeRegistry), params);
+		
+		final long keepAlive = Res.integer(R.integer.http_keep_alive) * 1000L;
+		
+		client.setKeepAliveStrategy(new ConnectionKeepAliveStrategy() {
+			
+			private final ConnectionKeepAliveStrategy serverStrategy = new DefaultConnectionKeepAliveStrategy();
+			
+			@Override
+			public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+				
+				long duration = serverStrategy.getKeepAliveDuration(response, context);
+				
+				return (duration < 0)? keepAlive :duration; //servers which omit a timeout
+			}
+		});
+		
+		ContentEncoding contentEncoding = new ContentEncoding();
+		ValidatorCache validatorCache = ValidatorCache.getInstance();
+		
+		client.addRequestInterceptor(new Cancellation.Interceptor()); //before any other work is done
+		client.addRequestInterceptor(contentEncoding);
+		client.addRequestInterceptor(validatorCache);
+		
+		client.addResponseInterceptor(contentEncoding); //decompress before bodies are stored
+		client.addResponseInterceptor(validatorCache);
+		client.addResponseInterceptor(GitHubRateLimiter.getInstance());
+		
+		return client;
+	}
+
+	/**
+	 * <p>Creates an {@link SSLSocketFactory} which trusts the certificates in the application's
+	 * keystore, falling back to the default factory if the keystore cannot be loaded.</p>
+	 */
+	private static SSLSocketFactory newSSLSocketFactory() {
+		
+		try {
+			
+			KeyStore keyStore = KeyStore.getInstance("BKS");
+			InputStream is = TravisJr.Application.getContext().getResources().openRawResource(R.raw.travisjr);
+			
+			try {
+				
+				keyStore.load(is, null);
+			}
+			finally {
+				
+				is.close();
+			}
+			
+			SSLSocketFactory sslSocketFactory = new SSLSocketFactory(keyStore);
+			sslSocketFactory.setHostnameVerifier(SSLSocketFactory.STRICT_HOSTNAME_VERIFIER);
+			
+			return sslSocketFactory;
+		}
+		catch(Exception e) {
+			
+			Log.e(HttpTransport.class.getSimpleName(), "HttpClient configuration with a custom SSLSocketFactory failed.", e);
+			return SSLSocketFactory.getSocketFactory();
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+
+import com.lonepulse.travisjr.model.BuildJob;
+
+/**
+ * <p>Accesses the logs of {@link BuildJob}s, either from the archive on Amazon S3 once a job has 
+ * finished, or from Travis CI itself while the job is still running.</p>
+ * 
+ * <p>Logs can run into tens of megabytes, so unlike the RoboZombie endpoints which buffer and 
+ * deserialize entire responses, this client hands out the raw response stream for the caller 
+ * to consume incrementally. Logs may be read from a byte offset onwards, which allows a running 
+ * job's log to be <i>tailed</i> by requesting only the bytes which were not seen before.</p>
+ * 
+ * @version 1.1.2
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class JobLogClient {
+	
+
+	/**
+	 * <p>The root of the Travis CI log archive on Amazon S3, which hosts the logs of finished jobs.</p>
+	 */
+	private static final String ENDPOINT_ARCHIVE = "http://s3.amazonaws.com/archive.travis-ci.org";
+
+	/**
+	 * <p>The Travis CI API which serves the logs of running jobs and redirects to the archive 
+	 * once they have finished.</p>
+	 */
+	private static final String ENDPOINT_LIVE = "https://api.travis-ci.org";
+
+
+	/**
+	 * <p>Takes the job ID of a finished {@link BuildJob} and opens a stream to its archived log. 
+	 * The stream <b>must</b> be closed to release the underlying connection.</p>
+	 * 
+	 * @param jobId
+	 * 			the job ID whose log is to be retrieved 
+	 * 
+	 * @return an {@link InputStream} over the content of the log
+	 * 
+	 * @throws IOException
+	 * 			if the request failed or if the log is unavailable
+	 * 
+	 * @since 1.1.0
+	 */
+	public InputStream getJobLog(long jobId) throws IOException {
+		
+		return open(ENDPOINT_ARCHIVE + "/jobs/" + jobId + "/log.txt", 0);
+	}
+
+	/**
+	 * <p>Takes the job ID of a running {@link BuildJob} and opens a stream to its live log, 
+	 * starting at the given byte offset. The stream <b>must</b> be closed to release the 
+	 * underlying connection.</p>
+	 * 
+	 * @param jobId
+	 * 			the job ID whose log is to be retrieved 
+	 * 
+	 * @param offset
+	 * 			the number of bytes of the log which are already held; only the bytes 
+	 * 			beyond this offset are returned 
+	 * 
+	 * @return an {@link InputStream} over the content of the log beyond the offset, which is 
+	 * 		   empty if no new content is available
+	 * 
+	 * @throws IOException
+	 * 			if the request failed or if the log is unavailable
+	 * 
+	 * @since 1.1.1
+	 */
+	public InputStream getLiveJobLog(long jobId, long offset) throws IOException {
+		
+		return open(ENDPOINT_LIVE + "/jobs/" + jobId + "/log.txt", offset);
+	}
+
+	/**
+	 * <p>Opens a stream to the log at the given URL from the given byte offset onwards. A 
+	 * <i>Range</i> request is used for a non-zero offset; if the server ignores the range, the 
+	 * leading bytes are skipped, and if the range cannot be satisfied, there is nothing new 
+	 * and an empty stream is returned.</p>
+	 */
+	private InputStream open(String url, long offset) throws IOException {
+		
+		HttpGet request = new HttpGet(url);
+		
+		if(offset > 0) {
+			
+			request.setHeader("Range", "bytes=" + offset + "-");
+		}
+		
+		HttpResponse response = HttpTransport.getHttpClient().execute(request);
+		
+		StatusLine statusLine = response.getStatusLine();
+		HttpEntity entity = response.getEntity();
+		int status = statusLine.getStatusCode();
+		
+		if(status == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE && offset > 0) {
+			
+			if(entity != null) {
+				
+				entity.consumeContent();
+			}
+			
+			return new ByteArrayInputStream(new byte[0]);
+		}
+		
+		if((status != HttpStatus.SC_OK && status != HttpStatus.SC_PARTIAL_CONTENT) || entity == null) {
+			
+			if(entity != null) {
+				
+				entity.consumeContent();
+			}
+			
+			throw new HttpResponseException(status, statusLine.getReasonPhrase());
+		}
+		
+		InputStream content = entity.getContent();
+		
+		if(status == HttpStatus.SC_OK && offset > 0) { //range was ignored
+			
+			skipFully(content, offset);
+		}
+		
+		return content;
+	}
+
+	private static void skipFully(InputStream inputStream, long count) throws IOException {
+		
+		byte[] discard = null;
+		
+		while(count > 0) {
+			
+			long skipped = inputStream.skip(count);
+			
+			if(skipped <= 0) {
+				
+				if(discard == null) {
+					
+					discard = new byte[8192];
+				}
+				
+				int read = inputStream.read(discard, 0, (int)Math.min(discard.length, count));
+				
+				if(read == -1) {
+					
+					return; //log is shorter than the offset
+				}
+				
+				skipped = read;
+			}
+			
+			count -= skipped;
+		}
+	}
+}
\ No newline at end of file
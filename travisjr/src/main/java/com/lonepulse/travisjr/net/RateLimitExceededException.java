@@ -0,0 +1,73 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import com.lonepulse.travisjr.TravisJrRuntimeException;
+
+/**
+ * <p>This exception is thrown when a GitHub call cannot be admitted within the rate limit 
+ * which is tracked by the {@link GitHubRateLimiter}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class RateLimitExceededException extends TravisJrRuntimeException {
+
+
+	private static final long serialVersionUID = 6017733591224823451L;
+	
+	
+	/**
+	 * <p>The wall-clock time in milliseconds at which the rate limit resets.
+	 */
+	private final long resetAt;
+	
+
+	/**
+	 * <p>Prints a detailed message with the time at which the rate limit resets.
+	 * 
+	 * @param resetAt
+	 * 			the wall-clock time in milliseconds at which the rate limit resets
+	 * 
+	 * @since 1.1.0
+	 */
+	public RateLimitExceededException(long resetAt) {
+		
+		super("GitHub rate limit exceeded until " + resetAt + ". ");
+		this.resetAt = resetAt;
+	}
+	
+	/**
+	 * <p>Retrieves the time at which calls will be admitted again.
+	 * 
+	 * @return the wall-clock time in milliseconds at which the rate limit resets
+	 * 
+	 * @since 1.1.0
+	 */
+	public long getResetAt() {
+		
+		return resetAt;
+	}
+}
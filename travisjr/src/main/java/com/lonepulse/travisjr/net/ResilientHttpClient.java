@@ -0,0 +1,363 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+
+import android.util.Log;
+
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.util.Res;
+
+/**
+ * <p>An {@link HttpClient} which guards another against transient failures. Every request is 
+ * admitted by the {@link CircuitBreaker} of its host and reports its outcome to it. Idempotent 
+ * requests, i.e. <b>GET</b>s and <b>HEAD</b>s, which fail with an I/O error or with a <b>502</b>, 
+ * <b>503</b> or <b>504</b> are retried up to {@link R.integer#http_retry_max} times after an 
+ * exponentially growing delay with full jitter, so that clients which failed together do not 
+ * retry together. Requests whose {@link Cancellation} was cancelled are never retried.</p>
+ * 
+ * <p>A <b>304 Not Modified</b> whose stored response was evicted by the {@link ValidatorCache} 
+ * is never passed on; the request is re-issued once without validators instead.</p>
+ * 
+ * @version 1.1.2
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class ResilientHttpClient implements HttpClient {
+	
+
+	/**
+	 * <p>A single execution of a request with the guarded client.</p>
+	 */
+	private static interface Attempt {
+		
+		HttpResponse execute() throws IOException;
+	}
+
+
+	private final HttpClient httpClient;
+
+	private final CircuitBreaker circuitBreaker;
+
+	private final Random random = new Random();
+
+	/**
+	 * <p>The number of times an idempotent request is retried.</p>
+	 */
+	private final int retryMax;
+
+	/**
+	 * <p>The ceiling of the delay before the first retry in milliseconds.</p>
+	 */
+	private final long retryBaseDelay;
+
+	/**
+	 * <p>The maximum ceiling of the delay before a retry in milliseconds.</p>
+	 */
+	private final long retryMaxDelay;
+
+
+	/**
+	 * <p>Creates a new {@link ResilientHttpClient} which guards the given {@link HttpClient}.</p>
+	 * 
+	 * @param httpClient
+	 * 			the {@link HttpClient} which executes the requests
+	 * 
+	 * @param circuitBreaker
+	 * 			the {@link CircuitBreaker} which tracks the health of the hosts
+	 * 
+	 * @since 1.1.0
+	 */
+	public ResilientHttpClient(HttpClient httpClient, CircuitBreaker circuitBreaker) {
+		
+		this(httpClient, circuitBreaker, Res.integer(R.integer.http_retry_max), 
+			Res.integer(R.integer.http_retry_base_delay), Res.integer(R.integer.http_retry_max_delay));
+	}
+
+	/**
+	 * <p>Creates a new {@link ResilientHttpClient} which guards the given {@link HttpClient} and 
+	 * retries with the given policy rather than the one configured for the application.</p>
+	 * 
+	 * @param httpClient
+	 * 			the {@link HttpClient} which executes the requests
+	 * 
+	 * @param circuitBreaker
+	 * 			the {@link CircuitBreaker} which tracks the health of the hosts
+	 * 
+	 * @param retryMax
+	 * 			the number of times an idempotent request is retried
+	 * 
+	 * @param retryBaseDelay
+	 * 			the ceiling of the delay before the first retry in milliseconds
+	 * 
+	 * @param retryMaxDelay
+	 * 			the maximum ceiling of the delay before a retry in milliseconds
+	 * 
+	 * @since 1.1.2
+	 */
+	ResilientHttpClient(HttpClient httpClient, CircuitBreaker circuitBreaker, 
+		int retryMax, long retryBaseDelay, long retryMaxDelay) {
+		
+		this.httpClient = httpClient;
+		this.circuitBreaker = circuitBreaker;
+		this.retryMax = retryMax;
+		this.retryBaseDelay = retryBaseDelay;
+		this.retryMaxDelay = retryMaxDelay;
+	}
+
+	@Override
+	public HttpParams getParams() {
+		
+		return httpClient.getParams();
+	}
+
+	@Override
+	public ClientConnectionManager getConnectionManager() {
+		
+		return httpClient.getConnectionManager();
+	}
+
+	@Override
+	public HttpResponse execute(HttpUriRequest request) throws IOException, ClientProtocolException {
+		
+		return execute(request, (HttpContext)null);
+	}
+
+	@Override
+	public HttpResponse execute(final HttpUriRequest request, HttpContext context) 
+	throws IOException, ClientProtocolException {
+		
+		final HttpContext executionContext = (context == null)? new BasicHttpContext() :context;
+		
+		return execute(request.getURI().getHost(), request, executionContext, new Attempt() {
+			
+			@Override
+			public HttpResponse execute() throws IOException {
+				
+				return httpClient.execute(request, executionContext);
+			}
+		});
+	}
+
+	@Override
+	public HttpResponse execute(HttpHost target, HttpRequest request) throws IOException, ClientProtocolException {
+		
+		return execute(target, request, (HttpContext)null);
+	}
+
+	@Override
+	public HttpResponse execute(final HttpHost target, final HttpRequest request, HttpContext context) 
+	throws IOException, ClientProtocolException {
+		
+		final HttpContext executionContext = (context == null)? new BasicHttpContext() :context;
+		
+		return execute(target.getHostName(), request, executionContext, new Attempt() {
+			
+			@Override
+			public HttpResponse execute() throws IOException {
+				
+				return httpClient.execute(target, request, executionContext);
+			}
+		});
+	}
+
+	@Override
+	public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler) 
+	throws IOException, ClientProtocolException {
+		
+		return handle(execute(request), responseHandler);
+	}
+
+	@Override
+	public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler, HttpContext context) 
+	throws IOException, ClientProtocolException {
+		
+		return handle(execute(request, context), responseHandler);
+	}
+
+	@Override
+	public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler) 
+	throws IOException, ClientProtocolException {
+		
+		return handle(execute(target, request), responseHandler);
+	}
+
+	@Override
+	public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler, 
+		HttpContext context) throws IOException, ClientProtocolException {
+		
+		return handle(execute(target, request, context), responseHandler);
+	}
+
+	/**
+	 * <p>Executes the given {@link Attempt} under the circuit of the given host, retrying it if 
+	 * the request is idempotent and the failure is transient.</p>
+	 */
+	private HttpResponse execute(String host, HttpRequest request, HttpContext context, Attempt attempt) 
+	throws IOException {
+		
+		String method = request.getRequestLine().getMethod();
+		boolean idempotent = "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+		int retries = idempotent? retryMax :0;
+		
+		for (int retry = 0; ; retry++) {
+			
+			circuitBreaker.admit(host);
+			
+			try {
+				
+				HttpResponse response = attempt.execute();
+				
+				if(ValidatorCache.isEvicted(context)) {
+					
+					release(response);
+					response = attempt.execute(); //sent without validators
+				}
+				
+				if(!isUnavailable(response)) {
+					
+					circuitBreaker.onSuccess(host);
+					return response;
+				}
+				
+				circuitBreaker.onFailure(host);
+				
+				if(retry >= retries) {
+					
+					return response; //let the caller handle the status
+				}
+				
+				release(response); //release the connection before retrying
+			}
+			catch(IOException ioe) {
+				
+				if(isCancelled()) {
+					
+					circuitBreaker.onAbandoned(host);
+					throw ioe;
+				}
+				
+				circuitBreaker.onFailure(host);
+				
+				if(retry >= retries) {
+					
+					throw ioe;
+				}
+				
+				Log.w(getClass().getSimpleName(), "Retrying " + method + " to " + host + " after failure.", ioe);
+			}
+			catch(RuntimeException re) {
+				
+				circuitBreaker.onAbandoned(host);
+				throw re;
+			}
+			
+			backOff(retry);
+		}
+	}
+
+	/**
+	 * <p>Sleeps for a random delay of up to the base delay doubled for each retry so far, 
+	 * capped at the maximum delay.</p>
+	 */
+	private void backOff(int retry) throws InterruptedIOException {
+		
+		long ceiling = Math.min(retryMaxDelay, retryBaseDelay * (1L << Math.min(retry, 16)));
+		
+		long delay;
+		
+		synchronized (random) {
+			
+			delay = (long)(random.nextDouble() * ceiling);
+		}
+		
+		try {
+			
+			Thread.sleep(delay);
+		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while backing off.");
+		}
+		
+		Cancellation.check();
+	}
+
+	private static void release(HttpResponse response) throws IOException {
+		
+		HttpEntity entity = response.getEntity();
+		
+		if(entity != null) {
+			
+			entity.consumeContent();
+		}
+	}
+
+	private static boolean isUnavailable(HttpResponse response) {
+		
+		int status = response.getStatusLine().getStatusCode();
+		
+		return status == 502 || status == 503 || status == 504;
+	}
+
+	private static boolean isCancelled() {
+		
+		Cancellation cancellation = Cancellation.current();
+		return cancellation != null && cancellation.isCancelled();
+	}
+
+	private static <T> T handle(HttpResponse response, ResponseHandler<? extends T> responseHandler) throws IOException {
+		
+		try {
+			
+			return responseHandler.handleResponse(response);
+		}
+		finally {
+			
+			HttpEntity entity = response.getEntity();
+			
+			if(entity != null) {
+				
+				entity.consumeContent();
+			}
+		}
+	}
+}
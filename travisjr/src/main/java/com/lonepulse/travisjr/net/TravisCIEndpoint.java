@@ -22,22 +22,17 @@ package com.lonepulse.travisjr.net;
 
 import static com.lonepulse.robozombie.annotation.Entity.ContentType.JSON;
 
-import java.util.List;
-
 import com.lonepulse.robozombie.annotation.Config;
 import com.lonepulse.robozombie.annotation.Deserialize;
 import com.lonepulse.robozombie.annotation.Endpoint;
 import com.lonepulse.robozombie.annotation.GET;
 import com.lonepulse.robozombie.annotation.PathParam;
-import com.lonepulse.robozombie.annotation.QueryParam;
-import com.lonepulse.travisjr.model.Build;
 import com.lonepulse.travisjr.model.BuildInfo;
-import com.lonepulse.travisjr.model.Repo;
 
 /**
  * <p>This endpoint contract defines the remote services which are used by Travis Jr.
  * 
- * @version 1.1.4
+ * @version 1.1.5
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -47,47 +42,6 @@ import com.lonepulse.travisjr.model.Repo;
 @Endpoint("https://api.travis-ci.org")
 public interface TravisCIEndpoint {
 	
-	/**
-	 * <p>Takes a GitHub username and retrieves the repositories which 
-	 * that user is a member of.
-	 *
-	 * @param member
-	 * 			the GitHub username of the target member
-	 * 			 
-	 * @return the set of {@link Repo}s which the user is a member of
-	 * 
-	 * @since 1.1.0
-	 */
-	@GET("/repos")
-	List<Repo> getReposByMember(@QueryParam("member") String member);
-	
-	/**
-	 * <p>Takes a GitHub username and retrieves the repositories which 
-	 * that user is an owner of.
-	 *
-	 * @param ownerName
-	 * 			the GitHub username of the target owner
-	 * 			 
-	 * @return the set of {@link Repo}s which the user is a owner of
-	 * 
-	 * @since 1.1.2
-	 */
-	@GET("/repos")
-	List<Repo> getReposByOwner(@QueryParam("owner_name") String ownerName);
-	
-	/**
-	 * <p>Takes a repository ID and retrieves its recent set of builds.
-	 *
-	 * @param repositoryId
-	 * 			the repository ID at {@link Repo#getId()}
-	 * 
-	 * @return the set of recent {@link Build}s for the given repository
-	 * 
-	 * @since 1.1.1
-	 */
-	@GET("/builds")
-	List<Build> getRecentBuilds(@QueryParam("id") String repositoryId);
-	
 	/**
 	 * <p>Takes the repository name and owner name together with the id 
 	 * of the information file and retrieves an instance of {@link BuildInfo}.
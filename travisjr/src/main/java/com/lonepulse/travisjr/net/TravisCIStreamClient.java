@@ -0,0 +1,381 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.lonepulse.travisjr.model.Build;
+import com.lonepulse.travisjr.model.Repo;
+
+/**
+ * <p>Retrieves the lists of {@link Repo}s and {@link Build}s from Travis CI by parsing the
+ * responses as they stream in. Each object is bound straight into its model with a
+ * {@link JsonReader}, fields which are not modelled are skipped without being materialized,
+ * and every item can be handed to an {@link ItemListener} as soon as it is parsed. Parsing 
+ * stops at the next item once the {@link Cancellation} of the reading thread is cancelled.</p>
+ * 
+ * <p>The lists of repositories and builds are only ever fetched through this client; the 
+ * {@link TravisCIEndpoint} is used for single resources.</p>
+ * 
+ * @version 1.1.4
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class TravisCIStreamClient {
+	
+
+	/**
+	 * <p>The host of the Travis CI API.</p>
+	 */
+	public static final String HOST = "api.travis-ci.org";
+
+	/**
+	 * <p>The Travis CI API.</p>
+	 */
+	private static final String ENDPOINT = "https://" + HOST;
+
+
+	/**
+	 * <p>Receives the items of a list as they are parsed.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.0
+	 * <br><br>
+	 * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static interface ItemListener<T> {
+		
+		/**
+		 * <p>Invoked on the thread which reads the response for each item which is parsed.</p>
+		 * 
+		 * @param item
+		 * 			the parsed item
+		 * 
+		 * @since 1.1.0
+		 */
+		void onItem(T item);
+	}
+
+
+	/**
+	 * <p>Takes a GitHub username and retrieves the repositories which that user is a member of.</p>
+	 * 
+	 * @param member
+	 * 			the GitHub username of the target member
+	 * 
+	 * @param listener
+	 * 			the {@link ItemListener} which receives each {@link Repo} as it is parsed,
+	 * 			which may be {@code null}
+	 * 
+	 * @return the {@link Repo}s which the user is a member of
+	 * 
+	 * @throws IOException
+	 * 			if the request failed or the response could not be parsed
+	 * 
+	 * @since 1.1.0
+	 */
+	public List<Repo> getReposByMember(String member, ItemListener<Repo> listener) throws IOException {
+		
+		return readRepos(ENDPOINT + "/repos?member=" + URLEncoder.encode(member, "UTF-8"), listener);
+	}
+
+	/**
+	 * <p>Takes a GitHub username and retrieves the repositories which that user is an owner of.</p>
+	 * 
+	 * @param ownerName
+	 * 			the GitHub username of the target owner
+	 * 
+	 * @param listener
+	 * 			the {@link ItemListener} which receives each {@link Repo} as it is parsed,
+	 * 			which may be {@code null}
+	 * 
+	 * @return the {@link Repo}s which the user is an owner of
+	 * 
+	 * @throws IOException
+	 * 			if the request failed or the response could not be parsed
+	 * 
+	 * @since 1.1.0
+	 */
+	public List<Repo> getReposByOwner(String ownerName, ItemListener<Repo> listener) throws IOException {
+		
+		return readRepos(ENDPOINT + "/repos?owner_name=" + URLEncoder.encode(ownerName, "UTF-8"), listener);
+	}
+
+	/**
+	 * <p>Takes a repository ID and retrieves its recent set of builds.</p>
+	 * 
+	 * @param repositoryId
+	 * 			the repository ID at {@link Repo#getId()}
+	 * 
+	 * @return the recent {@link Build}s of the repository
+	 * 
+	 * @throws IOException
+	 * 			if the request failed or the response could not be parsed
+	 * 
+	 * @since 1.1.0
+	 */
+	public List<Build> getRecentBuilds(long repositoryId) throws IOException {
+		
+		JsonReader reader = open(ENDPOINT + "/builds?id=" + repositoryId);
+		
+		try {
+			
+			List<Build> builds = new ArrayList<Build>();
+			
+			reader.beginArray();
+			
+			while(reader.hasNext()) {
+				
+				Cancellation.check();
+				builds.add(readBuild(reader));
+			}
+			
+			reader.endArray();
+			
+			return builds;
+		}
+		finally {
+			
+			reader.close();
+		}
+	}
+
+	private List<Repo> readRepos(String url, ItemListener<Repo> listener) throws IOException {
+		
+		JsonReader reader = open(url);
+		
+		try {
+			
+			List<Repo> repos = new ArrayList<Repo>();
+			
+			reader.beginArray();
+			
+			while(reader.hasNext()) {
+				
+				Cancellation.check();
+				
+				Repo repo = readRepo(reader);
+				repos.add(repo);
+				
+				if(listener != null) {
+					
+					listener.onItem(repo);
+				}
+			}
+			
+			reader.endArray();
+			
+			return repos;
+		}
+		finally {
+			
+			reader.close();
+		}
+	}
+
+	private static Repo readRepo(JsonReader reader) throws IOException {
+		
+		Repo repo = new Repo();
+		
+		reader.beginObject();
+		
+		while(reader.hasNext()) {
+			
+			String name = reader.nextName();
+			
+			if(reader.peek() == JsonToken.NULL) {
+				
+				reader.nextNull();
+			}
+			else if(name.equals("id")) {
+				
+				repo.setId(reader.nextLong());
+			}
+			else if(name.equals("slug")) {
+				
+				repo.setSlug(reader.nextString());
+			}
+			else if(name.equals("description")) {
+				
+				repo.setDescription(reader.nextString());
+			}
+			else if(name.equals("last_build_id")) {
+				
+				repo.setLast_build_id(reader.nextString());
+			}
+			else if(name.equals("last_build_number")) {
+				
+				repo.setLast_build_number(Long.valueOf(reader.nextLong()));
+			}
+			else if(name.equals("last_build_status")) {
+				
+				repo.setLast_build_status(Short.valueOf((short)reader.nextInt()));
+			}
+			else if(name.equals("last_build_result")) {
+				
+				repo.setLast_build_result(Short.valueOf((short)reader.nextInt()));
+			}
+			else if(name.equals("last_build_duration")) {
+				
+				repo.setLast_build_duration(Integer.valueOf(reader.nextInt()));
+			}
+			else if(name.equals("last_build_language")) {
+				
+				repo.setLast_build_language(reader.nextString());
+			}
+			else if(name.equals("last_build_started_at")) {
+				
+				repo.setLast_build_started_at(reader.nextString());
+			}
+			else if(name.equals("last_build_finished_at")) {
+				
+				repo.setLast_build_finished_at(reader.nextString());
+			}
+			else {
+				
+				reader.skipValue();
+			}
+		}
+		
+		reader.endObject();
+		
+		repo.getLastBuildStartedTimestamp(); //parse on the reading thread rather than when sorting
+		
+		return repo;
+	}
+
+	private static Build readBuild(JsonReader reader) throws IOException {
+		
+		Build build = new Build();
+		
+		reader.beginObject();
+		
+		while(reader.hasNext()) {
+			
+			String name = reader.nextName();
+			
+			if(reader.peek() == JsonToken.NULL) {
+				
+				reader.nextNull();
+			}
+			else if(name.equals("id")) {
+				
+				build.setId(reader.nextLong());
+			}
+			else if(name.equals("repository_id")) {
+				
+				build.setRepository_id(Long.valueOf(reader.nextLong()));
+			}
+			else if(name.equals("number")) {
+				
+				build.setNumber(Long.valueOf(reader.nextLong()));
+			}
+			else if(name.equals("state")) {
+				
+				build.setState(reader.nextString());
+			}
+			else if(name.equals("result")) {
+				
+				build.setResult(Short.valueOf((short)reader.nextInt()));
+			}
+			else if(name.equals("started_at")) {
+				
+				build.setStarted_at(reader.nextString());
+			}
+			else if(name.equals("finished_at")) {
+				
+				build.setFinished_at(reader.nextString());
+			}
+			else if(name.equals("duration")) {
+				
+				build.setDuration(Integer.valueOf(reader.nextInt()));
+			}
+			else if(name.equals("commit")) {
+				
+				build.setCommit(reader.nextString());
+			}
+			else if(name.equals("branch")) {
+				
+				build.setBranch(reader.nextString());
+			}
+			else if(name.equals("message")) {
+				
+				build.setMessage(reader.nextString());
+			}
+			else if(name.equals("event_type")) {
+				
+				build.setEvent_type(reader.nextString());
+			}
+			else {
+				
+				reader.skipValue();
+			}
+		}
+		
+		reader.endObject();
+		
+		return build;
+	}
+
+	/**
+	 * <p>Executes a <b>GET</b> for the given URL and opens a {@link JsonReader} over the
+	 * response. The reader <b>must</b> be closed to release the underlying connection.</p>
+	 */
+	private static JsonReader open(String url) throws IOException {
+		
+		HttpGet request = new HttpGet(url);
+		request.setHeader("Accept", "application/json");
+		
+		HttpResponse response = HttpTransport.getHttpClient().execute(request);
+		
+		StatusLine statusLine = response.getStatusLine();
+		HttpEntity entity = response.getEntity();
+		
+		if(statusLine.getStatusCode() != HttpStatus.SC_OK || entity == null) {
+			
+			if(entity != null) {
+				
+				entity.consumeContent();
+			}
+			
+			throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
+		}
+		
+		return new JsonReader(new InputStreamReader(entity.getContent(), "UTF-8"));
+	}
+}
@@ -0,0 +1,735 @@
+package com.lonepulse.travisjr.net;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.ExecutionContext;
+import org.apache.http.protocol.HttpContext;
+
+import android.util.Log;
+
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.app.TravisJr;
+import com.lonepulse.travisjr.util.Res;
+
+/**
+ * <p>A cache of response validators which turns repeated <b>GET</b>s for JSON resources into
+ * conditional requests. The <i>ETag</i> and <i>Last-Modified</i> headers of each response are
+ * stored together with its body, keyed by the request URL. Subsequent requests for the same URL
+ * carry <i>If-None-Match</i> and <i>If-Modified-Since</i>, and a <b>304 Not Modified</b> is
+ * answered with the stored body as though the resource was downloaded afresh.</p>
+ * 
+ * <p>Only JSON bodies within {@link R.integer#http_cache_entry_max} are stored, and the total size
+ * of the cache is held within {@link R.integer#http_cache_budget} by evicting the least recently
+ * stored entries. Requests which ask for a byte range are left untouched.</p>
+ * 
+ * <p>Bodies are never buffered in memory. They are copied to a temporary file as the consumer 
+ * reads them, and the file replaces the stored response only once the body has been read to 
+ * its end. If the stored response was evicted before a <b>304 Not Modified</b> arrived, the 
+ * response is flagged so that the request can be re-issued without validators; see 
+ * {@link #isEvicted(HttpContext)}.</p>
+ * 
+ * @version 1.1.1
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class ValidatorCache implements HttpRequestInterceptor, HttpResponseInterceptor {
+	
+
+	/**
+	 * <p>The name of the directory within the application's cache directory which hosts
+	 * the stored responses.</p>
+	 */
+	private static final String DIRECTORY = "http";
+
+	/**
+	 * <p>The {@link HttpContext} attribute which carries the cache key of a request
+	 * over to the interception of its response.</p>
+	 */
+	private static final String ATTR_KEY = "travisjr.validator-cache.key";
+
+	/**
+	 * <p>The {@link HttpContext} attribute which flags a <b>304 Not Modified</b> whose stored 
+	 * response was evicted in the meantime. The next request under the same context is sent 
+	 * without validators.</p>
+	 */
+	private static final String ATTR_EVICTED = "travisjr.validator-cache.evicted";
+
+	/**
+	 * <p>The default {@link ValidatorCache} which is shared application wide.</p>
+	 */
+	private static volatile ValidatorCache instance;
+
+
+	/**
+	 * <p>The directory which hosts the stored responses.</p>
+	 */
+	private final File directory;
+
+	/**
+	 * <p>The maximum size of a single stored body in bytes.</p>
+	 */
+	private final long entryMax;
+
+	/**
+	 * <p>The maximum size of all stored bodies in bytes.</p>
+	 */
+	private final long budget;
+
+
+	/**
+	 * <p>Retrieves the default {@link ValidatorCache} which is shared application wide.</p>
+	 * 
+	 * @return the default {@link ValidatorCache}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static ValidatorCache getInstance() {
+		
+		if(instance == null) {
+			
+			synchronized (ValidatorCache.class) {
+				
+				if(instance == null) {
+					
+					File cacheDir = TravisJr.Application.getContext().getCacheDir();
+					
+					instance = new ValidatorCache(new File(cacheDir, DIRECTORY),
+						Res.integer(R.integer.http_cache_entry_max) * 1024L,
+						Res.integer(R.integer.http_cache_budget) * 1024L);
+				}
+			}
+		}
+		
+		return instance;
+	}
+
+	/**
+	 * <p>Determines whether the response which was last received under the given context was a 
+	 * <b>304 Not Modified</b> whose stored response had already been evicted. Such a response 
+	 * has no body to answer with, and the request should be re-issued under the same context, 
+	 * which sends it without validators.</p>
+	 * 
+	 * @param context
+	 * 			the {@link HttpContext} under which the request was executed
+	 * 
+	 * @return {@code true} if the request should be re-issued without validators
+	 * 
+	 * @since 1.1.1
+	 */
+	public static boolean isEvicted(HttpContext context) {
+		
+		return context != null && context.getAttribute(ATTR_EVICTED) != null;
+	}
+
+	/**
+	 * <p>Creates a new {@link ValidatorCache} which stores responses in the given directory.</p>
+	 * 
+	 * @param directory
+	 * 			the directory which hosts the stored responses
+	 * 
+	 * @param entryMax
+	 * 			the maximum size of a single stored body in bytes
+	 * 
+	 * @param budget
+	 * 			the maximum size of all stored bodies in bytes
+	 * 
+	 * @since 1.1.0
+	 */
+	public ValidatorCache(File directory, long entryMax, long budget) {
+		
+		this.directory = directory;
+		this.entryMax = entryMax;
+		this.budget = budget;
+		
+		if(!directory.exists() && !directory.mkdirs()) {
+			
+			Log.e(getClass().getSimpleName(), "Failed to create cache directory " + directory);
+		}
+	}
+
+	/**
+	 * <p>Adds the stored validators of a <b>GET</b> request's URL as conditional headers.</p>
+	 */
+	@Override
+	public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+		
+		if(!"GET".equalsIgnoreCase(request.getRequestLine().getMethod())
+			|| request.containsHeader("Range")) {
+			
+			return;
+		}
+		
+		String key = key(request, context);
+		context.setAttribute(ATTR_KEY, key);
+		
+		if(context.getAttribute(ATTR_EVICTED) != null) {
+			
+			context.removeAttribute(ATTR_EVICTED);
+			return; //re-issued after a 304 for an evicted response
+		}
+		
+		Entry entry = read(key, false);
+		
+		if(entry != null) {
+			
+			if(entry.eTag.length() > 0) {
+				
+				request.setHeader("If-None-Match", entry.eTag);
+			}
+			
+			if(entry.lastModified.length() > 0) {
+				
+				request.setHeader("If-Modified-Since", entry.lastModified);
+			}
+		}
+	}
+
+	/**
+	 * <p>Answers a <b>304 Not Modified</b> with the stored body, or stores the body and
+	 * validators of a <b>200 OK</b> as it is read.</p>
+	 */
+	@Override
+	public void process(HttpResponse response, HttpContext context) throws HttpException, IOException {
+		
+		String key = (String)context.getAttribute(ATTR_KEY);
+		
+		if(key == null) {
+			
+			return;
+		}
+		
+		context.removeAttribute(ATTR_KEY);
+		int status = response.getStatusLine().getStatusCode();
+		
+		if(status == HttpStatus.SC_NOT_MODIFIED) {
+			
+			Entry entry = read(key, true);
+			
+			if(entry != null) {
+				
+				ByteArrayEntity entity = new ByteArrayEntity(entry.body);
+				entity.setContentType(entry.contentType);
+				
+				response.setStatusLine(response.getStatusLine().getProtocolVersion(), HttpStatus.SC_OK, "OK");
+				response.setEntity(entity);
+			}
+			else {
+				
+				context.setAttribute(ATTR_EVICTED, Boolean.TRUE);
+			}
+		}
+		else if(status == HttpStatus.SC_OK) {
+			
+			Header eTag = response.getFirstHeader("ETag");
+			Header lastModified = response.getFirstHeader("Last-Modified");
+			HttpEntity entity = response.getEntity();
+			
+			if((eTag == null && lastModified == null) || entity == null
+				|| entity.getContentType() == null || entity.getContentLength() > entryMax
+				|| !entity.getContentType().getValue().contains("json")) {
+				
+				return;
+			}
+			
+			response.setEntity(new TeeEntity(entity, key, new Entry(eTag == null? "" :eTag.getValue(),
+				lastModified == null? "" :lastModified.getValue(), entity.getContentType().getValue(), null)));
+		}
+	}
+
+	/**
+	 * <p>Removes all stored responses.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized void clear() {
+		
+		File[] files = directory.listFiles();
+		
+		if(files != null) {
+			
+			for (File file : files) {
+				
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * <p>Reads the stored response for the given key.</p>
+	 * 
+	 * @param key
+	 * 			the cache key of the request
+	 * 
+	 * @param withBody
+	 * 			whether the body should be read along with the validators
+	 * 
+	 * @return the stored {@link Entry}, else {@code null} if none exists or if it is unreadable
+	 */
+	private Entry read(String key, boolean withBody) {
+		
+		File file = new File(directory, key);
+		
+		if(!file.exists()) {
+			
+			return null;
+		}
+		
+		DataInputStream dis = null;
+		
+		try {
+			
+			dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 8192));
+			
+			String eTag = dis.readUTF();
+			String lastModified = dis.readUTF();
+			String contentType = dis.readUTF();
+			byte[] body = null;
+			
+			if(withBody) {
+				
+				body = new byte[dis.readInt()];
+				dis.readFully(body);
+			}
+			
+			return new Entry(eTag, lastModified, contentType, body);
+		}
+		catch(IOException ioe) {
+			
+			Log.w(getClass().getSimpleName(), "Discarding unreadable response " + key, ioe);
+			file.delete();
+			
+			return null;
+		}
+		finally {
+			
+			close(dis);
+		}
+	}
+
+	/**
+	 * <p>Atomically replaces the stored response of the given key with a completely written 
+	 * temporary file and evicts the least recently stored responses if the budget is exceeded.</p>
+	 */
+	private synchronized void store(String key, File temp) throws IOException {
+		
+		File file = new File(directory, key);
+		
+		if(!temp.renameTo(file)) {
+			
+			throw new IOException("Failed to replace " + file);
+		}
+		
+		trim();
+	}
+
+	/**
+	 * <p>Evicts the least recently stored responses until the cache is within its budget.</p>
+	 */
+	private void trim() {
+		
+		File[] files = directory.listFiles();
+		
+		if(files == null) {
+			
+			return;
+		}
+		
+		long size = 0;
+		int stored = 0;
+		
+		for (File file : files) {
+			
+			if(!file.getName().endsWith(".tmp")) { //responses which are still being read
+				
+				size += file.length();
+				files[stored++] = file;
+			}
+		}
+		
+		files = Arrays.copyOf(files, stored);
+		
+		if(size <= budget) {
+			
+			return;
+		}
+		
+		Arrays.sort(files, new Comparator<File>() {
+			
+			@Override
+			public int compare(File lhs, File rhs) {
+				
+				long lhsModified = lhs.lastModified(), rhsModified = rhs.lastModified();
+				return lhsModified < rhsModified? -1 :(lhsModified == rhsModified? 0 :1);
+			}
+		});
+		
+		for (int i = 0; i < files.length && size > budget; i++) {
+			
+			size -= files[i].length();
+			files[i].delete();
+		}
+	}
+
+	/**
+	 * <p>Creates the cache key of a request, which is the hex encoded MD5 digest of its
+	 * absolute URL.</p>
+	 */
+	private static String key(HttpRequest request, HttpContext context) {
+		
+		String uri = request.getRequestLine().getUri();
+		HttpHost host = (HttpHost)context.getAttribute(ExecutionContext.HTTP_TARGET_HOST);
+		
+		if(host != null && uri.startsWith("/")) {
+			
+			uri = host.toURI() + uri;
+		}
+		
+		try {
+			
+			byte[] digest = MessageDigest.getInstance("MD5").digest(uri.getBytes("UTF-8"));
+			StringBuilder key = new StringBuilder(digest.length * 2);
+			
+			for (byte b : digest) {
+				
+				key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			
+			return key.toString();
+		}
+		catch(Exception e) {
+			
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		
+		if(closeable != null) {
+			
+			try {
+				
+				closeable.close();
+			}
+			catch(IOException ioe) {
+				
+				Log.w(ValidatorCache.class.getSimpleName(), "Failed to close stream.", ioe);
+			}
+		}
+	}
+
+
+	/**
+	 * <p>A stored response which consists of its validators, content type and body.</p>
+	 */
+	private static final class Entry {
+		
+		private final String eTag;
+		private final String lastModified;
+		private final String contentType;
+		private final byte[] body;
+		
+		private Entry(String eTag, String lastModified, String contentType, byte[] body) {
+			
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+			this.contentType = contentType;
+			this.body = body;
+		}
+	}
+
+	/**
+	 * <p>An {@link HttpEntity} which copies the content of a wrapped entity to the cache as it 
+	 * is read, and stores it once it has been read to its end.</p>
+	 */
+	private final class TeeEntity extends HttpEntityWrapper {
+		
+		
+		private final String key;
+		private final Entry entry;
+		
+		private TeeInputStream content;
+		
+		
+		private TeeEntity(HttpEntity wrapped, String key, Entry entry) {
+			
+			super(wrapped);
+			
+			this.key = key;
+			this.entry = entry;
+		}
+		
+		@Override
+		public InputStream getContent() throws IOException {
+			
+			if(content != null) {
+				
+				content.abandon(); //a body can only be stored from a single read
+			}
+			
+			content = new TeeInputStream(wrappedEntity.getContent(), key, entry);
+			return content;
+		}
+		
+		@Override
+		public boolean isStreaming() {
+			
+			return true;
+		}
+		
+		@Override
+		public boolean isRepeatable() {
+			
+			return false;
+		}
+		
+		@Override
+		public void writeTo(OutputStream outstream) throws IOException {
+			
+			InputStream content = getContent();
+			
+			try {
+				
+				byte[] buffer = new byte[8192];
+				int read;
+				
+				while((read = content.read(buffer)) != -1) {
+					
+					outstream.write(buffer, 0, read);
+				}
+			}
+			finally {
+				
+				content.close();
+			}
+		}
+		
+		@Override
+		public void consumeContent() throws IOException {
+			
+			if(content != null) {
+				
+				content.abandon(); //the rest of the body is discarded, not read
+			}
+			
+			super.consumeContent();
+		}
+	}
+
+	/**
+	 * <p>An {@link InputStream} which writes each byte it reads to a temporary file, and stores 
+	 * the file as a response when the end of the stream is reached. The file is discarded if 
+	 * the stream is closed early, if the body exceeds {@link #entryMax} or if writing fails; 
+	 * none of which affect the consumer.</p>
+	 */
+	private final class TeeInputStream extends FilterInputStream {
+		
+		
+		private final String key;
+		
+		private File temp;
+		private DataOutputStream cache;
+		
+		private int lengthOffset;
+		private long length;
+		
+		
+		private TeeInputStream(InputStream in, String key, Entry entry) {
+			
+			super(in);
+			this.key = key;
+			
+			try {
+				
+				temp = File.createTempFile(key, ".tmp", directory);
+				cache = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 8192));
+				
+				cache.writeUTF(entry.eTag);
+				cache.writeUTF(entry.lastModified);
+				cache.writeUTF(entry.contentType);
+				
+				lengthOffset = cache.size();
+				cache.writeInt(0); //written once the length is known
+			}
+			catch(IOException ioe) {
+				
+				Log.e(ValidatorCache.class.getSimpleName(), "Failed to store response " + key, ioe);
+				abandon();
+			}
+		}
+		
+		@Override
+		public int read() throws IOException {
+			
+			int read = in.read();
+			
+			if(read == -1) {
+				
+				commit();
+			}
+			else if(cache != null) {
+				
+				tee(new byte[] {(byte)read}, 0, 1);
+			}
+			
+			return read;
+		}
+		
+		@Override
+		public int read(byte[] buffer, int offset, int count) throws IOException {
+			
+			int read = in.read(buffer, offset, count);
+			
+			if(read == -1) {
+				
+				commit();
+			}
+			else {
+				
+				tee(buffer, offset, read);
+			}
+			
+			return read;
+		}
+		
+		@Override
+		public long skip(long count) throws IOException {
+			
+			abandon(); //skipped bytes never reach the cache
+			return in.skip(count);
+		}
+		
+		@Override
+		public boolean markSupported() {
+			
+			return false;
+		}
+		
+		@Override
+		public void close() throws IOException {
+			
+			abandon();
+			super.close();
+		}
+		
+		private void tee(byte[] buffer, int offset, int count) {
+			
+			if(cache == null) {
+				
+				return;
+			}
+			
+			length += count;
+			
+			if(length > entryMax) {
+				
+				abandon();
+				return;
+			}
+			
+			try {
+				
+				cache.write(buffer, offset, count);
+			}
+			catch(IOException ioe) {
+				
+				Log.e(ValidatorCache.class.getSimpleName(), "Failed to store response " + key, ioe);
+				abandon();
+			}
+		}
+		
+		private void commit() {
+			
+			if(cache == null) {
+				
+				return;
+			}
+			
+			try {
+				
+				cache.close();
+				cache = null;
+				
+				RandomAccessFile file = new RandomAccessFile(temp, "rw");
+				
+				try {
+					
+					file.seek(lengthOffset);
+					file.writeInt((int)length);
+				}
+				finally {
+					
+					file.close();
+				}
+				
+				store(key, temp);
+				temp = null;
+			}
+			catch(IOException ioe) {
+				
+				Log.e(ValidatorCache.class.getSimpleName(), "Failed to store response " + key, ioe);
+				abandon();
+			}
+		}
+		
+		private void abandon() {
+			
+			ValidatorCache.close(cache);
+			cache = null;
+			
+			if(temp != null) {
+				
+				temp.delete();
+				temp = null;
+			}
+		}
+	}
+}
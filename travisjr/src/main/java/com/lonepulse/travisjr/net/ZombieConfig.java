@@ -20,25 +20,15 @@ package com.lonepulse.travisjr.net;
  * #L%
  */
 
-import java.io.InputStream;
-import java.security.KeyStore;
-
 import org.apache.http.client.HttpClient;
-import org.apache.http.conn.scheme.Scheme;
-import org.apache.http.conn.scheme.SchemeRegistry;
-import org.apache.http.conn.ssl.SSLSocketFactory;
-import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
-
-import android.util.Log;
 
 import com.lonepulse.robozombie.proxy.Zombie;
-import com.lonepulse.travisjr.R;
-import com.lonepulse.travisjr.app.TravisJr;
 
 /**
- * <p>Provides an {@link HttpClient} with a custom {@link SSLSocketFactory} using a keystore.</p>
+ * <p>Provides RoboZombie endpoints with the application's shared {@link HttpClient}, which 
+ * is managed by {@link HttpTransport}.</p>
  * 
- * @version 1.1.0
+ * @version 1.1.2
  * <br><br>
  * @since 0.1.2
  * <br><br>
@@ -49,35 +39,6 @@ public class ZombieConfig extends Zombie.Configuration {
 	@Override
 	public HttpClient httpClient() {
 		
-		HttpClient client = super.httpClient();
-		
-		try {
-		
-			KeyStore keyStore = KeyStore.getInstance("BKS");
-			InputStream is = TravisJr.Application.getContext().getResources().openRawResource(R.raw.travisjr);
-			
-			try {
-			
-				keyStore.load(is, null);
-			}
-			finally {
-				
-				is.close();
-			}
-	
-	        SSLSocketFactory sslSocketFactory = new SSLSocketFactory(keyStore);
-	        sslSocketFactory.setHostnameVerifier(SSLSocketFactory.STRICT_HOSTNAME_VERIFIER);
-	        
-	        SchemeRegistry schemeRegistry 
-	        	= ((ThreadSafeClientConnManager)client.getConnectionManager()).getSchemeRegistry();
-	        
-	        schemeRegistry.register(new Scheme("https", sslSocketFactory, 443));
-		}
-		catch(Exception e) {
-
-			Log.e(getClass().getSimpleName(), "HttpClient configuration with a custom SSLSocketFactory failed.", e);
-		}
-		
-		return client;
+		return HttpTransport.getHttpClient();
 	}
 }
@@ -23,6 +23,7 @@ package com.lonepulse.travisjr.pref;
 
 import android.os.Bundle;
 import android.preference.Preference;
+import android.preference.Preference.OnPreferenceChangeListener;
 import android.preference.Preference.OnPreferenceClickListener;
 import android.preference.PreferenceFragment;
 
@@ -30,17 +31,19 @@ import com.lonepulse.travisjr.R;
 import com.lonepulse.travisjr.dialog.LicensesActivity;
 import com.lonepulse.travisjr.service.AccountService;
 import com.lonepulse.travisjr.service.BasicAccountService;
+import com.lonepulse.travisjr.sync.SyncScheduler;
 import com.lonepulse.travisjr.util.Res;
 
 /**
  * <p>This {@link PreferenceFragment} aggregates all individual preference 
  * fragments to provide a holistic view.
  * 
- * @version 1.1.0
+ * @version 1.1.1
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
-public class SettingsFragment extends PreferenceFragment implements OnPreferenceClickListener {
+public class SettingsFragment extends PreferenceFragment 
+implements OnPreferenceClickListener, OnPreferenceChangeListener {
 
 	
 	/**
@@ -59,6 +62,7 @@ public class SettingsFragment extends PreferenceFragment implements OnPreference
 		
 		findPreference(Res.string(R.string.key_sign_out)).setOnPreferenceClickListener(this);
 		findPreference(Res.string(R.string.key_oss_licenses)).setOnPreferenceClickListener(this);
+		findPreference(Res.string(R.string.key_background_sync)).setOnPreferenceChangeListener(this);
 	}
 
 	@Override
@@ -75,4 +79,23 @@ public class SettingsFragment extends PreferenceFragment implements OnPreference
 		
 		return true;
 	}
+	
+	@Override
+	public boolean onPreferenceChange(Preference preference, Object newValue) {
+		
+		if(preference.getKey().equals(Res.string(R.string.key_background_sync))) {
+			
+			if(Boolean.TRUE.equals(newValue)) {
+				
+				preference.getEditor().putBoolean(preference.getKey(), true).commit(); //persisted only after this callback
+				SyncScheduler.start(getActivity());
+			}
+			else {
+				
+				SyncScheduler.cancel(getActivity());
+			}
+		}
+		
+		return true;
+	}
 }
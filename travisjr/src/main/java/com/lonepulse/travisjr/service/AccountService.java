@@ -27,13 +27,14 @@ import android.content.Context;
 import com.lonepulse.icklebot.annotation.inject.Pojo;
 import com.lonepulse.travisjr.AuthenticationActivity;
 import com.lonepulse.travisjr.model.GitHubUser;
+import com.lonepulse.travisjr.net.GitHubRateLimiter.Priority;
 import com.lonepulse.travisjr.view.MissingViewException;
 
 /**
  * <p>This contract specifies the services offered for managing the 
  * user's account.</p>
  * 
- * @version 1.2.1
+ * @version 1.2.2
  * <br><br>
  * @since 1.1.0
  * <br><br>
@@ -175,6 +176,23 @@ public interface AccountService {
 	 */
 	UserMode fetchUserMode(Activity activity);
 	
+	/**
+	 * <p>See {@link #fetchUserMode(Activity)}. The GitHub API is contacted with the given 
+	 * {@link Priority}; {@link #fetchUserMode(Activity)} is an {@link Priority#INTERACTIVE} fetch.</p>
+	 * 
+	 * @param activity
+	 * 			the {@link Activity} {@link Context} to look for a transient {@link GitHubUser}
+	 * 			in the current session context
+	 * 
+	 * @param priority
+	 * 			the {@link Priority} of the call to the GitHub API
+	 * 
+	 * @return the {@link UserMode} associated with the current user; see {@link #fetchUserMode(Activity)}
+	 * 
+	 * @since 1.2.2
+	 */
+	UserMode fetchUserMode(Activity activity, Priority priority);
+	
 	/**
 	 * <p>Retrieves the GitHub username which was saved in the account created by the official GitHub app.</p>
 	 * 
@@ -39,13 +39,18 @@ import com.lonepulse.travisjr.AuthenticationActivity;
 import com.lonepulse.travisjr.R;
 import com.lonepulse.travisjr.app.TravisJr;
 import com.lonepulse.travisjr.app.TravisJr.Application;
+import com.lonepulse.travisjr.cache.ModelCache;
 import com.lonepulse.travisjr.model.GitHubUser;
+import com.lonepulse.travisjr.net.GitHubRateLimiter.Priority;
+import com.lonepulse.travisjr.net.ValidatorCache;
+import com.lonepulse.travisjr.sync.BuildStateTracker;
+import com.lonepulse.travisjr.sync.SyncScheduler;
 import com.lonepulse.travisjr.util.Res;
 
 /**
  * <p>A basic implementation of {@link AccountService}.</p>
  * 
- * @version 1.2.0
+ * @version 1.2.5
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -180,6 +185,15 @@ public class BasicAccountService implements AccountService {
 	@Override
 	public UserMode fetchUserMode(Activity activity) {
 		
+		return fetchUserMode(activity, Priority.INTERACTIVE);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public UserMode fetchUserMode(Activity activity, Priority priority) {
+		
 		try {
 			
 			GitHubUser user = getTransientUser(activity);
@@ -194,7 +208,7 @@ public class BasicAccountService implements AccountService {
 				
 				if(userMode == null) {
 					
-					user = intentFilterService.resolveUser(activity.getIntent().getData());
+					user = intentFilterService.resolveUser(activity.getIntent().getData(), priority);
 					userMode = UserMode.matchFor(user.getType());
 				}
 				
@@ -280,6 +294,10 @@ public class BasicAccountService implements AccountService {
 				public void onClick(DialogInterface dialog, int which) {
 					
 					setGitHubUsername("");
+					ModelCache.getInstance().clear();
+					ValidatorCache.getInstance().clear();
+					SyncScheduler.cancel(context);
+					BuildStateTracker.getInstance().clear();
 					AuthenticationActivity.start(context);
 					
 					PURGE_LOCK.unlock();
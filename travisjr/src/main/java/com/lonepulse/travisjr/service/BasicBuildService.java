@@ -20,35 +20,69 @@ package com.lonepulse.travisjr.service;
  * #L%
  */
 
-import java.util.HashMap;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-
-import android.util.Log;
+import java.util.concurrent.Callable;
 
 import com.lonepulse.robozombie.annotation.Bite;
 import com.lonepulse.robozombie.proxy.Zombie;
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.app.TravisJr;
+import com.lonepulse.travisjr.cache.ModelCache;
+import com.lonepulse.travisjr.log.JobLog;
+import com.lonepulse.travisjr.log.LogArchive;
+import com.lonepulse.travisjr.log.LogFile;
 import com.lonepulse.travisjr.model.Build;
 import com.lonepulse.travisjr.model.BuildInfo;
 import com.lonepulse.travisjr.model.BuildJob;
-import com.lonepulse.travisjr.net.AmazonS3Endpoint;
+import com.lonepulse.travisjr.net.JobLogClient;
 import com.lonepulse.travisjr.net.TravisCIEndpoint;
+import com.lonepulse.travisjr.net.TravisCIStreamClient;
+import com.lonepulse.travisjr.util.BuildUtils;
+import com.lonepulse.travisjr.util.Res;
+import com.lonepulse.travisjr.util.StringPool;
 
 /**
  * <p>A basic implementation of {@link BuildService}.
  * 
- * @version 1.1.2
+ * <p>Recent {@link Build}s and the {@link BuildInfo} of ongoing builds are served from the 
+ * {@link ModelCache} without touching the network while they are within their time-to-live. 
+ * The {@link BuildInfo} of a finished build never changes and is served from the cache for good. 
+ * A refresh which is forced by the user always goes to the network.
+ * 
+ * @version 1.2.4
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
 public class BasicBuildService implements BuildService {
 
+	
+	/**
+	 * <p>The time in milliseconds for which cached {@link Build}s are served without being revalidated.
+	 */
+	private static final long TTL_BUILDS = Res.integer(R.integer.cache_ttl_builds) * 1000L;
+	
+	/**
+	 * <p>The time in milliseconds for which the cached {@link BuildInfo} of an ongoing build is 
+	 * served without being revalidated.
+	 */
+	private static final long TTL_BUILD_INFO = Res.integer(R.integer.cache_ttl_build_info) * 1000L;
+	
+	/**
+	 * <p>The name of the directory within the application's cache directory to which 
+	 * job logs are spooled.
+	 */
+	private static final String DIRECTORY_LOGS = "logs";
+	
 
 	@Bite
 	private TravisCIEndpoint travisCIEndpoint;
 	
-	@Bite
-	private AmazonS3Endpoint amazonS3Endpoint;
+	private JobLogClient jobLogClient = new JobLogClient();
+	
+	private TravisCIStreamClient travisCIStreamClient = new TravisCIStreamClient();
 	
 	{
 		Zombie.infect(this);
@@ -60,16 +94,73 @@ public class BasicBuildService implements BuildService {
 	 */
 	@Override
 	public List<Build> getRecentBuilds(long repoId) {
+		
+		return getRecentBuilds(repoId, false);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Build> getRecentBuilds(final long repoId, boolean forceRefresh) {
 	
+		ModelCache modelCache = ModelCache.getInstance();
+		
+		if(!forceRefresh && modelCache.isFresh(keyBuilds(repoId), TTL_BUILDS)) {
+			
+			List<Build> builds = modelCache.get(keyBuilds(repoId));
+			
+			if(builds != null) {
+				
+				return builds;
+			}
+		}
+		
 		try {
 		
-			return travisCIEndpoint.getRecentBuilds(String.valueOf(repoId));
+			return SingleFlight.getInstance().execute(keyBuilds(repoId), new Callable<List<Build>>() {
+				
+				@Override
+				public List<Build> call() throws Exception {
+					
+					List<Build> builds = travisCIStreamClient.getRecentBuilds(repoId);
+					ModelCache.getInstance().put(keyBuilds(repoId), builds);
+					
+					return builds;
+				}
+			});
 		}
 		catch(Exception e) {
 			
 			throw new BuildsUnavailableException(repoId, e);
 		}
 	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Build> getCachedBuilds(long repoId) {
+		
+		return ModelCache.getInstance().get(keyBuilds(repoId));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getCachedBuildsTime(long repoId) {
+		
+		return ModelCache.getInstance().getTimestamp(keyBuilds(repoId));
+	}
+	
+	/**
+	 * <p>Creates the {@link ModelCache} key for the recent {@link Build}s of the given repository.
+	 */
+	private static String keyBuilds(long repoId) {
+		
+		return "builds/" + repoId;
+	}
 
 	/**
 	 * {@inheritDoc}
@@ -77,46 +168,214 @@ public class BasicBuildService implements BuildService {
 	@Override
 	public BuildInfo getBuildInfo(String owner, String repository, long buildId) {
 		
+		return getBuildInfo(owner, repository, buildId, false);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BuildInfo getBuildInfo(final String owner, final String repository, final long buildId, boolean forceRefresh) {
+		
+		ModelCache modelCache = ModelCache.getInstance();
+		BuildInfo cachedBuildInfo = forceRefresh? null :modelCache.<BuildInfo>get(keyBuildInfo(buildId));
+		
+		if(cachedBuildInfo != null && (!BuildUtils.isOngoing(cachedBuildInfo) 
+			|| modelCache.isFresh(keyBuildInfo(buildId), TTL_BUILD_INFO))) {
+			
+			return cachedBuildInfo;
+		}
+		
 		try {
 			
-			return travisCIEndpoint.getBuildInfo(owner, repository, String.valueOf(buildId));
+			return SingleFlight.getInstance().execute(keyBuildInfo(buildId), new Callable<BuildInfo>() {
+				
+				@Override
+				public BuildInfo call() throws Exception {
+					
+					BuildInfo buildInfo = travisCIEndpoint.getBuildInfo(owner, repository, String.valueOf(buildId));
+					
+					if(buildInfo != null) {
+						
+						pool(buildInfo);
+						ModelCache.getInstance().put(keyBuildInfo(buildId), buildInfo);
+					}
+					
+					return buildInfo;
+				}
+			});
 		}
 		catch(Exception e) {
 			
 			throw new BuildInfoUnavailableException(owner, repository, buildId, e);
 		}
 	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BuildInfo getCachedBuildInfo(long buildId) {
+		
+		return ModelCache.getInstance().get(keyBuildInfo(buildId));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getCachedBuildInfoTime(long buildId) {
+		
+		return ModelCache.getInstance().getTimestamp(keyBuildInfo(buildId));
+	}
+	
+	/**
+	 * <p>Creates the {@link ModelCache} key for the {@link BuildInfo} of the given build.
+	 */
+	private static String keyBuildInfo(long buildId) {
+		
+		return "build-info/" + buildId;
+	}
+	
+	/**
+	 * <p>Passes the low-cardinality strings of a {@link BuildInfo} which was bound by the 
+	 * {@link TravisCIEndpoint} through its mutators, which keep them in the {@link StringPool}. 
+	 * The endpoint binds fields reflectively and bypasses the mutators. Its {@link BuildJob}s 
+	 * carry no such strings.
+	 */
+	private static void pool(BuildInfo buildInfo) {
+		
+		buildInfo.setState(buildInfo.getState());
+		buildInfo.setBranch(buildInfo.getBranch());
+		buildInfo.setEvent_type(buildInfo.getEvent_type());
+	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Map<BuildJob, StringBuilder> getJobLogs(BuildInfo buildInfo) {
+	public List<JobLog> getJobLogs(BuildInfo buildInfo) {
 		
 		try {
 			
-			Map<BuildJob, StringBuilder> logMap = new HashMap<BuildJob, StringBuilder>();
 			BuildJob[] buildJobs = buildInfo.getMatrix();
+			List<JobLog> jobLogs = new ArrayList<JobLog>(buildJobs.length);
 			
 			for (BuildJob buildJob : buildJobs) {
 			
+				jobLogs.add(new JobLog(buildJob));
+			}
+			
+			return jobLogs;
+		}
+		catch(Exception e) {
+			
+			throw new FetchingLogsFailedException(buildInfo, e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LogFile fetchJobLog(JobLog jobLog) {
+		
+		BuildJob buildJob = jobLog.getBuildJob();
+		
+		synchronized (jobLog) {
+			
+			if(jobLog.isFetched()) {
+				
+				return jobLog.getLogFile();
+			}
+			
+			try {
+				
+				File logDirectory = new File(TravisJr.Application.getContext().getCacheDir(), DIRECTORY_LOGS);
+				File file = new File(logDirectory, buildJob.getId() + ".log");
+				
+				boolean finished = (buildJob.getFinished_at() != null);
+				
+				if(finished) {
+					
+					LogFile archivedLog = LogArchive.getInstance().restore(buildJob.getId(), file);
+					
+					if(archivedLog != null) {
+						
+						jobLog.setLogFile(archivedLog);
+						return archivedLog;
+					}
+				}
+				
+				InputStream logStream = finished? 
+					jobLogClient.getJobLog(buildJob.getId()) :jobLogClient.getLiveJobLog(buildJob.getId(), 0);
+				
 				try {
+				
+					LogFile logFile = LogFile.spool(logStream, file);
+					jobLog.setLogFile(logFile);
 					
-					String log = amazonS3Endpoint.getJobLog(String.valueOf(buildJob.getId()));
-					logMap.put(buildJob, new StringBuilder(log));
+					if(finished) {
+						
+						LogArchive.getInstance().put(buildJob.getId(), logFile); //immutable from here on
+					}
+					
+					return logFile;
 				}
-				catch(Exception e) {
+				finally {
 					
-					Log.e(getClass().getName(), "Failed to fetch build job log.", 
-						  new JobLogUnavailableException(buildJob, e));
+					logStream.close();
 				}
 			}
-			
-			return logMap;
+			catch(Exception e) {
+				
+				throw new JobLogUnavailableException(buildJob, e);
+			}
 		}
-		catch(Exception e) {
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long tailJobLog(JobLog jobLog) {
+		
+		BuildJob buildJob = jobLog.getBuildJob();
+		
+		synchronized (jobLog) {
 			
-			throw new FetchingLogsFailedException(buildInfo, e);
+			if(!jobLog.isFetched()) {
+				
+				return fetchJobLog(jobLog).length();
+			}
+			
+			try {
+				
+				LogFile logFile = jobLog.getLogFile();
+				InputStream logStream = jobLogClient.getLiveJobLog(buildJob.getId(), logFile.length());
+				
+				long appended;
+				
+				try {
+					
+					appended = logFile.append(logStream);
+				}
+				finally {
+					
+					logStream.close();
+				}
+				
+				if(buildJob.getFinished_at() != null && !LogArchive.getInstance().contains(buildJob.getId())) {
+					
+					LogArchive.getInstance().put(buildJob.getId(), logFile); //tailed to its end
+				}
+				
+				return appended;
+			}
+			catch(Exception e) {
+				
+				throw new JobLogUnavailableException(buildJob, e);
+			}
 		}
 	}
 }
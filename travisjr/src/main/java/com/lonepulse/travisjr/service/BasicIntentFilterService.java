@@ -22,6 +22,7 @@ package com.lonepulse.travisjr.service;
 
 
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -33,9 +34,13 @@ import android.net.Uri;
 import com.lonepulse.robozombie.annotation.Bite;
 import com.lonepulse.robozombie.proxy.Zombie;
 import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.cache.DiskStore;
 import com.lonepulse.travisjr.model.GitHubRepository;
 import com.lonepulse.travisjr.model.GitHubUser;
 import com.lonepulse.travisjr.net.GitHubEndpoint;
+import com.lonepulse.travisjr.net.GitHubRateLimiter;
+import com.lonepulse.travisjr.net.GitHubRateLimiter.Priority;
+import com.lonepulse.travisjr.net.RateLimitExceededException;
 import com.lonepulse.travisjr.util.Res;
 
 /**
@@ -45,7 +50,7 @@ import com.lonepulse.travisjr.util.Res;
  * 
  * @since 1.1.0
  * <br><br>
- * @version 1.1.0
+ * @version 1.1.5
  * <br><br>
  * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -56,6 +61,11 @@ public class BasicIntentFilterService implements IntentFilterService {
 	
 	public static final String msgNotFound = Res.string(R.string.err_github_not_found);
 	
+	/**
+	 * <p>The executor which is shared by all resolutions; its idle threads are released.</p>
+	 */
+	private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
+	
 	
 	@Bite
 	private GitHubEndpoint gitHubEndpoint;
@@ -74,8 +84,17 @@ public class BasicIntentFilterService implements IntentFilterService {
 	@Override
 	public GitHubUser resolveUser(Uri uri) {
 		
+		return resolveUser(uri, Priority.INTERACTIVE);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GitHubUser resolveUser(Uri uri, final Priority priority) {
+		
 		UserAuthenticationFailedException uafe = new UserAuthenticationFailedException(uri);
-		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		Future<GitHubUser> future = null;
 		
 		try {
 			
@@ -90,12 +109,25 @@ public class BasicIntentFilterService implements IntentFilterService {
 				throw uafe;
 			}
 			
-			Future<GitHubUser> future = executorService.submit(new Callable<GitHubUser>() {
+			future = EXECUTOR.submit(new Callable<GitHubUser>() {
 				
 				@Override
 				public GitHubUser call() throws Exception {
 					
-					return gitHubEndpoint.getUser(pathSegments.get(0));
+					final String login = pathSegments.get(0);
+					final String key = "github/users/" + login.toLowerCase(Locale.ENGLISH);
+					
+					return callGitHub(key, GitHubUser.class, priority, new Callable<GitHubUser>() {
+						
+						@Override
+						public GitHubUser call() throws Exception {
+							
+							GitHubUser gitHubUser = gitHubEndpoint.getUser(login);
+							onGitHubResponse(key, gitHubUser, gitHubUser.getMessage());
+							
+							return gitHubUser;
+						}
+					});
 				}
 			});
 			
@@ -117,7 +149,10 @@ public class BasicIntentFilterService implements IntentFilterService {
 		}
 		finally {
 			
-			executorService.shutdownNow();
+			if(future != null) {
+				
+				future.cancel(true); //no-op once complete
+			}
 		}
 	}
 
@@ -131,8 +166,17 @@ public class BasicIntentFilterService implements IntentFilterService {
 	@Override
 	public GitHubRepository resolveRepository(Uri uri) {
 		
+		return resolveRepository(uri, Priority.INTERACTIVE);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GitHubRepository resolveRepository(Uri uri, final Priority priority) {
+		
 		RepositoryAuthenticationFailedException rafe = new RepositoryAuthenticationFailedException(uri);
-		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		Future<GitHubRepository> future = null;
 		
 		try {
 			
@@ -151,12 +195,24 @@ public class BasicIntentFilterService implements IntentFilterService {
 			final String user = pathSegments.get(0);
 			final String repo = pathSegments.get(1);
 			
-			Future<GitHubRepository> future = executorService.submit(new Callable<GitHubRepository>() {
+			future = EXECUTOR.submit(new Callable<GitHubRepository>() {
 				
 				@Override
 				public GitHubRepository call() throws Exception {
 					
-					return gitHubEndpoint.getRepository(user, repo);
+					final String key = "github/repos/" + (user + "/" + repo).toLowerCase(Locale.ENGLISH);
+					
+					return callGitHub(key, GitHubRepository.class, priority, new Callable<GitHubRepository>() {
+						
+						@Override
+						public GitHubRepository call() throws Exception {
+							
+							GitHubRepository gitHubRepo = gitHubEndpoint.getRepository(user, repo);
+							onGitHubResponse(key, gitHubRepo, gitHubRepo.getMessage());
+							
+							return gitHubRepo;
+						}
+					});
 				}
 			});
 			
@@ -178,7 +234,10 @@ public class BasicIntentFilterService implements IntentFilterService {
 		}
 		finally {
 			
-			executorService.shutdownNow();
+			if(future != null) {
+				
+				future.cancel(true); //no-op once complete
+			}
 		}
 	}
 	
@@ -217,4 +276,174 @@ public class BasicIntentFilterService implements IntentFilterService {
 		
 		return true;
 	}
+	
+	/**
+	 * <p>Executes a call to the GitHub API within the budget of the {@link GitHubRateLimiter}, 
+	 * coalescing it with any identical call which is in flight. If the call cannot be admitted, 
+	 * or if it fails while the budget is exhausted, the last successful response for the same 
+	 * key is served from the {@link DiskStore} instead.
+	 * 
+	 * <p>An interactive call which joins a background flight raises the flight to 
+	 * {@link Priority#INTERACTIVE}; see {@link GitHubCall}.</p>
+	 *
+	 * @param key
+	 * 			the key which identifies the call and its cached response
+	 * 
+	 * @param type
+	 * 			the type of the response
+	 * 
+	 * @param priority
+	 * 			the {@link Priority} of the call
+	 * 
+	 * @param call
+	 * 			the call to the GitHub API
+	 * 
+	 * @return the response of the call, or the cached response
+	 * 
+	 * @throws Exception
+	 * 			if the call failed and no response was cached
+	 */
+	private static <T> T callGitHub(String key, Class<T> type, Priority priority, Callable<T> call) 
+	throws Exception {
+		
+		return SingleFlight.getInstance().execute(key, new GitHubCall<T>(key, type, priority, call));
+	}
+	
+	/**
+	 * <p>Caches a successful GitHub response under the given key, or fails a response which 
+	 * was refused because the rate limit was exceeded.
+	 *
+	 * @param key
+	 * 			the key under which the response is cached
+	 * 
+	 * @param response
+	 * 			the deserialized response
+	 * 
+	 * @param message
+	 * 			the failure message of the response, which is {@code null} if it succeeded
+	 * 
+	 * @throws RateLimitExceededException
+	 * 			if the response was refused due to the rate limit
+	 */
+	private static void onGitHubResponse(String key, Object response, String message) {
+		
+		if(message == null) {
+			
+			DiskStore.getInstance().put(key, response);
+		}
+		else {
+			
+			GitHubRateLimiter rateLimiter = GitHubRateLimiter.getInstance();
+			
+			if(rateLimiter.isExhausted()) {
+				
+				throw new RateLimitExceededException(rateLimiter.getResetAt());
+			}
+		}
+	}
+	
+	
+	/**
+	 * <p>A single flight of a call to the GitHub API, which is admitted by the 
+	 * {@link GitHubRateLimiter} at the highest {@link Priority} of the callers which joined it 
+	 * before its admission was decided. Once a background flight has been turned away by the 
+	 * rate limiter, interactive callers no longer join it and fly their own flights instead.</p>
+	 */
+	private static final class GitHubCall<T> implements SingleFlight.Joinable<T> {
+		
+		
+		private final String key;
+		private final Class<T> type;
+		private final Callable<T> call;
+		
+		private Priority priority;
+		
+		/**
+		 * <p>Whether the flight was refused at {@link Priority#BACKGROUND}.</p>
+		 */
+		private boolean refused;
+		
+		
+		private GitHubCall(String key, Class<T> type, Priority priority, Callable<T> call) {
+			
+			this.key = key;
+			this.type = type;
+			this.priority = priority;
+			this.call = call;
+		}
+		
+		@Override
+		public synchronized boolean join(Callable<T> joiner) {
+			
+			if(!(joiner instanceof GitHubCall) || ((GitHubCall<T>)joiner).priority != Priority.INTERACTIVE 
+				|| priority == Priority.INTERACTIVE) {
+				
+				return true;
+			}
+			
+			if(refused) {
+				
+				return false;
+			}
+			
+			priority = Priority.INTERACTIVE;
+			return true;
+		}
+		
+		@Override
+		public T call() throws Exception {
+			
+			GitHubRateLimiter rateLimiter = GitHubRateLimiter.getInstance();
+			Priority admission = getPriority();
+			
+			while(!rateLimiter.tryAcquire(admission)) {
+				
+				synchronized (this) {
+					
+					if(priority != admission) {
+						
+						admission = priority; //raised by an interactive caller
+						continue;
+					}
+					
+					refused = (admission == Priority.BACKGROUND);
+				}
+				
+				T cached = DiskStore.getInstance().get(key, type);
+				
+				if(cached != null) {
+					
+					return cached; //spare the budget for calls which have nothing to fall back on
+				}
+				
+				rateLimiter.acquire(admission);
+				break;
+			}
+			
+			try {
+				
+				return call.call();
+			}
+			catch(Exception e) {
+				
+				T cached = rateLimiter.isExhausted()? DiskStore.getInstance().<T>get(key, type) :null;
+				
+				if(cached == null) {
+					
+					throw e;
+				}
+				
+				return cached;
+			}
+			finally {
+				
+				rateLimiter.release();
+			}
+		}
+		
+		private synchronized Priority getPriority() {
+			
+			return priority;
+		}
+	}
 }
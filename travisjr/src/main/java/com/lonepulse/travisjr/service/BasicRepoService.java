@@ -24,32 +24,103 @@ package com.lonepulse.travisjr.service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import android.app.Activity;
 import android.util.Log;
 
-import com.lonepulse.robozombie.annotation.Bite;
-import com.lonepulse.robozombie.proxy.Zombie;
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.cache.ModelCache;
 import com.lonepulse.travisjr.model.Build;
 import com.lonepulse.travisjr.model.Repo;
-import com.lonepulse.travisjr.net.TravisCIEndpoint;
+import com.lonepulse.travisjr.net.Cancellation;
+import com.lonepulse.travisjr.net.TravisCIStreamClient;
+import com.lonepulse.travisjr.net.TravisCIStreamClient.ItemListener;
+import com.lonepulse.travisjr.util.Res;
 
 /**
  * <p>A basic implementation of {@link RepoService}.
  * 
- * @version 1.1.0
+ * <p>The {@link Repo}s of a user are served from the {@link ModelCache} without touching the 
+ * network while they are within their time-to-live, unless a refresh is forced by the user.
+ * 
+ * @version 1.1.10
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
 public class BasicRepoService implements RepoService {
 
-
-	@Bite
-	private TravisCIEndpoint travisCIEndpoint;
-	{
-		Zombie.infect(this);
+	
+	/**
+	 * <p>The {@link ParallelFetcher} which is shared by all instances to look up the recent 
+	 * {@link Build}s of multiple {@link Repo}s concurrently.
+	 */
+	private static final ParallelFetcher FETCHER = new ParallelFetcher(
+		Res.integer(R.integer.fetch_pool_size), Res.integer(R.integer.fetch_task_timeout), 
+		Res.integer(R.integer.fetch_timeout), TimeUnit.SECONDS);
+	
+	/**
+	 * <p>The time in milliseconds for which cached {@link Repo}s are served without being revalidated.
+	 */
+	private static final long TTL_REPOS = Res.integer(R.integer.cache_ttl_repos) * 1000L;
+	
+	/**
+	 * <p>The number of parsed {@link Repo}s after which a progressive fetch publishes another chunk.
+	 */
+	private static final int CHUNK_SIZE = Res.integer(R.integer.repo_chunk_size);
+	
+	
+	/**
+	 * <p>Prepares each {@link Repo} as it streams in and publishes the {@link Repo}s parsed 
+	 * so far to a {@link RepoListener} once every {@link #CHUNK_SIZE} items.
+	 */
+	private static final class RepoChunker implements ItemListener<Repo> {
+		
+		
+		private final String owner;
+		private final RepoListener listener;
+		private final List<Repo> parsed = new ArrayList<Repo>();
+		
+		
+		/**
+		 * @param owner
+		 * 			the owner whose name is stripped from each slug, else {@code null}
+		 * 
+		 * @param listener
+		 * 			the {@link RepoListener} which receives the chunks, which may be {@code null}
+		 */
+		private RepoChunker(String owner, RepoListener listener) {
+			
+			this.owner = owner;
+			this.listener = listener;
+		}
+		
+		@Override
+		public void onItem(Repo repo) {
+			
+			if(owner != null) {
+				
+				repo.setSlug(repo.getSlug().replaceFirst(owner + "/", ""));
+			}
+			
+			if(listener != null) {
+				
+				parsed.add(repo);
+				
+				if(parsed.size() % CHUNK_SIZE == 0) {
+					
+					listener.onReposParsed(new ArrayList<Repo>(parsed), false);
+				}
+			}
+		}
 	}
 	
+
+	private TravisCIStreamClient travisCIStreamClient = new TravisCIStreamClient();
+	
+	private BuildService buildService = new BasicBuildService();
+	
 	private AccountService accountService;
 	
 	
@@ -140,25 +211,62 @@ public class BasicRepoService implements RepoService {
 	@Override
 	public List<Repo> getReposByMember(String username) {
 		
-		try {
+		return getReposByMember(username, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Repo> getReposByOwner(String username) {
+		
+		return getReposByOwner(username, null);
+	}
+	
+	/**
+	 * {@inheritDoc} 
+	 */
+	@Override
+	public List<Repo> getReposByMember(String username, RepoListener listener) {
+		
+		return getReposByMember(username, listener, false);
+	}
+	
+	/**
+	 * {@inheritDoc} 
+	 */
+	@Override
+	public List<Repo> getReposByMember(final String username, final RepoListener listener, final boolean forceRefresh) {
+		
+		List<Repo> freshRepos = forceRefresh? null :getFreshRepos(keyReposByMember(username), listener);
+		
+		if(freshRepos != null) {
 			
-			List<Repo> repos = travisCIEndpoint.getReposByMember(username);
-			List<Build> builds;
+			return freshRepos;
+		}
+		
+		try {
 			
-			for (Repo repo : repos) {
+			return SingleFlight.getInstance().execute(keyReposByMember(username), new Callable<List<Repo>>() {
 				
-				if(repo.getLast_build_status() == null) {
+				@Override
+				public List<Repo> call() throws Exception {
 					
-					builds = travisCIEndpoint.getRecentBuilds(String.valueOf(repo.getId()));
+					List<Repo> repos = travisCIStreamClient.getReposByMember(username, new RepoChunker(null, listener));
 					
-					if(builds != null && builds.size() > 0) {
+					if(listener != null) {
 						
-						repo.setBuilds(builds);
+						listener.onReposParsed(repos, true);
 					}
+					
+					fetchRecentBuilds(repos, listener, forceRefresh);
+					Cancellation.check(); //lookups which were skipped must not be cached
+					
+					ModelCache.getInstance().put(keyReposByMember(username), repos);
+					
+					return repos;
 				}
-			}
-			
-			return repos;
+			});
 		} 
 		catch (Exception e) {
 			
@@ -170,29 +278,46 @@ public class BasicRepoService implements RepoService {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public List<Repo> getReposByOwner(String username) {
+	public List<Repo> getReposByOwner(String username, RepoListener listener) {
 		
-		try {
+		return getReposByOwner(username, listener, false);
+	}
+	
+	/**
+	 * {@inheritDoc} 
+	 */
+	@Override
+	public List<Repo> getReposByOwner(final String username, final RepoListener listener, final boolean forceRefresh) {
+		
+		List<Repo> freshRepos = forceRefresh? null :getFreshRepos(keyReposByOwner(username), listener);
+		
+		if(freshRepos != null) {
 			
-			List<Repo> repos = travisCIEndpoint.getReposByOwner(username);
-			List<Build> builds;
+			return freshRepos;
+		}
+		
+		try {
 			
-			for (Repo repo : repos) {
-				
-				repo.setSlug(repo.getSlug().replaceFirst(username + "/", ""));
+			return SingleFlight.getInstance().execute(keyReposByOwner(username), new Callable<List<Repo>>() {
 				
-				if(repo.getLast_build_status() == null) {
+				@Override
+				public List<Repo> call() throws Exception {
 					
-					builds = travisCIEndpoint.getRecentBuilds(String.valueOf(repo.getId()));
+					List<Repo> repos = travisCIStreamClient.getReposByOwner(username, new RepoChunker(username, listener));
 					
-					if(builds != null && builds.size() > 0) {
+					if(listener != null) {
 						
-						repo.setBuilds(builds);
+						listener.onReposParsed(repos, true);
 					}
+					
+					fetchRecentBuilds(repos, listener, forceRefresh);
+					Cancellation.check(); //lookups which were skipped must not be cached
+					
+					ModelCache.getInstance().put(keyReposByOwner(username), repos);
+					
+					return repos;
 				}
-			}
-			
-			return repos;
+			});
 		} 
 		catch (Exception e) {
 			
@@ -200,6 +325,141 @@ public class BasicRepoService implements RepoService {
 		}
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Repo> getCachedReposByMember(String username) {
+		
+		return ModelCache.getInstance().get(keyReposByMember(username));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Repo> getCachedReposByOwner(String username) {
+		
+		return ModelCache.getInstance().get(keyReposByOwner(username));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getCachedReposTimeByMember(String username) {
+		
+		return ModelCache.getInstance().getTimestamp(keyReposByMember(username));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getCachedReposTimeByOwner(String username) {
+		
+		return ModelCache.getInstance().getTimestamp(keyReposByOwner(username));
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Repo}s which were cached under the given key if they are within 
+	 * {@link #TTL_REPOS}, and hands them to the given listener as a complete list.
+	 * 
+	 * @return the cached {@link Repo}s, else {@code null} if they must be fetched
+	 */
+	private static List<Repo> getFreshRepos(String key, RepoListener listener) {
+		
+		ModelCache modelCache = ModelCache.getInstance();
+		
+		if(!modelCache.isFresh(key, TTL_REPOS)) {
+			
+			return null;
+		}
+		
+		List<Repo> repos = modelCache.get(key);
+		
+		if(repos != null && listener != null) {
+			
+			listener.onReposParsed(repos, true);
+		}
+		
+		return repos;
+	}
+	
+	/**
+	 * <p>Creates the {@link ModelCache} key for the {@link Repo}s which the given user is a member of.
+	 */
+	private static String keyReposByMember(String username) {
+		
+		return "repos/member/" + username.toLowerCase(Locale.ENGLISH);
+	}
+	
+	/**
+	 * <p>Creates the {@link ModelCache} key for the {@link Repo}s which the given user is an owner of.
+	 */
+	private static String keyReposByOwner(String username) {
+		
+		return "repos/owner/" + username.toLowerCase(Locale.ENGLISH);
+	}
+	
+	/**
+	 * <p>Fetches the recent {@link Build}s of all {@link Repo}s which do not carry the status of their 
+	 * last build. These lookups are independent and are fanned out in parallel using {@link #FETCHER}; 
+	 * a {@link Repo} whose lookup fails or times out is left without any {@link Build}s. Lookups go 
+	 * through the {@link BuildService}, which caches the {@link Build}s and coalesces any lookup 
+	 * that is already in flight for the same {@link Repo}. Each {@link Repo} is published to the 
+	 * given {@link RepoListener} as soon as its own lookup completes.
+	 *
+	 * @param repos
+	 * 			the {@link Repo}s whose recent {@link Build}s are to be fetched if necessary
+	 * 
+	 * @param listener
+	 * 			the {@link RepoListener} which is notified of each resolved {@link Repo}, which 
+	 * 			may be {@code null}
+	 * 
+	 * @param forceRefresh
+	 * 			{@code true} if cached {@link Build}s which are within their time-to-live must 
+	 * 			not be used
+	 */
+	private void fetchRecentBuilds(List<Repo> repos, final RepoListener listener, final boolean forceRefresh) {
+		
+		List<Repo> pendingRepos = new ArrayList<Repo>();
+		
+		for (Repo repo : repos) {
+			
+			if(repo.getLast_build_status() == null) {
+				
+				pendingRepos.add(repo);
+			}
+		}
+		
+		FETCHER.fetchAll(pendingRepos, 
+			new ParallelFetcher.Fetch<Repo, List<Build>>() {
+			
+				@Override
+				public List<Build> fetch(Repo repo) throws Exception {
+					
+					return buildService.getRecentBuilds(repo.getId(), forceRefresh);
+				}
+			}, 
+			new ParallelFetcher.Callback<Repo, List<Build>>() {
+				
+				@Override
+				public void onFetched(Repo repo, List<Build> builds) {
+					
+					if(builds.size() > 0) {
+						
+						repo.setBuilds(builds);
+						
+						if(listener != null) {
+							
+							listener.onRepoResolved(repo);
+						}
+					}
+				}
+			});
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -22,9 +22,11 @@ package com.lonepulse.travisjr.service;
 
 
 import java.util.List;
-import java.util.Map;
 
 import com.lonepulse.icklebot.annotation.inject.Pojo;
+import com.lonepulse.travisjr.log.JobLog;
+import com.lonepulse.travisjr.log.LogArchive;
+import com.lonepulse.travisjr.log.LogFile;
 import com.lonepulse.travisjr.model.Build;
 import com.lonepulse.travisjr.model.BuildInfo;
 import com.lonepulse.travisjr.model.BuildJob;
@@ -33,7 +35,7 @@ import com.lonepulse.travisjr.model.Repo;
 /**
  * <p>This contract specifies the service offered on the {@link Build}s for a {@link Repo}.
  * 
- * @version 1.1.2
+ * @version 1.2.0
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -55,6 +57,53 @@ public interface BuildService {
 	 */
 	List<Build> getRecentBuilds(long repoId);
 	
+	/**
+	 * <p>Retrieves the set of recent {@link Build}s for a given {@link Repo}, optionally bypassing 
+	 * the time-to-live within which cached {@link Build}s are served without touching the network. 
+	 * A refresh should be forced when the user explicitly asks for a sync.
+	 * 
+	 * @param repoId
+	 * 			the ID of the {@link Repo} whose {@link Build}s are to fetched
+	 * 
+	 * @param forceRefresh
+	 * 			{@code true} if the {@link Build}s must be fetched over the network
+	 * 
+	 * @return all recent {@link Build}s for the given {@link Repo}
+	 * 
+	 * @throws BuildsUnavailableException
+	 * 			if no {@link Build}s are found for the given {@link Repo}
+	 * 
+	 * @since 1.1.8
+	 */
+	List<Build> getRecentBuilds(long repoId, boolean forceRefresh);
+	
+	/**
+	 * <p>Retrieves the recent {@link Build}s for a given {@link Repo} as they were when last 
+	 * fetched via {@link #getRecentBuilds(long)}. These are read from the device without 
+	 * touching the network and may be <i>stale</i>.
+	 * 
+	 * @param repoId
+	 * 			the ID of the {@link Repo} whose cached {@link Build}s are to fetched
+	 * 
+	 * @return the cached {@link Build}s, else {@code null} if none were cached
+	 * 
+	 * @since 1.1.3
+	 */
+	List<Build> getCachedBuilds(long repoId);
+	
+	/**
+	 * <p>Retrieves the time at which the {@link Build}s returned by {@link #getCachedBuilds(long)} 
+	 * were cached, i.e. how fresh they are.
+	 * 
+	 * @param repoId
+	 * 			the ID of the {@link Repo} whose cached {@link Build}s are to be dated
+	 * 
+	 * @return the time in milliseconds since the epoch, else {@code 0} if none were cached
+	 * 
+	 * @since 1.1.6
+	 */
+	long getCachedBuildsTime(long repoId);
+	
 	/**
 	 * <p>Takes the repository name and owner name together with the id of the information 
 	 * file and retrieves an instance of {@link BuildInfo}.
@@ -76,14 +125,104 @@ public interface BuildService {
 	BuildInfo getBuildInfo(String owner, String repository, long buildId);
 	
 	/**
-	 * <p>Takes the {@link BuildInfo} and retrieves the log for each of the {@link BuildJob}s.
+	 * <p>Retrieves the {@link BuildInfo} of the given build, optionally bypassing the cache from 
+	 * which it is otherwise served without touching the network. A refresh should be forced 
+	 * when the user explicitly asks for a sync.
 	 *
+	 * @param owner
+	 * 			the GitHub username of the repository owner
+	 * 
+	 * @param repository
+	 * 			the name of the repository
+	 * 
 	 * @param buildId
-	 * 			the {@link BuildInfo} containing the {@link BuildJob}s whose logs are to be fetched
+	 * 			the id of the build whose information is to be retrieved
 	 * 
-	 * @return a {@link Map} which maps {@link BuildJob}s to their logs  
+	 * @param forceRefresh
+	 * 			{@code true} if the {@link BuildInfo} must be fetched over the network
+	 * 
+	 * @return the instance of {@link BuildInfo} which contains detailed 
+	 * 		   information about the build
+	 * 
+	 * @since 1.1.8
+	 */
+	BuildInfo getBuildInfo(String owner, String repository, long buildId, boolean forceRefresh);
+	
+	/**
+	 * <p>Retrieves the {@link BuildInfo} of the given build as it was when last fetched via 
+	 * {@link #getBuildInfo(String, String, long)}. This is read from the device without touching 
+	 * the network and may be <i>stale</i>.
+	 * 
+	 * @param buildId
+	 * 			the id of the build whose cached information is to be retrieved
+	 * 
+	 * @return the cached {@link BuildInfo}, else {@code null} if none was cached
+	 * 
+	 * @since 1.1.6
+	 */
+	BuildInfo getCachedBuildInfo(long buildId);
+	
+	/**
+	 * <p>Retrieves the time at which the {@link BuildInfo} returned by {@link #getCachedBuildInfo(long)} 
+	 * was cached, i.e. how fresh it is.
+	 * 
+	 * @param buildId
+	 * 			the id of the build whose cached information is to be dated
+	 * 
+	 * @return the time in milliseconds since the epoch, else {@code 0} if none was cached
+	 * 
+	 * @since 1.1.6
+	 */
+	long getCachedBuildInfoTime(long buildId);
+	
+	/**
+	 * <p>Takes the {@link BuildInfo} and creates a {@link JobLog} handle for each of its 
+	 * {@link BuildJob}s. No logs are fetched; use {@link #fetchJobLog(JobLog)} to fetch the 
+	 * log of a handle when it is needed.
+	 *
+	 * @param buildInfo
+	 * 			the {@link BuildInfo} containing the {@link BuildJob}s whose logs are to be referenced
+	 * 
+	 * @return the {@link JobLog}s of the {@link BuildJob}s in the order of the build matrix  
 	 * 
 	 * @since 1.1.2
 	 */
-	Map<BuildJob, StringBuilder> getJobLogs(BuildInfo buildInfo);
+	List<JobLog> getJobLogs(BuildInfo buildInfo);
+	
+	/**
+	 * <p>Fetches the log of the given {@link JobLog} handle unless it was already fetched. 
+	 * The log is streamed to a {@link LogFile} on the device rather than being held in memory. 
+	 * Concurrent invocations for the same handle fetch the log only once. The logs of finished 
+	 * jobs are kept compressed in the {@link LogArchive} and restored from there thereafter.
+	 *
+	 * @param jobLog
+	 * 			the {@link JobLog} whose log is to be fetched
+	 * 
+	 * @return the {@link LogFile} which holds the fetched log  
+	 * 
+	 * @throws JobLogUnavailableException
+	 * 			if the log could not be fetched
+	 * 
+	 * @since 1.1.4
+	 */
+	LogFile fetchJobLog(JobLog jobLog);
+	
+	/**
+	 * <p>Tails the log of the given {@link JobLog} handle by fetching only the bytes which were 
+	 * added to the log since it was last fetched, and appending them to its {@link LogFile}. 
+	 * This is used to follow the logs of ongoing builds. If the log was never fetched it is 
+	 * fetched in full. Once the {@link JobLog} reports its job as finished, the tailed log is 
+	 * complete and is kept in the {@link LogArchive}.</p>
+	 *
+	 * @param jobLog
+	 * 			the {@link JobLog} whose log is to be tailed
+	 * 
+	 * @return the number of bytes which were added to the log  
+	 * 
+	 * @throws JobLogUnavailableException
+	 * 			if the log could not be tailed
+	 * 
+	 * @since 1.1.5
+	 */
+	long tailJobLog(JobLog jobLog);
 }
@@ -27,14 +27,19 @@ import android.net.Uri;
 import com.lonepulse.icklebot.annotation.inject.Pojo;
 import com.lonepulse.travisjr.model.GitHubRepository;
 import com.lonepulse.travisjr.model.GitHubUser;
+import com.lonepulse.travisjr.net.GitHubRateLimiter;
+import com.lonepulse.travisjr.net.GitHubRateLimiter.Priority;
 
 /**
  * <p>This contract offers services for working with {@link Uri} data filtered through an 
  * {@link IntentFilter}. Only {@link Uri}s whose host is <b>travis-ci.org</b> will be processed.
  * 
+ * <p>Resolutions contact the GitHub API within the budget of the {@link GitHubRateLimiter}. When the 
+ * budget is low, the last resolution of the same user or repository is served instead.
+ * 
  * @since 1.1.0
  * <br><br>
- * @version 1.1.0
+ * @version 1.1.1
  * <br><br>
  * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -56,6 +61,25 @@ public interface IntentFilterService {
 	 */
 	GitHubUser resolveUser(Uri uri) throws UserAuthenticationFailedException;
 	
+	/**
+	 * <p>See {@link #resolveUser(Uri)}. The GitHub API is contacted with the given {@link Priority}; 
+	 * {@link #resolveUser(Uri)} is an {@link Priority#INTERACTIVE} resolution.
+	 *
+	 * @param uri
+	 * 			the {@link Uri} to be checked if it points to a user
+	 * 
+	 * @param priority
+	 * 			the {@link Priority} of the call to the GitHub API
+	 * 
+	 * @return the resolved {@link GitHubUser} 
+	 * 
+	 * @throws UserAuthenticationFailedException
+	 * 			if a valid GitHub user failed to be resolved using the given {@link Uri}
+	 * 
+	 * @since 1.1.1
+	 */
+	GitHubUser resolveUser(Uri uri, Priority priority) throws UserAuthenticationFailedException;
+	
 	/**
 	 * <p>Determines if the given {@link Uri} points to a <b>repository</b> on <b>travis-ci.org</b>. 
 	 *
@@ -70,4 +94,23 @@ public interface IntentFilterService {
 	 * @since 1.1.0
 	 */
 	GitHubRepository resolveRepository(Uri uri) throws RepositoryAuthenticationFailedException;
+	
+	/**
+	 * <p>See {@link #resolveRepository(Uri)}. The GitHub API is contacted with the given {@link Priority}; 
+	 * {@link #resolveRepository(Uri)} is an {@link Priority#INTERACTIVE} resolution.
+	 *
+	 * @param uri
+	 * 			the {@link Uri} to be checked if it points to a repository
+	 * 
+	 * @param priority
+	 * 			the {@link Priority} of the call to the GitHub API
+	 * 
+	 * @return the resolved {@link GitHubRepository}
+	 * 
+	 * @throws RepositoryAuthenticationFailedException
+	 * 			if a valid GitHub user failed to be resolved using the given {@link Uri}
+	 * 
+	 * @since 1.1.1
+	 */
+	GitHubRepository resolveRepository(Uri uri, Priority priority) throws RepositoryAuthenticationFailedException;
 }
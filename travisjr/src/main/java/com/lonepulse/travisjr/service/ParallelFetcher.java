@@ -0,0 +1,391 @@
+package com.lonepulse.travisjr.service;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import android.util.Log;
+
+import com.lonepulse.travisjr.net.Cancellation;
+
+/**
+ * <p>Fans out a set of independent, blocking fetches over a bounded pool of worker threads and
+ * waits until either all of them complete or the deadline elapses.</p>
+ * 
+ * <p>Fetches are <b>failure tolerant</b>; a fetch which throws an exception or fails to finish
+ * before the deadline is logged and omitted from the results, leaving the others intact.</p>
+ * 
+ * <p>Besides the deadline of the fan-out, each fetch has a deadline of its own which starts when 
+ * a worker picks it up. A fetch runs under its own {@link Cancellation}, which is cancelled once 
+ * its deadline elapses, so that a single stalled request is aborted and frees its worker rather 
+ * than holding it until the fan-out gives up.</p>
+ * 
+ * <p>Callers which wish to act on each value as soon as it arrives, rather than waiting for the 
+ * slowest fetch, may supply a {@link Callback}.</p>
+ * 
+ * <p>Fetches run under the {@link Cancellation} of the calling thread. Once it is cancelled, 
+ * fetches which are in flight are aborted and those which have yet to start are skipped.</p>
+ * 
+ * @version 1.1.3
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class ParallelFetcher {
+	
+
+	/**
+	 * <p>A single blocking fetch which is executed for each key given to
+	 * {@link ParallelFetcher#fetchAll(Collection, Fetch)}.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.0
+	 */
+	public static interface Fetch<K, V> {
+		
+		/**
+		 * <p>Retrieves the value for the given key.</p>
+		 * 
+		 * @param key
+		 * 			the key whose value is to be fetched
+		 * 
+		 * @return the fetched value, which may be {@code null}
+		 * 
+		 * @throws Exception
+		 * 			if the value could not be fetched
+		 * 
+		 * @since 1.1.0
+		 */
+		V fetch(K key) throws Exception;
+	}
+
+	/**
+	 * <p>Receives the value of each {@link Fetch} as soon as it completes.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.1
+	 */
+	public static interface Callback<K, V> {
+		
+		/**
+		 * <p>Invoked on the worker thread of a fetch which produced a value. Since fetches run 
+		 * concurrently, implementations must be thread-safe.</p>
+		 * 
+		 * @param key
+		 * 			the key whose value was fetched
+		 * 
+		 * @param value
+		 * 			the fetched value, which is never {@code null}
+		 * 
+		 * @since 1.1.1
+		 */
+		void onFetched(K key, V value);
+	}
+
+
+	/**
+	 * <p>The timer which cancels fetches that outlive their deadline; it is shared by all instances.</p>
+	 */
+	private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(
+		new ThreadFactory() {
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				
+				Thread thread = new Thread(runnable, "ParallelFetcher Watchdog");
+				thread.setDaemon(true);
+				
+				return thread;
+			}
+		});
+
+
+	/**
+	 * <p>The bounded pool of worker threads which execute the fetches.</p>
+	 */
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * <p>The maximum time to wait for a fan-out to complete.</p>
+	 */
+	private final long timeout;
+
+	/**
+	 * <p>The maximum time for which a single fetch may run.</p>
+	 */
+	private final long taskTimeout;
+
+	/**
+	 * <p>The {@link TimeUnit} of the {@link #timeout} and the {@link #taskTimeout}.</p>
+	 */
+	private final TimeUnit unit;
+
+
+	/**
+	 * <p>Creates a new {@link ParallelFetcher} which runs at most the given number of fetches
+	 * concurrently and abandons any fetches which are still running after the given timeout.</p>
+	 * 
+	 * @param poolSize
+	 * 			the maximum number of concurrent fetches
+	 * 
+	 * @param timeout
+	 * 			the maximum time to wait for a single fan-out to complete
+	 * 
+	 * @param unit
+	 * 			the {@link TimeUnit} of the timeout
+	 * 
+	 * @since 1.1.0
+	 */
+	public ParallelFetcher(int poolSize, long timeout, TimeUnit unit) {
+		
+		this(poolSize, timeout, timeout, unit);
+	}
+
+	/**
+	 * <p>Creates a new {@link ParallelFetcher} which runs at most the given number of fetches
+	 * concurrently, aborts any fetch which runs for longer than the given task timeout and 
+	 * abandons any fetches which are still running after the given timeout.</p>
+	 * 
+	 * @param poolSize
+	 * 			the maximum number of concurrent fetches
+	 * 
+	 * @param taskTimeout
+	 * 			the maximum time for which a single fetch may run
+	 * 
+	 * @param timeout
+	 * 			the maximum time to wait for a single fan-out to complete
+	 * 
+	 * @param unit
+	 * 			the {@link TimeUnit} of both timeouts
+	 * 
+	 * @since 1.1.3
+	 */
+	public ParallelFetcher(int poolSize, long taskTimeout, long timeout, TimeUnit unit) {
+		
+		this.taskTimeout = taskTimeout;
+		this.timeout = timeout;
+		this.unit = unit;
+		
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			
+			private final AtomicInteger count = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				
+				Thread thread = new Thread(runnable, "ParallelFetcher #" + count.incrementAndGet());
+				thread.setDaemon(true);
+				
+				return thread;
+			}
+		});
+		
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * <p>Executes the given {@link Fetch} for each of the keys in parallel and blocks until all
+	 * fetches complete or the timeout elapses, whichever happens first.</p>
+	 * 
+	 * @param keys
+	 * 			the keys whose values are to be fetched
+	 * 
+	 * @param fetch
+	 * 			the {@link Fetch} which is executed for each key
+	 * 
+	 * @return a {@link Map} of each key to its fetched value in iteration order of the keys; keys
+	 * 		   whose fetch failed, timed-out or returned {@code null} are omitted
+	 * 
+	 * @since 1.1.0
+	 */
+	public <K, V> Map<K, V> fetchAll(Collection<K> keys, Fetch<K, V> fetch) {
+		
+		return fetchAll(keys, fetch, null);
+	}
+
+	/**
+	 * <p>Executes the given {@link Fetch} for each of the keys in parallel and blocks until all
+	 * fetches complete or the timeout elapses, whichever happens first. The given {@link Callback} 
+	 * is notified of each value as soon as its fetch completes.</p>
+	 * 
+	 * @param keys
+	 * 			the keys whose values are to be fetched
+	 * 
+	 * @param fetch
+	 * 			the {@link Fetch} which is executed for each key
+	 * 
+	 * @param callback
+	 * 			the {@link Callback} which receives each value as it arrives, which may be {@code null}
+	 * 
+	 * @return a {@link Map} of each key to its fetched value in iteration order of the keys; keys
+	 * 		   whose fetch failed, timed-out or returned {@code null} are omitted
+	 * 
+	 * @since 1.1.1
+	 */
+	public <K, V> Map<K, V> fetchAll(Collection<K> keys, final Fetch<K, V> fetch, final Callback<K, V> callback) {
+		
+		Map<K, V> results = new LinkedHashMap<K, V>();
+		
+		if(keys == null || keys.isEmpty()) {
+			
+			return results;
+		}
+		
+		final Cancellation cancellation = Cancellation.current();
+		List<Callable<V>> tasks = new ArrayList<Callable<V>>(keys.size());
+		
+		for (final K key : keys) {
+			
+			tasks.add(new Callable<V>() {
+				
+				@Override
+				public V call() throws Exception {
+					
+					if(cancellation != null && cancellation.isCancelled()) {
+						
+						return null;
+					}
+					
+					final Cancellation task = (cancellation == null)? new Cancellation() :cancellation.newChild();
+					
+					ScheduledFuture<?> deadline = WATCHDOG.schedule(new Runnable() {
+						
+						@Override
+						public void run() {
+							
+							task.cancel();
+						}
+					}, taskTimeout, unit);
+					
+					Cancellation previous = task.bind();
+					
+					try {
+						
+						return fetchValue(key);
+					}
+					catch(Exception e) {
+						
+						if(task.isCancelled() && (cancellation == null || !cancellation.isCancelled())) {
+							
+							TimeoutException te = new TimeoutException("Fetch for " + key + " exceeded its deadline.");
+							te.initCause(e);
+							
+							throw te;
+						}
+						
+						throw e;
+					}
+					finally {
+						
+						deadline.cancel(false);
+						Cancellation.restore(previous);
+						
+						if(cancellation != null) {
+							
+							cancellation.release(task);
+						}
+					}
+				}
+				
+				private V fetchValue(K key) throws Exception {
+					
+					V value = fetch.fetch(key);
+					
+					if(value != null && callback != null) {
+						
+						callback.onFetched(key, value);
+					}
+					
+					return value;
+				}
+			});
+		}
+		
+		try {
+			
+			List<Future<V>> futures = executor.invokeAll(tasks, timeout, unit);
+			Iterator<K> keyIterator = keys.iterator();
+			
+			for (Future<V> future : futures) {
+				
+				K key = keyIterator.next();
+				
+				try {
+					
+					V value = future.get();
+					
+					if(value != null) {
+						
+						results.put(key, value);
+					}
+				}
+				catch(CancellationException ce) {
+					
+					Log.w(getClass().getSimpleName(), "Fetch for " + key + " timed out.");
+				}
+				catch(ExecutionException ee) {
+					
+					if(cancellation != null && cancellation.isCancelled()) {
+						
+						continue;
+					}
+					
+					if(ee.getCause() instanceof TimeoutException) {
+						
+						Log.w(getClass().getSimpleName(), "Fetch for " + key + " timed out.", ee.getCause());
+						continue;
+					}
+					
+					Log.e(getClass().getSimpleName(), "Fetch for " + key + " failed.", ee.getCause());
+				}
+			}
+		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+		}
+		
+		return results;
+	}
+}
@@ -36,13 +36,54 @@ import com.lonepulse.travisjr.model.Repo;
  * 
  * @since 1.1.0
  * <br><br>
- * @version 1.1.3
+ * @version 1.1.7
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
 @Pojo(BasicRepoService.class)
 public interface RepoService {
 
+	/**
+	 * <p>Receives the {@link Repo}s of a progressive fetch as they resolve, so that they can be 
+	 * presented before the slowest lookup completes. Both callbacks are invoked on background 
+	 * threads.
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.5
+	 * <br><br>
+	 * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static interface RepoListener {
+		
+		/**
+		 * <p>Invoked with the {@link Repo}s which have been parsed so far, in chunks as the list 
+		 * streams in and finally with the complete list. These {@link Repo}s may still lack the 
+		 * status of their last build.
+		 * 
+		 * @param repos
+		 * 			the {@link Repo}s parsed so far in a list which is not modified thereafter
+		 * 
+		 * @param complete
+		 * 			{@code true} if the list holds every {@link Repo} which was fetched
+		 * 
+		 * @since 1.1.5
+		 */
+		void onReposParsed(List<Repo> repos, boolean complete);
+		
+		/**
+		 * <p>Invoked each time the recent builds of a {@link Repo} in the complete list have 
+		 * been looked up. Lookups complete concurrently and in no particular order.
+		 * 
+		 * @param repo
+		 * 			the {@link Repo} whose builds were resolved
+		 * 
+		 * @since 1.1.5
+		 */
+		void onRepoResolved(Repo repo);
+	}
+	
+
 	/**
 	 * <p>Retrieves the set of {@link Repo}s under CI which the saved user is associated with.
 	 * 
@@ -126,6 +167,148 @@ public interface RepoService {
 	 */
 	List<Repo> getReposByOwner(String user);
 	
+	/**
+	 * <p>Retrieves the set of {@link Repo}s which the <i>given user</i> is a <b>member</b> of 
+	 * and publishes them to the given {@link RepoListener} as they resolve.
+	 * 
+	 * @param user
+	 * 			the user whose repositories are to be retrieved
+	 * 
+	 * @param listener
+	 * 			the {@link RepoListener} which receives the {@link Repo}s progressively
+	 * 
+	 * @return all associated {@link Repo}s
+	 * 
+	 * @throws RepoAccessException
+	 * 			if the {@link Repo}(s) cannot be read via the remote endpoint.
+	 * 
+	 * @since 1.1.5
+	 */
+	List<Repo> getReposByMember(String user, RepoListener listener);
+	
+	/**
+	 * <p>Retrieves the set of {@link Repo}s which the <i>given user</i> is a <b>member</b> of 
+	 * and publishes them to the given {@link RepoListener} as they resolve, optionally bypassing 
+	 * the time-to-live within which cached {@link Repo}s are served without touching the network. 
+	 * A refresh should be forced when the user explicitly asks for a sync.
+	 * 
+	 * @param user
+	 * 			the user whose repositories are to be retrieved
+	 * 
+	 * @param listener
+	 * 			the {@link RepoListener} which receives the {@link Repo}s progressively
+	 * 
+	 * @param forceRefresh
+	 * 			{@code true} if the {@link Repo}s and their recent builds must be fetched over 
+	 * 			the network
+	 * 
+	 * @return all associated {@link Repo}s
+	 * 
+	 * @throws RepoAccessException
+	 * 			if the {@link Repo}(s) cannot be read via the remote endpoint.
+	 * 
+	 * @since 1.1.7
+	 */
+	List<Repo> getReposByMember(String user, RepoListener listener, boolean forceRefresh);
+	
+	/**
+	 * <p>Retrieves the set of {@link Repo}s which the <i>given user</i> is an <b>owner</b> of 
+	 * and publishes them to the given {@link RepoListener} as they resolve.
+	 * 
+	 * @param user
+	 * 			the user whose repositories are to be retrieved
+	 * 
+	 * @param listener
+	 * 			the {@link RepoListener} which receives the {@link Repo}s progressively
+	 * 
+	 * @return all associated {@link Repo}s
+	 * 
+	 * @throws RepoAccessException
+	 * 			if the {@link Repo}(s) cannot be read via the remote endpoint.
+	 * 
+	 * @since 1.1.5
+	 */
+	List<Repo> getReposByOwner(String user, RepoListener listener);
+	
+	/**
+	 * <p>Retrieves the set of {@link Repo}s which the <i>given user</i> is an <b>owner</b> of 
+	 * and publishes them to the given {@link RepoListener} as they resolve, optionally bypassing 
+	 * the time-to-live within which cached {@link Repo}s are served without touching the network. 
+	 * A refresh should be forced when the user explicitly asks for a sync.
+	 * 
+	 * @param user
+	 * 			the user whose repositories are to be retrieved
+	 * 
+	 * @param listener
+	 * 			the {@link RepoListener} which receives the {@link Repo}s progressively
+	 * 
+	 * @param forceRefresh
+	 * 			{@code true} if the {@link Repo}s and their recent builds must be fetched over 
+	 * 			the network
+	 * 
+	 * @return all associated {@link Repo}s
+	 * 
+	 * @throws RepoAccessException
+	 * 			if the {@link Repo}(s) cannot be read via the remote endpoint.
+	 * 
+	 * @since 1.1.7
+	 */
+	List<Repo> getReposByOwner(String user, RepoListener listener, boolean forceRefresh);
+	
+	/**
+	 * <p>Retrieves the {@link Repo}s which the <i>given user</i> was a <b>member</b> of when 
+	 * they were last fetched via {@link #getReposByMember(String)}. These are read from the 
+	 * device without touching the network and may be <i>stale</i>.
+	 * 
+	 * @param user
+	 * 			the user whose cached repositories are to be retrieved
+	 * 
+	 * @return the cached {@link Repo}s, else {@code null} if none were cached
+	 * 
+	 * @since 1.1.4
+	 */
+	List<Repo> getCachedReposByMember(String user);
+	
+	/**
+	 * <p>Retrieves the {@link Repo}s which the <i>given user</i> was an <b>owner</b> of when 
+	 * they were last fetched via {@link #getReposByOwner(String)}. These are read from the 
+	 * device without touching the network and may be <i>stale</i>.
+	 * 
+	 * @param user
+	 * 			the user whose cached repositories are to be retrieved
+	 * 
+	 * @return the cached {@link Repo}s, else {@code null} if none were cached
+	 * 
+	 * @since 1.1.4
+	 */
+	List<Repo> getCachedReposByOwner(String user);
+	
+	/**
+	 * <p>Retrieves the time at which the {@link Repo}s returned by {@link #getCachedReposByMember(String)} 
+	 * were cached, i.e. how fresh they are.
+	 * 
+	 * @param user
+	 * 			the user whose cached repositories are to be dated
+	 * 
+	 * @return the time in milliseconds since the epoch, else {@code 0} if none were cached
+	 * 
+	 * @since 1.1.6
+	 */
+	long getCachedReposTimeByMember(String user);
+	
+	/**
+	 * <p>Retrieves the time at which the {@link Repo}s returned by {@link #getCachedReposByOwner(String)} 
+	 * were cached, i.e. how fresh they are.
+	 * 
+	 * @param user
+	 * 			the user whose cached repositories are to be dated
+	 * 
+	 * @return the time in milliseconds since the epoch, else {@code 0} if none were cached
+	 * 
+	 * @since 1.1.6
+	 */
+	long getCachedReposTimeByOwner(String user);
+	
 	/**
 	 * <p>Filters the given list of {@link Repo}s into a sublist containing the 
 	 * repositories owned by the user.
@@ -0,0 +1,219 @@
+package com.lonepulse.travisjr.service;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.lonepulse.travisjr.net.Cancellation;
+
+/**
+ * <p>Coalesces concurrent calls which are identified by the same key into a single <i>flight</i>. 
+ * The first caller executes the call on its own thread while any caller which arrives before 
+ * it completes waits for the same outcome; every caller receives the same result, or the same 
+ * exception. Once a flight lands its key is released, so results are never cached.</p>
+ * 
+ * <p>Keys are shared across all services, hence each should be qualified by the kind of 
+ * resource it identifies, e.g. <i>builds/1234</i>.</p>
+ * 
+ * <p>A flight is flown under the {@link Cancellation} of its first caller. Should that caller 
+ * be cancelled, the callers which joined its flight do not inherit the abort; each of them 
+ * which is still live calls again.</p>
+ * 
+ * <p>A call which is a {@link Joinable} is told of each caller which joins its flight, so that 
+ * it can adapt to that caller, e.g. by raising its priority. A joiner which it turns away waits 
+ * for the flight to land and then flies a flight of its own.</p>
+ * 
+ * @version 1.1.2
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class SingleFlight {
+	
+
+	private static final SingleFlight INSTANCE = new SingleFlight();
+
+	/**
+	 * <p>The flights which are currently in the air, keyed by the identity of their calls.</p>
+	 */
+	private final ConcurrentMap<String, Flight<?>> flights = new ConcurrentHashMap<String, Flight<?>>();
+
+
+	/**
+	 * <p>A call which is notified of the calls which join its flight.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.2
+	 * <br><br>
+	 * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static interface Joinable<V> extends Callable<V> {
+		
+		/**
+		 * <p>Invoked on the thread of a caller whose call is about to join the flight of this 
+		 * call. This may be invoked while this call is executing.</p>
+		 * 
+		 * @param call
+		 * 			the call of the joining caller
+		 * 
+		 * @return {@code true} if the caller may share the outcome of this call, else {@code false} 
+		 * 		   if it should fly a flight of its own once this one lands
+		 * 
+		 * @since 1.1.2
+		 */
+		boolean join(Callable<V> call);
+	}
+
+
+	/**
+	 * <p>A call in the air along with the {@link Cancellation} of the caller which flies it.</p>
+	 */
+	private static final class Flight<V> extends FutureTask<V> {
+		
+		
+		private final Cancellation cancellation = Cancellation.current();
+		
+		private final Callable<V> call;
+		
+		
+		private Flight(Callable<V> call) {
+			
+			super(call);
+			this.call = call;
+		}
+		
+		private boolean isAbandoned() {
+			
+			return cancellation != null && cancellation.isCancelled();
+		}
+		
+		private boolean admit(Callable<V> joiner) {
+			
+			return !(call instanceof Joinable) || ((Joinable<V>)call).join(joiner);
+		}
+	}
+
+
+	/**
+	 * <p>Retrieves the {@link SingleFlight} which is shared by all services.</p>
+	 * 
+	 * @return the shared {@link SingleFlight}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static SingleFlight getInstance() {
+		
+		return INSTANCE;
+	}
+
+	/**
+	 * <p>Executes the given call unless an identical call is already in flight, in which case 
+	 * its outcome is awaited instead.</p>
+	 * 
+	 * <p><b>Note</b> that a call must not execute another call with the same key, and that 
+	 * callers which join a flight share the returned instance with its other callers.</p>
+	 * 
+	 * @param key
+	 * 			the key which identifies the call
+	 * 
+	 * @param call
+	 * 			the call which produces the result
+	 * 
+	 * @return the result of the flight
+	 * 
+	 * @throws Exception
+	 * 			the exception which was thrown by the call of the flight, or an 
+	 * 			{@link InterruptedException} if the caller was interrupted while waiting
+	 * 
+	 * @since 1.1.0
+	 */
+	@SuppressWarnings("unchecked") //a key always identifies calls of the same type
+	public <V> V execute(String key, Callable<V> call) throws Exception {
+		
+		while(true) {
+			
+			Flight<V> task = new Flight<V>(call);
+			Flight<V> flight = (Flight<V>)flights.putIfAbsent(key, task);
+			
+			if(flight == null) {
+				
+				flight = task;
+				
+				try {
+					
+					task.run();
+				}
+				finally {
+					
+					flights.remove(key, task);
+				}
+			}
+			else if(!flight.admit(call)) {
+				
+				try {
+					
+					flight.get();
+				}
+				catch(ExecutionException ee) {
+					
+					//the outcome was not for this caller
+				}
+				
+				flights.remove(key, flight); //landed, though its caller may have yet to release it
+				continue;
+			}
+			
+			try {
+				
+				return flight.get();
+			}
+			catch(ExecutionException ee) {
+				
+				if(flight != task && flight.isAbandoned()) {
+					
+					Cancellation.check();
+					continue; //the leader was cancelled, not this caller
+				}
+				
+				Throwable cause = ee.getCause();
+				
+				if(cause instanceof Exception) {
+					
+					throw (Exception)cause;
+				}
+				
+				if(cause instanceof Error) {
+					
+					throw (Error)cause;
+				}
+				
+				throw ee;
+			}
+		}
+	}
+}
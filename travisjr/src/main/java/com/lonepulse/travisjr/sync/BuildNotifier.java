@@ -0,0 +1,140 @@
+package com.lonepulse.travisjr.sync;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.List;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.preference.PreferenceManager;
+
+import com.lonepulse.travisjr.BuildsActivity;
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.model.Repo;
+import com.lonepulse.travisjr.sync.BuildStateTracker.Transition;
+import com.lonepulse.travisjr.util.BuildState;
+import com.lonepulse.travisjr.util.Res;
+
+/**
+ * <p>Raises a notification for each {@link Transition} which the {@link BuildStateTracker} 
+ * reports, i.e. when a build breaks, errors or is fixed. Each repository has a single 
+ * notification which is replaced by its next transition.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class BuildNotifier {
+	
+
+	/**
+	 * <p>Constructor visibility restricted. Instantiation is nonsensical.</p>
+	 */
+	private BuildNotifier() {}
+
+	/**
+	 * <p>Determines whether the user has enabled build notifications.</p>
+	 * 
+	 * @param context
+	 * 			the {@link Context} of the query
+	 * 
+	 * @return {@code true} if build notifications are enabled
+	 * 
+	 * @since 1.1.0
+	 */
+	public static boolean isEnabled(Context context) {
+		
+		return PreferenceManager.getDefaultSharedPreferences(context.getApplicationContext())
+			.getBoolean(Res.string(R.string.key_notifications), true);
+	}
+
+	/**
+	 * <p>Raises a notification for each of the given {@link Transition}s unless build 
+	 * notifications have been disabled.</p>
+	 * 
+	 * @param context
+	 * 			the {@link Context} of the notifications
+	 * 
+	 * @param transitions
+	 * 			the {@link Transition}s to be notified
+	 * 
+	 * @since 1.1.0
+	 */
+	@SuppressWarnings("deprecation") //Notification.Builder#build() requires API 16
+	public static void notify(Context context, List<Transition> transitions) {
+		
+		if(transitions.isEmpty() || !isEnabled(context)) {
+			
+			return;
+		}
+		
+		NotificationManager notificationManager 
+			= (NotificationManager)context.getSystemService(Context.NOTIFICATION_SERVICE);
+		
+		for (Transition transition : transitions) {
+			
+			Repo repo = transition.getRepo();
+			
+			Intent intent = new Intent(context, BuildsActivity.class);
+			intent.putExtra(Res.string(R.string.key_repo), repo);
+			intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+			
+			int id = (int)(repo.getId() ^ (repo.getId() >>> 32));
+			
+			Notification notification = new Notification.Builder(context)
+				.setSmallIcon(R.drawable.ic_launcher)
+				.setContentTitle(repo.getSlug())
+				.setContentText(context.getString(getMessage(transition), getBuildNumber(repo)))
+				.setContentIntent(PendingIntent.getActivity(context, id, intent, PendingIntent.FLAG_UPDATE_CURRENT))
+				.setAutoCancel(true)
+				.getNotification();
+			
+			notificationManager.notify(id, notification);
+		}
+	}
+
+	private static String getBuildNumber(Repo repo) {
+		
+		if(repo.getLast_build_number() == null && !repo.getBuilds().isEmpty()) {
+			
+			return String.valueOf(repo.getBuilds().get(0).getNumber());
+		}
+		
+		return String.valueOf(repo.getLast_build_number());
+	}
+
+	private static int getMessage(Transition transition) {
+		
+		BuildState to = transition.getTo();
+		
+		if(to == BuildState.PASSED) return R.string.lbl_ntf_build_fixed;
+		
+		else if(to == BuildState.ERRORED) return R.string.lbl_ntf_build_errored;
+		
+		else return R.string.lbl_ntf_build_failed;
+	}
+}
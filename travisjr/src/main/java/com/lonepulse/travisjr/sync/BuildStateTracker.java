@@ -0,0 +1,287 @@
+package com.lonepulse.travisjr.sync;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.reflect.TypeToken;
+import com.lonepulse.travisjr.cache.DiskStore;
+import com.lonepulse.travisjr.model.Build;
+import com.lonepulse.travisjr.model.Repo;
+import com.lonepulse.travisjr.util.BuildState;
+import com.lonepulse.travisjr.util.BuildUtils;
+
+/**
+ * <p>Tracks the last build of each repository and reports the {@link Transition}s in their 
+ * {@link BuildState}s as fresh snapshots are fed in. Only the id and state of the last build 
+ * are kept per repository, keyed by the repository id, so a repository whose last build is 
+ * unchanged costs a single lookup; the tracked states are persisted only when they change.</p>
+ * 
+ * <p>A transition is reported when a build settles into a state which differs from the state 
+ * its repository last settled in, e.g. <i>PASSED&rarr;FAILED</i> or <i>FAILED&rarr;PASSED</i>, 
+ * or when a build which was seen running fails or errors, even if the previous build failed 
+ * as well, e.g. <i>FAILED&rarr;FAILED</i>. A build which was first seen running and then passes 
+ * is not reported, and repositories which are seen for the first time only establish a 
+ * baseline.</p>
+ * 
+ * @version 1.1.1
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class BuildStateTracker {
+	
+
+	/**
+	 * <p>A change in the {@link BuildState} of a repository's last build.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.0
+	 * <br><br>
+	 * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static final class Transition {
+		
+		
+		private final Repo repo;
+		private final BuildState from;
+		private final BuildState to;
+		
+		
+		private Transition(Repo repo, BuildState from, BuildState to) {
+			
+			this.repo = repo;
+			this.from = from;
+			this.to = to;
+		}
+		
+		/**
+		 * <p>Retrieves the {@link Repo} whose last build changed state.</p>
+		 * 
+		 * @return the {@link Repo} of the transition
+		 * 
+		 * @since 1.1.0
+		 */
+		public Repo getRepo() {
+			
+			return repo;
+		}
+		
+		/**
+		 * <p>Retrieves the state which the repository was last known to be in.</p>
+		 * 
+		 * @return the previous {@link BuildState}
+		 * 
+		 * @since 1.1.0
+		 */
+		public BuildState getFrom() {
+			
+			return from;
+		}
+		
+		/**
+		 * <p>Retrieves the state which the last build of the repository settled in.</p>
+		 * 
+		 * @return the new {@link BuildState}
+		 * 
+		 * @since 1.1.0
+		 */
+		public BuildState getTo() {
+			
+			return to;
+		}
+	}
+
+	/**
+	 * <p>The persisted state of a single repository.</p>
+	 */
+	private static final class TrackedBuild {
+		
+		/**
+		 * <p>The id of the last build of the repository.</p>
+		 */
+		private String buildId;
+		
+		/**
+		 * <p>The current state of the last build.</p>
+		 */
+		private BuildState state;
+		
+		/**
+		 * <p>The state which the repository last settled in, else {@code null} if no build has 
+		 * been seen to terminate.</p>
+		 */
+		private BuildState settledState;
+	}
+
+
+	private static final String KEY_BUILD_STATES = "sync/build-states";
+
+	private static final Type TYPE_BUILD_STATES = new TypeToken<HashMap<Long, TrackedBuild>>() {}.getType();
+
+	private static final BuildStateTracker INSTANCE = new BuildStateTracker(true);
+
+
+	/**
+	 * <p>The tracked state of each repository keyed by its id, which is loaded on first use.</p>
+	 */
+	private Map<Long, TrackedBuild> trackedBuilds;
+
+	/**
+	 * <p>Whether the tracked states are loaded from and saved to the {@link DiskStore}.</p>
+	 */
+	private final boolean persistent;
+
+
+	/**
+	 * <p>Retrieves the {@link BuildStateTracker} which is shared across the application.</p>
+	 * 
+	 * @return the shared {@link BuildStateTracker}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static BuildStateTracker getInstance() {
+		
+		return INSTANCE;
+	}
+
+	/**
+	 * <p>Creates a new {@link BuildStateTracker} which starts out with no tracked states. Use 
+	 * {@link #getInstance()} to obtain the tracker whose states survive the process.</p>
+	 * 
+	 * @param persistent
+	 * 			whether the tracked states are loaded from and saved to the {@link DiskStore}
+	 */
+	BuildStateTracker(boolean persistent) {
+		
+		this.persistent = persistent;
+	}
+
+	/**
+	 * <p>Compares the last build of each of the given {@link Repo}s against its tracked state 
+	 * and records the new state.</p>
+	 * 
+	 * @param repos
+	 * 			the freshly fetched {@link Repo}s
+	 * 
+	 * @return the {@link Transition}s which were detected, which may be empty
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized List<Transition> track(List<Repo> repos) {
+		
+		if(trackedBuilds == null) {
+			
+			Map<Long, TrackedBuild> persisted = persistent? 
+				DiskStore.getInstance().<Map<Long, TrackedBuild>>get(KEY_BUILD_STATES, TYPE_BUILD_STATES) :null;
+			trackedBuilds = (persisted == null)? new HashMap<Long, TrackedBuild>() :persisted;
+		}
+		
+		List<Transition> transitions = new ArrayList<Transition>();
+		boolean dirty = false;
+		
+		for (Repo repo : repos) {
+			
+			String buildId = getLastBuildId(repo);
+			
+			if(buildId == null) {
+				
+				continue;
+			}
+			
+			BuildState state = BuildUtils.discoverState(repo);
+			TrackedBuild tracked = trackedBuilds.get(repo.getId());
+			
+			if(tracked != null && tracked.state == state && buildId.equals(tracked.buildId)) {
+				
+				continue;
+			}
+			
+			dirty = true;
+			
+			if(tracked == null) {
+				
+				tracked = new TrackedBuild();
+				tracked.settledState = (state == BuildState.ONGOING)? null :state;
+				
+				trackedBuilds.put(repo.getId(), tracked);
+			}
+			else if(state != BuildState.ONGOING) {
+				
+				BuildState from = (tracked.settledState != null)? tracked.settledState :tracked.state;
+				
+				boolean changed = (from != state && !(from == BuildState.ONGOING && state == BuildState.PASSED));
+				boolean broke = (tracked.state == BuildState.ONGOING && state != BuildState.PASSED);
+				
+				if(changed || broke) {
+					
+					transitions.add(new Transition(repo, from, state));
+				}
+				
+				tracked.settledState = state;
+			}
+			
+			tracked.buildId = buildId;
+			tracked.state = state;
+		}
+		
+		if(dirty && persistent) {
+			
+			DiskStore.getInstance().put(KEY_BUILD_STATES, trackedBuilds);
+		}
+		
+		return transitions;
+	}
+
+	/**
+	 * <p>Discards all tracked states, e.g. when the user signs out.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public synchronized void clear() {
+		
+		trackedBuilds = null;
+		
+		if(persistent) {
+			
+			DiskStore.getInstance().remove(KEY_BUILD_STATES);
+		}
+	}
+
+	private static String getLastBuildId(Repo repo) {
+		
+		if(repo.getLast_build_id() != null) {
+			
+			return repo.getLast_build_id();
+		}
+		
+		List<Build> builds = repo.getBuilds();
+		
+		return (builds == null || builds.isEmpty())? null :String.valueOf(builds.get(0).getId());
+	}
+}
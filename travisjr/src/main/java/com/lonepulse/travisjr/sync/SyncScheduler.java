@@ -0,0 +1,196 @@
+package com.lonepulse.travisjr.sync;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.preference.PreferenceManager;
+
+import com.lonepulse.travisjr.R;
+import com.lonepulse.travisjr.util.Res;
+
+/**
+ * <p>Schedules the runs of the {@link SyncService} with an <b>adaptive cadence</b>. While any 
+ * build is ongoing or a change was just seen the service runs at the shortest interval; each 
+ * run which finds everything idle, or which fails, doubles the interval up to the longest.</p>
+ * 
+ * <p>Runs are scheduled as one-shot, non-waking alarms on the elapsed realtime clock, so a 
+ * sleeping device is never woken for a sync; a run which falls due while asleep is performed 
+ * when the device next wakes.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class SyncScheduler {
+	
+
+	/**
+	 * <p>The action of the broadcast which is sent within the application when a background 
+	 * sync sees a change in the state of any repository.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final String ACTION_REPOS_CHANGED = "com.lonepulse.travisjr.action.REPOS_CHANGED";
+
+
+	/**
+	 * <p>Resumes background syncs once the device has booted, since alarms do not survive 
+	 * a restart.</p>
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @since 1.1.0
+	 * <br><br>
+	 * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static final class BootReceiver extends BroadcastReceiver {
+		
+		@Override
+		public void onReceive(Context context, Intent intent) {
+			
+			if(Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) {
+				
+				SyncScheduler.start(context);
+			}
+		}
+	}
+
+
+	/**
+	 * <p>Constructor visibility restricted. Instantiation is nonsensical.</p>
+	 */
+	private SyncScheduler() {}
+
+	/**
+	 * <p>Determines whether the user has enabled background syncs.</p>
+	 * 
+	 * @param context
+	 * 			the {@link Context} of the query
+	 * 
+	 * @return {@code true} if background syncs are enabled
+	 * 
+	 * @since 1.1.0
+	 */
+	public static boolean isEnabled(Context context) {
+		
+		return prefs(context).getBoolean(Res.string(R.string.key_background_sync), true);
+	}
+
+	/**
+	 * <p>Schedules the next background sync unless one is already pending or background 
+	 * syncs have been disabled. The sync runs at the interval which was last settled on.</p>
+	 * 
+	 * @param context
+	 * 			the {@link Context} of initiation
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void start(Context context) {
+		
+		if(!isEnabled(context)) {
+			
+			return;
+		}
+		
+		Intent intent = new Intent(context, SyncService.class);
+		
+		if(PendingIntent.getService(context, 0, intent, PendingIntent.FLAG_NO_CREATE) == null) {
+			
+			schedule(context, getInterval(context));
+		}
+	}
+
+	/**
+	 * <p>Cancels any pending background sync and resets the cadence.</p>
+	 * 
+	 * @param context
+	 * 			the {@link Context} of initiation
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void cancel(Context context) {
+		
+		PendingIntent operation = PendingIntent.getService(
+			context, 0, new Intent(context, SyncService.class), PendingIntent.FLAG_NO_CREATE);
+		
+		if(operation != null) {
+			
+			alarms(context).cancel(operation);
+			operation.cancel();
+		}
+		
+		prefs(context).edit().remove(Res.string(R.string.key_sync_interval)).commit();
+	}
+
+	/**
+	 * <p>Schedules the run which follows a completed sync. The shortest interval is used if the 
+	 * sync saw any activity, otherwise the previous interval is doubled up to the longest.</p>
+	 * 
+	 * @param context
+	 * 			the {@link Context} of the completed sync
+	 * 
+	 * @param active
+	 * 			{@code true} if a build is ongoing or a change was seen
+	 */
+	static void reschedule(Context context, boolean active) {
+		
+		long minInterval = Res.integer(R.integer.sync_interval_min) * 60000L;
+		long maxInterval = Res.integer(R.integer.sync_interval_max) * 60000L;
+		
+		long interval = active? minInterval :Math.min(getInterval(context) * 2, maxInterval);
+		
+		prefs(context).edit().putLong(Res.string(R.string.key_sync_interval), interval).commit();
+		schedule(context, interval);
+	}
+
+	private static void schedule(Context context, long interval) {
+		
+		PendingIntent operation = PendingIntent.getService(
+			context, 0, new Intent(context, SyncService.class), PendingIntent.FLAG_UPDATE_CURRENT);
+		
+		alarms(context).set(AlarmManager.ELAPSED_REALTIME, SystemClock.elapsedRealtime() + interval, operation);
+	}
+
+	private static long getInterval(Context context) {
+		
+		return prefs(context).getLong(Res.string(R.string.key_sync_interval), 
+			Res.integer(R.integer.sync_interval_min) * 60000L);
+	}
+
+	private static AlarmManager alarms(Context context) {
+		
+		return (AlarmManager)context.getSystemService(Context.ALARM_SERVICE);
+	}
+
+	private static SharedPreferences prefs(Context context) {
+		
+		return PreferenceManager.getDefaultSharedPreferences(context.getApplicationContext());
+	}
+}
@@ -0,0 +1,248 @@
+package com.lonepulse.travisjr.sync;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import android.app.IntentService;
+import android.content.Intent;
+import android.util.Log;
+
+import com.lonepulse.icklebot.network.NetworkService;
+import com.lonepulse.travisjr.model.Repo;
+import com.lonepulse.travisjr.net.CircuitBreaker;
+import com.lonepulse.travisjr.net.TravisCIStreamClient;
+import com.lonepulse.travisjr.service.AccountService;
+import com.lonepulse.travisjr.service.BasicAccountService;
+import com.lonepulse.travisjr.service.BasicBuildService;
+import com.lonepulse.travisjr.service.BasicRepoService;
+import com.lonepulse.travisjr.service.BuildService;
+import com.lonepulse.travisjr.service.RepoService;
+import com.lonepulse.travisjr.service.UserMode;
+import com.lonepulse.travisjr.sync.BuildStateTracker.Transition;
+import com.lonepulse.travisjr.util.BuildState;
+import com.lonepulse.travisjr.util.BuildUtils;
+
+/**
+ * <p>Refreshes the repositories of the signed-in user in the background and compares them 
+ * against the snapshot which was cached on the previous sync. Only if the last build of any 
+ * repository has changed, or changed its {@link BuildState}, is {@link SyncScheduler#ACTION_REPOS_CHANGED} 
+ * broadcast so that any screen on display can present the fresh snapshot. The fresh snapshot 
+ * is also fed to the {@link BuildStateTracker} and any transitions it reports are raised as 
+ * notifications by the {@link BuildNotifier}.</p>
+ * 
+ * <p>Since every sync caches the repositories, it keeps the offline mirror of the user's data 
+ * current. The recent builds of each repository which is notified, along with the information 
+ * of its last build, are mirrored as well so that a notification can be followed offline.</p>
+ * 
+ * <p>Each run schedules the next via {@link SyncScheduler}, which adapts the cadence to how 
+ * active the repositories are.</p>
+ * 
+ * @version 1.1.3
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class SyncService extends IntentService {
+	
+
+	private AccountService accountService;
+
+	private RepoService repoService;
+
+	private BuildService buildService;
+
+
+	/**
+	 * <p>Creates a new {@link SyncService} which runs its syncs on a single worker thread.</p>
+	 */
+	public SyncService() {
+		
+		super(SyncService.class.getSimpleName());
+	}
+
+	@Override
+	public void onCreate() {
+		
+		super.onCreate();
+		
+		accountService = new BasicAccountService();
+		repoService = new BasicRepoService();
+		buildService = new BasicBuildService();
+	}
+
+	@Override
+	protected void onHandleIntent(Intent intent) {
+		
+		if(!SyncScheduler.isEnabled(this) || !accountService.areCredentialsAvailable()) {
+			
+			SyncScheduler.cancel(this);
+			return;
+		}
+		
+		boolean active = false;
+		
+		try {
+			
+			if(!new NetworkService(this).isConnected() 
+				|| CircuitBreaker.getInstance().isOpen(TravisCIStreamClient.HOST)) {
+				
+				return; //the cadence backs off until Travis CI recovers
+			}
+			
+			String username = accountService.getGitHubUsername();
+			boolean organization = accountService.getUserMode().equals(UserMode.ORGANIZATION);
+			
+			List<Repo> snapshot = organization? 
+				repoService.getCachedReposByOwner(username) :repoService.getCachedReposByMember(username);
+			
+			List<Repo> repos = organization? 
+				repoService.getReposByOwner(username) :repoService.getReposByMember(username);
+			
+			boolean changed = hasChanged(snapshot, repos);
+			
+			List<Transition> transitions = BuildStateTracker.getInstance().track(repos);
+			
+			BuildNotifier.notify(this, transitions);
+			mirror(username, transitions);
+			
+			if(changed) {
+				
+				sendBroadcast(new Intent(SyncScheduler.ACTION_REPOS_CHANGED).setPackage(getPackageName()));
+			}
+			
+			active = changed || isOngoing(repos);
+		}
+		catch(Exception e) {
+			
+			Log.e(getClass().getSimpleName(), "Background sync failed.", e);
+		}
+		finally {
+			
+			SyncScheduler.reschedule(this, active);
+		}
+	}
+
+	/**
+	 * <p>Determines if the last build of any of the given {@link Repo}s differs from that of 
+	 * the snapshot, either by being a different build or by being in a different state.</p>
+	 * 
+	 * @param snapshot
+	 * 			the {@link Repo}s which were cached on the previous sync, else {@code null}
+	 * 
+	 * @param repos
+	 * 			the {@link Repo}s which were just fetched
+	 * 
+	 * @return {@code true} if any repository has changed
+	 */
+	private static boolean hasChanged(List<Repo> snapshot, List<Repo> repos) {
+		
+		if(snapshot == null || snapshot.size() != repos.size()) {
+			
+			return true;
+		}
+		
+		Map<Long, Repo> previousRepos = new HashMap<Long, Repo>(snapshot.size() * 2);
+		
+		for (Repo repo : snapshot) {
+			
+			previousRepos.put(repo.getId(), repo);
+		}
+		
+		for (Repo repo : repos) {
+			
+			Repo previous = previousRepos.get(repo.getId());
+			
+			if(previous == null) {
+				
+				return true;
+			}
+			
+			String lastBuildId = repo.getLast_build_id();
+			
+			if(lastBuildId == null? previous.getLast_build_id() != null :!lastBuildId.equals(previous.getLast_build_id())) {
+				
+				return true;
+			}
+			
+			if(BuildUtils.discoverState(repo) != BuildUtils.discoverState(previous)) {
+				
+				return true;
+			}
+		}
+		
+		return false;
+	}
+
+	/**
+	 * <p>Mirrors the recent builds, and the information of the last build, of each {@link Repo} 
+	 * whose build state has transitioned. A repository which cannot be mirrored is skipped.</p>
+	 * 
+	 * @param username
+	 * 			the user who owns any repository whose slug omits its owner
+	 * 
+	 * @param transitions
+	 * 			the {@link Transition}s which were just notified
+	 */
+	private void mirror(String username, List<Transition> transitions) {
+		
+		for (Transition transition : transitions) {
+			
+			Repo repo = transition.getRepo();
+			
+			try {
+				
+				buildService.getRecentBuilds(repo.getId());
+				
+				String lastBuildId = repo.getLast_build_id();
+				
+				if(lastBuildId != null) {
+					
+					String[] slugTokens = repo.getSlug().split("/");
+					String ownerName = (slugTokens.length > 1)? slugTokens[0] :username;
+					
+					buildService.getBuildInfo(ownerName, slugTokens[slugTokens.length - 1], Long.parseLong(lastBuildId));
+				}
+			}
+			catch(Exception e) {
+				
+				Log.w(getClass().getSimpleName(), "Failed to mirror the builds of " + repo.getSlug() + ".", e);
+			}
+		}
+	}
+
+	private static boolean isOngoing(List<Repo> repos) {
+		
+		for (Repo repo : repos) {
+			
+			if(BuildUtils.discoverState(repo) == BuildState.ONGOING) {
+				
+				return true;
+			}
+		}
+		
+		return false;
+	}
+}
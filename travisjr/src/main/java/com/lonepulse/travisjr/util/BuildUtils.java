@@ -21,26 +21,59 @@ package com.lonepulse.travisjr.util;
  */
 
 
+import java.util.List;
+
 import com.lonepulse.travisjr.R;
 import com.lonepulse.travisjr.model.Build;
 import com.lonepulse.travisjr.model.BuildInfo;
+import com.lonepulse.travisjr.model.Repo;
 
 /**
  * <p>Utilities for common operations on {@link Build}s.
  * 
- * @version 1.1.0
+ * @version 1.1.3
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
 public final class BuildUtils {
 
 	
+	/**
+	 * <p>The pooled instance of the <i>finished</i> state, which is resolved on first use.
+	 */
+	private static volatile String stateFinished;
+	
+	
 	/**
 	 * <p>Constructor visibility is restricted. Instantiation is nonsensical.
 	 * 
 	 * @since 1.1.0
 	 */
 	private BuildUtils() {}
+	
+	/**
+	 * <p>Determines if the given build state is the <i>finished</i> state. The states of the 
+	 * models which are handed out by the services are kept in the {@link StringPool}, so this 
+	 * is an identity comparison; states which were never pooled fall back to equality.
+	 *
+	 * @param state
+	 * 			the state of a {@link Build} or {@link BuildInfo}, which may be {@code null}
+	 * 
+	 * @return {@code true} if the state is <i>finished</i>
+	 * 
+	 * @since 1.1.2
+	 */
+	public static boolean isFinished(String state) {
+		
+		String finished = stateFinished;
+		
+		if(finished == null) {
+			
+			stateFinished = finished = StringPool.intern(Res.string(R.string.key_state_finished));
+		}
+		
+		return state == finished || (state != null && state.equals(finished));
+	}
 
 	
 	/**
@@ -55,8 +88,7 @@ public final class BuildUtils {
 	 */
 	public static boolean isTerminated(Build build) {
 		
-		String stateFinished = Res.string(R.string.key_state_finished);
-		return (build.getResult() != null)? true :build.getState().equals(stateFinished)? true :false;
+		return (build.getResult() != null)? true :BuildUtils.isFinished(build.getState());
 	}
 	
 	/**
@@ -98,6 +130,32 @@ public final class BuildUtils {
 		else return BuildState.FAILED;
 	}
 	
+	/**
+	 * <p>Determines the {@link BuildState} of the last build of the given {@link Repo}. If the 
+	 * repository does not carry the status of its last build, the most recent of its fetched 
+	 * {@link Build}s is consulted; if none were fetched the build is taken to be ongoing.
+	 *
+	 * @param repo
+	 * 			the {@link Repo} whose last build state is to be determined
+	 * 
+	 * @return the {@link BuildState} of the last build of the given {@link Repo}
+	 * 
+	 * @since 1.1.1
+	 */
+	public static BuildState discoverState(Repo repo) {
+		
+		Short buildStatus = repo.getLast_build_status();
+		
+		if(buildStatus != null) {
+			
+			return (buildStatus.shortValue() == 0)? BuildState.PASSED :BuildState.FAILED;
+		}
+		
+		List<Build> builds = repo.getBuilds();
+		
+		return (builds == null || builds.isEmpty())? BuildState.ONGOING :BuildUtils.discoverState(builds.get(0));
+	}
+	
 	/**
 	 * <p>Determines if a {@link BuildInfo} has terminated.
 	 *
@@ -110,8 +168,7 @@ public final class BuildUtils {
 	 */
 	public static boolean isTerminated(BuildInfo buildInfo) {
 		
-		String stateFinished = Res.string(R.string.key_state_finished);
-		return (buildInfo.getResult() != null)? true :buildInfo.getState().equals(stateFinished)? true :false;
+		return (buildInfo.getResult() != null)? true :BuildUtils.isFinished(buildInfo.getState());
 	}
 	
 	/**
@@ -26,12 +26,15 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
-import java.util.TimeZone;
 
 /**
  * <p>This utility class is used to perform common processing on timestamps.
  * 
- * @version 1.1.2
+ * <p>ISO8601 timestamps are parsed by {@link #parseISO8601(CharSequence)}, which reads the 
+ * fields directly off the characters without creating any formatters, calendars or other 
+ * objects. It is therefore thread-safe and cheap enough to be used in comparisons.
+ * 
+ * @version 1.1.4
  * <br><br>
  * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
  */
@@ -44,6 +47,15 @@ public final class DateUtils {
 	private DateUtils() {} 
 	
 	
+	/**
+	 * <p>Returned by {@link #parseISO8601(CharSequence)} for a timestamp which is absent 
+	 * or cannot be parsed. It precedes all other instants.
+	 * 
+	 * @since 1.1.3
+	 */
+	public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+	
+	
 	/**
 	 * <p>Takes an ISO8601 timestamp string and converts it to 
 	 * a readable date-time format. 
@@ -58,17 +70,32 @@ public final class DateUtils {
 	 */
 	public static String formatDateTimeForDisplay(String iso8601Timestamp) {
 		
-		try {
-			
-			SimpleDateFormat sdfFormatter 
-				= new SimpleDateFormat("dd MMM', 'yyyy' at 'h:mm:ss a", Locale.getDefault());	
-			
-			return sdfFormatter.format(DateUtils.parseFromISO8601(iso8601Timestamp));
-		}
-		catch(Exception e1) {
+		return formatDateTimeForDisplay(parseISO8601(iso8601Timestamp));
+	}
+	
+	/**
+	 * <p>Takes an instant in milliseconds since the epoch and converts it to 
+	 * a readable date-time format. 
+	 * 
+	 * @param epochMillis
+	 * 			the instant to be formatted
+	 * 
+	 * @return the formatted timestamp string or an empty string 
+	 * 		   if the instant is {@link #NO_TIMESTAMP}
+	 * 
+	 * @since 1.1.3
+	 */
+	public static String formatDateTimeForDisplay(long epochMillis) {
+		
+		if(epochMillis == NO_TIMESTAMP) {
 			
 			return "";
 		}
+		
+		SimpleDateFormat sdfFormatter 
+			= new SimpleDateFormat("dd MMM', 'yyyy' at 'h:mm:ss a", Locale.getDefault());	
+		
+		return sdfFormatter.format(new Date(epochMillis));
 	}
 	
 	/**
@@ -85,15 +112,30 @@ public final class DateUtils {
 	 */
 	public static String formatDateForDisplay(String iso8601Timestamp) {
 		
-		try {
-			
-			DateFormat dateFormat = SimpleDateFormat.getDateInstance(SimpleDateFormat.LONG);
-			return dateFormat.format(DateUtils.parseFromISO8601(iso8601Timestamp));
-		}
-		catch(Exception e) {
+		return formatDateForDisplay(parseISO8601(iso8601Timestamp));
+	}
+	
+	/**
+	 * <p>Takes an instant in milliseconds since the epoch and converts it to 
+	 * a readable date format. 
+	 * 
+	 * @param epochMillis
+	 * 			the instant to be formatted
+	 * 
+	 * @return the formatted date string or an empty string 
+	 * 		   if the instant is {@link #NO_TIMESTAMP}
+	 * 
+	 * @since 1.1.3
+	 */
+	public static String formatDateForDisplay(long epochMillis) {
+		
+		if(epochMillis == NO_TIMESTAMP) {
 			
 			return "";
 		}
+		
+		DateFormat dateFormat = SimpleDateFormat.getDateInstance(SimpleDateFormat.LONG);
+		return dateFormat.format(new Date(epochMillis));
 	}
 	
 	/**
@@ -110,15 +152,30 @@ public final class DateUtils {
 	 */
 	public static String formatTimeForDisplay(String iso8601Timestamp) {
 		
-		try {
-			
-			DateFormat dateFormat = SimpleDateFormat.getTimeInstance(SimpleDateFormat.MEDIUM);
-			return dateFormat.format(DateUtils.parseFromISO8601(iso8601Timestamp));
-		}
-		catch(Exception e) {
+		return formatTimeForDisplay(parseISO8601(iso8601Timestamp));
+	}
+	
+	/**
+	 * <p>Takes an instant in milliseconds since the epoch and converts it to 
+	 * a readable time format. 
+	 * 
+	 * @param epochMillis
+	 * 			the instant to be formatted
+	 * 
+	 * @return the formatted time string or an empty string 
+	 * 		   if the instant is {@link #NO_TIMESTAMP}
+	 * 
+	 * @since 1.1.3
+	 */
+	public static String formatTimeForDisplay(long epochMillis) {
+		
+		if(epochMillis == NO_TIMESTAMP) {
 			
 			return "";
 		}
+		
+		DateFormat dateFormat = SimpleDateFormat.getTimeInstance(SimpleDateFormat.MEDIUM);
+		return dateFormat.format(new Date(epochMillis));
 	}
 	
 	/**
@@ -135,14 +192,28 @@ public final class DateUtils {
 	 */
 	public static String formatMonthDayForDisplay(String iso8601Timestamp) {
 		
-		try {
-			
-			return DateUtils.formatDateForDisplay(iso8601Timestamp).split(", ")[0];
-		}
-		catch(Exception e) {
-			
-			return "";
-		}
+		return formatMonthDayForDisplay(parseISO8601(iso8601Timestamp));
+	}
+	
+	/**
+	 * <p>Takes an instant in milliseconds since the epoch and converts it to 
+	 * a readable format in the form 'MMM dd'. 
+	 * 
+	 * @param epochMillis
+	 * 			the instant to be formatted
+	 * 
+	 * @return the formatted time string, the entire formatted date if the date format of 
+	 * 		   the locale does not separate the year with a comma, or an empty string if 
+	 * 		   formatting failed
+	 * 
+	 * @since 1.1.3
+	 */
+	public static String formatMonthDayForDisplay(long epochMillis) {
+		
+		String date = formatDateForDisplay(epochMillis);
+		int separator = date.indexOf(", ");
+		
+		return (separator < 0)? date :date.substring(0, separator);
 	}
 	
 	/**
@@ -159,14 +230,34 @@ public final class DateUtils {
 	 */
 	public static String formatYearForDisplay(String iso8601Timestamp) {
 		
-		try {
-			
-			return DateUtils.formatDateForDisplay(iso8601Timestamp).split(", ")[1];
-		}
-		catch(Exception e) {
+		return formatYearForDisplay(parseISO8601(iso8601Timestamp));
+	}
+	
+	/**
+	 * <p>Takes an instant in milliseconds since the epoch and converts it to 
+	 * a readable format in the form 'yyyy'. 
+	 * 
+	 * @param epochMillis
+	 * 			the instant to be formatted
+	 * 
+	 * @return the formatted time string or an empty string 
+	 * 		   if formatting failed
+	 * 
+	 * @since 1.1.3
+	 */
+	public static String formatYearForDisplay(long epochMillis) {
+		
+		String date = formatDateForDisplay(epochMillis);
+		int separator = date.indexOf(", ");
+		
+		if(separator < 0) {
 			
 			return "";
 		}
+		
+		int end = date.indexOf(", ", separator + 2);
+		
+		return date.substring(separator + 2, (end < 0)? date.length() :end);
 	}
 		
 	/**
@@ -187,9 +278,182 @@ public final class DateUtils {
 	 */
 	public static Date parseFromISO8601(String iso8601Timestamp) throws ParseException {
 
-		SimpleDateFormat sdfParser = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.getDefault());
-		sdfParser.setTimeZone(TimeZone.getTimeZone("Zulu"));
+		if(iso8601Timestamp == null) {
+			
+			throw new NullPointerException("The ISO8601 timestamp to be parsed cannot be null. ");
+		}
+		
+		long epochMillis = parseISO8601(iso8601Timestamp);
+		
+		if(epochMillis == NO_TIMESTAMP) {
+			
+			throw new ParseException("Unparseable ISO8601 timestamp: \"" + iso8601Timestamp + "\"", 0);
+		}
+		
+		return new Date(epochMillis);
+	}
+	
+	/**
+	 * <p>Parses a given ISO8601 timestamp of the form <i>yyyy-MM-dd'T'HH:mm:ss</i> into 
+	 * milliseconds since the epoch. The seconds may be followed by a fraction and the 
+	 * timestamp may end with a <i>Z</i> or an offset such as <i>+05:30</i>; timestamps 
+	 * without a zone are taken to be in UTC.</p>
+	 * 
+	 * <p>No objects are allocated, which makes this safe to call from multiple threads 
+	 * and inexpensive to call repeatedly.</p>
+	 *
+	 * @param iso8601Timestamp
+	 * 			the ISO8601 timestamp to be parsed, which may be {@code null}
+	 * 
+	 * @return the milliseconds since the epoch, else {@link #NO_TIMESTAMP} if the given 
+	 * 		   timestamp is {@code null} or malformed
+	 * 
+	 * @since 1.1.3
+	 */
+	public static long parseISO8601(CharSequence iso8601Timestamp) {
+		
+		if(iso8601Timestamp == null || iso8601Timestamp.length() < 19) {
+			
+			return NO_TIMESTAMP;
+		}
+		
+		CharSequence ts = iso8601Timestamp;
+		
+		char dateTimeSeparator = ts.charAt(10);
+		
+		if(ts.charAt(4) != '-' || ts.charAt(7) != '-' || ts.charAt(13) != ':' || ts.charAt(16) != ':'
+			|| (dateTimeSeparator != 'T' && dateTimeSeparator != 't' && dateTimeSeparator != ' ')) {
+			
+			return NO_TIMESTAMP;
+		}
+		
+		int year = digits(ts, 0, 4);
+		int month = digits(ts, 5, 2);
+		int day = digits(ts, 8, 2);
+		int hour = digits(ts, 11, 2);
+		int minute = digits(ts, 14, 2);
+		int second = digits(ts, 17, 2);
+		
+		if(year < 0 || month < 1 || month > 12 || day < 1 || day > 31 
+			|| hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+			
+			return NO_TIMESTAMP;
+		}
+		
+		int length = ts.length();
+		int position = 19;
+		int millis = 0;
+		
+		if(position < length && ts.charAt(position) == '.') {
+			
+			int start = ++position;
+			
+			for (int scale = 100; position < length; position++, scale /= 10) {
+				
+				char c = ts.charAt(position);
+				
+				if(c < '0' || c > '9') break;
+				
+				millis += (c - '0') * scale; //digits beyond milliseconds scale to zero
+			}
+			
+			if(position == start) {
+				
+				return NO_TIMESTAMP;
+			}
+		}
+		
+		long offsetMillis = 0;
+		
+		if(position < length) {
+			
+			char zone = ts.charAt(position);
+			
+			if(zone == 'Z' || zone == 'z') {
+				
+				position++;
+			}
+			else if(zone == '+' || zone == '-') {
+				
+				if(position + 3 > length) {
+					
+					return NO_TIMESTAMP;
+				}
+				
+				int offsetHours = digits(ts, position + 1, 2);
+				int offsetMinutes = 0;
+				
+				position += 3;
+				
+				if(position < length) {
+					
+					if(ts.charAt(position) == ':') position++;
+					
+					if(position + 2 > length) {
+						
+						return NO_TIMESTAMP;
+					}
+					
+					offsetMinutes = digits(ts, position, 2);
+					position += 2;
+				}
+				
+				if(offsetHours < 0 || offsetMinutes < 0) {
+					
+					return NO_TIMESTAMP;
+				}
+				
+				offsetMillis = (offsetHours * 60 + offsetMinutes) * 60000L;
+				
+				if(zone == '-') offsetMillis = -offsetMillis;
+			}
+		}
+		
+		if(position != length) {
+			
+			return NO_TIMESTAMP;
+		}
+		
+		long days = daysSinceEpoch(year, month, day);
+		
+		return (((days * 24 + hour) * 60 + minute) * 60 + second) * 1000 + millis - offsetMillis;
+	}
+	
+	/**
+	 * <p>Reads the given number of decimal digits starting at the given index.
+	 * 
+	 * @return the value of the digits, else {@code -1} if any of the characters is not a digit
+	 */
+	private static int digits(CharSequence ts, int start, int count) {
+		
+		int value = 0;
+		
+		for (int i = start; i < start + count; i++) {
+			
+			char c = ts.charAt(i);
+			
+			if(c < '0' || c > '9') {
+				
+				return -1;
+			}
+			
+			value = value * 10 + (c - '0');
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * <p>Counts the days from 1970-01-01 to the given date of the proleptic Gregorian calendar.
+	 */
+	private static long daysSinceEpoch(int year, int month, int day) {
+		
+		long y = (month <= 2)? year - 1 :year; //count from March so that leap days fall last
+		long era = (y >= 0? y :y - 399) / 400;
+		long yearOfEra = y - era * 400;
+		long dayOfYear = (153 * (month + (month > 2? -3 :9)) + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
 		
-		return sdfParser.parse(iso8601Timestamp);
+		return era * 146097 + dayOfEra - 719468;
 	}
 }
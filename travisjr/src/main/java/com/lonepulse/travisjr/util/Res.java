@@ -46,7 +46,7 @@ public final class Res {
 	
 	/**
 	 * <p>Retrieves the {@link String} resource value for the given {@code int} ID. This is a 
-	 * convinence method for {@link Context#getResources()#string(int)}.</p>
+	 * convenience method for {@link Context#getResources()#string(int)}.</p>
 	 * 
 	 * @param id
 	 * 			the {@code int} ID of the String resource
@@ -57,4 +57,18 @@ public final class Res {
 		
 		return resources.getString(id);
 	}
+	
+	/**
+	 * <p>Retrieves the integer resource value for the given {@code int} ID. This is a 
+	 * convenience method for {@link Context#getResources()#getInteger(int)}.</p>
+	 * 
+	 * @param id
+	 * 			the {@code int} ID of the integer resource
+	 * 
+	 * @since 1.1.1
+	 */
+	public static int integer(int id) {
+		
+		return resources.getInteger(id);
+	}
 }
@@ -0,0 +1,101 @@
+package com.lonepulse.travisjr.util;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>A shared pool of the low-cardinality strings which recur across models, such as the 
+ * <i>state</i>, <i>branch</i> and <i>event type</i> of each build or the language of each 
+ * repository. Models keep the pooled instance of such a value in place of the copy which was 
+ * deserialized, so that hundreds of builds share a handful of strings and values which were 
+ * pooled can be compared by identity.</p>
+ * 
+ * <p>The pool is bounded; once it is full, values which are not already pooled are returned 
+ * as they are.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class StringPool {
+	
+
+	/**
+	 * <p>The maximum number of distinct values which are pooled.</p>
+	 */
+	private static final int CAPACITY = 512;
+
+	/**
+	 * <p>The longest value which is pooled; longer values are unlikely to recur.</p>
+	 */
+	private static final int MAX_LENGTH = 64;
+
+	/**
+	 * <p>The pooled values, each of which maps to itself.</p>
+	 */
+	private static final ConcurrentMap<String, String> POOL = new ConcurrentHashMap<String, String>();
+
+
+	/**
+	 * <p>Constructor visibility restricted. Instantiation is nonsensical.</p>
+	 */
+	private StringPool() {}
+
+	/**
+	 * <p>Retrieves the pooled instance of the given value, pooling it if it is not already.</p>
+	 * 
+	 * @param value
+	 * 			the value to be pooled, which may be {@code null}
+	 * 
+	 * @return the pooled instance which is equal to the given value, else the value itself 
+	 * 		   if it is {@code null}, too long or the pool is full
+	 * 
+	 * @since 1.1.0
+	 */
+	public static String intern(String value) {
+		
+		if(value == null || value.length() > MAX_LENGTH) {
+			
+			return value;
+		}
+		
+		String pooled = POOL.get(value);
+		
+		if(pooled != null) {
+			
+			return pooled;
+		}
+		
+		if(POOL.size() >= CAPACITY) {
+			
+			return value;
+		}
+		
+		pooled = POOL.putIfAbsent(value, value);
+		
+		return (pooled == null)? value :pooled;
+	}
+}
@@ -0,0 +1,169 @@
+package com.lonepulse.travisjr.util;
+
+/*
+ * #%L
+ * Travis Jr.
+ * %%
+ * Copyright (C) 2013 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+/**
+ * <p>An ISO8601 timestamp which is parsed once into milliseconds since the epoch. Each of its 
+ * display strings is formatted on first use and cached thereafter, so that list items which 
+ * are bound repeatedly do not format the same instant over and over.</p>
+ * 
+ * <p>Instances are immutable apart from these caches; since a cached string is always the same 
+ * for a given instant, concurrent first uses at worst format it more than once.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @since 1.1.0
+ * <br><br>
+ * @author <a href="mailto:lahiru@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class Timestamp implements Comparable<Timestamp> {
+	
+
+	/**
+	 * <p>The instant in milliseconds since the epoch, else {@link DateUtils#NO_TIMESTAMP}.</p>
+	 */
+	private final long millis;
+
+	private String time;
+	private String date;
+	private String monthDay;
+	private String year;
+
+
+	/**
+	 * <p>Creates a new {@link Timestamp} by parsing the given ISO8601 timestamp.</p>
+	 * 
+	 * @param iso8601Timestamp
+	 * 			the ISO8601 timestamp, which may be {@code null} or malformed
+	 * 
+	 * @since 1.1.0
+	 */
+	public Timestamp(String iso8601Timestamp) {
+		
+		this.millis = DateUtils.parseISO8601(iso8601Timestamp);
+	}
+
+	/**
+	 * <p>Retrieves the instant of this timestamp.</p>
+	 * 
+	 * @return the milliseconds since the epoch, else {@link DateUtils#NO_TIMESTAMP} if the 
+	 * 		   timestamp was absent or malformed
+	 * 
+	 * @since 1.1.0
+	 */
+	public long getMillis() {
+		
+		return millis;
+	}
+
+	/**
+	 * <p>Determines whether this timestamp holds a valid instant.</p>
+	 * 
+	 * @return {@code true} if the timestamp was parsed successfully
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isAvailable() {
+		
+		return millis != DateUtils.NO_TIMESTAMP;
+	}
+
+	/**
+	 * <p>See {@link DateUtils#formatTimeForDisplay(long)}.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getTime() {
+		
+		String time = this.time;
+		
+		if(time == null) {
+			
+			this.time = time = DateUtils.formatTimeForDisplay(millis);
+		}
+		
+		return time;
+	}
+
+	/**
+	 * <p>See {@link DateUtils#formatDateForDisplay(long)}.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getDate() {
+		
+		String date = this.date;
+		
+		if(date == null) {
+			
+			this.date = date = DateUtils.formatDateForDisplay(millis);
+		}
+		
+		return date;
+	}
+
+	/**
+	 * <p>See {@link DateUtils#formatMonthDayForDisplay(long)}.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getMonthDay() {
+		
+		String monthDay = this.monthDay;
+		
+		if(monthDay == null) {
+			
+			this.monthDay = monthDay = DateUtils.formatMonthDayForDisplay(millis);
+		}
+		
+		return monthDay;
+	}
+
+	/**
+	 * <p>See {@link DateUtils#formatYearForDisplay(long)}.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getYear() {
+		
+		String year = this.year;
+		
+		if(year == null) {
+			
+			this.year = year = DateUtils.formatYearForDisplay(millis);
+		}
+		
+		return year;
+	}
+
+	/**
+	 * <p>Orders timestamps from the most recent to the least recent, placing those which are 
+	 * unavailable last.</p>
+	 */
+	@Override
+	public int compareTo(Timestamp another) {
+		
+		if(another == null) return -1;
+		
+		return (another.millis < millis)? -1 :(another.millis == millis)? 0 :1;
+	}
+}